@@ -94,6 +94,22 @@ public class AnalyzerModuleConfig extends ModuleConfig {
     @Setter
     private String meterAnalyzerActiveFiles = Const.EMPTY_STRING;
 
+    /**
+     * The series of the MAL counter window, used by increase/rate/irate, is evicted if there is no new sample in this
+     * period. Unit, minute.
+     */
+    @Setter
+    @Getter
+    private int meterCounterWindowIdleTimeout = 15;
+
+    /**
+     * The max number of series kept in the MAL counter window. The increase of the new series out of the limit is
+     * always zero, until the idle series are evicted.
+     */
+    @Setter
+    @Getter
+    private int meterCounterWindowMaxSeries = 1_000_000;
+
     /**
      * Sample the trace segment if the segment has span(s) tagged as error status, and ignore the sampleRate
      * configuration.
@@ -18,15 +18,21 @@
 
 package org.apache.skywalking.oap.server.analyzer.provider.meter.process;
 
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.skywalking.oap.meter.analyzer.MetricConvert;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfig;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Management all of the meter builders.
  */
@@ -34,6 +40,10 @@ public class MeterProcessService implements IMeterProcessService {
 
     private final ModuleManager manager;
     private List<MetricConvert> metricConverts;
+    /**
+     * The converters indexed by the names of the samples referred by their rules, in the order of the rules.
+     */
+    private Map<String, List<MetricConvert>> index;
 
     public MeterProcessService(ModuleManager manager) {
         this.manager = manager;
@@ -42,6 +52,11 @@ public class MeterProcessService implements IMeterProcessService {
     public void start(List<MeterConfig> configs) {
         final MeterSystem meterSystem = manager.find(CoreModule.NAME).provider().getService(MeterSystem.class);
         this.metricConverts = configs.stream().map(c -> new MetricConvert(c, meterSystem)).collect(Collectors.toList());
+        final Map<String, List<MetricConvert>> index = new HashMap<>();
+        metricConverts.forEach(convert -> convert.getSampleNames().forEach(
+            name -> index.computeIfAbsent(name, k -> new ArrayList<>()).add(convert)));
+        this.index = new HashMap<>(index.size());
+        index.forEach((name, list) -> this.index.put(name, ImmutableList.copyOf(list)));
     }
 
     /**
@@ -59,4 +74,34 @@ public class MeterProcessService implements IMeterProcessService {
         return metricConverts;
     }
 
+    /**
+     * @return true if any rule refers to the meter of the given name.
+     */
+    public boolean isReferred(String meterName) {
+        return index != null && index.containsKey(meterName);
+    }
+
+    /**
+     * @return the converters referring to any of the given meter names, each of which appears once.
+     */
+    public List<MetricConvert> route(Set<String> meterNames) {
+        if (meterNames.isEmpty() || index == null) {
+            return Collections.emptyList();
+        }
+        final Set<MetricConvert> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<MetricConvert> result = new ArrayList<>();
+        for (final String name : meterNames) {
+            final List<MetricConvert> candidates = index.get(name);
+            if (candidates == null) {
+                continue;
+            }
+            for (final MetricConvert candidate : candidates) {
+                if (matched.add(candidate)) {
+                    result.add(candidate);
+                }
+            }
+        }
+        return result;
+    }
+
 }
@@ -30,6 +30,7 @@ import org.apache.skywalking.oap.server.library.util.StringUtil;
 import org.apache.skywalking.oap.meter.analyzer.MetricConvert;
 import org.apache.skywalking.oap.meter.analyzer.dsl.HistogramType;
 import org.apache.skywalking.oap.meter.analyzer.dsl.Sample;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
 import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamilyBuilder;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 
@@ -38,7 +39,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 
@@ -90,16 +90,15 @@ public class MeterProcessor {
                 break;
             case HISTOGRAM:
                 MeterHistogram histogram = data.getHistogram();
-                Map<String, String> baseLabel = histogram.getLabelsList().stream().collect(Collectors.toMap(Label::getName, Label::getValue));
-                meters.computeIfAbsent(histogram.getName(), k -> new ArrayList<>())
-                    .addAll(histogram.getValuesList().stream().map(v ->
-                        SampleBuilder.builder()
-                            .name(histogram.getName())
-                            .labels(ImmutableMap.<String, String>builder()
-                                .putAll(baseLabel)
-                                .put("le", parseHistogramBucket(v)).build())
-                            .value(v.getCount()).build()
-                ).collect(Collectors.toList()));
+                ImmutableMap<String, String> baseLabel = histogram.getLabelsList().stream().collect(toImmutableMap(Label::getName, Label::getValue));
+                List<SampleBuilder> buckets = meters.computeIfAbsent(histogram.getName(), k -> new ArrayList<>());
+                for (MeterBucketValue v : histogram.getValuesList()) {
+                    buckets.add(SampleBuilder.builder()
+                        .name(histogram.getName())
+                        .labels(baseLabel)
+                        .bucket(parseHistogramBucket(v))
+                        .value(v.getCount()).build());
+                }
                 break;
             default:
                 return;
@@ -126,19 +125,30 @@ public class MeterProcessor {
             return;
         }
 
-        // Get all meter builders.
-        final List<MetricConvert> converts = processService.converts();
+        // Get the meter builders referring to the read meters.
+        final List<MetricConvert> converts = processService.route(meters.keySet());
         if (CollectionUtils.isEmpty(converts)) {
             return;
         }
 
         try {
-            converts.forEach(convert -> convert.toMeter(meters.entrySet().stream().collect(toImmutableMap(
-                Map.Entry::getKey,
-                v -> SampleFamilyBuilder.newBuilder(
-                    v.getValue().stream().map(s -> s.build(service, serviceInstance, timestamp)).toArray(Sample[]::new)
-                ).histogramType(HistogramType.ORDINARY).defaultHistogramBucketUnit(TimeUnit.MILLISECONDS).build()
-            ))));
+            // Build the sample families once for all the converters, the meters not referred by any rule are ignored.
+            final ImmutableMap.Builder<String, SampleFamily> families = ImmutableMap.builder();
+            meters.forEach((name, builders) -> {
+                if (!processService.isReferred(name)) {
+                    return;
+                }
+                final Sample[] samples = new Sample[builders.size()];
+                for (int i = 0; i < samples.length; i++) {
+                    samples[i] = builders.get(i).build(service, serviceInstance, timestamp);
+                }
+                families.put(name, SampleFamilyBuilder.newBuilder(samples)
+                    .histogramType(HistogramType.ORDINARY)
+                    .defaultHistogramBucketUnit(TimeUnit.MILLISECONDS)
+                    .build());
+            });
+            final ImmutableMap<String, SampleFamily> sampleFamilies = families.build();
+            converts.forEach(convert -> convert.toMeter(sampleFamilies));
         } catch (Exception e) {
             log.warn("Process meters failure.", e);
         }
@@ -29,15 +29,26 @@ import org.apache.skywalking.oap.meter.analyzer.dsl.Sample;
 public class SampleBuilder {
 
     final String name;
+    /**
+     * The original labels, shared by all the buckets of the same histogram.
+     */
     final ImmutableMap<String, String> labels;
+    /**
+     * The bucket of the histogram, put as the label "le", null for the single value.
+     */
+    final String bucket;
     final double value;
 
     public Sample build(String service, String instance, long timestamp) {
+        final ImmutableMap.Builder<String, String> builder = ImmutableMap.<String, String>builder()
+            // Put original labels
+            .putAll(labels);
+        if (bucket != null) {
+            builder.put("le", bucket);
+        }
         return Sample.builder()
             .name(name)
-            .labels(ImmutableMap.<String, String>builder()
-                // Put original labels
-                .putAll(labels)
+            .labels(builder
                 // Put report service and instance to labels
                 .put("service", service)
                 .put("instance", instance)
@@ -18,9 +18,11 @@
 
 package org.apache.skywalking.oap.server.analyzer.provider.meter.process;
 
+import org.apache.skywalking.apm.network.language.agent.v3.Label;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfigs;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -42,10 +44,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.mockito.junit.MockitoJUnitRunner;
 import org.powermock.reflect.Whitebox;
 
 import java.util.Arrays;
@@ -58,39 +57,42 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@RunWith(MockitoJUnitRunner.class)
 public class MeterProcessorTest {
 
-    @Mock
-    private ModuleManager moduleManager;
-    private MeterSystem meterSystem;
+    private static MeterSystem METER_SYSTEM;
+    private static MeterProcessService PROCESS_SERVICE;
     private MeterProcessor processor;
 
     private String service = "test-service";
     private String serviceInstance = "test-service-instance";
 
     @BeforeClass
-    public static void init() {
+    public static void init() throws StorageException, ModuleStartException {
         MeterEntity.setNamingControl(
                 new NamingControl(512, 512, 512, new EndpointNameGrouping()));
-    }
-
-    @Before
-    public void setup() throws StorageException, ModuleStartException {
-        meterSystem = spy(new MeterSystem(moduleManager));
-        when(moduleManager.find(anyString())).thenReturn(mock(ModuleProviderHolder.class));
-        when(moduleManager.find(CoreModule.NAME).provider()).thenReturn(mock(ModuleServiceHolder.class));
-        when(moduleManager.find(CoreModule.NAME).provider().getService(MeterSystem.class)).thenReturn(meterSystem);
         Whitebox.setInternalState(MetricsStreamProcessor.class, "PROCESSOR",
                 Mockito.spy(MetricsStreamProcessor.getInstance())
         );
         doNothing().when(MetricsStreamProcessor.getInstance()).create(any(), (StreamDefinition) any(), any());
-        final MeterProcessService processService = new MeterProcessService(moduleManager);
+        // The meters are created as the dynamic classes, which are created once.
+        final ModuleManager moduleManager = mock(ModuleManager.class);
+        METER_SYSTEM = spy(new MeterSystem(moduleManager));
+        when(moduleManager.find(anyString())).thenReturn(mock(ModuleProviderHolder.class));
+        when(moduleManager.find(CoreModule.NAME).provider()).thenReturn(mock(ModuleServiceHolder.class));
+        when(moduleManager.find(CoreModule.NAME).provider().getService(MeterSystem.class)).thenReturn(METER_SYSTEM);
+        PROCESS_SERVICE = new MeterProcessService(moduleManager);
         List<MeterConfig> config = MeterConfigs.loadConfig("meter-analyzer-config", Arrays.asList("config"));
-        processService.start(config);
-        processor = new MeterProcessor(processService);
+        PROCESS_SERVICE.start(config);
+    }
+
+    @Before
+    public void setup() {
+        Mockito.reset(METER_SYSTEM);
+        processor = new MeterProcessor(PROCESS_SERVICE);
     }
 
     @Test
@@ -101,7 +103,7 @@ public class MeterProcessorTest {
                 data.set(invocationOnMock.getArgument(0));
             }
             return null;
-        }).when(meterSystem).doStreamingCalculation(any());
+        }).when(METER_SYSTEM).doStreamingCalculation(any());
         processor.read(MeterData.newBuilder()
                         .setService(service)
                         .setServiceInstance(serviceInstance)
@@ -129,4 +131,29 @@ public class MeterProcessorTest {
         Assert.assertEquals(count, func.getCount());
     }
 
+    @Test
+    public void testProcessReferredMetersOnly() {
+        doNothing().when(METER_SYSTEM).doStreamingCalculation(any());
+        processor.read(MeterData.newBuilder()
+                        .setService(service)
+                        .setServiceInstance(serviceInstance)
+                        .setTimestamp(System.currentTimeMillis())
+                        .setSingleValue(MeterSingleValue.newBuilder()
+                                .setName("test_count1")
+                                .addLabels(Label.newBuilder().setName("k1").setValue("v1").build())
+                                .setValue(1)
+                                .build())
+                .build());
+        processor.read(MeterData.newBuilder()
+                        .setSingleValue(MeterSingleValue.newBuilder()
+                                .setName("test_unknown")
+                                .setValue(1)
+                                .build())
+                .build());
+        processor.process();
+
+        // only build_test1 refers to the reported meters
+        verify(METER_SYSTEM, times(1)).doStreamingCalculation(any());
+    }
+
 }
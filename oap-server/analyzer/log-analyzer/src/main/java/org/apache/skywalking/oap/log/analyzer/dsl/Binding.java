@@ -59,7 +59,12 @@ public class Binding extends groovy.lang.Binding {
         setProperty(KEY_ABORT, false);
         setProperty(KEY_METRICS_CONTAINER, null);
         setProperty(KEY_LOG_CONTAINER, null);
-        parsed().log = log;
+        // The binding may be reused for the next log, reset the parsed results of the previous one.
+        final Parsed parsed = parsed();
+        parsed.log = log;
+        parsed.matcher = null;
+        parsed.map = null;
+        parsed.extraLog = null;
         return this;
     }
 
@@ -104,9 +104,10 @@ public class FilterSpec extends AbstractSpec {
         final LogData.Builder logData = BINDING.get().log();
         try {
 
-            final Map<String, Object> parsed = jsonParser.create().readValue(
-                logData.getBody().getJson().getJson(), parsedType
-            );
+            final String json = logData.getBody().getJson().getJson();
+            final Map<String, Object> parsed = jsonParser.fields() == null
+                ? jsonParser.create().readValue(json, parsedType)
+                : jsonParser.project(json);
 
             BINDING.get().parsed(parsed);
         } catch (final Exception e) {
@@ -18,13 +18,27 @@
 
 package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
 public class JsonParserSpec extends AbstractParserSpec {
     private final ObjectMapper mapper;
 
+    /**
+     * The top level keys of the JSON logs referenced by the LAL script, or null if all of them should be parsed.
+     */
+    private volatile Set<String> fields;
+
     public JsonParserSpec(final ModuleManager moduleManager,
                           final LogAnalyzerModuleConfig moduleConfig) {
         super(moduleManager, moduleConfig);
@@ -37,4 +51,44 @@ public class JsonParserSpec extends AbstractParserSpec {
     public ObjectMapper create() {
         return mapper;
     }
+
+    /**
+     * Only parse the given top level keys of the JSON logs, the values of the other keys are skipped without being
+     * deserialized.
+     */
+    @SuppressWarnings("unused") // used in user LAL scripts
+    public void fields(final String... fields) {
+        final Set<String> current = this.fields;
+        if (current == null || current.size() != fields.length || !current.containsAll(Arrays.asList(fields))) {
+            this.fields = ImmutableSet.copyOf(fields);
+        }
+    }
+
+    public Set<String> fields() {
+        return fields;
+    }
+
+    /**
+     * Parse the JSON object by streaming, only the values of the {@link #fields()} are deserialized, and the parsing
+     * stops once all of them are found.
+     */
+    public Map<String, Object> project(final String json) throws IOException {
+        final Set<String> fields = this.fields;
+        final Map<String, Object> parsed = new HashMap<>(fields.size() * 2);
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The JSON log is not an object");
+            }
+            while (parsed.size() < fields.size() && parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if (fields.contains(name)) {
+                    parsed.put(name, mapper.readValue(parser, Object.class));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return parsed;
+    }
 }
@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
@@ -25,6 +27,14 @@ import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
 public class TextParserSpec extends AbstractParserSpec {
+    /**
+     * The regexps in the LAL scripts are mostly constants, but could be built from the log dynamically, so the number
+     * of the cached patterns is limited.
+     */
+    private static final int MAX_CACHED_PATTERNS = 64;
+
+    private final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+
     public TextParserSpec(final ModuleManager moduleManager,
                           final LogAnalyzerModuleConfig moduleConfig) {
         super(moduleManager, moduleConfig);
@@ -32,7 +42,14 @@ public class TextParserSpec extends AbstractParserSpec {
 
     @SuppressWarnings("unused")
     public void regexp(final String regexp) {
-        regexp(Pattern.compile(regexp));
+        Pattern pattern = patterns.get(regexp);
+        if (pattern == null) {
+            pattern = Pattern.compile(regexp);
+            if (patterns.size() < MAX_CACHED_PATTERNS) {
+                patterns.putIfAbsent(regexp, pattern);
+            }
+        }
+        regexp(pattern);
     }
 
     public void regexp(final Pattern pattern) {
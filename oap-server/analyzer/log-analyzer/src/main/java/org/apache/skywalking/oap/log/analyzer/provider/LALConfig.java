@@ -18,11 +18,28 @@
 
 package org.apache.skywalking.oap.log.analyzer.provider;
 
+import java.util.Map;
 import lombok.Data;
 
 @Data
 public class LALConfig {
     private String name;
 
+    /**
+     * The optional layer the logs should belong to, the logs without layer are treated as {@code GENERAL}. The rule is
+     * not evaluated for the logs of the other layers.
+     */
+    private String layer;
+
+    /**
+     * The optional service name the logs should be reported by.
+     */
+    private String service;
+
+    /**
+     * The optional tags the logs should have, all of them should match.
+     */
+    private Map<String, String> tags;
+
     private String dsl;
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.provider.log.listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.oap.log.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.log.analyzer.provider.LALConfig;
+import org.apache.skywalking.oap.server.core.analysis.Layer;
+import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.apache.skywalking.oap.server.library.util.StringUtil;
+
+/**
+ * LALRuleIndex routes the logs to the candidate rules by the pre-conditions declared in the {@link LALConfig}, so the
+ * rules of the other layers are not evaluated at all. The candidates of every layer are resolved once, in the
+ * declaration order of the rules, while the service and tags conditions are only checked for the rules declaring
+ * them.
+ */
+class LALRuleIndex {
+    private final Map<String, List<Rule>> layerRules;
+
+    private final List<Rule> anyLayerRules;
+
+    LALRuleIndex(final List<Rule> rules) {
+        anyLayerRules = new ArrayList<>();
+        final Map<String, List<Rule>> byLayer = new HashMap<>();
+        for (final Rule rule : rules) {
+            if (rule.layer == null) {
+                anyLayerRules.add(rule);
+            } else {
+                byLayer.computeIfAbsent(rule.layer, k -> new ArrayList<>());
+            }
+        }
+        layerRules = new HashMap<>();
+        byLayer.keySet().forEach(layer -> {
+            final List<Rule> candidates = new ArrayList<>();
+            for (final Rule rule : rules) {
+                if (rule.layer == null || rule.layer.equals(layer)) {
+                    candidates.add(rule);
+                }
+            }
+            layerRules.put(layer, Collections.unmodifiableList(candidates));
+        });
+    }
+
+    /**
+     * @return the rules which may accept the log of the given layer, the service and tags conditions should be checked
+     * through {@link Rule#matches(LogData)} before evaluating.
+     */
+    List<Rule> candidates(final String layer) {
+        final String key = StringUtil.isEmpty(layer) ? Layer.GENERAL.name() : layer;
+        return layerRules.getOrDefault(key, anyLayerRules);
+    }
+
+    @RequiredArgsConstructor
+    static class Rule {
+        @Getter
+        private final DSL dsl;
+
+        private final String layer;
+
+        private final String service;
+
+        private final Map<String, String> tags;
+
+        static Rule of(final LALConfig config, final DSL dsl) {
+            return new Rule(
+                dsl,
+                StringUtil.isEmpty(config.getLayer()) ? null : config.getLayer(),
+                StringUtil.isEmpty(config.getService()) ? null : config.getService(),
+                CollectionUtils.isEmpty(config.getTags()) ? null : config.getTags()
+            );
+        }
+
+        boolean matches(final LogData log) {
+            if (service != null && !service.equals(log.getService())) {
+                return false;
+            }
+            if (tags == null) {
+                return true;
+            }
+            for (final Map.Entry<String, String> expected : tags.entrySet()) {
+                if (!hasTag(log, expected.getKey(), expected.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean hasTag(final LogData log, final String key, final String value) {
+            for (final KeyStringValuePair tag : log.getTags().getDataList()) {
+                if (tag.getKey().equals(key) && tag.getValue().equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -32,48 +32,78 @@ import org.apache.skywalking.oap.log.analyzer.provider.LALConfigs;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
+/**
+ * LogFilterListener evaluates the LAL rules whose pre-conditions match the log. The listener is reused by all the logs
+ * analyzed in the same thread, so the {@link Binding} is reset rather than created for every log and rule.
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class LogFilterListener implements LogAnalysisListener {
-    private final List<DSL> dsls;
+    private final LALRuleIndex index;
+
+    private final Binding binding = new Binding();
+
+    private LogData logData;
+
+    private Message extraLog;
 
     @Override
     public void build() {
-        dsls.forEach(dsl -> {
-            try {
-                dsl.evaluate();
-            } catch (final Exception e) {
-                log.warn("Failed to evaluate dsl: {}", dsl, e);
+        if (logData == null) {
+            return;
+        }
+        try {
+            for (final LALRuleIndex.Rule rule : index.candidates(logData.getLayer())) {
+                if (!rule.matches(logData)) {
+                    continue;
+                }
+                final DSL dsl = rule.getDsl();
+                try {
+                    // Every rule works on its own copy of the log, as the extractor changes it.
+                    dsl.bind(binding.log(logData.toBuilder()).extraLog(extraLog));
+                    dsl.evaluate();
+                } catch (final Exception e) {
+                    log.warn("Failed to evaluate dsl: {}", dsl, e);
+                }
             }
-        });
+        } finally {
+            logData = null;
+            extraLog = null;
+        }
     }
 
     @Override
     public LogAnalysisListener parse(final LogData.Builder logData,
                                      final Message extraLog) {
-        dsls.forEach(dsl -> dsl.bind(new Binding().log(logData.build())
-                                                  .extraLog(extraLog)));
+        this.logData = logData.build();
+        this.extraLog = extraLog;
         return this;
     }
 
     public static class Factory implements LogAnalysisListenerFactory {
-        private final List<DSL> dsls;
+        private final ThreadLocal<LogFilterListener> listener;
 
         public Factory(final ModuleManager moduleManager, final LogAnalyzerModuleConfig config) throws Exception {
-            dsls = new ArrayList<>();
+            this(moduleManager, config, LALConfigs.load(config.getLalPath(), config.lalFiles())
+                                                  .stream()
+                                                  .flatMap(it -> it.getRules().stream())
+                                                  .collect(Collectors.toList()));
+        }
 
-            final List<LALConfig> configList = LALConfigs.load(config.getLalPath(), config.lalFiles())
-                                                         .stream()
-                                                         .flatMap(it -> it.getRules().stream())
-                                                         .collect(Collectors.toList());
+        public Factory(final ModuleManager moduleManager,
+                       final LogAnalyzerModuleConfig config,
+                       final List<LALConfig> configList) throws Exception {
+            final List<LALRuleIndex.Rule> rules = new ArrayList<>();
             for (final LALConfig c : configList) {
-                dsls.add(DSL.of(moduleManager, config, c.getDsl()));
+                rules.add(LALRuleIndex.Rule.of(c, DSL.of(moduleManager, config, c.getDsl())));
             }
+            final LALRuleIndex index = new LALRuleIndex(rules);
+            listener = ThreadLocal.withInitial(() -> new LogFilterListener(index));
         }
 
         @Override
         public LogAnalysisListener create() {
-            return new LogFilterListener(dsls);
+            return listener.get();
         }
     }
 }
@@ -60,6 +60,22 @@ public class DSLTest {
                     "  }" +
                     "}",
                 },
+            new String[] {
+                "json-fields",
+                "filter {\n" +
+                    "  json {\n" +
+                    "    abortOnFailure false // for test purpose, we want to persist all logs\n" +
+                    "    fields 'level', 'traceId'\n" +
+                    "  }\n" +
+                    "  text {\n" +
+                    "    abortOnFailure false // for test purpose, we want to persist all logs\n" +
+                    "    regexp $/(?<level>\\w{4,}) (?<msg>.+)/$" +
+                    "  }\n" +
+                    "  extractor {\n" +
+                    "    tag level: parsed.level\n" +
+                    "  }\n" +
+                    "}",
+                },
             new String[] {
                 "extractor",
                 "filter {\n" +
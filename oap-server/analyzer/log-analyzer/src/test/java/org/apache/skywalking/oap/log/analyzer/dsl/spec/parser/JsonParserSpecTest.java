@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.Map;
+import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class JsonParserSpecTest {
+    private static final String JSON =
+        "{\"message\":\"checkout\",\"context\":{\"user\":{\"id\":\"u-42\"},\"items\":[1,2,3]},\"level\":\"INFO\","
+            + "\"code\":200,\"ratio\":0.5,\"error\":false,\"traceId\":null,\"tail\":\"ignored\"}";
+
+    private final JsonParserSpec spec = new JsonParserSpec(mock(ModuleManager.class), new LogAnalyzerModuleConfig());
+
+    @Test
+    public void testProjectedValuesEqualToFullParsing() throws Exception {
+        final Map<String, Object> all = spec.create().readValue(JSON, new TypeReference<Map<String, Object>>() {
+        });
+
+        spec.fields("level", "context", "code", "ratio", "error", "traceId", "absent");
+        final Map<String, Object> projected = spec.project(JSON);
+
+        Assert.assertEquals(6, projected.size());
+        for (final String field : new String[] {"level", "context", "code", "ratio", "error", "traceId"}) {
+            Assert.assertTrue(projected.containsKey(field));
+            Assert.assertEquals(all.get(field), projected.get(field));
+        }
+    }
+
+    @Test
+    public void testFieldsChanged() throws Exception {
+        spec.fields("level");
+        Assert.assertEquals(1, spec.project(JSON).size());
+
+        spec.fields("level", "code");
+        Assert.assertEquals(2, spec.project(JSON).size());
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testNotObject() throws Exception {
+        spec.fields("level");
+        spec.project("[\"level\"]");
+    }
+}
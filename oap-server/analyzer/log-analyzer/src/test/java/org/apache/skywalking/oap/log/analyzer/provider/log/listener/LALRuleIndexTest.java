@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.provider.log.listener;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogTags;
+import org.apache.skywalking.oap.log.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.log.analyzer.provider.LALConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class LALRuleIndexTest {
+    private final LALRuleIndex.Rule any = rule(null, null, null);
+    private final LALRuleIndex.Rule mesh = rule("MESH", null, null);
+    private final LALRuleIndex.Rule general = rule("GENERAL", null, null);
+    private final LALRuleIndex.Rule checkout = rule(null, "checkout", null);
+    private final LALRuleIndex.Rule error = rule(null, null, ImmutableMap.of("level", "ERROR"));
+
+    private final LALRuleIndex index = new LALRuleIndex(Arrays.asList(mesh, any, general, checkout, error));
+
+    @Test
+    public void testCandidatesOfLayer() {
+        Assert.assertEquals(Arrays.asList(mesh, any, checkout, error), index.candidates("MESH"));
+        Assert.assertEquals(Arrays.asList(any, general, checkout, error), index.candidates("GENERAL"));
+        Assert.assertEquals(Arrays.asList(any, general, checkout, error), index.candidates(""));
+        Assert.assertEquals(Arrays.asList(any, checkout, error), index.candidates("K8S"));
+    }
+
+    @Test
+    public void testMatchServiceAndTags() {
+        final LogData log = LogData.newBuilder()
+                                   .setService("checkout")
+                                   .setTags(LogTags.newBuilder().addData(
+                                       KeyStringValuePair.newBuilder().setKey("level").setValue("INFO")))
+                                   .build();
+        Assert.assertEquals(Arrays.asList(any, general, checkout), matched(log));
+
+        final LogData errorLog = log.toBuilder()
+                                    .setService("payment")
+                                    .setTags(LogTags.newBuilder().addData(
+                                        KeyStringValuePair.newBuilder().setKey("level").setValue("ERROR")))
+                                    .build();
+        Assert.assertEquals(Arrays.asList(any, general, error), matched(errorLog));
+    }
+
+    private List<LALRuleIndex.Rule> matched(final LogData log) {
+        return index.candidates(log.getLayer()).stream().filter(it -> it.matches(log)).collect(Collectors.toList());
+    }
+
+    private static LALRuleIndex.Rule rule(final String layer, final String service, final Map<String, String> tags) {
+        final LALConfig config = new LALConfig();
+        config.setLayer(layer);
+        config.setService(service);
+        config.setTags(tags);
+        return LALRuleIndex.Rule.of(config, mock(DSL.class));
+    }
+}
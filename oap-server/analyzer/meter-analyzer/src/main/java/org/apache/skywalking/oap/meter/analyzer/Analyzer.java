@@ -30,6 +30,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -94,6 +95,10 @@ public class Analyzer {
         return analyzer;
     }
 
+    /**
+     * The names of the samples referred by the expression.
+     */
+    @Getter
     private List<String> samples;
 
     private final String metricName;
@@ -154,6 +159,7 @@ public class Analyzer {
                     break;
                 case histogram:
                 case histogramPercentile:
+                case histogramPercentile2:
                     Stream.of(ss).map(s -> Tuple.of(composeGroup(s.getLabels(), k -> !Objects.equals("le", k)), s))
                           .collect(groupingBy(Tuple2::_1, mapping(Tuple2::_2, toList())))
                           .forEach((group, subSs) -> {
@@ -217,6 +223,8 @@ public class Analyzer {
         histogram("histogram"),
         // metrics is aggregated by histogram based percentile function.
         histogramPercentile("histogramPercentile"),
+        // metrics is aggregated by histogram based percentile function with the sketch.
+        histogramPercentile2("histogramPercentile2"),
         // metrics is aggregated by labeled function.
         labeled("labeled"),
         // metrics is aggregated by single value function.
@@ -229,7 +237,7 @@ public class Analyzer {
         this.samples = ctx.getSamples();
         if (ctx.isHistogram()) {
             if (ctx.getPercentiles() != null && ctx.getPercentiles().length > 0) {
-                metricType = MetricType.histogramPercentile;
+                metricType = ctx.isPercentileSketch() ? MetricType.histogramPercentile2 : MetricType.histogramPercentile;
                 this.percentiles = ctx.getPercentiles();
             } else {
                 metricType = MetricType.histogram;
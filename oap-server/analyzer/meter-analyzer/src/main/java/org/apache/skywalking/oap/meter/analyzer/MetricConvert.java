@@ -23,6 +23,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import io.vavr.control.Try;
 import java.util.List;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +36,7 @@ import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * MetricConvert converts {@link SampleFamily} collection to meter-system metrics, then store them to backend storage.
@@ -97,6 +99,14 @@ public class MetricConvert {
         }
     }
 
+    /**
+     * @return the names of the samples referred by all the rules, the {@link SampleFamily} collection without these
+     * names is ignored in {@link #toMeter(ImmutableMap)}.
+     */
+    public Set<String> getSampleNames() {
+        return analyzers.stream().flatMap(it -> it.getSamples().stream()).collect(toSet());
+    }
+
     private String formatMetricName(MetricRuleConfig rule, String meterRuleName) {
         StringJoiner metricName = new StringJoiner("_");
         metricName.add(rule.getMetricPrefix()).add(meterRuleName);
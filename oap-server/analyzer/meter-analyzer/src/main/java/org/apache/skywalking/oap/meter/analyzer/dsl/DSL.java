@@ -19,13 +19,14 @@
 package org.apache.skywalking.oap.meter.analyzer.dsl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import groovy.lang.Binding;
 import groovy.lang.GroovyShell;
 import groovy.util.DelegatingScript;
 import java.lang.reflect.Array;
 import java.util.List;
 import java.util.Map;
-
+import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.meter.analyzer.dsl.registry.ProcessRegistry;
 import org.apache.skywalking.oap.meter.analyzer.dsl.tagOpt.K8sRetagType;
 import org.apache.skywalking.oap.meter.analyzer.k8s.Kubernetes;
@@ -42,23 +43,57 @@ import org.codehaus.groovy.control.customizers.SecureASTCustomizer;
 /**
  * DSL combines methods to parse groovy based DSL expression.
  */
+@Slf4j
 public final class DSL {
+    private static final Map<String, Class<?>> IMPORTS = ImmutableMap.of(
+        "K8sRetagType", K8sRetagType.class,
+        "DetectPoint", DetectPoint.class,
+        "Layer", Layer.class,
+        "ProcessRegistry", ProcessRegistry.class,
+        "Kubernetes", Kubernetes.class
+    );
 
     /**
-     * Parse string literal to Expression object, which can be reused.
+     * Parse string literal to Expression object, which can be reused. The expression is compiled by {@link
+     * ExpressionCompiler} to run without the Groovy dynamic dispatch, or runs by the Groovy script if it uses the
+     * syntax not supported by the compiler.
      *
      * @param expression string literal represents the DSL expression.
      * @return Expression object could be executed.
      */
     public static Expression parse(final String expression) {
+        final CompilerConfiguration cc = compilerConfiguration();
+        try {
+            return new Expression(expression, ExpressionCompiler.compile(expression, IMPORTS, cc));
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug("\"{}\" is not compiled, run it by the Groovy script: {}", expression, e.getMessage());
+            }
+        }
+        return parseScript(expression, cc);
+    }
+
+    /**
+     * Parse string literal to Expression object running by the Groovy script, regardless of the compiler.
+     *
+     * @param expression string literal represents the DSL expression.
+     * @return Expression object could be executed.
+     */
+    public static Expression parseScript(final String expression) {
+        return parseScript(expression, compilerConfiguration());
+    }
+
+    private static Expression parseScript(final String expression, final CompilerConfiguration cc) {
+        GroovyShell sh = new GroovyShell(new Binding(), cc);
+        DelegatingScript script = (DelegatingScript) sh.parse(expression);
+        return new Expression(expression, script);
+    }
+
+    private static CompilerConfiguration compilerConfiguration() {
         CompilerConfiguration cc = new CompilerConfiguration();
         cc.setScriptBaseClass(DelegatingScript.class.getName());
         ImportCustomizer icz = new ImportCustomizer();
-        icz.addImport("K8sRetagType", K8sRetagType.class.getName());
-        icz.addImport("DetectPoint", DetectPoint.class.getName());
-        icz.addImport("Layer", Layer.class.getName());
-        icz.addImport("ProcessRegistry", ProcessRegistry.class.getName());
-        icz.addImport("Kubernetes", Kubernetes.class.getName());
+        IMPORTS.forEach((name, type) -> icz.addImport(name, type.getName()));
         cc.addCompilationCustomizers(icz);
 
         final SecureASTCustomizer secureASTCustomizer = new SecureASTCustomizer();
@@ -82,9 +117,6 @@ public final class DSL {
                          .add(Kubernetes.class)
                 .build());
         cc.addCompilationCustomizers(secureASTCustomizer);
-
-        GroovyShell sh = new GroovyShell(new Binding(), cc);
-        DelegatingScript script = (DelegatingScript) sh.parse(expression);
-        return new Expression(expression, script);
+        return cc;
     }
 }
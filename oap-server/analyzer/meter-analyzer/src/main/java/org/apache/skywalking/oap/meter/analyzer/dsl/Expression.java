@@ -40,12 +40,33 @@ public class Expression {
 
     private final DelegatingScript expression;
 
+    /**
+     * The compiled expression, or null if the expression runs by the Groovy script.
+     */
+    private final ExpressionCompiler.Operation compiled;
+
     public Expression(final String literal, final DelegatingScript expression) {
         this.literal = literal;
         this.expression = expression;
+        this.compiled = null;
         this.empower();
     }
 
+    Expression(final String literal, final ExpressionCompiler.Operation compiled) {
+        this.literal = literal;
+        this.expression = null;
+        this.compiled = compiled;
+        // The closures of the compiled expression are still Groovy scripts.
+        extendNumber(Number.class);
+    }
+
+    /**
+     * @return true if the expression is compiled by {@link ExpressionCompiler}, false if it runs by the Groovy script.
+     */
+    public boolean isCompiled() {
+        return compiled != null;
+    }
+
     /**
      * Parse the expression statically.
      *
@@ -75,7 +96,7 @@ public class Expression {
     public Result run(final Map<String, SampleFamily> sampleFamilies) {
         PROPERTY_REPOSITORY.set(sampleFamilies);
         try {
-            SampleFamily sf = (SampleFamily) expression.run();
+            SampleFamily sf = (SampleFamily) (compiled != null ? compiled.run() : expression.run());
             if (sf == SampleFamily.EMPTY) {
                 if (!ExpressionParsingContext.get().isPresent()) {
                     if (log.isDebugEnabled()) {
@@ -109,7 +130,7 @@ public class Expression {
 
     @RequiredArgsConstructor
     @SuppressWarnings("unused") // used in MAL expressions
-    private static class ExpressionDelegate extends GroovyObjectSupport {
+    static class ExpressionDelegate extends GroovyObjectSupport {
         public static final DownsamplingType AVG = DownsamplingType.AVG;
         public static final DownsamplingType SUM = DownsamplingType.SUM;
         public static final DownsamplingType LATEST = DownsamplingType.LATEST;
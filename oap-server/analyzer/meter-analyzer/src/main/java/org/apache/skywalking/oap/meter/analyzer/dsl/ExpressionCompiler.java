@@ -0,0 +1,537 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import groovy.lang.Binding;
+import groovy.lang.Closure;
+import groovy.lang.GroovyShell;
+import groovy.util.DelegatingScript;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.JavaVersion;
+import org.apache.commons.lang3.SystemUtils;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Expression.ExpressionDelegate;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.ListExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.UnaryMinusExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.runtime.typehandling.NumberMath;
+import org.codehaus.groovy.syntax.Types;
+
+/**
+ * ExpressionCompiler compiles a MAL expression into a generated class, which calls the {@link SampleFamily} methods
+ * directly rather than through the Groovy dynamic dispatch of a script.
+ *
+ * <ul>
+ *     <li>The expression is parsed by the Groovy parser only, and the methods are resolved by the argument types when
+ *     compiling.</li>
+ *     <li>The closures passed to the methods, e.g. {@code tag({tags -> ...})}, are Groovy closures created once.</li>
+ *     <li>The metrics, binary operations of the sample families and the numbers, method calls of the sample families
+ *     and the imported classes, lists, constants and {@code time()} are supported. The expression using the other
+ *     syntax is rejected by {@link UnsupportedExpressionException}, and run by the Groovy script.</li>
+ * </ul>
+ */
+final class ExpressionCompiler {
+    private static final String CLASS_NAME = ExpressionCompiler.class.getPackage().getName() + ".CompiledExpression";
+    private static final AtomicInteger CLASS_INDEX = new AtomicInteger();
+
+    private final String literal;
+    private final Map<String, Class<?>> imports;
+    private final CompilerConfiguration configuration;
+    private final ExpressionDelegate delegate;
+    private final int[] lineOffsets;
+    /**
+     * The values referred by the generated class, e.g. the strings, numbers, enums and closures.
+     */
+    private final List<Object> constants = new ArrayList<>();
+
+    private ExpressionCompiler(String literal, Map<String, Class<?>> imports, CompilerConfiguration configuration) {
+        this.literal = literal;
+        this.imports = imports;
+        this.configuration = configuration;
+        this.delegate = new ExpressionDelegate(literal);
+        final List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+        for (int i = 0; i < literal.length(); i++) {
+            if (literal.charAt(i) == '\n') {
+                offsets.add(i + 1);
+            }
+        }
+        this.lineOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @param imports the classes could be referred by the simple names.
+     * @return the operation evaluating the expression.
+     * @throws UnsupportedExpressionException if the expression uses the syntax not supported.
+     */
+    static Operation compile(String literal, Map<String, Class<?>> imports, CompilerConfiguration configuration) {
+        return new ExpressionCompiler(literal, imports, configuration).compile();
+    }
+
+    private Operation compile() {
+        final CompilationUnit unit = new CompilationUnit(configuration);
+        final SourceUnit source = unit.addSource("Expression.groovy", literal);
+        unit.compile(Phases.CONVERSION);
+        final ModuleNode module = source.getAST();
+        final List<Statement> statements = module.getStatementBlock().getStatements();
+        if (!module.getMethods().isEmpty() || statements.size() != 1
+            || !(statements.get(0) instanceof ExpressionStatement)) {
+            throw new UnsupportedExpressionException("only one expression statement is supported");
+        }
+        final Node node = compile(((ExpressionStatement) statements.get(0)).getExpression());
+        return generate(node.type == void.class ? "{" + node.code + "; return null;}" : "{return " + node.code + ";}");
+    }
+
+    /**
+     * Generate the class implementing {@link Operation}, whose fields are the delegate and the constants.
+     */
+    private Operation generate(String body) {
+        final ClassPool classPool = ClassPool.getDefault();
+        final String className = CLASS_NAME + CLASS_INDEX.incrementAndGet();
+        final CtClass operationClass = classPool.makeClass(className);
+        try {
+            operationClass.addInterface(classPool.get(Operation.class.getName()));
+            operationClass.addField(CtField.make(
+                "private final " + ExpressionDelegate.class.getName() + " delegate;", operationClass));
+            operationClass.addField(CtField.make(
+                "private final java.lang.Object[] constants;", operationClass));
+            operationClass.addConstructor(CtNewConstructor.make(
+                "public " + className.substring(className.lastIndexOf('.') + 1) + "("
+                    + ExpressionDelegate.class.getName() + " delegate, java.lang.Object[] constants) {"
+                    + "    this.delegate = delegate;"
+                    + "    this.constants = constants;"
+                    + "}", operationClass));
+            operationClass.addMethod(CtNewMethod.make("public java.lang.Object run() " + body, operationClass));
+
+            final Class<?> generated;
+            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
+                generated = operationClass.toClass(ExpressionCompiler.class.getClassLoader(), null);
+            } else {
+                generated = operationClass.toClass(ExpressionCompiler.class);
+            }
+            return (Operation) generated.getConstructor(ExpressionDelegate.class, Object[].class)
+                                        .newInstance(delegate, constants.toArray());
+        } catch (CannotCompileException | NotFoundException | ReflectiveOperationException e) {
+            throw new UnsupportedExpressionException("failed to generate the class: " + e.getMessage());
+        } finally {
+            operationClass.detach();
+        }
+    }
+
+    private Node compile(Expression expression) {
+        if (expression instanceof ConstantExpression) {
+            return constant(((ConstantExpression) expression).getValue());
+        }
+        if (expression instanceof VariableExpression) {
+            return variable(((VariableExpression) expression).getName());
+        }
+        if (expression instanceof PropertyExpression) {
+            return staticField((PropertyExpression) expression);
+        }
+        if (expression instanceof ListExpression) {
+            return list((ListExpression) expression);
+        }
+        if (expression instanceof ClosureExpression) {
+            return constant(closure(expression));
+        }
+        if (expression instanceof UnaryMinusExpression) {
+            return negative(compile(((UnaryMinusExpression) expression).getExpression()));
+        }
+        if (expression instanceof BinaryExpression) {
+            return binary((BinaryExpression) expression);
+        }
+        if (expression instanceof MethodCallExpression) {
+            return methodCall((MethodCallExpression) expression);
+        }
+        throw new UnsupportedExpressionException(expression.getText());
+    }
+
+    private Node constant(Object value) {
+        if (value == null) {
+            return new Node(Void.class, "null");
+        }
+        constants.add(value);
+        final Class<?> type = value instanceof Enum ? ((Enum<?>) value).getDeclaringClass()
+            : value instanceof Closure ? Closure.class : value.getClass();
+        return new Node(type, "constants[" + (constants.size() - 1) + "]");
+    }
+
+    private Node variable(String name) {
+        if ("this".equals(name) || "super".equals(name) || imports.containsKey(name)) {
+            throw new UnsupportedExpressionException(name);
+        }
+        try {
+            // The constants of the delegate, e.g. SUM of downsampling(SUM), take precedence over the metrics.
+            return constant(ExpressionDelegate.class.getField(name).get(null));
+        } catch (NoSuchFieldException e) {
+            return new Node(SampleFamily.class, "delegate.propertyMissing(" + constant(name).as(String.class) + ")");
+        } catch (IllegalAccessException e) {
+            throw new UnsupportedExpressionException(name);
+        }
+    }
+
+    private Node staticField(PropertyExpression expression) {
+        final Class<?> type = importedClass(expression.getObjectExpression());
+        final String name = expression.getPropertyAsString();
+        if (type == null || name == null || expression.isSafe() || expression.isSpreadSafe()) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        try {
+            return constant(type.getField(name).get(null));
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+    }
+
+    /**
+     * A new list every time like Groovy does, in case it is changed by the method receiving it.
+     */
+    private Node list(ListExpression expression) {
+        final StringJoiner elements = new StringJoiner(", ", "new java.lang.Object[] {", "}");
+        for (final Expression element : expression.getExpressions()) {
+            elements.add(compile(element).as(Object.class));
+        }
+        final String array = expression.getExpressions().isEmpty() ? "new java.lang.Object[0]" : elements.toString();
+        return new Node(List.class, ExpressionCompiler.class.getName() + ".list(" + array + ")");
+    }
+
+    /**
+     * Create the closure by a Groovy script of the closure literal, whose delegate is the same as the script of the
+     * whole expression.
+     */
+    private Closure<?> closure(Expression expression) {
+        if (expression.getLineNumber() < 1 || expression.getLastLineNumber() < 1) {
+            throw new UnsupportedExpressionException("closure without the source position");
+        }
+        final int start = lineOffsets[expression.getLineNumber() - 1] + expression.getColumnNumber() - 1;
+        final int end = lineOffsets[expression.getLastLineNumber() - 1] + expression.getLastColumnNumber() - 1;
+        final DelegatingScript script = (DelegatingScript) new GroovyShell(new Binding(), configuration).parse(
+            "return " + literal.substring(start, end));
+        script.setDelegate(delegate);
+        return (Closure<?>) script.run();
+    }
+
+    private Node negative(Node operand) {
+        if (operand.type == SampleFamily.class) {
+            return new Node(SampleFamily.class, operand.as(SampleFamily.class) + ".negative()");
+        }
+        if (operand.isNumber()) {
+            return new Node(Number.class, ExpressionCompiler.class.getName() + ".negative(" + operand.as(
+                Number.class) + ")");
+        }
+        throw new UnsupportedExpressionException("negative of " + operand.type);
+    }
+
+    private Node binary(BinaryExpression expression) {
+        final Node left = compile(expression.getLeftExpression());
+        final Node right = compile(expression.getRightExpression());
+        final Operator operator = Operator.of(expression.getOperation().getType());
+        if (operator == null) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        if (left.type == SampleFamily.class && (right.type == SampleFamily.class || right.isNumber())) {
+            return new Node(SampleFamily.class, left.as(SampleFamily.class) + "." + operator.sampleFamilyMethod
+                + "(" + right.as(right.type == SampleFamily.class ? SampleFamily.class : Number.class) + ")");
+        }
+        if (left.isNumber() && right.type == SampleFamily.class) {
+            return new Node(SampleFamily.class, ExpressionCompiler.class.getName() + "." + operator.sampleFamilyMethod
+                + "(" + left.as(Number.class) + ", " + right.as(SampleFamily.class) + ")");
+        }
+        if (left.isNumber() && right.isNumber()) {
+            return new Node(Number.class, NumberMath.class.getName() + "." + operator.numberMethod
+                + "(" + left.as(Number.class) + ", " + right.as(Number.class) + ")");
+        }
+        throw new UnsupportedExpressionException(expression.getText());
+    }
+
+    private Node methodCall(MethodCallExpression expression) {
+        final String name = expression.getMethodAsString();
+        if (name == null || expression.isSafe() || expression.isSpreadSafe()
+            || !(expression.getArguments() instanceof ArgumentListExpression)) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        final List<Node> arguments = new ArrayList<>();
+        ((ArgumentListExpression) expression.getArguments()).getExpressions()
+                                                            .forEach(argument -> arguments.add(compile(argument)));
+        if (expression.isImplicitThis()) {
+            if ("time".equals(name) && arguments.isEmpty()) {
+                return new Node(Number.class, "delegate.time()");
+            }
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        final Class<?> importedClass = importedClass(expression.getObjectExpression());
+        if (importedClass != null) {
+            final Method method = resolve(importedClass, name, true, arguments);
+            return invoke(method, importedClass.getName(), arguments);
+        }
+        final Node receiver = compile(expression.getObjectExpression());
+        if (receiver.type != SampleFamily.class) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        final Method method = resolve(SampleFamily.class, name, false, arguments);
+        return invoke(method, receiver.as(SampleFamily.class), arguments);
+    }
+
+    private Class<?> importedClass(Expression expression) {
+        if (expression instanceof VariableExpression) {
+            return imports.get(((VariableExpression) expression).getName());
+        }
+        return null;
+    }
+
+    /**
+     * @return the only public method accepting the argument types, the last array parameter accepts the variable
+     * arguments as Groovy does.
+     */
+    private static Method resolve(Class<?> type, String name, boolean isStatic, List<Node> arguments) {
+        Method resolved = null;
+        for (final Method method : type.getMethods()) {
+            if (!method.getName().equals(name) || Modifier.isStatic(method.getModifiers()) != isStatic
+                || !accepts(method.getParameterTypes(), arguments)) {
+                continue;
+            }
+            if (resolved != null) {
+                throw new UnsupportedExpressionException("ambiguous method " + name);
+            }
+            resolved = method;
+        }
+        if (resolved == null) {
+            throw new UnsupportedExpressionException("no method " + name + " of " + type.getSimpleName());
+        }
+        return resolved;
+    }
+
+    private static boolean accepts(Class<?>[] parameters, List<Node> arguments) {
+        if (!isVariable(parameters, arguments)) {
+            if (parameters.length != arguments.size()) {
+                return false;
+            }
+            for (int i = 0; i < parameters.length; i++) {
+                if (!accepts(parameters[i], arguments.get(i).type)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        final int fixed = parameters.length - 1;
+        if (arguments.size() < fixed) {
+            return false;
+        }
+        for (int i = 0; i < fixed; i++) {
+            if (!accepts(parameters[i], arguments.get(i).type)) {
+                return false;
+            }
+        }
+        final Class<?> componentType = parameters[fixed].getComponentType();
+        for (int i = fixed; i < arguments.size(); i++) {
+            if (!accepts(componentType, arguments.get(i).type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the arguments are passed to the last array parameter as the variable arguments, false if they
+     * are passed one by one. The arguments are never arrays in MAL.
+     */
+    private static boolean isVariable(Class<?>[] parameters, List<Node> arguments) {
+        final int last = parameters.length - 1;
+        if (last < 0 || !parameters[last].isArray()) {
+            return false;
+        }
+        return arguments.size() != parameters.length || arguments.get(last).type != Void.class;
+    }
+
+    private static boolean accepts(Class<?> parameter, Class<?> argument) {
+        if (parameter.isArray() || argument == void.class) {
+            return argument == Void.class && parameter.isArray();
+        }
+        if (argument == Void.class) {
+            return !parameter.isPrimitive();
+        }
+        if (parameter == double.class || parameter == float.class) {
+            return Number.class.isAssignableFrom(argument);
+        }
+        if (parameter == long.class) {
+            return argument == Long.class || argument == Integer.class;
+        }
+        if (parameter == int.class) {
+            return argument == Integer.class;
+        }
+        return !parameter.isPrimitive() && parameter.isAssignableFrom(argument);
+    }
+
+    private static Node invoke(Method method, String receiver, List<Node> arguments) {
+        final Class<?>[] parameters = method.getParameterTypes();
+        final StringJoiner values = new StringJoiner(", ", receiver + "." + method.getName() + "(", ")");
+        if (isVariable(parameters, arguments)) {
+            final int fixed = parameters.length - 1;
+            for (int i = 0; i < fixed; i++) {
+                values.add(arguments.get(i).as(parameters[i]));
+            }
+            final Class<?> componentType = parameters[fixed].getComponentType();
+            final StringJoiner array = new StringJoiner(", ", "new " + componentType.getName() + "[] {", "}");
+            for (int i = fixed; i < arguments.size(); i++) {
+                array.add(arguments.get(i).as(componentType));
+            }
+            values.add(arguments.size() == fixed ? "new " + componentType.getName() + "[0]" : array.toString());
+        } else {
+            for (int i = 0; i < parameters.length; i++) {
+                values.add(arguments.get(i).as(parameters[i]));
+            }
+        }
+        final Class<?> returnType = method.getReturnType();
+        if (returnType != void.class && returnType.isPrimitive()) {
+            // The primitive result is boxed, and never passed as the argument.
+            return new Node(Object.class, "($w) " + values);
+        }
+        return new Node(returnType, values.toString());
+    }
+
+    static List<Object> list(Object[] elements) {
+        return new ArrayList<>(Arrays.asList(elements));
+    }
+
+    static Number negative(Number number) {
+        return NumberMath.subtract(0, number);
+    }
+
+    /*
+     * The binary operations with the number on the left of a sample family, the same as the extension of Number in
+     * the Groovy script.
+     */
+
+    static SampleFamily plus(Number left, SampleFamily right) {
+        return right.plus(left);
+    }
+
+    static SampleFamily minus(Number left, SampleFamily right) {
+        return right.minus(left).negative();
+    }
+
+    static SampleFamily multiply(Number left, SampleFamily right) {
+        return right.multiply(left);
+    }
+
+    static SampleFamily div(Number left, SampleFamily right) {
+        return right.newValue(v -> left.doubleValue() / v);
+    }
+
+    /**
+     * Operation is implemented by the generated class of an expression.
+     */
+    public interface Operation {
+        Object run();
+    }
+
+    /**
+     * The source code of the generated class evaluating a part of the expression, and the type of its result known
+     * when compiling.
+     */
+    @RequiredArgsConstructor
+    private static class Node {
+        private final Class<?> type;
+        private final String code;
+
+        private boolean isNumber() {
+            return Number.class.isAssignableFrom(type);
+        }
+
+        /**
+         * @return the code converting the result to the parameter type.
+         */
+        private String as(Class<?> parameter) {
+            if (parameter == double.class || parameter == float.class || parameter == long.class
+                || parameter == int.class) {
+                return "((java.lang.Number) " + code + ")." + parameter.getName() + "Value()";
+            }
+            if (parameter == SampleFamily.class && type == SampleFamily.class) {
+                return code;
+            }
+            return "((" + parameter.getName() + ") " + code + ")";
+        }
+    }
+
+    @RequiredArgsConstructor
+    private enum Operator {
+        PLUS(Types.PLUS, "plus", "add"),
+        MINUS(Types.MINUS, "minus", "subtract"),
+        MULTIPLY(Types.MULTIPLY, "multiply", "multiply"),
+        DIVIDE(Types.DIVIDE, "div", "divide");
+
+        private final int type;
+        /**
+         * The method of {@link SampleFamily} and the static one of {@link ExpressionCompiler} for the number on the
+         * left.
+         */
+        private final String sampleFamilyMethod;
+        /**
+         * The method of {@link NumberMath}.
+         */
+        private final String numberMethod;
+
+        private static Operator of(int type) {
+            for (final Operator operator : values()) {
+                if (operator.type == type) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * UnsupportedExpressionException is thrown when the expression could not be compiled, and should run by the
+     * Groovy script.
+     */
+    static class UnsupportedExpressionException extends RuntimeException {
+        UnsupportedExpressionException(String message) {
+            super(message);
+        }
+    }
+}
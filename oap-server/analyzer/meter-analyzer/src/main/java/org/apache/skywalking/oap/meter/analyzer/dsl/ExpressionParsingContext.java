@@ -63,6 +63,8 @@ public class ExpressionParsingContext implements Closeable {
     boolean isHistogram;
     int[] percentiles;
 
+    boolean isPercentileSketch;
+
     Set<String> aggregationLabels;
 
     Set<String> scopeLabels;
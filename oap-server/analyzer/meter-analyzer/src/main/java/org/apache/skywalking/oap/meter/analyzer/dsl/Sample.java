@@ -21,8 +21,7 @@ package org.apache.skywalking.oap.meter.analyzer.dsl;
 import com.google.common.collect.ImmutableMap;
 import io.vavr.Function2;
 import io.vavr.Tuple2;
-import java.time.Duration;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -42,19 +41,25 @@ public class Sample {
     final double value;
     final long timestamp;
 
-    Sample newValue(Function<Double, Double> transform) {
-        return toBuilder().value(transform.apply(value)).build();
+    Sample newValue(double newValue) {
+        return new Sample(name, labels, newValue, timestamp);
     }
 
-    Sample increase(String range, Function2<Double, Long, Double> transform) {
-        Tuple2<Long, Double> i = CounterWindow.INSTANCE.increase(name, labels, value, Duration.parse(range).toMillis(), timestamp);
-        double nv = transform.apply(i._2, i._1);
-        return newValue(ignored -> nv);
+    Sample newValue(DoubleUnaryOperator transform) {
+        return newValue(transform.applyAsDouble(value));
+    }
+
+    Sample newLabels(ImmutableMap<String, String> newLabels) {
+        return new Sample(name, newLabels, value, timestamp);
+    }
+
+    Sample increase(long rangeMillis, Function2<Double, Long, Double> transform) {
+        Tuple2<Long, Double> i = CounterWindow.INSTANCE.increase(name, labels, value, rangeMillis, timestamp);
+        return newValue(transform.apply(i._2, i._1));
     }
 
     Sample increase(Function2<Double, Long, Double> transform) {
         Tuple2<Long, Double> i = CounterWindow.INSTANCE.pop(name, labels, value, timestamp);
-        double nv = transform.apply(i._2, i._1);
-        return newValue(ignored -> nv);
+        return newValue(transform.apply(i._2, i._1));
     }
 }
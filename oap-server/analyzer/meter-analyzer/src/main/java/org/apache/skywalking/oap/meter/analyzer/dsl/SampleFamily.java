@@ -18,12 +18,6 @@
 
 package org.apache.skywalking.oap.meter.analyzer.dsl;
 
-import static java.util.function.UnaryOperator.identity;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
-
 import org.apache.commons.lang3.StringUtils;
 import org.apache.skywalking.oap.meter.analyzer.dsl.EntityDescription.EndpointEntityDescription;
 import org.apache.skywalking.oap.meter.analyzer.dsl.EntityDescription.EntityDescription;
@@ -38,10 +32,13 @@ import org.apache.skywalking.oap.server.core.analysis.Layer;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
 import org.apache.skywalking.oap.server.core.analysis.meter.ScopeType;
 import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -49,7 +46,10 @@ import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import com.google.common.base.Preconditions;
@@ -83,7 +83,7 @@ public class SampleFamily {
     static SampleFamily build(RunningContext ctx, Sample... samples) {
         Preconditions.checkNotNull(samples);
         Preconditions.checkArgument(samples.length > 0);
-        samples = Arrays.stream(samples).filter(sample -> !Double.isNaN(sample.getValue())).toArray(Sample[]::new);
+        samples = InternalOps.dropNaN(samples);
         if (samples.length == 0) {
             return EMPTY;
         }
@@ -100,19 +100,25 @@ public class SampleFamily {
 
     /* tag filter operations*/
     public SampleFamily tagEqual(String... labels) {
-        return match(labels, InternalOps::stringComp);
+        return match(labels, lv -> sv -> InternalOps.stringComp(sv, lv));
     }
 
     public SampleFamily tagNotEqual(String[] labels) {
-        return match(labels, (sv, lv) -> !InternalOps.stringComp(sv, lv));
+        return match(labels, lv -> sv -> !InternalOps.stringComp(sv, lv));
     }
 
     public SampleFamily tagMatch(String[] labels) {
-        return match(labels, String::matches);
+        return match(labels, lv -> {
+            final Pattern pattern = Pattern.compile(lv);
+            return sv -> pattern.matcher(sv).matches();
+        });
     }
 
     public SampleFamily tagNotMatch(String[] labels) {
-        return match(labels, (sv, lv) -> !sv.matches(lv));
+        return match(labels, lv -> {
+            final Pattern pattern = Pattern.compile(lv);
+            return sv -> !pattern.matcher(sv).matches();
+        });
     }
 
     /* value filter operations*/
@@ -230,16 +236,7 @@ public class SampleFamily {
 
         return SampleFamily.build(
             this.context,
-            Arrays.stream(samples)
-                  .collect(groupingBy(it -> InternalOps.getLabels(by, it), mapping(identity(), toList())))
-                  .entrySet().stream()
-                  .map(entry -> InternalOps.newSample(
-                      entry.getValue().get(0).getName(),
-                      entry.getKey(),
-                      entry.getValue().get(0).getTimestamp(),
-                      entry.getValue().stream().mapToDouble(Sample::getValue).average().orElse(0.0D)
-                  ))
-                  .toArray(Sample[]::new)
+            InternalOps.groupBy(samples, by, Double::sum, (sum, count) -> sum / count)
         );
     }
 
@@ -249,22 +246,16 @@ public class SampleFamily {
             return EMPTY;
         }
         if (by == null) {
-            double result = Arrays.stream(samples).mapToDouble(s -> s.value).reduce(aggregator).orElse(0.0D);
+            double result = samples[0].value;
+            for (int i = 1; i < samples.length; i++) {
+                result = aggregator.applyAsDouble(result, samples[i].value);
+            }
             return SampleFamily.build(
                 this.context, InternalOps.newSample(samples[0].name, ImmutableMap.of(), samples[0].timestamp, result));
         }
         return SampleFamily.build(
             this.context,
-            Arrays.stream(samples)
-                  .collect(groupingBy(it -> InternalOps.getLabels(by, it), mapping(identity(), toList())))
-                  .entrySet().stream()
-                  .map(entry -> InternalOps.newSample(
-                      entry.getValue().get(0).getName(),
-                      entry.getKey(),
-                      entry.getValue().get(0).getTimestamp(),
-                      entry.getValue().stream().mapToDouble(Sample::getValue).reduce(aggregator).orElse(0.0D)
-                  ))
-                  .toArray(Sample[]::new)
+            InternalOps.groupBy(samples, by, aggregator, (result, count) -> result)
         );
     }
 
@@ -274,12 +265,13 @@ public class SampleFamily {
         if (this == EMPTY) {
             return EMPTY;
         }
-        return SampleFamily.build(
-            this.context,
-            Arrays.stream(samples)
-                  .map(sample -> sample.increase(range, (lowerBoundValue, unused) -> sample.value - lowerBoundValue))
-                  .toArray(Sample[]::new)
-        );
+        final long rangeMillis = Duration.parse(range).toMillis();
+        final Sample[] ss = new Sample[samples.length];
+        for (int i = 0; i < ss.length; i++) {
+            final Sample sample = samples[i];
+            ss[i] = sample.increase(rangeMillis, (lowerBoundValue, unused) -> sample.value - lowerBoundValue);
+        }
+        return SampleFamily.build(this.context, ss);
     }
 
     public SampleFamily rate(String range) {
@@ -287,18 +279,19 @@ public class SampleFamily {
         if (this == EMPTY) {
             return EMPTY;
         }
-        return SampleFamily.build(
-            this.context,
-            Arrays.stream(samples)
-                  .map(sample -> sample.increase(
-                      range,
-                      (lowerBoundValue, lowerBoundTime) -> {
-                          final long timeDiff = (sample.timestamp - lowerBoundTime) / 1000;
-                          return timeDiff < 1L ? 0.0 : (sample.value - lowerBoundValue) / timeDiff;
-                      }
-                  ))
-                  .toArray(Sample[]::new)
-        );
+        final long rangeMillis = Duration.parse(range).toMillis();
+        final Sample[] ss = new Sample[samples.length];
+        for (int i = 0; i < ss.length; i++) {
+            final Sample sample = samples[i];
+            ss[i] = sample.increase(
+                rangeMillis,
+                (lowerBoundValue, lowerBoundTime) -> {
+                    final long timeDiff = (sample.timestamp - lowerBoundTime) / 1000;
+                    return timeDiff < 1L ? 0.0 : (sample.value - lowerBoundValue) / timeDiff;
+                }
+            );
+        }
+        return SampleFamily.build(this.context, ss);
     }
 
     public SampleFamily irate() {
@@ -427,6 +420,22 @@ public class SampleFamily {
         return this;
     }
 
+    /**
+     * The same as {@link #histogram_percentile(List)}, while the buckets are counted in the sketch based functions,
+     * which are cheaper to merge and persist.
+     */
+    public SampleFamily histogram_percentile2(List<Integer> percentiles) {
+        Preconditions.checkArgument(percentiles.size() > 0);
+        int[] p = percentiles.stream().mapToInt(i -> i).toArray();
+        ExpressionParsingContext.get().ifPresent(ctx -> {
+            Preconditions.checkState(
+                ctx.isHistogram, "histogram() should be invoked before invoking histogram_percentile2()");
+            ctx.percentiles = p;
+            ctx.isPercentileSketch = true;
+        });
+        return this;
+    }
+
     public SampleFamily service(List<String> labelKeys, Layer layer) {
         Preconditions.checkArgument(labelKeys.size() > 0);
         ExpressionParsingContext.get().ifPresent(ctx -> {
@@ -534,37 +543,52 @@ public class SampleFamily {
     }
 
     private SampleFamily createMeterSamples(EntityDescription entityDescription) {
-        Map<MeterEntity, Sample[]> meterSamples = new HashMap<>();
-        Arrays.stream(samples)
-              .collect(groupingBy(it -> InternalOps.getLabels(entityDescription.getLabelKeys(), it),
-                                  mapping(identity(), toList())
-              ))
-              .forEach((labels, samples) -> {
-                  MeterEntity meterEntity = InternalOps.buildMeterEntity(samples, entityDescription);
-                  meterSamples.put(
-                      meterEntity, InternalOps.left(samples, entityDescription.getLabelKeys()));
-              });
+        final List<String> labelKeys = entityDescription.getLabelKeys();
+        final String[] keys = labelKeys.toArray(new String[0]);
+        final Map<ImmutableMap<String, String>, List<Sample>> groups = new HashMap<>();
+        for (final Sample sample : samples) {
+            groups.computeIfAbsent(InternalOps.getLabels(keys, sample), k -> new ArrayList<>()).add(sample);
+        }
+        Map<MeterEntity, Sample[]> meterSamples = Maps.newHashMapWithExpectedSize(groups.size());
+        groups.forEach((labels, samples) -> {
+            MeterEntity meterEntity = InternalOps.buildMeterEntity(samples, entityDescription);
+            meterSamples.put(meterEntity, InternalOps.left(samples, labelKeys));
+        });
 
         this.context.setMeterSamples(meterSamples);
         //This samples is original, The grouped samples is in context which mapping with MeterEntity
         return SampleFamily.build(this.context, samples);
     }
 
-    private SampleFamily match(String[] labels, Function2<String, String, Boolean> op) {
+    /**
+     * @param op creates the predicate of the sample label value from the expected value, which is created once per
+     *           operation rather than per sample, such as the compiled regular expression.
+     */
+    private SampleFamily match(String[] labels, Function<String, Predicate<String>> op) {
         Preconditions.checkArgument(labels.length % 2 == 0);
-        Map<String, String> ll = new HashMap<>(labels.length / 2);
+        Map<String, String> ll = new LinkedHashMap<>(labels.length);
         for (int i = 0; i < labels.length; i += 2) {
             ll.put(labels[i], labels[i + 1]);
         }
-        Sample[] ss = Arrays.stream(samples)
-                            .filter(sample -> ll.entrySet()
-                                                .stream()
-                                                .allMatch(
-                                                    entry -> op.apply(sample.labels.getOrDefault(entry.getKey(), ""),
-                                                                      entry.getValue()
-                                                    )))
-                            .toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+        final String[] keys = new String[ll.size()];
+        final List<Predicate<String>> predicates = new ArrayList<>(ll.size());
+        int k = 0;
+        for (final Map.Entry<String, String> entry : ll.entrySet()) {
+            keys[k++] = entry.getKey();
+            predicates.add(op.apply(entry.getValue()));
+        }
+        final Sample[] ss = new Sample[samples.length];
+        int n = 0;
+        for (final Sample sample : samples) {
+            boolean matched = true;
+            for (int i = 0; i < keys.length && matched; i++) {
+                matched = predicates.get(i).test(sample.labels.getOrDefault(keys[i], ""));
+            }
+            if (matched) {
+                ss[n++] = sample;
+            }
+        }
+        return n > 0 ? SampleFamily.build(this.context, n == ss.length ? ss : Arrays.copyOf(ss, n)) : EMPTY;
     }
 
     private SampleFamily valueMatch(CompType compType,
@@ -575,7 +599,7 @@ public class SampleFamily {
         return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
     }
 
-    SampleFamily newValue(Function<Double, Double> transform) {
+    SampleFamily newValue(DoubleUnaryOperator transform) {
         if (this == EMPTY) {
             return EMPTY;
         }
@@ -586,18 +610,24 @@ public class SampleFamily {
         return SampleFamily.build(this.context, ss);
     }
 
-    private SampleFamily newValue(SampleFamily another, Function2<Double, Double, Double> transform) {
-        Sample[] ss = Arrays.stream(samples)
-                            .flatMap(cs -> io.vavr.collection.Stream.of(another.samples)
-                                                                    .find(as -> cs.labels.equals(as.labels))
-                                                                    .map(as -> cs.toBuilder()
-                                                                                 .value(transform.apply(cs.value,
-                                                                                                        as.value
-                                                                                 )))
-                                                                    .map(Sample.SampleBuilder::build)
-                                                                    .toJavaStream())
-                            .toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+    /**
+     * Join the samples of both families by the labels, through a hash index of the other family. The first sample of
+     * the other family wins if there are samples with the same labels.
+     */
+    private SampleFamily newValue(SampleFamily another, DoubleBinaryOperator transform) {
+        final Map<ImmutableMap<String, String>, Sample> index = Maps.newHashMapWithExpectedSize(another.samples.length);
+        for (final Sample as : another.samples) {
+            index.putIfAbsent(as.labels, as);
+        }
+        final Sample[] ss = new Sample[samples.length];
+        int n = 0;
+        for (final Sample cs : samples) {
+            final Sample as = index.get(cs.labels);
+            if (as != null) {
+                ss[n++] = cs.newValue(transform.applyAsDouble(cs.value, as.value));
+            }
+        }
+        return n > 0 ? SampleFamily.build(this.context, n == ss.length ? ss : Arrays.copyOf(ss, n)) : EMPTY;
     }
 
     public SampleFamily downsampling(final DownsamplingType type) {
@@ -634,14 +664,84 @@ public class SampleFamily {
     private static class InternalOps {
 
         private static Sample[] left(List<Sample> samples, List<String> labelKeys) {
-            return samples.stream().map(s -> {
-                ImmutableMap<String, String> ll = ImmutableMap.<String, String>builder()
-                                                              .putAll(Maps.filterKeys(s.labels,
-                                                                                      key -> !labelKeys.contains(key)
-                                                              ))
-                                                              .build();
-                return s.toBuilder().labels(ll).build();
-            }).toArray(Sample[]::new);
+            final Sample[] result = new Sample[samples.size()];
+            for (int i = 0; i < result.length; i++) {
+                final Sample s = samples.get(i);
+                final ImmutableMap.Builder<String, String> ll = ImmutableMap.builder();
+                s.labels.forEach((key, value) -> {
+                    if (!labelKeys.contains(key)) {
+                        ll.put(key, value);
+                    }
+                });
+                result[i] = s.newLabels(ll.build());
+            }
+            return result;
+        }
+
+        /**
+         * @return the same array if there is no NaN value.
+         */
+        private static Sample[] dropNaN(Sample[] samples) {
+            int nan = 0;
+            for (final Sample sample : samples) {
+                if (Double.isNaN(sample.value)) {
+                    nan++;
+                }
+            }
+            if (nan == 0) {
+                return samples;
+            }
+            final Sample[] result = new Sample[samples.length - nan];
+            int n = 0;
+            for (final Sample sample : samples) {
+                if (!Double.isNaN(sample.value)) {
+                    result[n++] = sample;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return the given label keys and their values of the sample, the absent label is an empty string.
+         */
+        private static ImmutableMap<String, String> getLabels(String[] labelKeys, Sample sample) {
+            final ImmutableMap.Builder<String, String> labels = ImmutableMap.builderWithExpectedSize(labelKeys.length);
+            for (final String labelKey : labelKeys) {
+                labels.put(labelKey, sample.labels.getOrDefault(labelKey, ""));
+            }
+            return labels.build();
+        }
+
+        /**
+         * Group the samples by the given label keys in a single pass, the values of each group are reduced by the
+         * aggregator, and then finished with the count of samples in the group.
+         */
+        private static Sample[] groupBy(Sample[] samples,
+                                        List<String> by,
+                                        DoubleBinaryOperator aggregator,
+                                        Function2<Double, Integer, Double> finisher) {
+            final String[] keys = by.toArray(new String[0]);
+            final Map<ImmutableMap<String, String>, Group> groups = new HashMap<>();
+            for (final Sample sample : samples) {
+                final ImmutableMap<String, String> key = getLabels(keys, sample);
+                final Group group = groups.get(key);
+                if (group == null) {
+                    groups.put(key, new Group(sample));
+                } else {
+                    group.value = aggregator.applyAsDouble(group.value, sample.value);
+                    group.count++;
+                }
+            }
+            final Sample[] result = new Sample[groups.size()];
+            int i = 0;
+            for (final Map.Entry<ImmutableMap<String, String>, Group> entry : groups.entrySet()) {
+                final Sample first = entry.getValue().first;
+                result[i++] = newSample(
+                    first.name, entry.getKey(), first.timestamp,
+                    finisher.apply(entry.getValue().value, entry.getValue().count)
+                );
+            }
+            return result;
         }
 
         private static String dim(List<Sample> samples, List<String> labelKeys, String delimiter) {
@@ -749,12 +849,16 @@ public class SampleFamily {
             return false;
         }
 
-        private static ImmutableMap<String, String> getLabels(final List<String> labelKeys, final Sample sample) {
-            return labelKeys.stream()
-                            .collect(toImmutableMap(
-                                Function.identity(),
-                                labelKey -> sample.labels.getOrDefault(labelKey, "")
-                            ));
+        private static class Group {
+            private final Sample first;
+            private double value;
+            private int count;
+
+            private Group(Sample first) {
+                this.first = first;
+                this.value = first.value;
+                this.count = 1;
+            }
         }
     }
 
@@ -22,65 +22,237 @@ import com.google.common.collect.ImmutableMap;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.library.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
 
 /**
  * CounterWindow stores a series of counter samples in order to calculate the increase
  * or instant rate of increase.
  *
+ * The series are indexed by the metric name and then the labels, so looking up a series doesn't allocate a key for
+ * every sample. The series which is not accessed in {@link #idleTimeout} is evicted, such as the series of the removed
+ * pods, which is checked every half of the timeout by a background task once {@link #configure} is called. The number
+ * of the series is limited by {@link #maxSeries}, the new series out of the limit is not kept, and the increase of it
+ * is always zero.
  */
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-@ToString
-@EqualsAndHashCode
+@Slf4j
 public class CounterWindow {
+    private static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(15);
+    private static final int DEFAULT_MAX_SERIES = 1_000_000;
 
-    public static final CounterWindow INSTANCE = new CounterWindow();
+    public static final CounterWindow INSTANCE = new CounterWindow(
+        DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_SERIES, System::currentTimeMillis);
 
-    private final Map<ID, Tuple2<Long, Double>> lastElementMap = new ConcurrentHashMap<>();
-    private final Map<ID, Queue<Tuple2<Long, Double>>> windows = new ConcurrentHashMap<>();
+    /**
+     * The series keyed by the metric name and the labels. The map of a metric name is kept even if all its series are
+     * evicted, as the number of the metric names is bounded by the MAL rules.
+     */
+    private final Map<String, Map<ImmutableMap<String, String>, Series>> windows = new ConcurrentHashMap<>();
+    private final AtomicInteger seriesCount = new AtomicInteger();
+    private final AtomicBoolean warnedFull = new AtomicBoolean();
+    private final LongSupplier clock;
 
-    public Tuple2<Long, Double> increase(String name, ImmutableMap<String, String> labels, Double value, long windowSize, long now) {
-        ID id = new ID(name, labels);
-        Queue<Tuple2<Long, Double>> window = windows.computeIfAbsent(id, unused -> new PriorityQueue<>());
-        window.offer(Tuple.of(now, value));
-        long waterLevel = now - windowSize;
-        Tuple2<Long, Double> peek = window.peek();
-        if (peek._1 > waterLevel) {
-            return peek;
+    private volatile long idleTimeout;
+    private volatile int maxSeries;
+
+    private volatile GaugeMetrics seriesGauge;
+    private volatile CounterMetrics evictedCounter;
+    private volatile CounterMetrics rejectedCounter;
+
+    private ScheduledExecutorService evictionExecutor;
+    private ScheduledFuture<?> evictionTask;
+
+    CounterWindow(long idleTimeout, int maxSeries, LongSupplier clock) {
+        this.idleTimeout = idleTimeout;
+        this.maxSeries = maxSeries;
+        this.clock = clock;
+        initTelemetry(new MetricsCreatorNoop());
+    }
+
+    /**
+     * Apply the settings, and start the idle series eviction.
+     *
+     * @param idleTimeout in milliseconds, after which the series without any new sample is evicted.
+     * @param maxSeries   the max number of series kept in the window.
+     */
+    public synchronized void configure(long idleTimeout, int maxSeries, MetricsCreator metricsCreator) {
+        this.idleTimeout = idleTimeout;
+        this.maxSeries = maxSeries;
+        initTelemetry(metricsCreator);
+        seriesGauge.setValue(seriesCount.get());
+
+        if (evictionExecutor == null) {
+            evictionExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, "MAL-CounterWindow-Eviction");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
         }
+        final long period = Math.max(idleTimeout / 2, 1);
+        evictionTask = evictionExecutor.scheduleWithFixedDelay(
+            new RunnableWithExceptionProtection(
+                this::evictIdleSeries, t -> log.error("Failed to evict the idle series of the MAL counter window.", t)),
+            period, period, TimeUnit.MILLISECONDS
+        );
+    }
+
+    private void initTelemetry(MetricsCreator metricsCreator) {
+        seriesGauge = metricsCreator.createGauge(
+            "meter_counter_window_series", "The number of series in the MAL counter window",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        evictedCounter = metricsCreator.createCounter(
+            "meter_counter_window_evicted_series", "The number of idle series evicted from the MAL counter window",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        rejectedCounter = metricsCreator.createCounter(
+            "meter_counter_window_rejected_samples",
+            "The number of samples of the new series out of the MAL counter window limit",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    public Tuple2<Long, Double> increase(String name, ImmutableMap<String, String> labels, Double value, long windowSize, long now) {
+        while (true) {
+            final Series window = series(name, labels);
+            if (window == null) {
+                return Tuple.of(now, value);
+            }
+            synchronized (window) {
+                if (window.isEvicted()) {
+                    // Evicted after being looked up, retry with a new series.
+                    continue;
+                }
+                window.offer(now, value);
+                long waterLevel = now - windowSize;
+                if (window.peekTimestamp() > waterLevel) {
+                    return Tuple.of(window.peekTimestamp(), window.peekValue());
+                }
+
+                long resultTimestamp = window.peekTimestamp();
+                double resultValue = window.peekValue();
+                while (window.peekTimestamp() < waterLevel) {
+                    resultTimestamp = window.peekTimestamp();
+                    resultValue = window.peekValue();
+                    window.poll();
+                }
+
+                // Choose the closed slot to the expected timestamp
+                if (waterLevel - resultTimestamp <= window.peekTimestamp() - waterLevel) {
+                    return Tuple.of(resultTimestamp, resultValue);
+                }
 
-        Tuple2<Long, Double> result = peek;
-        while (peek._1 < waterLevel) {
-            result = window.poll();
-            peek = window.element();
+                return Tuple.of(window.peekTimestamp(), window.peekValue());
+            }
         }
+    }
 
-        // Choose the closed slot to the expected timestamp
-        if (waterLevel - result._1 <= peek._1 - waterLevel) {
-            return result;
+    public Tuple2<Long, Double> pop(String name, ImmutableMap<String, String> labels, Double value, long now) {
+        while (true) {
+            final Series window = series(name, labels);
+            if (window == null) {
+                return Tuple.of(now, value);
+            }
+            synchronized (window) {
+                if (window.isEvicted()) {
+                    continue;
+                }
+                Tuple2<Long, Double> result = window.hasLast() ?
+                    Tuple.of(window.getLastTimestamp(), window.getLastValue()) : Tuple.of(now, value);
+                window.setLast(now, value);
+                return result;
+            }
         }
+    }
 
-        return peek;
+    public void reset() {
+        windows.values().forEach(named -> named.values().forEach(window -> {
+            synchronized (window) {
+                window.clear();
+            }
+        }));
     }
 
-    public Tuple2<Long, Double> pop(String name, ImmutableMap<String, String> labels, Double value, long now) {
-        ID id = new ID(name, labels);
+    /**
+     * @return the number of series in the window.
+     */
+    public int size() {
+        return seriesCount.get();
+    }
 
-        Tuple2<Long, Double> element = Tuple.of(now, value);
-        Tuple2<Long, Double> result = lastElementMap.put(id, element);
-        if (result == null) {
-            return element;
+    /**
+     * @return the series of the given name and labels, or null if it is new and the window is full. The series may be
+     * evicted before the caller locks it.
+     */
+    private Series series(String name, ImmutableMap<String, String> labels) {
+        final long wallClock = clock.getAsLong();
+        final Map<ImmutableMap<String, String>, Series> named = windows.computeIfAbsent(
+            name, unused -> new ConcurrentHashMap<>());
+        Series window = named.get(labels);
+        if (window == null) {
+            if (seriesCount.get() >= maxSeries) {
+                rejectedCounter.inc();
+                if (warnedFull.compareAndSet(false, true)) {
+                    log.warn("The MAL counter window is full of {} series, the increase of the new series, such as {}{}, "
+                                 + "is always zero.", maxSeries, name, labels);
+                }
+                return null;
+            }
+            window = named.computeIfAbsent(labels, unused -> {
+                seriesCount.incrementAndGet();
+                seriesGauge.inc();
+                return new Series(wallClock);
+            });
         }
-        return result;
+        window.setLastAccess(wallClock);
+        return window;
     }
 
-    public void reset() {
-        windows.clear();
+    /**
+     * Evict the series without access in {@link #idleTimeout}. The last access is checked again under the lock of the
+     * series, so a series looked up at the same time is either kept or marked as evicted before it is used.
+     */
+    void evictIdleSeries() {
+        final long expired = clock.getAsLong() - idleTimeout;
+        int evicted = 0;
+        for (final Map<ImmutableMap<String, String>, Series> named : windows.values()) {
+            for (final Map.Entry<ImmutableMap<String, String>, Series> entry : named.entrySet()) {
+                final Series series = entry.getValue();
+                if (series.getLastAccess() >= expired) {
+                    continue;
+                }
+                synchronized (series) {
+                    if (series.getLastAccess() < expired && named.remove(entry.getKey(), series)) {
+                        series.setEvicted();
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            seriesCount.addAndGet(-evicted);
+            seriesGauge.dec(evicted);
+            evictedCounter.inc(evicted);
+            warnedFull.set(false);
+            if (log.isDebugEnabled()) {
+                log.debug("{} idle series are evicted from the MAL counter window.", evicted);
+            }
+        }
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl.counter;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Series keeps the points of a counter in a ring buffer of primitive arrays, which are ordered by the timestamp and
+ * then the value, the same as the natural order of {@code Tuple2<Long, Double>}. The buffer is not thread safe, the
+ * {@link CounterWindow} synchronizes on the series.
+ */
+class Series {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    /**
+     * The last point of {@link CounterWindow#pop(String, com.google.common.collect.ImmutableMap, Double, long)}, which
+     * is independent of the window.
+     */
+    private boolean hasLast;
+    private long lastTimestamp;
+    private double lastValue;
+
+    /**
+     * The wall clock time of the last access, for the idle series eviction.
+     */
+    private volatile long lastAccess;
+    /**
+     * The series has been removed from the {@link CounterWindow}, guarded by the lock of the series.
+     */
+    private boolean evicted;
+
+    Series(long now) {
+        this.lastAccess = now;
+    }
+
+    void offer(long timestamp, double value) {
+        if (size == timestamps.length) {
+            grow();
+        }
+        // Mostly, the point is the latest one.
+        int i = size;
+        while (i > 0 && compare(timestamp, value, i - 1) < 0) {
+            final int from = index(i - 1);
+            final int to = index(i);
+            timestamps[to] = timestamps[from];
+            values[to] = values[from];
+            i--;
+        }
+        timestamps[index(i)] = timestamp;
+        values[index(i)] = value;
+        size++;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long peekTimestamp() {
+        checkNotEmpty();
+        return timestamps[head];
+    }
+
+    double peekValue() {
+        checkNotEmpty();
+        return values[head];
+    }
+
+    void poll() {
+        checkNotEmpty();
+        head = index(1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    boolean hasLast() {
+        return hasLast;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    double getLastValue() {
+        return lastValue;
+    }
+
+    void setLast(long timestamp, double value) {
+        this.hasLast = true;
+        this.lastTimestamp = timestamp;
+        this.lastValue = value;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    void setLastAccess(long now) {
+        this.lastAccess = now;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void setEvicted() {
+        this.evicted = true;
+    }
+
+    private int compare(long timestamp, double value, int i) {
+        final int idx = index(i);
+        final int c = Long.compare(timestamp, timestamps[idx]);
+        return c != 0 ? c : Double.compare(value, values[idx]);
+    }
+
+    private int index(int i) {
+        final int idx = head + i;
+        return idx < timestamps.length ? idx : idx - timestamps.length;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private void grow() {
+        final int capacity = timestamps.length * 2;
+        final long[] newTimestamps = new long[capacity];
+        final double[] newValues = new double[capacity];
+        for (int i = 0; i < size; i++) {
+            newTimestamps[i] = timestamps[index(i)];
+            newValues[i] = values[index(i)];
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        final long[] ts = new long[size];
+        for (int i = 0; i < size; i++) {
+            ts[i] = timestamps[index(i)];
+        }
+        return "Series{timestamps=" + Arrays.toString(ts) + ", hasLast=" + hasLast + "}";
+    }
+}
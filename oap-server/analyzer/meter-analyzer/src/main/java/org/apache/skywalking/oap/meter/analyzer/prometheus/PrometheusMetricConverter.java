@@ -26,6 +26,7 @@ import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -84,6 +85,23 @@ public class PrometheusMetricConverter {
         convert.toMeter(data);
     }
 
+    /**
+     * toMeter transforms the converted {@link SampleFamily} collection to meter-system metrics.
+     *
+     * @param sampleFamilies converted by {@link #convertPromMetricToSampleFamily(Stream)}, which could be shared by
+     *                       the converters.
+     */
+    public void toMeter(ImmutableMap<String, SampleFamily> sampleFamilies) {
+        convert.toMeter(sampleFamilies);
+    }
+
+    /**
+     * @return the names of the samples referred by the rule.
+     */
+    public Set<String> getSampleNames() {
+        return convert.getSampleNames();
+    }
+
     public ImmutableMap<String, SampleFamily> convertPromMetricToSampleFamily(Stream<Metric> metricStream) {
         return metricStream
             .peek(metric -> log.debug("Prom metric to be convert to SampleFamily: {}", metric))
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.prometheus;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Metric;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * PrometheusMetricRouter converts prometheus metrics to {@link SampleFamily} collection once, and routes it to the
+ * {@link PrometheusMetricConverter}s of the rules which refer to the converted metrics, through the index by the
+ * sample names. It is used when a batch of metrics is analyzed by many rules, such as the otel-rules, rather than
+ * converting the whole batch for every rule.
+ */
+public class PrometheusMetricRouter {
+    private final List<PrometheusMetricConverter> converters;
+    /**
+     * The converters indexed by the names of the samples referred by their rules, in the order of the rules.
+     */
+    private final Map<String, List<PrometheusMetricConverter>> index;
+
+    public PrometheusMetricRouter(List<Rule> rules, MeterSystem service) {
+        this.converters = rules.stream().map(r -> new PrometheusMetricConverter(r, service)).collect(toList());
+        final Map<String, List<PrometheusMetricConverter>> index = new HashMap<>();
+        converters.forEach(converter -> converter.getSampleNames().forEach(
+            name -> index.computeIfAbsent(name, k -> new ArrayList<>()).add(converter)));
+        this.index = new HashMap<>(index.size());
+        index.forEach((name, list) -> this.index.put(name, ImmutableList.copyOf(list)));
+    }
+
+    /**
+     * toMeter transforms prometheus metrics to meter-system metrics, through the rules referring to them.
+     *
+     * @param metricStream prometheus metrics stream.
+     */
+    public void toMeter(Stream<Metric> metricStream) {
+        if (converters.isEmpty()) {
+            return;
+        }
+        // The conversion doesn't rely on the rules, any converter could do it.
+        final ImmutableMap<String, SampleFamily> sampleFamilies =
+            converters.get(0).convertPromMetricToSampleFamily(metricStream);
+        route(sampleFamilies.keySet()).forEach(converter -> converter.toMeter(sampleFamilies));
+    }
+
+    /**
+     * @return the converters referring to any of the given sample names, each of which appears once.
+     */
+    List<PrometheusMetricConverter> route(Set<String> sampleNames) {
+        if (sampleNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Set<PrometheusMetricConverter> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<PrometheusMetricConverter> result = new ArrayList<>();
+        for (final String name : sampleNames) {
+            final List<PrometheusMetricConverter> candidates = index.get(name);
+            if (candidates == null) {
+                continue;
+            }
+            for (final PrometheusMetricConverter candidate : candidates) {
+                if (matched.add(candidate)) {
+                    result.add(candidate);
+                }
+            }
+        }
+        return result;
+    }
+}
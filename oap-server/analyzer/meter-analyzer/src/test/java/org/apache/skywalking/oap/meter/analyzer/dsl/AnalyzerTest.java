@@ -28,6 +28,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgHistogramPercentile2Function;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgHistogramPercentileFunction;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgLabeledFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
@@ -250,4 +251,74 @@ public class AnalyzerTest {
         Assert.assertEquals(1L, instance2.getCount().get("instance2:25"), 0.0);
         Assert.assertEquals(1L, instance2.getCount().get("instance2:1250"), 0.0);
     }
+
+    @Test
+    public void testHistogramPercentile2() {
+        analyzer = Analyzer.build(
+            "instance_cpu_percentage_sketch",
+            null,
+            "instance_cpu_percentage.sum(['le' , 'service' , 'instance']).histogram().histogram_percentile2([75,99]).service(['service'], Layer.GENERAL)",
+            meterSystem
+        );
+        ImmutableMap<String, SampleFamily> input = ImmutableMap.of(
+            "instance_cpu_percentage", SampleFamilyBuilder.newBuilder(
+                Sample.builder()
+                      .labels(of("le", "0.025", "service", "service1", "instance", "instance1"))
+                      .value(100)
+                      .name("instance_cpu_percentage")
+                      .build(),
+                Sample.builder()
+                      .labels(of("le", "1.25", "service", "service1", "instance", "instance1"))
+                      .value(300)
+                      .name("instance_cpu_percentage")
+                      .build(),
+                Sample.builder()
+                      .labels(of("le", "0.75", "service", "service1", "instance", "instance2"))
+                      .value(122)
+                      .name("instance_cpu_percentage")
+                      .build(),
+                Sample.builder()
+                      .labels(of("le", String.valueOf(Integer.MAX_VALUE), "service", "service1", "instance",
+                                 "instance2"
+                      ))
+                      .value(410)
+                      .name("instance_cpu_percentage")
+                      .build()
+            ).build()
+        );
+
+        Map<String, AvgHistogramPercentile2Function> actValues = new HashMap<>();
+        doAnswer(invocationOnMock -> {
+            AvgHistogramPercentile2Function actValue = (AvgHistogramPercentile2Function) invocationOnMock.getArgument(
+                0, AcceptableValue.class);
+            actValue.calculate();
+            if (actValue.getPercentileValues().hasKey("instance1:75")) {
+                actValues.put("instance1", actValue);
+            } else {
+                actValues.put("instance2", actValue);
+            }
+            return null;
+        }).when(meterSystem).doStreamingCalculation(any());
+
+        analyzer.analyse(input);
+        Assert.assertEquals(2, actValues.size());
+        String expServiceId = IDManager.ServiceID.buildId("service1", true);
+        IntList expRanks = new IntList(2) {
+            {
+                add(75);
+                add(99);
+            }
+        };
+        actValues.forEach((key, actValue) -> {
+            Assert.assertEquals(expServiceId, actValue.getEntityId());
+            Assert.assertThat(expRanks, is(actValue.getRanks()));
+        });
+        AvgHistogramPercentile2Function instance1 = actValues.get("instance1");
+        AvgHistogramPercentile2Function instance2 = actValues.get("instance2");
+        // The buckets are {0: 100, 750: 178} and {25: 22, 1250: 110}, read within 1% relative error.
+        Assert.assertEquals(750, instance1.getPercentileValues().get("instance1:75"), 7.5);
+        Assert.assertEquals(750, instance1.getPercentileValues().get("instance1:99"), 7.5);
+        Assert.assertEquals(1250, instance2.getPercentileValues().get("instance2:75"), 12.5);
+        Assert.assertEquals(1250, instance2.getPercentileValues().get("instance2:99"), 12.5);
+    }
 }
@@ -102,6 +102,78 @@ public class ArithmeticTest {
                 ).build()),
                 false,
                 },
+            {
+                "scalar-minus",
+                of("http_success_request", SampleFamilyBuilder.newBuilder(
+                    Sample.builder()
+                          .labels(of("idc", "t1"))
+                          .value(1600592418480.0)
+                          .name("http_success_request")
+                          .build(),
+                    Sample.builder()
+                          .labels(of("idc", "t2"))
+                          .value(1600592418481.0)
+                          .name("http_success_request")
+                          .build()
+                ).build()),
+                "1000 - http_success_request.tagEqual('idc','t1')",
+                Result.success(SampleFamilyBuilder.newBuilder(
+                    Sample.builder()
+                          .labels(of("idc", "t1"))
+                          .value(-1600592417480.0)
+                          .name("http_success_request")
+                          .build()
+                ).build()),
+                false,
+                },
+            {
+                "scalar-divide",
+                of("http_success_request", SampleFamilyBuilder.newBuilder(
+                    Sample.builder()
+                          .labels(of("idc", "t1"))
+                          .value(1600592418480.0)
+                          .name("http_success_request")
+                          .build(),
+                    Sample.builder()
+                          .labels(of("idc", "t2"))
+                          .value(1600592418481.0)
+                          .name("http_success_request")
+                          .build()
+                ).build()),
+                "1600592418480 / http_success_request.tagEqual('idc','t1')",
+                Result.success(SampleFamilyBuilder.newBuilder(
+                    Sample.builder()
+                          .labels(of("idc", "t1"))
+                          .value(1.0)
+                          .name("http_success_request")
+                          .build()
+                ).build()),
+                false,
+                },
+            {
+                "scalar-plus-negative",
+                of("http_success_request", SampleFamilyBuilder.newBuilder(
+                    Sample.builder()
+                          .labels(of("idc", "t1"))
+                          .value(1600592418480.0)
+                          .name("http_success_request")
+                          .build(),
+                    Sample.builder()
+                          .labels(of("idc", "t2"))
+                          .value(1600592418481.0)
+                          .name("http_success_request")
+                          .build()
+                ).build()),
+                "(2 * 500) + -http_success_request.tagEqual('idc','t1')",
+                Result.success(SampleFamilyBuilder.newBuilder(
+                    Sample.builder()
+                          .labels(of("idc", "t1"))
+                          .value(-1600592417480.0)
+                          .name("http_success_request")
+                          .build()
+                ).build()),
+                false,
+                },
             {
                 "minus-scalar",
                 of("http_success_request", SampleFamilyBuilder.newBuilder(
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.yaml.snakeyaml.Yaml;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Compile the expressions of the shipped rules, and compare the parsing contexts with the ones by the Groovy script.
+ */
+@RunWith(Parameterized.class)
+public class ExpressionCompilerTest {
+    private static final String RULES_PATH = "../../server-starter/src/main/resources/";
+    private static final String[] RULES = {
+        "otel-rules", "meter-analyzer-config", "envoy-metrics-rules", "fetcher-prom-rules", "zabbix-rules"
+    };
+
+    @Parameterized.Parameter
+    public String name;
+
+    @Parameterized.Parameter(1)
+    public String expression;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() throws Exception {
+        final List<Object[]> data = new ArrayList<>();
+        for (final String rules : RULES) {
+            final File[] files = new File(RULES_PATH + rules).listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (final File file : files) {
+                try (Reader reader = new FileReader(file)) {
+                    final Map<String, Object> rule = new Yaml().load(reader);
+                    if (rule != null) {
+                        data.addAll(expressions(rules + "/" + file.getName(), rule));
+                    }
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Format the expressions as {@link org.apache.skywalking.oap.meter.analyzer.MetricConvert} does.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object[]> expressions(String file, Map<String, Object> rule) {
+        final String prefix = (String) rule.get("expPrefix");
+        final String suffix = (String) rule.get("expSuffix");
+        List<Map<String, Object>> metrics = (List<Map<String, Object>>) rule.get("metricsRules");
+        if (metrics == null) {
+            metrics = (List<Map<String, Object>>) rule.get("metrics");
+        }
+        final List<Object[]> result = new ArrayList<>();
+        if (metrics == null) {
+            return result;
+        }
+        for (final Map<String, Object> metric : metrics) {
+            String exp = (String) metric.get("exp");
+            if (StringUtils.isNotEmpty(prefix)) {
+                exp = String.format("(%s.%s).%s", StringUtils.substringBefore(exp, "."), prefix,
+                                    StringUtils.substringAfter(exp, "."));
+            }
+            if (StringUtils.isNotEmpty(suffix)) {
+                exp = String.format("(%s).%s", exp, suffix);
+            }
+            result.add(new Object[] {file + ":" + metric.get("name"), exp});
+        }
+        return result;
+    }
+
+    @Test
+    public void testCompiled() {
+        assertThat(DSL.parse(expression).isCompiled(), is(true));
+    }
+
+    @Test
+    public void testSameParsingContext() {
+        assertThat(DSL.parse(expression).parse(), is(DSL.parseScript(expression).parse()));
+    }
+}
@@ -91,6 +91,20 @@ public class ExpressionParsingTest {
                                         .percentiles(new int[]{50, 99}).build(),
                 false,
             },
+            {
+                "percentileSketch",
+                "foo.sum(['tt']).histogram().histogram_percentile2([50,99]).service(['rr'], Layer.GENERAL)",
+                ExpressionParsingContext.builder()
+                                        .samples(Collections.singletonList("foo"))
+                                        .scopeType(ScopeType.SERVICE)
+                                        .scopeLabels(Sets.newHashSet("rr"))
+                                        .aggregationLabels(Sets.newHashSet("tt"))
+                                        .downsampling(DownsamplingType.AVG)
+                                        .isHistogram(true)
+                                        .isPercentileSketch(true)
+                                        .percentiles(new int[]{50, 99}).build(),
+                false,
+            },
             {
                 "sameSamples",
                 "(node_cpu_seconds_total.sum(['node_identifier_host_name']) - node_cpu_seconds_total.tagEqual('mode', 'idle').sum(['node_identifier_host_name'])).service(['node_identifier_host_name'], Layer.GENERAL) ",
@@ -22,6 +22,7 @@ import com.google.common.collect.Lists;
 import io.vavr.Tuple2;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -93,4 +94,74 @@ public class CounterWindowTest {
 
         Assert.assertArrayEquals(new double[] {0, 1d, 2d, 3d, 4d, 0d, 1d, 2d}, actuals, 0.d);
     }
+
+    @Test
+    public void testEvictIdleSeries() {
+        AtomicLong clock = new AtomicLong(0);
+        CounterWindow window = new CounterWindow(1000, 10, clock::get);
+        ImmutableMap<String, String> a = ImmutableMap.of("pod", "a");
+        ImmutableMap<String, String> b = ImmutableMap.of("pod", "b");
+
+        window.increase("test", a, 1d, 60_000, 1000);
+        window.increase("test", b, 1d, 60_000, 1000);
+        Assert.assertEquals(2, window.size());
+
+        clock.set(600);
+        window.increase("test", a, 2d, 60_000, 16000);
+        window.evictIdleSeries();
+        Assert.assertEquals(2, window.size());
+
+        clock.set(1100);
+        window.evictIdleSeries();
+        Assert.assertEquals(1, window.size());
+        Tuple2<Long, Double> increase = window.increase("test", a, 3d, 60_000, 31000);
+        Assert.assertEquals(1d, increase._2, 0.d);
+
+        // The history of the evicted series is dropped.
+        increase = window.increase("test", b, 3d, 60_000, 31000);
+        Assert.assertEquals(2, window.size());
+        Assert.assertEquals(3d, increase._2, 0.d);
+    }
+
+    @Test
+    public void testConcurrentEviction() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(0);
+        CounterWindow window = new CounterWindow(1, 10, clock::get);
+        ImmutableMap<String, String> labels = ImmutableMap.of("pod", "a");
+        Thread sampler = new Thread(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                window.pop("test", labels, (double) i, i);
+            }
+        });
+        sampler.start();
+        while (sampler.isAlive()) {
+            clock.addAndGet(2);
+            window.evictIdleSeries();
+        }
+        sampler.join();
+
+        // The last sample is kept unless its series is evicted, and the evicted series are not counted.
+        int size = window.size();
+        Tuple2<Long, Double> last = window.pop("test", labels, -1d, 0);
+        if (size == 1) {
+            Assert.assertEquals(99_999d, last._2, 0.d);
+        } else {
+            Assert.assertEquals(0, size);
+            Assert.assertEquals(-1d, last._2, 0.d);
+        }
+        Assert.assertEquals(1, window.size());
+    }
+
+    @Test
+    public void testMaxSeries() {
+        CounterWindow window = new CounterWindow(1000, 2, () -> 0L);
+
+        window.increase("test", ImmutableMap.of("pod", "a"), 1d, 60_000, 1000);
+        window.increase("test", ImmutableMap.of("pod", "b"), 1d, 60_000, 1000);
+        window.increase("test", ImmutableMap.of("pod", "c"), 1d, 60_000, 1000);
+        Tuple2<Long, Double> increase = window.increase("test", ImmutableMap.of("pod", "c"), 5d, 60_000, 16000);
+
+        Assert.assertEquals(2, window.size());
+        Assert.assertEquals(5d, increase._2, 0.d);
+    }
 }
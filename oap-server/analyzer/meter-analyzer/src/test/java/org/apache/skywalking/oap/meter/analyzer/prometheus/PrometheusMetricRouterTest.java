@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.prometheus;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.MetricsRule;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
+import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.powermock.reflect.Whitebox;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PrometheusMetricRouterTest {
+    @Mock
+    private ModuleManager moduleManager;
+    private MeterSystem meterSystem;
+
+    @Before
+    public void setup() throws StorageException {
+        meterSystem = spy(new MeterSystem(moduleManager));
+        Whitebox.setInternalState(MetricsStreamProcessor.class, "PROCESSOR",
+                                  Mockito.spy(MetricsStreamProcessor.getInstance())
+        );
+        doNothing().when(MetricsStreamProcessor.getInstance()).create(any(), (StreamDefinition) any(), any());
+    }
+
+    @BeforeClass
+    public static void init() {
+        MeterEntity.setNamingControl(
+            new NamingControl(512, 512, 512, new EndpointNameGrouping()));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        MeterEntity.setNamingControl(null);
+    }
+
+    @Test
+    public void testRoute() {
+        final PrometheusMetricRouter router = new PrometheusMetricRouter(Arrays.asList(
+            rule("router_a", "cpu.sum(['host']).service(['host'], Layer.GENERAL)"),
+            rule("router_b", "(memory_used / memory_total).service(['host'], Layer.GENERAL)"),
+            rule("router_c", "cpu.service(['host'], Layer.GENERAL)")
+        ), meterSystem);
+
+        final List<PrometheusMetricConverter> routed = router.route(ImmutableSet.of("cpu", "memory_total", "disk"));
+        Assert.assertEquals(3, routed.size());
+        Assert.assertEquals(ImmutableSet.of("cpu"), routed.get(0).getSampleNames());
+
+        final List<PrometheusMetricConverter> memory = router.route(ImmutableSet.of("memory_used"));
+        Assert.assertEquals(1, memory.size());
+        Assert.assertEquals(ImmutableSet.of("memory_used", "memory_total"), memory.get(0).getSampleNames());
+
+        Assert.assertTrue(router.route(ImmutableSet.of("disk")).isEmpty());
+        Assert.assertTrue(router.route(Collections.emptySet()).isEmpty());
+    }
+
+    private static Rule rule(String prefix, String exp) {
+        final Rule rule = new Rule();
+        rule.setName(prefix);
+        rule.setMetricPrefix(prefix);
+        rule.setMetricsRules(Collections.singletonList(new MetricsRule("metric", exp)));
+        return rule;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.exporter.provider.grpc;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.exporter.grpc.ExportResponse;
+
+/**
+ * The response observer of an export stream, which follows the flow control of the stream. The messages are sent only
+ * when the stream is ready, rather than buffered in the memory without limit while the receiver is slow.
+ */
+class ExportStreamObserver<T> implements ClientResponseObserver<T, ExportResponse> {
+    private final Object readyLock = new Object();
+    private volatile ClientCallStreamObserver<T> requestStream;
+    @Getter
+    private volatile boolean done;
+    /**
+     * The failure of the stream, null if the receiver confirmed all messages.
+     */
+    @Getter
+    private volatile Throwable error;
+
+    @Override
+    public void beforeStart(final ClientCallStreamObserver<T> requestStream) {
+        this.requestStream = requestStream;
+        requestStream.setOnReadyHandler(this::wakeUp);
+    }
+
+    /**
+     * Block until the stream is ready for the next message.
+     *
+     * @return false if the stream is done, such as failed, the message should not be sent.
+     */
+    boolean awaitReady() {
+        synchronized (readyLock) {
+            while (!done && !requestStream.isReady()) {
+                try {
+                    // Wait in a short cycle, in case the ready signal is missed.
+                    readyLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return !done;
+    }
+
+    @Override
+    public void onNext(final ExportResponse response) {
+
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        error = throwable;
+        done = true;
+        wakeUp();
+    }
+
+    @Override
+    public void onCompleted() {
+        done = true;
+        wakeUp();
+    }
+
+    private void wakeUp() {
+        synchronized (readyLock) {
+            readyLock.notifyAll();
+        }
+    }
+}
@@ -21,11 +21,13 @@ package org.apache.skywalking.oap.server.exporter.provider.grpc;
 import io.grpc.ManagedChannel;
 import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DoubleValueHolder;
 import org.apache.skywalking.oap.server.core.analysis.metrics.IntValueHolder;
@@ -38,6 +40,7 @@ import org.apache.skywalking.oap.server.core.exporter.ExportData;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
 import org.apache.skywalking.oap.server.core.exporter.MetricValuesExportService;
 import org.apache.skywalking.oap.server.exporter.grpc.EventType;
+import org.apache.skywalking.oap.server.exporter.grpc.ExportMetricBatch;
 import org.apache.skywalking.oap.server.exporter.grpc.ExportMetricValue;
 import org.apache.skywalking.oap.server.exporter.grpc.ExportResponse;
 import org.apache.skywalking.oap.server.exporter.grpc.MetricExportServiceGrpc;
@@ -49,7 +52,11 @@ import org.apache.skywalking.oap.server.exporter.provider.MetricFormatter;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.apache.skywalking.oap.server.library.datacarrier.DataCarrier;
 import org.apache.skywalking.oap.server.library.datacarrier.consumer.IConsumer;
-import org.apache.skywalking.oap.server.library.util.GRPCStreamStatus;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
 
 @Slf4j
 public class GRPCExporter extends MetricFormatter implements MetricValuesExportService, IConsumer<ExportData> {
@@ -57,6 +64,10 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
      * The period of subscription list fetching is hardcoded as 30s.
      */
     private static final long FETCH_SUBSCRIPTION_PERIOD = 30_000;
+    /**
+     * The max number of the entities in an {@link ExportMetricBatch}, to keep the message size reasonable.
+     */
+    private static final int MAX_BATCH_ENTITIES = 1000;
     private final GRPCExporterSetting setting;
     private final MetricExportServiceGrpc.MetricExportServiceStub exportServiceFutureStub;
     private final MetricExportServiceGrpc.MetricExportServiceBlockingStub blockingStub;
@@ -64,6 +75,9 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
     private final ReentrantLock fetchListLock;
     private volatile List<SubscriptionMetric> subscriptionList;
     private volatile long lastFetchTimestamp = 0;
+    private CounterMetrics exportedCounter;
+    private CounterMetrics droppedCounter;
+    private GaugeMetrics lagGauge;
 
     public GRPCExporter(GRPCExporterSetting setting) {
         this.setting = setting;
@@ -73,9 +87,30 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
         exportServiceFutureStub = MetricExportServiceGrpc.newStub(channel);
         blockingStub = MetricExportServiceGrpc.newBlockingStub(channel);
         exportBuffer = new DataCarrier<ExportData>(setting.getBufferChannelNum(), setting.getBufferChannelSize());
-        exportBuffer.consume(this, 1, 200);
         subscriptionList = new ArrayList<>();
         fetchListLock = new ReentrantLock();
+        initMetrics(new MetricsCreatorNoop());
+        // The consumer thread refreshes the subscription list too, start it after all fields are initialized.
+        exportBuffer.consume(this, 1, 200);
+    }
+
+    /**
+     * Create the self-observability metrics of the export.
+     */
+    public void initMetrics(MetricsCreator metricsCreator) {
+        exportedCounter = metricsCreator.createCounter(
+            "exporter_grpc_exported_count", "The number of the metrics values confirmed by the export target",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        droppedCounter = metricsCreator.createCounter(
+            "exporter_grpc_dropped_count", "The number of the metrics values failed to be exported",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        lagGauge = metricsCreator.createGauge(
+            "exporter_grpc_lag", "The milliseconds from the oldest metrics value handed over to the exporter "
+                + "to the confirmation of the last export",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
     }
 
     @Override
@@ -84,17 +119,59 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
         if (metrics instanceof WithMetadata) {
             MetricsMetaInfo meta = ((WithMetadata) metrics).getMeta();
             if (subscriptionList.size() == 0 && ExportEvent.EventType.INCREMENT.equals(event.getType())) {
-                exportBuffer.produce(new ExportData(meta, metrics, event.getType()));
+                produce(new ExportData(meta, metrics, event.getType()));
             } else {
                 subscriptionList.forEach(subscriptionMetric -> {
                     if (subscriptionMetric.getMetricName().equals(meta.getMetricsName()) &&
                         eventTypeMatch(event.getType(), subscriptionMetric.getEventType())) {
-                        exportBuffer.produce(new ExportData(meta, metrics, event.getType()));
+                        produce(new ExportData(meta, metrics, event.getType()));
                     }
                 });
             }
+        }
+    }
 
-            fetchSubscriptionList();
+    /**
+     * The metrics of a batch are the same metric in most cases, the subscription is only matched when the metric
+     * changes. The subscription list is refreshed by the consumer thread, rather than the persistence.
+     */
+    @Override
+    public void export(ExportEvent.EventType type, List<Metrics> metricsList) {
+        final List<SubscriptionMetric> subscriptions = subscriptionList;
+        String matchedName = null;
+        boolean subscribed = false;
+        for (final Metrics metrics : metricsList) {
+            if (!(metrics instanceof WithMetadata)) {
+                continue;
+            }
+            MetricsMetaInfo meta = ((WithMetadata) metrics).getMeta();
+            if (!meta.getMetricsName().equals(matchedName)) {
+                matchedName = meta.getMetricsName();
+                subscribed = isSubscribed(subscriptions, matchedName, type);
+            }
+            if (subscribed) {
+                produce(new ExportData(meta, metrics, type));
+            }
+        }
+    }
+
+    private boolean isSubscribed(List<SubscriptionMetric> subscriptions, String metricName,
+                                 ExportEvent.EventType type) {
+        if (subscriptions.isEmpty()) {
+            return ExportEvent.EventType.INCREMENT.equals(type);
+        }
+        for (final SubscriptionMetric subscriptionMetric : subscriptions) {
+            if (subscriptionMetric.getMetricName().equals(metricName)
+                && eventTypeMatch(type, subscriptionMetric.getEventType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void produce(ExportData data) {
+        if (!exportBuffer.produce(data)) {
+            droppedCounter.inc();
         }
     }
 
@@ -128,79 +205,63 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
 
     @Override
     public void consume(List<ExportData> data) {
-        GRPCStreamStatus status = new GRPCStreamStatus();
-        StreamObserver<ExportMetricValue> streamObserver =
-            exportServiceFutureStub.withDeadlineAfter(10, TimeUnit.SECONDS)
-                                   .export(
-                                       new StreamObserver<ExportResponse>() {
-                                           @Override
-                                           public void onNext(
-                                               ExportResponse response) {
-
-                                           }
-
-                                           @Override
-                                           public void onError(
-                                               Throwable throwable) {
-                                               status.done();
-                                           }
-
-                                           @Override
-                                           public void onCompleted() {
-                                               status.done();
-                                           }
-                                       });
-        AtomicInteger exportNum = new AtomicInteger();
-        data.forEach(row -> {
-            ExportMetricValue.Builder builder = ExportMetricValue.newBuilder();
-
-            Metrics metrics = row.getMetrics();
-            if (metrics instanceof LongValueHolder) {
-                long value = ((LongValueHolder) metrics).getValue();
-                builder.setLongValue(value);
-                builder.setType(ValueType.LONG);
-            } else if (metrics instanceof IntValueHolder) {
-                long value = ((IntValueHolder) metrics).getValue();
-                builder.setLongValue(value);
-                builder.setType(ValueType.LONG);
-            } else if (metrics instanceof DoubleValueHolder) {
-                double value = ((DoubleValueHolder) metrics).getValue();
-                builder.setDoubleValue(value);
-                builder.setType(ValueType.DOUBLE);
-            } else if (metrics instanceof MultiIntValuesHolder) {
-                int[] values = ((MultiIntValuesHolder) metrics).getValues();
-                for (int value : values) {
-                    builder.addLongValues(value);
-                }
-                builder.setType(ValueType.MULTI_LONG);
-            } else {
-                return;
+        long oldestTimestamp = Long.MAX_VALUE;
+        for (final ExportData row : data) {
+            oldestTimestamp = Math.min(oldestTimestamp, row.getTimestamp());
+        }
+        if (setting.isBatchEnabled()) {
+            List<ExportMetricBatch> batches = toBatches(data);
+            int exportNum = 0;
+            for (final ExportMetricBatch batch : batches) {
+                exportNum += batch.getEntityIdsCount();
             }
-
-            MetricsMetaInfo meta = row.getMeta();
-            builder.setMetricName(meta.getMetricsName());
-            builder.setEventType(
-                ExportEvent.EventType.INCREMENT.equals(row.getEventType()) ? EventType.INCREMENT : EventType.TOTAL);
-            String entityName = getEntityName(meta);
-            if (entityName == null) {
-                return;
+            send(exportServiceFutureStub.withDeadlineAfter(10, TimeUnit.SECONDS)::exportBatch, batches, exportNum,
+                 oldestTimestamp
+            );
+        } else {
+            List<ExportMetricValue> values = new ArrayList<>(data.size());
+            for (final ExportData row : data) {
+                ExportMetricValue.Builder builder = toValue(row);
+                if (builder != null) {
+                    values.add(builder.build());
+                }
             }
-            builder.setEntityName(entityName);
-            builder.setEntityId(meta.getId());
+            send(exportServiceFutureStub.withDeadlineAfter(10, TimeUnit.SECONDS)::export, values, values.size(),
+                 oldestTimestamp
+            );
+        }
 
-            builder.setTimeBucket(metrics.getTimeBucket());
+        fetchSubscriptionList();
+    }
 
-            streamObserver.onNext(builder.build());
-            exportNum.getAndIncrement();
-        });
+    /**
+     * The subscription list is refreshed even if nothing is exported, such as none of the metrics is subscribed.
+     */
+    @Override
+    public void nothingToConsume() {
+        fetchSubscriptionList();
+    }
 
+    /**
+     * Stream the messages to the target, following the flow control of the stream.
+     */
+    private <T> void send(Function<StreamObserver<ExportResponse>, StreamObserver<T>> call, List<T> messages,
+                          int exportNum, long oldestTimestamp) {
+        ExportStreamObserver<T> responseObserver = new ExportStreamObserver<>();
+        StreamObserver<T> streamObserver = call.apply(responseObserver);
+        for (final T message : messages) {
+            if (!responseObserver.awaitReady()) {
+                break;
+            }
+            streamObserver.onNext(message);
+        }
         streamObserver.onCompleted();
 
         long sleepTime = 0;
         long cycle = 100L;
 
         //For memory safe of oap, we must wait for the peer confirmation.
-        while (!status.isDone()) {
+        while (!responseObserver.isDone()) {
             try {
                 sleepTime += cycle;
                 Thread.sleep(cycle);
@@ -209,7 +270,7 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
 
             if (sleepTime > 2000L) {
                 log.warn(
-                    "Export {} metrics to {}:{}, wait {} milliseconds.", exportNum.get(), setting.getTargetHost(),
+                    "Export {} metrics to {}:{}, wait {} milliseconds.", exportNum, setting.getTargetHost(),
                     setting
                         .getTargetPort(), sleepTime
                 );
@@ -217,11 +278,112 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
             }
         }
 
+        if (responseObserver.getError() != null) {
+            droppedCounter.inc(exportNum);
+            log.warn(
+                "Export {} metrics to {}:{} fails, {}", exportNum, setting.getTargetHost(), setting.getTargetPort(),
+                responseObserver.getError().getMessage()
+            );
+            return;
+        }
+        exportedCounter.inc(exportNum);
+        if (exportNum > 0) {
+            lagGauge.setValue(System.currentTimeMillis() - oldestTimestamp);
+        }
+
         log.debug(
-            "Exported {} metrics to {}:{} in {} milliseconds.", exportNum.get(), setting.getTargetHost(), setting
+            "Exported {} metrics to {}:{} in {} milliseconds.", exportNum, setting.getTargetHost(), setting
                 .getTargetPort(), sleepTime);
+    }
 
-        fetchSubscriptionList();
+    /**
+     * @return null if the value of the metrics is not supported, or the entity is unknown.
+     */
+    private ExportMetricValue.Builder toValue(ExportData row) {
+        ExportMetricValue.Builder builder = ExportMetricValue.newBuilder();
+
+        Metrics metrics = row.getMetrics();
+        if (metrics instanceof LongValueHolder) {
+            long value = ((LongValueHolder) metrics).getValue();
+            builder.setLongValue(value);
+            builder.setType(ValueType.LONG);
+        } else if (metrics instanceof IntValueHolder) {
+            long value = ((IntValueHolder) metrics).getValue();
+            builder.setLongValue(value);
+            builder.setType(ValueType.LONG);
+        } else if (metrics instanceof DoubleValueHolder) {
+            double value = ((DoubleValueHolder) metrics).getValue();
+            builder.setDoubleValue(value);
+            builder.setType(ValueType.DOUBLE);
+        } else if (metrics instanceof MultiIntValuesHolder) {
+            int[] values = ((MultiIntValuesHolder) metrics).getValues();
+            for (int value : values) {
+                builder.addLongValues(value);
+            }
+            builder.setType(ValueType.MULTI_LONG);
+        } else {
+            return null;
+        }
+
+        MetricsMetaInfo meta = row.getMeta();
+        builder.setMetricName(meta.getMetricsName());
+        builder.setEventType(toEventType(row.getEventType()));
+        String entityName = getEntityName(meta);
+        if (entityName == null) {
+            return null;
+        }
+        builder.setEntityName(entityName);
+        builder.setEntityId(meta.getId());
+
+        builder.setTimeBucket(metrics.getTimeBucket());
+        return builder;
+    }
+
+    /**
+     * Group the values by the metric, event type and time bucket, the entities and values are in columns.
+     */
+    List<ExportMetricBatch> toBatches(List<ExportData> data) {
+        Map<String, ExportMetricBatch.Builder> building = new LinkedHashMap<>();
+        List<ExportMetricBatch> batches = new ArrayList<>();
+        for (final ExportData row : data) {
+            ExportMetricValue.Builder value = toValue(row);
+            if (value == null) {
+                continue;
+            }
+            String key = value.getMetricName() + "|" + value.getEventType() + "|" + value.getType() + "|"
+                + value.getTimeBucket();
+            ExportMetricBatch.Builder batch = building.get(key);
+            if (batch == null) {
+                batch = ExportMetricBatch.newBuilder()
+                                         .setMetricName(value.getMetricName())
+                                         .setEventType(value.getEventType())
+                                         .setType(value.getType())
+                                         .setTimeBucket(value.getTimeBucket());
+                building.put(key, batch);
+            }
+            batch.addEntityNames(value.getEntityName());
+            batch.addEntityIds(value.getEntityId());
+            switch (value.getType()) {
+                case LONG:
+                    batch.addLongValues(value.getLongValue());
+                    break;
+                case DOUBLE:
+                    batch.addDoubleValues(value.getDoubleValue());
+                    break;
+                case MULTI_LONG:
+                    batch.addAllLongValues(value.getLongValuesList());
+                    batch.addValueCounts(value.getLongValuesCount());
+                    break;
+                default:
+                    break;
+            }
+            if (batch.getEntityIdsCount() >= MAX_BATCH_ENTITIES) {
+                batches.add(batch.build());
+                building.remove(key);
+            }
+        }
+        building.values().forEach(batch -> batches.add(batch.build()));
+        return batches;
     }
 
     @Override
@@ -234,6 +396,10 @@ public class GRPCExporter extends MetricFormatter implements MetricValuesExportS
 
     }
 
+    private EventType toEventType(ExportEvent.EventType eventType) {
+        return ExportEvent.EventType.INCREMENT.equals(eventType) ? EventType.INCREMENT : EventType.TOTAL;
+    }
+
     private boolean eventTypeMatch(ExportEvent.EventType eventType,
                                    org.apache.skywalking.oap.server.exporter.grpc.EventType subscriptionType) {
         return (ExportEvent.EventType.INCREMENT.equals(eventType) && EventType.INCREMENT.equals(subscriptionType))
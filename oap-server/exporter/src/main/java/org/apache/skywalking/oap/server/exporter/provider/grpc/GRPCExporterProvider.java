@@ -26,6 +26,8 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 public class GRPCExporterProvider extends ModuleProvider {
     private GRPCExporterSetting setting;
@@ -60,6 +62,10 @@ public class GRPCExporterProvider extends ModuleProvider {
 
     @Override
     public void notifyAfterCompleted() throws ServiceNotProvidedException, ModuleStartException {
+        if (getManager().has(TelemetryModule.NAME)) {
+            exporter.initMetrics(
+                getManager().find(TelemetryModule.NAME).provider().getService(MetricsCreator.class));
+        }
         exporter.fetchSubscriptionList();
     }
 
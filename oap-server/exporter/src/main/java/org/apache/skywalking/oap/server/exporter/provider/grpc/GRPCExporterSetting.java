@@ -29,4 +29,11 @@ public class GRPCExporterSetting extends ModuleConfig {
     private int targetPort;
     private int bufferChannelSize = 20000;
     private int bufferChannelNum = 2;
+    /**
+     * Export the values grouped by the metric and time bucket through the exportBatch service, rather than one by one.
+     * The target service should implement exportBatch.
+     *
+     * @since 9.3.0
+     */
+    private boolean batchEnabled = false;
 }
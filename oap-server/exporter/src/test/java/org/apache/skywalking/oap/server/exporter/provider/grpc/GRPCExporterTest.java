@@ -27,7 +27,10 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.WithMetadata;
 import org.apache.skywalking.oap.server.core.exporter.ExportData;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
 import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.exporter.grpc.ExportMetricBatch;
 import org.apache.skywalking.oap.server.exporter.grpc.MetricExportServiceGrpc;
+import org.apache.skywalking.oap.server.exporter.grpc.ValueType;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -42,7 +45,7 @@ public class GRPCExporterTest {
     @Rule
     public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
-    private MetricExportServiceGrpc.MetricExportServiceImplBase service = new MockMetricExportServiceImpl();
+    private MockMetricExportServiceImpl service = new MockMetricExportServiceImpl();
     private MetricsMetaInfo metaInfo = new MetricsMetaInfo("mock-metrics", DefaultScopeDefine.SERVICE);
 
     private MetricExportServiceGrpc.MetricExportServiceBlockingStub stub;
@@ -100,6 +103,42 @@ public class GRPCExporterTest {
         exporter.onExit();
     }
 
+    @Test
+    public void consumeInBatches() {
+        GRPCExporterSetting setting = new GRPCExporterSetting();
+        setting.setTargetHost("localhost");
+        setting.setTargetPort(9870);
+        setting.setBatchEnabled(true);
+        // The entity name is the ID in this test.
+        GRPCExporter exporter = new GRPCExporter(setting) {
+            @Override
+            protected String getEntityName(final MetricsMetaInfo meta) {
+                return meta.getId();
+            }
+        };
+        Whitebox.setInternalState(
+            exporter, "exportServiceFutureStub", MetricExportServiceGrpc.newStub(grpcServerRule.getChannel()));
+
+        MetricsMetaInfo first = new MetricsMetaInfo("first", DefaultScopeDefine.SERVICE, "service-a");
+        MetricsMetaInfo second = new MetricsMetaInfo("first", DefaultScopeDefine.SERVICE, "service-b");
+        List<ExportData> dataList = new LinkedList<>();
+        dataList.add(new ExportData(first, new MockLongValueMetrics(), INCREMENT));
+        dataList.add(new ExportData(second, new MockLongValueMetrics(), INCREMENT));
+        dataList.add(new ExportData(first, new MockDoubleValueMetrics(), INCREMENT));
+        exporter.consume(dataList);
+
+        List<ExportMetricBatch> batches = service.getBatches();
+        Assert.assertEquals(2, batches.size());
+        Assert.assertEquals("first", batches.get(0).getMetricName());
+        Assert.assertEquals(ValueType.LONG, batches.get(0).getType());
+        Assert.assertEquals(2, batches.get(0).getEntityIdsCount());
+        Assert.assertEquals("service-a", batches.get(0).getEntityNames(0));
+        Assert.assertEquals("service-b", batches.get(0).getEntityNames(1));
+        Assert.assertEquals(2, batches.get(0).getLongValuesCount());
+        Assert.assertEquals(ValueType.DOUBLE, batches.get(1).getType());
+        Assert.assertEquals(1, batches.get(1).getDoubleValuesCount());
+    }
+
     private List<ExportData> dataList() {
         List<ExportData> dataList = new LinkedList<>();
         dataList.add(new ExportData(metaInfo, new MockMetrics(), INCREMENT));
@@ -19,13 +19,42 @@
 package org.apache.skywalking.oap.server.exporter.provider.grpc;
 
 import io.grpc.stub.StreamObserver;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.Getter;
 import org.apache.skywalking.oap.server.exporter.grpc.EventType;
+import org.apache.skywalking.oap.server.exporter.grpc.ExportMetricBatch;
+import org.apache.skywalking.oap.server.exporter.grpc.ExportResponse;
 import org.apache.skywalking.oap.server.exporter.grpc.MetricExportServiceGrpc;
 import org.apache.skywalking.oap.server.exporter.grpc.SubscriptionMetric;
 import org.apache.skywalking.oap.server.exporter.grpc.SubscriptionReq;
 import org.apache.skywalking.oap.server.exporter.grpc.SubscriptionsResp;
 
 public class MockMetricExportServiceImpl extends MetricExportServiceGrpc.MetricExportServiceImplBase {
+    @Getter
+    private final List<ExportMetricBatch> batches = new CopyOnWriteArrayList<>();
+
+    @Override
+    public StreamObserver<ExportMetricBatch> exportBatch(StreamObserver<ExportResponse> responseObserver) {
+        return new StreamObserver<ExportMetricBatch>() {
+            @Override
+            public void onNext(ExportMetricBatch batch) {
+                batches.add(batch);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(ExportResponse.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
     @Override
     public void subscription(SubscriptionReq request, StreamObserver<SubscriptionsResp> responseObserver) {
         SubscriptionsResp resp = SubscriptionsResp.newBuilder()
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.analysis.data;
+
+import java.util.Random;
+import org.apache.skywalking.oap.server.core.analysis.data.LimitedSizeBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.manual.database.TopNDatabaseStatement;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Collect the records of a TopNWorker report period, and read them for persistence. The slow statements are
+ * identified by the segment and span, so almost every one has its own ID, while the top N of the shared IDs keeps
+ * the slowest 50 of each.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(4)
+public class LimitedSizeBufferedDataBenchmark extends AbstractMicrobenchmark {
+    private static final int TOP_N_SIZE = 50;
+    private static final int RECORDS = 10_000;
+    private static final int SHARED_IDS = 20;
+
+    /**
+     * The statements of the long tail latencies from 1ms to about 1 min, identified by the segment and span, or the
+     * given number of the shared IDs.
+     */
+    private static TopNDatabaseStatement[] generateStatements(Random random, int ids) {
+        final TopNDatabaseStatement[] statements = new TopNDatabaseStatement[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            final TopNDatabaseStatement statement = new TopNDatabaseStatement();
+            statement.setId(ids > 0 ? "service-" + i % ids : "segment-" + i + "-1");
+            statement.setServiceId("service-" + i % 100);
+            statement.setLatency(1 + (long) Math.exp(random.nextDouble() * 11));
+            statement.setStatement("select * from orders where id = ?");
+            statement.setTimeBucket(202210101010L);
+            statements[i] = statement;
+        }
+        return statements;
+    }
+
+    @State(Scope.Thread)
+    public static class Statements {
+        private final TopNDatabaseStatement[] slowStatements = generateStatements(new Random(7), 0);
+        private final TopNDatabaseStatement[] sharedIdStatements = generateStatements(new Random(17), SHARED_IDS);
+    }
+
+    @Benchmark
+    public void slowStatements(Blackhole bh, Statements statements) {
+        bh.consume(collect(statements.slowStatements));
+    }
+
+    @Benchmark
+    public void sharedIdStatements(Blackhole bh, Statements statements) {
+        bh.consume(collect(statements.sharedIdStatements));
+    }
+
+    private static Object collect(final TopNDatabaseStatement[] statements) {
+        final LimitedSizeBufferedData<TopNDatabaseStatement> data = new LimitedSizeBufferedData<>(TOP_N_SIZE);
+        for (final TopNDatabaseStatement statement : statements) {
+            data.accept(statement);
+        }
+        return data.read();
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 4 threads, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, the top N of every ID is a LinkedList scanned by index, and copied to an array when being read.
+
+Benchmark                                                                           Mode  Cnt        Score       Error   Units
+LimitedSizeBufferedDataBenchmark.sharedIdStatements                                thrpt    5     1669.625 ±   338.317   ops/s
+LimitedSizeBufferedDataBenchmark.sharedIdStatements:·gc.alloc.rate.norm            thrpt    5    80144.832 ±     3.886    B/op
+LimitedSizeBufferedDataBenchmark.slowStatements                                    thrpt    5      515.839 ±   253.677   ops/s
+LimitedSizeBufferedDataBenchmark.slowStatements:·gc.alloc.rate.norm                thrpt    5  1420246.929 ±    37.344    B/op
+
+After, the top N of every ID is a bounded min-heap growing on demand, and read into a presized list.
+
+Benchmark                                                                           Mode  Cnt       Score       Error   Units
+LimitedSizeBufferedDataBenchmark.sharedIdStatements                                thrpt    5    1955.758 ±   251.574   ops/s
+LimitedSizeBufferedDataBenchmark.sharedIdStatements:·gc.alloc.rate.norm            thrpt    5   21784.693 ±     3.162    B/op
+LimitedSizeBufferedDataBenchmark.slowStatements                                    thrpt    5     658.549 ±   198.167   ops/s
+LimitedSizeBufferedDataBenchmark.slowStatements:·gc.alloc.rate.norm                thrpt    5  971316.300 ±    28.485    B/op
+ */
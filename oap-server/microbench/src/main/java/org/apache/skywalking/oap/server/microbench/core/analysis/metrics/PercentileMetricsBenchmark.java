@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.analysis.metrics;
+
+import java.util.Random;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.PercentileMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.PercentileMetrics2;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare the sketch based {@link PercentileMetrics2} with the {@link PercentileMetrics}, through the lifecycle of a
+ * metrics in the OAP, which is combining the raw values in L1, merging the metrics of L1 in L2, calculating the values
+ * and building the storage data.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(4)
+public class PercentileMetricsBenchmark extends AbstractMicrobenchmark {
+    private static final int PRECISION = 10;
+    private static final int VALUES_PER_METRICS = 1000;
+    private static final int METRICS_TO_MERGE = 10;
+
+    /**
+     * Long tail latencies from 1ms to about 1 min.
+     */
+    private static int[] generateLatencies(Random random, int size) {
+        final int[] latencies = new int[size];
+        for (int i = 0; i < size; i++) {
+            latencies[i] = 1 + (int) Math.exp(random.nextDouble() * 11);
+        }
+        return latencies;
+    }
+
+    @State(Scope.Thread)
+    public static class Latencies {
+        private final int[] values = generateLatencies(new Random(7), VALUES_PER_METRICS);
+        private PercentileMetrics[] percentileMetrics;
+        private PercentileMetrics2[] percentileMetrics2;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(17);
+            percentileMetrics = new PercentileMetrics[METRICS_TO_MERGE];
+            percentileMetrics2 = new PercentileMetrics2[METRICS_TO_MERGE];
+            for (int i = 0; i < METRICS_TO_MERGE; i++) {
+                percentileMetrics[i] = new PercentileMetricsImpl();
+                percentileMetrics2[i] = new PercentileMetrics2Impl();
+                for (final int latency : generateLatencies(random, VALUES_PER_METRICS)) {
+                    percentileMetrics[i].combine(latency, PRECISION);
+                    percentileMetrics2[i].combine(latency);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void percentileCombine(Blackhole bh, Latencies latencies) {
+        final PercentileMetrics metrics = new PercentileMetricsImpl();
+        for (final int latency : latencies.values) {
+            metrics.combine(latency, PRECISION);
+        }
+        metrics.calculate();
+        bh.consume(metrics.getValues());
+    }
+
+    @Benchmark
+    public void percentile2Combine(Blackhole bh, Latencies latencies) {
+        final PercentileMetrics2 metrics = new PercentileMetrics2Impl();
+        for (final int latency : latencies.values) {
+            metrics.combine(latency);
+        }
+        metrics.calculate();
+        bh.consume(metrics.getValues());
+    }
+
+    @Benchmark
+    public void percentileMergeAndPersist(Blackhole bh, Latencies latencies) {
+        final PercentileMetrics metrics = new PercentileMetricsImpl();
+        for (final PercentileMetrics each : latencies.percentileMetrics) {
+            metrics.combine(each);
+        }
+        metrics.calculate();
+        bh.consume(metrics.getValues());
+        bh.consume(metrics.getDataset().toStorageData());
+    }
+
+    @Benchmark
+    public void percentile2MergeAndPersist(Blackhole bh, Latencies latencies) {
+        final PercentileMetrics2 metrics = new PercentileMetrics2Impl();
+        for (final PercentileMetrics2 each : latencies.percentileMetrics2) {
+            metrics.combine(each);
+        }
+        metrics.calculate();
+        bh.consume(metrics.getValues());
+        bh.consume(metrics.getSketch().toStorageData());
+    }
+
+    private static class PercentileMetricsImpl extends PercentileMetrics {
+        @Override
+        protected String id0() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(final RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    private static class PercentileMetrics2Impl extends PercentileMetrics2 {
+        @Override
+        protected String id0() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(final RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 4 threads, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Benchmark                                                                             Mode  Cnt       Score       Error   Units
+PercentileMetricsBenchmark.percentile2Combine                                        thrpt    5   29851.749 ±  2918.852   ops/s
+PercentileMetricsBenchmark.percentile2Combine:·gc.alloc.rate.norm                    thrpt    5   15992.385 ±     0.350    B/op
+PercentileMetricsBenchmark.percentile2MergeAndPersist                                thrpt    5   81456.615 ± 22423.099   ops/s
+PercentileMetricsBenchmark.percentile2MergeAndPersist:·gc.alloc.rate.norm            thrpt    5   16232.016 ±     0.068    B/op
+PercentileMetricsBenchmark.percentileCombine                                         thrpt    5    5074.436 ±   661.249   ops/s
+PercentileMetricsBenchmark.percentileCombine:·gc.alloc.rate.norm                     thrpt    5   84128.266 ±     1.197    B/op
+PercentileMetricsBenchmark.percentileMergeAndPersist                                 thrpt    5     768.898 ±   314.598   ops/s
+PercentileMetricsBenchmark.percentileMergeAndPersist:·gc.alloc.rate.norm             thrpt    5  311322.355 ±     8.541    B/op
+
+Accuracy of 100,000 long tail latencies(the same distribution as above), percentile(10) vs percentile2:
+
+P50 exact=243   percentile=240   (1.23%) percentile2=242   (0.41%)
+P75 exact=3796  percentile=3790  (0.16%) percentile2=3828  (0.84%)
+P90 exact=20032 percentile=20030 (0.01%) percentile2=20136 (0.52%)
+P95 exact=34808 percentile=34800 (0.02%) percentile2=34555 (0.73%)
+P99 exact=53943 percentile=53940 (0.01%) percentile2=53654 (0.54%)
+
+The length of the storage data, percentile=38942 percentile2=1224
+ */
@@ -18,10 +18,17 @@
 
 package org.apache.skywalking.oap.server.microbench.core.profiling.ebpf;
 
+import org.apache.skywalking.apm.network.ebpf.profiling.v3.EBPFOnCPUProfiling;
+import org.apache.skywalking.apm.network.ebpf.profiling.v3.EBPFProfilingStackMetadata;
 import org.apache.skywalking.oap.server.core.profiling.ebpf.analyze.EBPFProfilingAnalyzer;
 import org.apache.skywalking.oap.server.core.profiling.ebpf.analyze.EBPFProfilingStack;
+import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilingDataRecord;
 import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilingStackType;
+import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilingTargetType;
 import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingAnalyzation;
+import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingAnalyzeAggregateType;
+import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingAnalyzeTimeRange;
+import org.apache.skywalking.oap.server.core.storage.profiling.ebpf.IEBPFProfilingDataDAO;
 import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -30,7 +37,9 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -184,6 +193,110 @@ public class EBPFProfilingAnalyzerBenchmark extends AbstractMicrobenchmark {
         }
     }
 
+    /**
+     * The profiling data records of all the processes, which are reported every 5 seconds. The records are fetched by
+     * the analyzer from the storage page by page, and the stacks are serialized as the storage does.
+     */
+    public static class ProfilingData extends EBPFProfilingAnalyzer implements IEBPFProfilingDataDAO {
+        private static final long START_TIME = 1_660_000_000_000L;
+        private static final long REPORT_PERIOD = TimeUnit.SECONDS.toMillis(5);
+
+        private final int processCount;
+        private final int recordCount;
+        private final byte[][] stacks;
+
+        public ProfilingData(int processCount, int totalTimeMinute,
+                             int perStackMinDepth, int perStackMaxDepth,
+                             double[] stackSymbolDuplicateRate,
+                             double stackDuplicateRate) {
+            super(null, 100, 5);
+            this.processCount = processCount;
+            this.recordCount = calculateStackCount(5, totalTimeMinute, processCount);
+            this.stacks = generateStacks((int) (100 / stackDuplicateRate), perStackMinDepth, perStackMaxDepth,
+                                         stackSymbolDuplicateRate, stackDuplicateRate).stream()
+                                                                       .map(ProfilingData::serialize)
+                                                                       .toArray(byte[][]::new);
+        }
+
+        private static byte[] serialize(EBPFProfilingStack stack) {
+            // the symbols of the stacks are reported from the leaf to the root
+            final List<EBPFProfilingStack.Symbol> symbols = new ArrayList<>(stack.getSymbols());
+            Collections.reverse(symbols);
+            final EBPFOnCPUProfiling.Builder builder = EBPFOnCPUProfiling.newBuilder()
+                                                                         .setDumpCount((int) stack.getDumpCount());
+            EBPFProfilingStackMetadata.Builder metadata = null;
+            for (final EBPFProfilingStack.Symbol symbol : symbols) {
+                if (metadata == null || metadata.getStackType() != symbol.getStackType().mapping()) {
+                    if (metadata != null) {
+                        builder.addStacks(metadata);
+                    }
+                    metadata = EBPFProfilingStackMetadata.newBuilder().setStackType(symbol.getStackType().mapping());
+                }
+                metadata.addStackSymbols(symbol.getName());
+            }
+            return builder.addStacks(metadata).build().toByteArray();
+        }
+
+        @Override
+        protected IEBPFProfilingDataDAO getDataDAO() {
+            return this;
+        }
+
+        @Override
+        public List<EBPFProfilingDataRecord> queryData(List<String> scheduleIdList, long beginTime, long endTime) {
+            final List<EBPFProfilingDataRecord> records = new ArrayList<>();
+            final long from = Math.max(0, (beginTime - START_TIME) * processCount / REPORT_PERIOD - 1);
+            final long to = Math.min(recordCount, (endTime - START_TIME) * processCount / REPORT_PERIOD + 1);
+            for (long i = from; i < to; i++) {
+                final long uploadTime = START_TIME + i * REPORT_PERIOD / processCount;
+                if (uploadTime < beginTime || uploadTime >= endTime) {
+                    continue;
+                }
+                final EBPFProfilingDataRecord record = new EBPFProfilingDataRecord();
+                record.setScheduleId("schedule");
+                record.setTargetType(EBPFProfilingTargetType.ON_CPU.value());
+                record.setUploadTime(uploadTime);
+                record.setDataBinary(stacks[(int) Math.floorMod(i * 0x9E3779B1L, (long) stacks.length)]);
+                records.add(record);
+            }
+            return records;
+        }
+
+        public void analyze() throws IOException {
+            final EBPFProfilingAnalyzeTimeRange range = new EBPFProfilingAnalyzeTimeRange();
+            range.setStart(START_TIME);
+            range.setEnd(START_TIME + recordCount * REPORT_PERIOD / processCount);
+            analyze(Collections.singletonList("schedule"), Collections.singletonList(range),
+                    EBPFProfilingAnalyzeAggregateType.COUNT);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LargeProfilingData extends ProfilingData {
+        // rover report period: 5s
+        // dump duration: 10m
+        // 2000 processes analyze
+        // stack depth range: 15, 40
+        // stack duplicate rate: 1%
+        // stack symbol duplicate rate: 30%, 27%, 25%, 20%, 17%, 15%, 10%, 7%, 5%, 2%, 1%
+        public LargeProfilingData() {
+            super(2000, 10, 15, 40, new double[]{30, 27, 25, 20, 17, 15, 10, 7, 5, 2, 1}, 1);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongProfilingData extends ProfilingData {
+        // rover report period: 5s
+        // dump duration: 2h
+        // 100 processes analyze
+        // stack depth range: 15, 30
+        // stack duplicate rate: 3%
+        // stack symbol duplicate rate: 50%, 40%, 35%, 30%, 20%, 10%, 7%, 5%, 2%
+        public LongProfilingData() {
+            super(100, 2 * 60, 15, 30, new double[]{50, 40, 35, 30, 20, 10, 7, 5, 2}, 3);
+        }
+    }
+
     @Benchmark
     public void analyzeLowDataSource(LowDataSource lowDataSource) {
         lowDataSource.analyze();
@@ -199,6 +312,16 @@ public class EBPFProfilingAnalyzerBenchmark extends AbstractMicrobenchmark {
         highDataSource.analyze();
     }
 
+    @Benchmark
+    public void analyzeLargeProfilingData(LargeProfilingData data) throws IOException {
+        data.analyze();
+    }
+
+    @Benchmark
+    public void analyzeLongProfilingData(LongProfilingData data) throws IOException {
+        data.analyze();
+    }
+
 }
 
 /*
@@ -407,3 +530,51 @@ EBPFProfilingAnalyzerBenchmark.analyzeLowDataSource     thrpt   20  2134.237 ±
 EBPFProfilingAnalyzerBenchmark.analyzeMaxDataSource     thrpt   20     6.128 ±  0.149  ops/s
 EBPFProfilingAnalyzerBenchmark.analyzeMedianDataSource  thrpt   20    97.159 ±  3.105  ops/s
  */
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 4 threads, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, all the pages are fetched and deserialized before the analysis, and every stack is added into the tree of its
+own symbols. The large and long profiling data run out of the default heap.
+
+Benchmark                                                                           Mode  Cnt          Score           Error   Units
+EBPFProfilingAnalyzerBenchmark.analyzeLowDataSource                                   thrpt    5       452.515 ±     212.287   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLowDataSource:·gc.alloc.rate.norm               thrpt    5    387261.603 ±      59.986    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeMaxDataSource                                   thrpt    5         0.605 ±       0.210   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeMaxDataSource:·gc.alloc.rate.norm               thrpt    5  47962013.021 ±    1552.764    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeMedianDataSource                                thrpt    5        13.993 ±      10.033   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeMedianDataSource:·gc.alloc.rate.norm            thrpt    5   4306581.275 ±     339.819    B/op
+
+After, the pages are merged into the trees of the interned symbols once fetched, in the time ranges without overlap.
+
+Benchmark                                                                             Mode  Cnt          Score           Error   Units
+EBPFProfilingAnalyzerBenchmark.analyzeLargeProfilingData                                thrpt    5          0.574 ±       0.135   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLargeProfilingData:·gc.alloc.rate.norm            thrpt    5  846408015.564 ±    1756.103    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeLongProfilingData                                 thrpt    5          1.738 ±       0.658   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLongProfilingData:·gc.alloc.rate.norm             thrpt    5  422371777.455 ±    2059.218    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeLowDataSource                                     thrpt    5        410.423 ±     100.083   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLowDataSource:·gc.alloc.rate.norm                 thrpt    5     369477.471 ±      98.460    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeMaxDataSource                                     thrpt    5          0.724 ±       0.067   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeMaxDataSource:·gc.alloc.rate.norm                 thrpt    5   47684630.806 ±    1100.619    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeMedianDataSource                                  thrpt    5         15.439 ±       7.170   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeMedianDataSource:·gc.alloc.rate.norm              thrpt    5    4302614.166 ±     262.033    B/op
+
+The large and long profiling data in 1 thread with -Xmx3g, before and after.
+
+Benchmark                                                                             Mode  Cnt          Score           Error   Units
+EBPFProfilingAnalyzerBenchmark.analyzeLargeProfilingData                                thrpt    5           0.122 ±         0.035   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLargeProfilingData:·gc.alloc.rate.norm            thrpt    5  1041173580.800 ±       372.602    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeLongProfilingData                                 thrpt    5           0.229 ±         0.130   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLongProfilingData:·gc.alloc.rate.norm             thrpt    5   534782049.600 ±      4071.726    B/op
+
+Benchmark                                                                             Mode  Cnt          Score           Error   Units
+EBPFProfilingAnalyzerBenchmark.analyzeLargeProfilingData                                thrpt    5          0.761 ±        0.641   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLargeProfilingData:·gc.alloc.rate.norm            thrpt    5  891332447.867 ±      245.841    B/op
+EBPFProfilingAnalyzerBenchmark.analyzeLongProfilingData                                 thrpt    5          1.687 ±        0.658   ops/s
+EBPFProfilingAnalyzerBenchmark.analyzeLongProfilingData:·gc.alloc.rate.norm             thrpt    5  446539791.733 ±       55.211    B/op
+ */
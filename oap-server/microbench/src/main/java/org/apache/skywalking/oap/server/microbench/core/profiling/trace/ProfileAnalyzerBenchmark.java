@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.profiling.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.analyze.ProfileAnalyzer;
+import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
+import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzeTimeRange;
+import org.apache.skywalking.oap.server.core.storage.profiling.trace.IProfileThreadSnapshotQueryDAO;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Analyze the max number of the thread snapshots of a segment by default, which are dumped every 10ms. The stacks are
+ * deep, share the frames of the framework, and end with the different business methods.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(4)
+public class ProfileAnalyzerBenchmark extends AbstractMicrobenchmark {
+    private static final int SNAPSHOTS = new CoreModuleConfig().getMaxSizeOfAnalyzeProfileSnapshot();
+    private static final int COMMON_DEPTH = 120;
+    private static final int BUSINESS_DEPTH = 60;
+    private static final int BUSINESS_METHODS = 50;
+    private static final long DUMP_PERIOD = 10;
+
+    @State(Scope.Benchmark)
+    public static class Snapshots {
+        private List<ProfileThreadSnapshotRecord> records;
+        private List<ProfileAnalyzeTimeRange> timeRanges;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(7);
+            records = new ArrayList<>(SNAPSHOTS);
+            int method = 0;
+            for (int sequence = 0; sequence < SNAPSHOTS; sequence++) {
+                // The thread stays in the same method for a while
+                if (random.nextInt(10) == 0) {
+                    method = random.nextInt(BUSINESS_METHODS);
+                }
+                final ThreadStack.Builder stack = ThreadStack.newBuilder();
+                for (int depth = 0; depth < COMMON_DEPTH; depth++) {
+                    stack.addCodeSignatures("org.apache.catalina.core.StandardWrapperValve.invoke:" + depth);
+                }
+                final int businessDepth = BUSINESS_DEPTH / 2 + random.nextInt(BUSINESS_DEPTH / 2);
+                for (int depth = 0; depth < businessDepth; depth++) {
+                    stack.addCodeSignatures("com.example.order.OrderService.method" + method + ":" + depth);
+                }
+                final ProfileThreadSnapshotRecord record = new ProfileThreadSnapshotRecord();
+                record.setTaskId("task");
+                record.setSegmentId("segment");
+                record.setSequence(sequence);
+                record.setDumpTime(sequence * DUMP_PERIOD);
+                record.setStackBinary(stack.build().toByteArray());
+                records.add(record);
+            }
+            final ProfileAnalyzeTimeRange range = new ProfileAnalyzeTimeRange();
+            range.setStart(0);
+            range.setEnd(SNAPSHOTS * DUMP_PERIOD);
+            timeRanges = Collections.singletonList(range);
+        }
+    }
+
+    @Benchmark
+    public void analyze(Blackhole bh, Snapshots snapshots) throws Exception {
+        bh.consume(new Analyzer(snapshots.records).analyze("segment", snapshots.timeRanges));
+    }
+
+    private static class Analyzer extends ProfileAnalyzer {
+        private final IProfileThreadSnapshotQueryDAO dao;
+
+        private Analyzer(final List<ProfileThreadSnapshotRecord> records) {
+            super(
+                null, new CoreModuleConfig().getMaxPageSizeOfQueryProfileSnapshot(),
+                new CoreModuleConfig().getMaxSizeOfAnalyzeProfileSnapshot()
+            );
+            dao = new SnapshotDAO(records);
+        }
+
+        @Override
+        protected IProfileThreadSnapshotQueryDAO getProfileThreadSnapshotQueryDAO() {
+            return dao;
+        }
+    }
+
+    /**
+     * Page the snapshots as the storage does, the stacks are deserialized by the analyzer.
+     */
+    private static class SnapshotDAO implements IProfileThreadSnapshotQueryDAO {
+        private final List<ProfileThreadSnapshotRecord> records;
+
+        private SnapshotDAO(final List<ProfileThreadSnapshotRecord> records) {
+            this.records = records;
+        }
+
+        @Override
+        public List<BasicTrace> queryProfiledSegments(final String taskId) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public int queryMinSequence(final String segmentId, final long start, final long end) {
+            return (int) (start / DUMP_PERIOD);
+        }
+
+        @Override
+        public int queryMaxSequence(final String segmentId, final long start, final long end) {
+            return (int) Math.min(end / DUMP_PERIOD, records.size() - 1);
+        }
+
+        @Override
+        public List<ProfileThreadSnapshotRecord> queryRecords(final String segmentId,
+                                                              final int minSequence,
+                                                              final int maxSequence) {
+            return new ArrayList<>(records.subList(minSequence, Math.min(maxSequence, records.size())));
+        }
+
+        @Override
+        public SegmentRecord getProfiledSegment(final String segmentId) {
+            return null;
+        }
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 4 threads, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, the snapshots of all pages are deserialized and kept, the trees are built by parallel streams with the detected stacks in every node.
+
+Benchmark                                                        Mode  Cnt          Score           Error   Units
+ProfileAnalyzerBenchmark.analyze                                thrpt    5          0.776 ±         0.377   ops/s
+ProfileAnalyzerBenchmark.analyze:·gc.alloc.rate.norm            thrpt    5  337753284.184 ±      1350.329    B/op
+
+After, the snapshots are merged page by page into the interned trees, the durations are computed incrementally.
+
+Benchmark                                                        Mode  Cnt          Score          Error   Units
+ProfileAnalyzerBenchmark.analyze                                thrpt    5          3.208 ±        0.503   ops/s
+ProfileAnalyzerBenchmark.analyze:·gc.alloc.rate.norm            thrpt    5  220225545.387 ±     1256.420    B/op
+ */
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanLayer;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.oap.server.core.analysis.manual.searchtag.Tag;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
+import org.apache.skywalking.oap.server.core.query.TraceQueryService;
+import org.apache.skywalking.oap.server.core.query.type.QueryOrder;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.apache.skywalking.oap.server.core.query.type.TraceBrief;
+import org.apache.skywalking.oap.server.core.query.type.TraceState;
+import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.apache.skywalking.oap.server.library.module.Service;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Query the synthetic traces of 10k spans through the {@link TraceQueryService}, the segments are returned by a stub
+ * {@link ITraceQueryDAO}. Every segment is referred by the next one from its last span, and the spans of a segment are
+ * a binary tree.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(1)
+public class TraceQueryServiceBenchmark extends AbstractMicrobenchmark {
+    private static final String TRACE_ID = "a1b2c3d4e5f6.42.16660000000000001";
+
+    @State(Scope.Benchmark)
+    public static class Query {
+        /**
+         * The number of the segments times the spans of every segment.
+         */
+        @Param({"100x100", "4x2500"})
+        private String shape;
+
+        private TraceQueryService service;
+
+        @Setup
+        public void setup() {
+            final String[] segmentsAndSpans = shape.split("x");
+            final List<SegmentRecord> records = segments(
+                Integer.parseInt(segmentsAndSpans[0]), Integer.parseInt(segmentsAndSpans[1]));
+            final ITraceQueryDAO traceQueryDAO = new StubTraceQueryDAO(records);
+            final IComponentLibraryCatalogService componentLibraryCatalogService = new StubComponentLibrary();
+            final ModuleServiceHolder services = new ModuleServiceHolder() {
+                @Override
+                public void registerServiceImplementation(final Class<? extends Service> serviceType,
+                                                          final Service service) {
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T extends Service> T getService(final Class<T> serviceType) {
+                    if (serviceType == ITraceQueryDAO.class) {
+                        return (T) traceQueryDAO;
+                    }
+                    return serviceType == IComponentLibraryCatalogService.class
+                        ? (T) componentLibraryCatalogService : null;
+                }
+            };
+            service = new TraceQueryService(new ModuleManager() {
+                @Override
+                public ModuleProviderHolder find(final String moduleName) {
+                    return () -> services;
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int queryTrace(Query query) throws Exception {
+        return query.service.queryTrace(TRACE_ID).getSpans().size();
+    }
+
+    private static List<SegmentRecord> segments(int segments, int spans) {
+        final List<SegmentRecord> records = new ArrayList<>(segments);
+        for (int s = 0; s < segments; s++) {
+            final SegmentObject.Builder segment = SegmentObject.newBuilder()
+                                                               .setTraceId(TRACE_ID)
+                                                               .setTraceSegmentId(segmentId(s))
+                                                               .setService("batch-job-" + s % 10)
+                                                               .setServiceInstance("batch-job-instance-" + s % 10);
+            for (int i = 0; i < spans; i++) {
+                final SpanObject.Builder span = SpanObject.newBuilder()
+                                                          .setSpanId(i)
+                                                          .setParentSpanId(i == 0 ? -1 : (i - 1) / 2)
+                                                          .setStartTime(1666000000000L + s * spans + i)
+                                                          .setEndTime(1666000000000L + s * spans + i + 5)
+                                                          .setOperationName("/batch/step/" + i % 50)
+                                                          .setPeer(i == spans - 1 ? "batch-job:8080" : "")
+                                                          .setSpanLayer(SpanLayer.Database)
+                                                          .setSpanType(i == 0 ? SpanType.Entry : SpanType.Local)
+                                                          .setComponentId(33)
+                                                          .addTags(tag("db.type", "sql"))
+                                                          .addTags(tag("db.instance", "orders"))
+                                                          .addTags(tag("db.statement", "select * from orders where id = ?"));
+                if (i == 0 && s > 0) {
+                    span.addRefs(SegmentReference.newBuilder()
+                                                 .setRefType(RefType.CrossProcess)
+                                                 .setTraceId(TRACE_ID)
+                                                 .setParentTraceSegmentId(segmentId(s - 1))
+                                                 .setParentSpanId(spans - 1)
+                                                 .setParentService("batch-job-" + (s - 1) % 10)
+                                                 .setParentServiceInstance("batch-job-instance-" + (s - 1) % 10)
+                                                 .setParentEndpoint("/batch/step/0")
+                                                 .setNetworkAddressUsedAtPeer("batch-job:8080"));
+                }
+                segment.addSpans(span);
+            }
+            final SegmentRecord record = new SegmentRecord();
+            record.setSegmentId(segmentId(s));
+            record.setTraceId(TRACE_ID);
+            record.setDataBinary(segment.build().toByteArray());
+            records.add(record);
+        }
+        // The segments are returned by the storage in no particular order.
+        Collections.reverse(records);
+        return records;
+    }
+
+    private static String segmentId(int s) {
+        return "a1b2c3d4e5f6.42.1666000000000" + String.format("%04d", s);
+    }
+
+    private static KeyStringValuePair tag(String key, String value) {
+        return KeyStringValuePair.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    private static class StubTraceQueryDAO implements ITraceQueryDAO {
+        private final List<SegmentRecord> records;
+
+        private StubTraceQueryDAO(final List<SegmentRecord> records) {
+            this.records = records;
+        }
+
+        @Override
+        public TraceBrief queryBasicTraces(final long startSecondTB, final long endSecondTB, final long minDuration,
+                                           final long maxDuration, final String serviceId,
+                                           final String serviceInstanceId, final String endpointId,
+                                           final String traceId, final int limit, final int from,
+                                           final TraceState traceState, final QueryOrder queryOrder,
+                                           final List<Tag> tags) {
+            return new TraceBrief();
+        }
+
+        @Override
+        public List<SegmentRecord> queryByTraceId(final String traceId) {
+            return records;
+        }
+
+        @Override
+        public List<Span> doFlexibleTraceQuery(final String traceId) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static class StubComponentLibrary implements IComponentLibraryCatalogService {
+        @Override
+        public int getComponentId(final String componentName) {
+            return 0;
+        }
+
+        @Override
+        public int getServerIdBasedOnComponent(final int componentId) {
+            return 0;
+        }
+
+        @Override
+        public String getComponentName(final int componentId) {
+            return "Mysql";
+        }
+
+        @Override
+        public String getServerNameBasedOnComponent(final int componentId) {
+            return "Mysql";
+        }
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 1 thread, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, the segments are decoded one by one, and the roots and children are found by scanning all spans.
+
+Benchmark                                                            (shape)   Mode  Cnt         Score          Error   Units
+TraceQueryServiceBenchmark.queryTrace                                100x100  thrpt    5         0.451 ±        0.155   ops/s
+TraceQueryServiceBenchmark.queryTrace:·gc.alloc.rate.norm            100x100  thrpt    5  19262572.000 ±        0.001    B/op
+TraceQueryServiceBenchmark.queryTrace                                 4x2500  thrpt    5         0.493 ±        0.170   ops/s
+TraceQueryServiceBenchmark.queryTrace:·gc.alloc.rate.norm             4x2500  thrpt    5  19228340.000 ±        0.001    B/op
+
+After, the children are indexed by the parent span IDs, the trees are sorted in the linear time. The benchmark runs
+on 1 CPU, so the segments are still decoded in the query thread.
+
+Benchmark                                                            (shape)   Mode  Cnt         Score        Error   Units
+TraceQueryServiceBenchmark.queryTrace                                100x100  thrpt    5        44.453 ±     10.751   ops/s
+TraceQueryServiceBenchmark.queryTrace:·gc.alloc.rate.norm            100x100  thrpt    5  20340091.059 ±      0.731    B/op
+TraceQueryServiceBenchmark.queryTrace                                 4x2500  thrpt    5        50.259 ±     43.322   ops/s
+TraceQueryServiceBenchmark.queryTrace:·gc.alloc.rate.norm             4x2500  thrpt    5  20193722.802 ±      2.234    B/op
+ */
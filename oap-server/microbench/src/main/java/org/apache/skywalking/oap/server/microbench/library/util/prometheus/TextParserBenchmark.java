@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.library.util.prometheus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.skywalking.oap.server.library.util.prometheus.Parser;
+import org.apache.skywalking.oap.server.library.util.prometheus.Parsers;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricFamily;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parse an exposition of about 50MB, shaped like the one of kube-state-metrics in a cluster of 30k pods, with the
+ * gauges and counters of many labels per pod, and a histogram and a summary of the exporter itself.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(1)
+public class TextParserBenchmark extends AbstractMicrobenchmark {
+    private static final int PODS = 30_000;
+    private static final String[] PHASES = {"Pending", "Running", "Succeeded", "Failed", "Unknown"};
+    private static final String[] LE = {"0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "+Inf"};
+
+    @State(Scope.Benchmark)
+    public static class Exposition {
+        private byte[] payload;
+
+        @Setup
+        public void setup() {
+            final StringBuilder sb = new StringBuilder(52 * 1024 * 1024);
+            sb.append("# HELP kube_pod_info Information about pod.\n# TYPE kube_pod_info gauge\n");
+            for (int p = 0; p < PODS; p++) {
+                sb.append("kube_pod_info{namespace=\"ns-").append(p % 50).append("\",pod=\"pod-").append(p)
+                  .append("\",uid=\"5a0f3a3e-").append(p).append("\",host_ip=\"10.0.").append(p % 256)
+                  .append(".1\",pod_ip=\"10.1.").append(p / 256).append('.').append(p % 256)
+                  .append("\",node=\"node-").append(p % 100).append("\",created_by_kind=\"ReplicaSet\"")
+                  .append(",created_by_name=\"deploy-").append(p % 500).append("-5d8c9b\",priority_class=\"\"")
+                  .append(",host_network=\"false\"} 1\n");
+            }
+            sb.append("# HELP kube_pod_status_phase The pods current phase.\n# TYPE kube_pod_status_phase gauge\n");
+            for (int p = 0; p < PODS; p++) {
+                for (final String phase : PHASES) {
+                    sb.append("kube_pod_status_phase{namespace=\"ns-").append(p % 50).append("\",pod=\"pod-")
+                      .append(p).append("\",uid=\"5a0f3a3e-").append(p).append("\",phase=\"").append(phase)
+                      .append("\"} ").append("Running".equals(phase) ? 1 : 0).append('\n');
+                }
+            }
+            for (final String resource : new String[] {"cpu", "memory"}) {
+                sb.append("# HELP kube_pod_container_resource_requests_").append(resource)
+                  .append(" The number of requested resource by a container.\n")
+                  .append("# TYPE kube_pod_container_resource_requests_").append(resource).append(" gauge\n");
+                for (int p = 0; p < PODS; p++) {
+                    for (int c = 0; c < 2; c++) {
+                        sb.append("kube_pod_container_resource_requests_").append(resource)
+                          .append("{namespace=\"ns-").append(p % 50).append("\",pod=\"pod-").append(p)
+                          .append("\",uid=\"5a0f3a3e-").append(p).append("\",container=\"container-").append(c)
+                          .append("\",node=\"node-").append(p % 100).append("\"} ")
+                          .append("cpu".equals(resource) ? "0.25" : "2.68435456e+08").append('\n');
+                    }
+                }
+            }
+            sb.append("# HELP kube_pod_container_status_restarts_total The number of container restarts.\n")
+              .append("# TYPE kube_pod_container_status_restarts_total counter\n");
+            for (int p = 0; p < PODS; p++) {
+                for (int c = 0; c < 2; c++) {
+                    sb.append("kube_pod_container_status_restarts_total{namespace=\"ns-").append(p % 50)
+                      .append("\",pod=\"pod-").append(p).append("\",uid=\"5a0f3a3e-").append(p)
+                      .append("\",container=\"container-").append(c).append("\"} ").append(p % 7).append('\n');
+                }
+            }
+            sb.append("# HELP kube_pod_labels Kubernetes labels converted to Prometheus labels.\n")
+              .append("# TYPE kube_pod_labels gauge\n");
+            for (int p = 0; p < PODS; p++) {
+                sb.append("kube_pod_labels{namespace=\"ns-").append(p % 50).append("\",pod=\"pod-").append(p)
+                  .append("\",uid=\"5a0f3a3e-").append(p).append("\",label_app=\"app-").append(p % 500)
+                  .append("\",label_version=\"v").append(p % 3).append("\",label_pod_template_hash=\"5d8c9b")
+                  .append(p % 500).append("\",label_team=\"team-").append(p % 20).append("\"} 1\n");
+            }
+            sb.append("# HELP http_request_duration_seconds A histogram of the request duration.\n")
+              .append("# TYPE http_request_duration_seconds histogram\n");
+            for (int h = 0; h < 200; h++) {
+                long count = 0;
+                for (final String le : LE) {
+                    count += h;
+                    sb.append("http_request_duration_seconds_bucket{handler=\"/handler-").append(h)
+                      .append("\",le=\"").append(le).append("\"} ").append(count).append('\n');
+                }
+                sb.append("http_request_duration_seconds_sum{handler=\"/handler-").append(h).append("\"} ")
+                  .append(count * 0.05).append('\n');
+                sb.append("http_request_duration_seconds_count{handler=\"/handler-").append(h).append("\"} ")
+                  .append(count).append('\n');
+            }
+            sb.append("# HELP go_gc_duration_seconds A summary of the pause duration of GC cycles.\n")
+              .append("# TYPE go_gc_duration_seconds summary\n")
+              .append("go_gc_duration_seconds{quantile=\"0\"} 4.9351e-05\n")
+              .append("go_gc_duration_seconds{quantile=\"0.25\"} 7.424100000000001e-05\n")
+              .append("go_gc_duration_seconds{quantile=\"0.5\"} 8.3835e-05\n")
+              .append("go_gc_duration_seconds{quantile=\"1\"} 0.000180513\n")
+              .append("go_gc_duration_seconds_sum 0.005625616\n")
+              .append("go_gc_duration_seconds_count 71\n");
+            payload = sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public void parse(Exposition exposition, Blackhole bh) throws IOException {
+        final Parser parser = Parsers.text(new ByteArrayInputStream(exposition.payload));
+        final long now = System.currentTimeMillis();
+        MetricFamily mf;
+        while ((mf = parser.parse(now)) != null) {
+            bh.consume(mf);
+        }
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 1 thread, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, the lines are read as strings and every sample is parsed by a character state machine with a new context.
+
+Benchmark                                                 Mode  Cnt           Score           Error   Units
+TextParserBenchmark.parse                                thrpt    5           0.442 ±         0.103   ops/s
+TextParserBenchmark.parse:·gc.alloc.rate.norm            thrpt    5  1032885704.800 ±    222040.916    B/op
+
+After, the samples are parsed from the bytes of the line buffer, and the repeated names and label values are shared.
+
+Benchmark                                                 Mode  Cnt          Score          Error   Units
+TextParserBenchmark.parse                                thrpt    5          0.937 ±        0.569   ops/s
+TextParserBenchmark.parse:·gc.alloc.rate.norm            thrpt    5  620610558.800 ±    19815.933    B/op
+ */
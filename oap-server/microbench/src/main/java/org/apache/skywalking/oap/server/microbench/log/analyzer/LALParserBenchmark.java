@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.log.analyzer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.skywalking.apm.network.logging.v3.JSONLog;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogDataBody;
+import org.apache.skywalking.apm.network.logging.v3.TextLog;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
+import org.apache.skywalking.oap.log.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parse the text logs by the regexp, and the JSON logs of the application, then extract two fields of them.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(4)
+public class LALParserBenchmark extends AbstractMicrobenchmark {
+    private static final String TEXT_RULE =
+        "filter {\n"
+            + "  text {\n"
+            + "    regexp $/(?s)(?<timestamp>\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}.\\d{3}) \\[TID:(?<tid>.+?)] "
+            + "\\[(?<thread>.+?)] (?<level>\\w{4,}) (?<logger>.{1,36}) (?<msg>.+)/$\n"
+            + "  }\n"
+            + "  extractor {\n"
+            + "    tag level: parsed.level\n"
+            + "    traceId parsed.tid as String\n"
+            + "  }\n"
+            + "}";
+    private static final String JSON_RULE =
+        "filter {\n"
+            + "  json {\n"
+            + "  }\n"
+            + "  extractor {\n"
+            + "    tag level: parsed.level\n"
+            + "    traceId parsed.traceId as String\n"
+            + "  }\n"
+            + "}";
+    private static final String JSON_FIELDS_RULE =
+        "filter {\n"
+            + "  json {\n"
+            + "    fields 'level', 'traceId'\n"
+            + "  }\n"
+            + "  extractor {\n"
+            + "    tag level: parsed.level\n"
+            + "    traceId parsed.traceId as String\n"
+            + "  }\n"
+            + "}";
+    private static final String JSON_BODY =
+        "{\"@timestamp\":\"2022-10-10T10:10:10.010Z\",\"@version\":\"1\",\"message\":\"checkout order 10086 with "
+            + "3 items, total 299.00 USD\",\"logger_name\":\"com.example.checkout.CheckoutService\","
+            + "\"thread_name\":\"http-nio-8080-exec-7\",\"level\":\"INFO\",\"level_value\":20000,"
+            + "\"traceId\":\"9f1c2a6e8b1d4c0fa7d3e5b2c4a6f8e0.52.16653966100010001\","
+            + "\"context\":{\"user\":{\"id\":\"u-42\",\"tier\":\"gold\"},\"order\":{\"id\":10086,"
+            + "\"items\":[{\"sku\":\"A-1\",\"qty\":1},{\"sku\":\"B-2\",\"qty\":2}]}},"
+            + "\"host\":\"checkout-7d9f8b-x2k4p\",\"env\":\"production\",\"region\":\"us-east-1\"}";
+
+    @State(Scope.Benchmark)
+    public static class Rules {
+        private DSL text;
+        private DSL json;
+        private DSL jsonFields;
+
+        @Setup
+        public void setup() throws Exception {
+            final ModuleManager moduleManager = new StubModuleManager(new LongAdder());
+            final LogAnalyzerModuleConfig config = new LogAnalyzerModuleConfig() {
+                @Override
+                public List<Rule> malConfigs() {
+                    return Collections.emptyList();
+                }
+            };
+            text = DSL.of(moduleManager, config, TEXT_RULE);
+            json = DSL.of(moduleManager, config, JSON_RULE);
+            jsonFields = DSL.of(moduleManager, config, JSON_FIELDS_RULE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Logs {
+        private final Binding binding = new Binding();
+        private final LogData textLog = LogData.newBuilder()
+                                               .setService("checkout")
+                                               .setBody(LogDataBody.newBuilder().setText(TextLog.newBuilder().setText(
+                                                   "2022-10-10 10:10:10.010 [TID:9f1c2a6e8b1d4c0fa7d3e5b2c4a6f8e0."
+                                                       + "52.16653966100010001] [http-nio-8080-exec-7] INFO "
+                                                       + "c.e.checkout.CheckoutService checkout order 10086")))
+                                               .build();
+        private final LogData jsonLog = LogData.newBuilder()
+                                               .setService("checkout")
+                                               .setBody(LogDataBody.newBuilder().setJson(
+                                                   JSONLog.newBuilder().setJson(JSON_BODY)))
+                                               .build();
+    }
+
+    @Benchmark
+    public void text(Blackhole bh, Rules rules, Logs logs) {
+        bh.consume(evaluate(rules.text, logs.binding, logs.textLog));
+    }
+
+    @Benchmark
+    public void json(Blackhole bh, Rules rules, Logs logs) {
+        bh.consume(evaluate(rules.json, logs.binding, logs.jsonLog));
+    }
+
+    @Benchmark
+    public void jsonFields(Blackhole bh, Rules rules, Logs logs) {
+        bh.consume(evaluate(rules.jsonFields, logs.binding, logs.jsonLog));
+    }
+
+    private static LogData.Builder evaluate(final DSL dsl, final Binding binding, final LogData log) {
+        dsl.bind(binding.log(log.toBuilder()));
+        dsl.evaluate();
+        return binding.log();
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 4 threads, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, the regexp is compiled for every log, and the whole JSON log is parsed into a map.
+
+Benchmark                                               Mode  Cnt      Score       Error   Units
+LALParserBenchmark.json                                thrpt    5  43886.319 ± 15931.826   ops/s
+LALParserBenchmark.json:·gc.alloc.rate.norm            thrpt    5   9457.460 ±    12.447    B/op
+LALParserBenchmark.text                                thrpt    5  33448.919 ± 11868.948   ops/s
+LALParserBenchmark.text:·gc.alloc.rate.norm            thrpt    5  10110.182 ±    53.066    B/op
+
+After, the regexp is compiled once, and the jsonFields rule only parses the declared fields of the JSON log.
+
+Benchmark                                                     Mode  Cnt      Score       Error   Units
+LALParserBenchmark.json                                      thrpt    5  45915.503 ± 16310.866   ops/s
+LALParserBenchmark.json:·gc.alloc.rate.norm                  thrpt    5  10000.040 ±     0.225    B/op
+LALParserBenchmark.jsonFields                                thrpt    5  55779.390 ± 22074.408   ops/s
+LALParserBenchmark.jsonFields:·gc.alloc.rate.norm            thrpt    5   7634.951 ±    25.308    B/op
+LALParserBenchmark.text                                      thrpt    5  45431.016 ± 22867.437   ops/s
+LALParserBenchmark.text:·gc.alloc.rate.norm                  thrpt    5   7200.030 ±     0.134    B/op
+ */
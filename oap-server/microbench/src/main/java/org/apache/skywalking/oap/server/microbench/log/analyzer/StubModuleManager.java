@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.log.analyzer;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.config.ConfigService;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.source.ISource;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.apache.skywalking.oap.server.library.module.Service;
+
+/**
+ * Provide the core services required by the LAL sinks, the sources are counted and dropped.
+ */
+class StubModuleManager extends ModuleManager {
+    private final ModuleServiceHolder services;
+
+    StubModuleManager(LongAdder received) {
+        final SourceReceiver sourceReceiver = new SourceReceiver() {
+            @Override
+            public void receive(final ISource source) {
+                received.increment();
+            }
+
+            @Override
+            public DispatcherDetectorListener getDispatcherDetectorListener() {
+                return null;
+            }
+        };
+        final NamingControl namingControl = new NamingControl(512, 512, 512, new EndpointNameGrouping());
+        final ConfigService configService = new ConfigService(new CoreModuleConfig());
+        services = new ModuleServiceHolder() {
+            @Override
+            public void registerServiceImplementation(final Class<? extends Service> serviceType,
+                                                      final Service service) {
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends Service> T getService(final Class<T> serviceType) {
+                if (serviceType == SourceReceiver.class) {
+                    return (T) sourceReceiver;
+                }
+                if (serviceType == NamingControl.class) {
+                    return (T) namingControl;
+                }
+                if (serviceType == ConfigService.class) {
+                    return (T) configService;
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public ModuleProviderHolder find(final String moduleName) {
+        return () -> services;
+    }
+}
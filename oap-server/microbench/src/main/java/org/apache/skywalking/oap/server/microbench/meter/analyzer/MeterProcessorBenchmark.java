@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.meter.analyzer;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.skywalking.apm.network.language.agent.v3.Label;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
+import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.meter.process.MeterProcessService;
+import org.apache.skywalking.oap.server.analyzer.provider.meter.process.MeterProcessor;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
+import org.apache.skywalking.oap.server.core.analysis.meter.ScopeType;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.apache.skywalking.oap.server.library.module.Service;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Process the meters reported by the agents through the shipped meter-analyzer-config files datasource, threadpool,
+ * satellite and spring-sleuth, which are all activated. network-profiling is not loaded, its meters are reported by
+ * the eBPF agent rather than the language agents. The meters are calculated by a stub {@link MeterSystem}, the
+ * calculated values are counted and dropped.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(4)
+public class MeterProcessorBenchmark extends AbstractMicrobenchmark {
+    private static final String[] THREAD_POOLS = {"tomcat-exec", "dubbo-exec", "grpc-default", "async-task"};
+    private static final String[] THREAD_POOL_METRICS = {
+        "core_pool_size", "max_pool_size", "pool_size", "queue_size", "active_size"
+    };
+    private static final String[] DATASOURCES = {"orders", "inventory"};
+    private static final String[] DATASOURCE_STATUSES = {
+        "activeConnections", "totalConnections", "idleConnections", "maxPoolSize", "minIdle"
+    };
+    private static final int CUSTOM_COUNTERS = 20;
+    private static final int CUSTOM_HISTOGRAMS = 2;
+    private static final int[] BUCKETS = {0, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    private static final String[] SLEUTH_METERS = {
+        "http_server_requests_count", "http_server_requests_sum", "jdbc_connections_active", "jdbc_connections_idle",
+        "jdbc_connections_max", "jvm_classes_loaded", "jvm_classes_unloaded", "jvm_gc_pause_count",
+        "jvm_gc_pause_sum", "jvm_memory_committed", "jvm_memory_max", "jvm_memory_used", "jvm_threads_daemon",
+        "jvm_threads_live", "jvm_threads_peak", "process_cpu_usage", "system_cpu_usage", "system_load_average_1m",
+        "tomcat_sessions_active_current", "tomcat_sessions_active_max", "tomcat_sessions_rejected",
+        "process_files_max", "process_files_open"
+    };
+    private static final String[] MEMORY_AREAS = {"heap", "nonheap"};
+
+    @State(Scope.Benchmark)
+    public static class Processor {
+        private final LongAdder calculated = new LongAdder();
+        private MeterProcessService service;
+
+        @Setup
+        public void setup() throws Exception {
+            MeterEntity.setNamingControl(new NamingControl(512, 512, 512, new EndpointNameGrouping()));
+            final StubMeterSystem meterSystem = new StubMeterSystem(calculated);
+            final ModuleServiceHolder services = new ModuleServiceHolder() {
+                @Override
+                public void registerServiceImplementation(final Class<? extends Service> serviceType,
+                                                          final Service service) {
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T extends Service> T getService(final Class<T> serviceType) {
+                    return serviceType == MeterSystem.class ? (T) meterSystem : null;
+                }
+            };
+            service = new MeterProcessService(new ModuleManager() {
+                @Override
+                public ModuleProviderHolder find(final String moduleName) {
+                    return () -> services;
+                }
+            });
+            final List<MeterConfig> configs = new ArrayList<>();
+            for (final String file : new String[] {"datasource", "threadpool", "satellite", "spring-sleuth"}) {
+                try (Reader r = new InputStreamReader(
+                    MeterProcessorBenchmark.class.getClassLoader()
+                                                 .getResourceAsStream("meter-analyzer-config/" + file + ".yaml"),
+                    StandardCharsets.UTF_8)) {
+                    configs.add(new Yaml().loadAs(r, MeterConfig.class));
+                }
+            }
+            service.start(configs);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reports {
+        private final List<MeterData> agent = new ArrayList<>();
+        private final List<MeterData> sleuth = new ArrayList<>();
+
+        @Setup
+        public void setup() {
+            final long now = System.currentTimeMillis();
+            for (final String pool : THREAD_POOLS) {
+                for (final String metric : THREAD_POOL_METRICS) {
+                    agent.add(single("thread_pool", 16, "pool_name", pool, "metric_type", metric));
+                }
+            }
+            for (final String datasource : DATASOURCES) {
+                for (final String status : DATASOURCE_STATUSES) {
+                    agent.add(single("datasource", 8, "name", datasource, "status", status));
+                }
+            }
+            for (int i = 0; i < CUSTOM_COUNTERS; i++) {
+                agent.add(single("business_counter_" + i, i, "region", "us-east-1"));
+            }
+            for (int i = 0; i < CUSTOM_HISTOGRAMS; i++) {
+                final MeterHistogram.Builder histogram = MeterHistogram.newBuilder().setName("business_latency_" + i);
+                histogram.addLabels(Label.newBuilder().setName("region").setValue("us-east-1"));
+                for (final int bucket : BUCKETS) {
+                    histogram.addValues(MeterBucketValue.newBuilder().setBucket(bucket).setCount(bucket + 1));
+                }
+                agent.add(MeterData.newBuilder().setHistogram(histogram).build());
+            }
+            for (final String meter : SLEUTH_METERS) {
+                if (meter.startsWith("jvm_memory")) {
+                    for (final String area : MEMORY_AREAS) {
+                        sleuth.add(single(meter, 1 << 20, "area", area));
+                    }
+                } else {
+                    sleuth.add(single(meter, 42));
+                }
+            }
+            agent.set(0, agent.get(0).toBuilder()
+                              .setService("checkout")
+                              .setServiceInstance("checkout-7d9f8b-x2k4p")
+                              .setTimestamp(now).build());
+            sleuth.set(0, sleuth.get(0).toBuilder()
+                                .setService("checkout")
+                                .setServiceInstance("checkout-7d9f8b-x2k4p")
+                                .setTimestamp(now).build());
+        }
+
+        private static MeterData single(String name, double value, String... labels) {
+            final MeterSingleValue.Builder single = MeterSingleValue.newBuilder().setName(name).setValue(value);
+            for (int i = 0; i < labels.length; i += 2) {
+                single.addLabels(Label.newBuilder().setName(labels[i]).setValue(labels[i + 1]));
+            }
+            return MeterData.newBuilder().setSingleValue(single).build();
+        }
+    }
+
+    @Benchmark
+    public void agentReport(Processor processor, Reports reports) {
+        process(processor, reports.agent);
+    }
+
+    @Benchmark
+    public void sleuthReport(Processor processor, Reports reports) {
+        process(processor, reports.sleuth);
+    }
+
+    private static void process(Processor processor, List<MeterData> report) {
+        final MeterProcessor meterProcessor = processor.service.createProcessor();
+        report.forEach(meterProcessor::read);
+        meterProcessor.process();
+    }
+
+    /**
+     * Create no dynamic metrics class, every metrics built is a counter of the calculations.
+     */
+    private static class StubMeterSystem extends MeterSystem {
+        private final LongAdder calculated;
+
+        StubMeterSystem(LongAdder calculated) {
+            super(null);
+            this.calculated = calculated;
+        }
+
+        @Override
+        public synchronized <T> void create(final String metricsName,
+                                            final String functionName,
+                                            final ScopeType type,
+                                            final Class<T> dataType) {
+        }
+
+        @Override
+        public <T> AcceptableValue<T> buildMetrics(final String metricsName, final Class<T> dataType) {
+            return new StubValue<>();
+        }
+
+        @Override
+        public void doStreamingCalculation(final AcceptableValue acceptableValue) {
+            calculated.increment();
+        }
+    }
+
+    private static class StubValue<T> implements AcceptableValue<T> {
+        private long timeBucket;
+
+        @Override
+        public void accept(final MeterEntity entity, final T value) {
+        }
+
+        @Override
+        public AcceptableValue<T> createNew() {
+            return new StubValue<>();
+        }
+
+        @Override
+        public Class<? extends StorageBuilder> builder() {
+            return null;
+        }
+
+        @Override
+        public void setTimeBucket(final long timeBucket) {
+            this.timeBucket = timeBucket;
+        }
+
+        @Override
+        public long getTimeBucket() {
+            return timeBucket;
+        }
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 4 threads, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, the sample families of all the meters are built for every activated file.
+
+Benchmark                                                            Mode  Cnt       Score      Error   Units
+MeterProcessorBenchmark.agentReport                                 thrpt    5    8345.986 ± 4541.499   ops/s
+MeterProcessorBenchmark.agentReport:·gc.alloc.rate.norm             thrpt    5  254437.267 ±  182.185    B/op
+MeterProcessorBenchmark.sleuthReport                                thrpt    5    4229.256 ± 1657.452   ops/s
+MeterProcessorBenchmark.sleuthReport:·gc.alloc.rate.norm            thrpt    5  214681.840 ± 2184.244    B/op
+
+After, the sample families of the referred meters are built once, and only the files referring to them are routed.
+
+Benchmark                                                            Mode  Cnt       Score      Error   Units
+MeterProcessorBenchmark.agentReport                                 thrpt    5   16020.321 ± 8598.912   ops/s
+MeterProcessorBenchmark.agentReport:·gc.alloc.rate.norm             thrpt    5  111111.721 ±  175.570    B/op
+MeterProcessorBenchmark.sleuthReport                                thrpt    5    6140.005 ± 1650.731   ops/s
+MeterProcessorBenchmark.sleuthReport:·gc.alloc.rate.norm            thrpt    5  159479.230 ± 2002.077    B/op
+ */
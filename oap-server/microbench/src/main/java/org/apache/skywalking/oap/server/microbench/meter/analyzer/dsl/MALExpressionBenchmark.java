@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.FileReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.skywalking.oap.meter.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Expression;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Sample;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamilyBuilder;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Run the MAL expressions of the shipped otel-rules, vm.yaml, and a pod level binary operation like k8s-*.yaml, over
+ * the samples of a typical scrape. The expressions are compiled by the MAL compiler, or run by the Groovy scripts.
+ * Run it in the microbench directory, as all rules of vm.yaml are loaded from the server-starter resources.
+ */
+@BenchmarkMode({Mode.Throughput})
+@Threads(4)
+public class MALExpressionBenchmark extends AbstractMicrobenchmark {
+    private static final int HOSTS = 20;
+    private static final int CPUS = 8;
+    private static final String[] CPU_MODES = {
+        "idle", "iowait", "irq", "nice", "softirq", "steal", "system", "user"
+    };
+    private static final int MOUNT_POINTS = 5;
+    private static final int PODS = 1000;
+    private static final int DEVICES = 2;
+    private static final String[] VM_GAUGES = {
+        "node_load1", "node_load5", "node_load15", "node_memory_SwapFree_bytes", "node_memory_SwapTotal_bytes",
+        "node_netstat_Tcp_CurrEstab", "node_sockstat_TCP_tw", "node_sockstat_TCP_alloc", "node_sockstat_sockets_used",
+        "node_sockstat_UDP_inuse", "node_filefd_allocated"
+    };
+    private static final String[] VM_DEVICE_COUNTERS = {
+        "node_disk_read_bytes_total", "node_disk_written_bytes_total", "node_network_receive_bytes_total",
+        "node_network_transmit_bytes_total"
+    };
+    private static final String VM_RULES = "../server-starter/src/main/resources/otel-rules/vm.yaml";
+
+    @State(Scope.Benchmark)
+    public static class Expressions {
+        @Param({"compiled", "groovy"})
+        public String engine;
+
+        private Expression cpuTotalPercentage;
+        private Expression cpuAverageUsed;
+        private Expression memoryUsed;
+        private Expression filesystemPercentage;
+        private Expression podMemoryUtilization;
+        private List<Expression> vmRules;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() throws Exception {
+            final Function<String, Expression> parser = "compiled".equals(engine) ? DSL::parse : DSL::parseScript;
+            cpuTotalPercentage = parser.apply(
+                "(node_cpu_seconds_total * 100).tagNotEqual('mode' , 'idle').sum(['node_identifier_host_name'])"
+                    + ".rate('PT1M').service(['node_identifier_host_name'] , Layer.OS_LINUX)");
+            cpuAverageUsed = parser.apply(
+                "(node_cpu_seconds_total * 100).sum(['node_identifier_host_name' , 'mode']).rate('PT1M')"
+                    + ".service(['node_identifier_host_name'] , Layer.OS_LINUX)");
+            memoryUsed = parser.apply(
+                "(node_memory_MemTotal_bytes - node_memory_MemAvailable_bytes)"
+                    + ".service(['node_identifier_host_name'] , Layer.OS_LINUX)");
+            filesystemPercentage = parser.apply(
+                "(100 - ((node_filesystem_avail_bytes * 100).sum(['node_identifier_host_name' , 'mountpoint'])"
+                    + " / node_filesystem_size_bytes.sum(['node_identifier_host_name' , 'mountpoint'])))"
+                    + ".service(['node_identifier_host_name'] , Layer.OS_LINUX)");
+            podMemoryUtilization = parser.apply(
+                "(container_memory_working_set_bytes * 100 / container_spec_memory_limit_bytes)"
+                    + ".sum(['cluster' , 'namespace' , 'pod']).instance(['cluster'] , ['pod'] , Layer.K8S)");
+
+            vmRules = new ArrayList<>();
+            try (Reader reader = new FileReader(VM_RULES)) {
+                final Map<String, Object> rule = new Yaml().load(reader);
+                for (final Map<String, Object> metricsRule : (List<Map<String, Object>>) rule.get("metricsRules")) {
+                    vmRules.add(parser.apply(
+                        String.format("(%s).%s", metricsRule.get("exp"), rule.get("expSuffix"))));
+                }
+            }
+            if ("compiled".equals(engine) && !vmRules.stream().allMatch(Expression::isCompiled)) {
+                throw new IllegalStateException("Not all the vm.yaml rules are compiled");
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Scrape {
+        private Map<String, SampleFamily> vm;
+        private Map<String, SampleFamily> k8s;
+
+        @Setup
+        public void setup() {
+            MeterEntity.setNamingControl(new NamingControl(512, 512, 512, new EndpointNameGrouping()));
+
+            final long now = System.currentTimeMillis();
+            final List<Sample> cpu = new ArrayList<>();
+            final List<Sample> memTotal = new ArrayList<>();
+            final List<Sample> memAvailable = new ArrayList<>();
+            final List<Sample> fsAvail = new ArrayList<>();
+            final List<Sample> fsSize = new ArrayList<>();
+            for (int h = 0; h < HOSTS; h++) {
+                final String host = "host-" + h;
+                for (int c = 0; c < CPUS; c++) {
+                    for (final String mode : CPU_MODES) {
+                        cpu.add(sample("node_cpu_seconds_total", ImmutableMap.of(
+                            "node_identifier_host_name", host, "cpu", String.valueOf(c), "mode", mode), 1000 + c, now));
+                    }
+                }
+                memTotal.add(sample("node_memory_MemTotal_bytes",
+                                    ImmutableMap.of("node_identifier_host_name", host), 16e9, now));
+                memAvailable.add(sample("node_memory_MemAvailable_bytes",
+                                        ImmutableMap.of("node_identifier_host_name", host), 6e9, now));
+                for (int m = 0; m < MOUNT_POINTS; m++) {
+                    final ImmutableMap<String, String> labels = ImmutableMap.of(
+                        "node_identifier_host_name", host, "mountpoint", "/mnt/" + m, "fstype", "ext4");
+                    fsAvail.add(sample("node_filesystem_avail_bytes", labels, 3e10, now));
+                    fsSize.add(sample("node_filesystem_size_bytes", labels, 1e11, now));
+                }
+            }
+            vm = new HashMap<>();
+            vm.put("node_cpu_seconds_total", family(cpu));
+            vm.put("node_memory_MemTotal_bytes", family(memTotal));
+            vm.put("node_memory_MemAvailable_bytes", family(memAvailable));
+            vm.put("node_filesystem_avail_bytes", family(fsAvail));
+            vm.put("node_filesystem_size_bytes", family(fsSize));
+            for (final String name : VM_GAUGES) {
+                final List<Sample> gauges = new ArrayList<>();
+                for (int h = 0; h < HOSTS; h++) {
+                    gauges.add(sample(name, ImmutableMap.of("node_identifier_host_name", "host-" + h), 100, now));
+                }
+                vm.put(name, family(gauges));
+            }
+            for (final String name : VM_DEVICE_COUNTERS) {
+                final List<Sample> counters = new ArrayList<>();
+                for (int h = 0; h < HOSTS; h++) {
+                    for (int d = 0; d < DEVICES; d++) {
+                        counters.add(sample(name, ImmutableMap.of(
+                            "node_identifier_host_name", "host-" + h, "device", "dev-" + d), 1e6, now));
+                    }
+                }
+                vm.put(name, family(counters));
+            }
+
+            final List<Sample> workingSet = new ArrayList<>();
+            final List<Sample> limit = new ArrayList<>();
+            for (int p = 0; p < PODS; p++) {
+                final ImmutableMap<String, String> labels = ImmutableMap.of(
+                    "cluster", "c1", "namespace", "ns-" + p % 10, "pod", "pod-" + p, "container", "app");
+                workingSet.add(sample("container_memory_working_set_bytes", labels, 2e8 + p, now));
+                limit.add(sample("container_spec_memory_limit_bytes", labels, 1e9, now));
+            }
+            k8s = new HashMap<>();
+            k8s.put("container_memory_working_set_bytes", family(workingSet));
+            k8s.put("container_spec_memory_limit_bytes", family(limit));
+        }
+
+        private static Sample sample(String name, ImmutableMap<String, String> labels, double value, long timestamp) {
+            return Sample.builder().name(name).labels(labels).value(value).timestamp(timestamp).build();
+        }
+
+        private static SampleFamily family(List<Sample> samples) {
+            return SampleFamilyBuilder.newBuilder(samples.toArray(new Sample[0])).build();
+        }
+    }
+
+    @Benchmark
+    public void cpuTotalPercentage(Blackhole bh, Expressions expressions, Scrape scrape) {
+        bh.consume(expressions.cpuTotalPercentage.run(scrape.vm));
+    }
+
+    @Benchmark
+    public void cpuAverageUsed(Blackhole bh, Expressions expressions, Scrape scrape) {
+        bh.consume(expressions.cpuAverageUsed.run(scrape.vm));
+    }
+
+    @Benchmark
+    public void memoryUsed(Blackhole bh, Expressions expressions, Scrape scrape) {
+        bh.consume(expressions.memoryUsed.run(scrape.vm));
+    }
+
+    @Benchmark
+    public void filesystemPercentage(Blackhole bh, Expressions expressions, Scrape scrape) {
+        bh.consume(expressions.filesystemPercentage.run(scrape.vm));
+    }
+
+    @Benchmark
+    public void podMemoryUtilization(Blackhole bh, Expressions expressions, Scrape scrape) {
+        bh.consume(expressions.podMemoryUtilization.run(scrape.k8s));
+    }
+
+    @Benchmark
+    public void vmRules(Blackhole bh, Expressions expressions, Scrape scrape) {
+        for (final Expression expression : expressions.vmRules) {
+            bh.consume(expression.run(scrape.vm));
+        }
+    }
+}
+
+/*
+# JMH version: 1.25
+# VM version: JDK 11.0.21, OpenJDK 64-Bit Server VM, 11.0.21+9
+# Warmup: 3 iterations, 2 s each
+# Measurement: 5 iterations, 3 s each
+# Threads: 4 threads, will synchronize iterations
+# Benchmark mode: Throughput, ops/time
+
+Before, SampleFamily operations by streams, groupingBy and the nested loop join of the binary operations.
+
+Benchmark                                                                  Mode  Cnt         Score         Error   Units
+MALExpressionBenchmark.cpuAverageUsed                                      thrpt    5       772.092 ±     317.573   ops/s
+MALExpressionBenchmark.cpuAverageUsed:·gc.alloc.rate.norm                  thrpt    5   1090338.188 ±    7032.063    B/op
+MALExpressionBenchmark.cpuTotalPercentage                                  thrpt    5      1723.775 ±    1167.319   ops/s
+MALExpressionBenchmark.cpuTotalPercentage:·gc.alloc.rate.norm              thrpt    5    904075.865 ±     939.721    B/op
+MALExpressionBenchmark.filesystemPercentage                                thrpt    5      1116.715 ±     793.210   ops/s
+MALExpressionBenchmark.filesystemPercentage:·gc.alloc.rate.norm            thrpt    5    923072.568 ±     472.859    B/op
+MALExpressionBenchmark.memoryUsed                                          thrpt    5     37411.056 ±   26424.892   ops/s
+MALExpressionBenchmark.memoryUsed:·gc.alloc.rate.norm                      thrpt    5     61378.094 ±      17.884    B/op
+MALExpressionBenchmark.podMemoryUtilization                                thrpt    5        13.508 ±       3.547   ops/s
+MALExpressionBenchmark.podMemoryUtilization:·gc.alloc.rate.norm            thrpt    5  60654343.579 ±  133462.019    B/op
+
+After, single pass grouping, hash join of the binary operations and no copy of the samples without NaN.
+
+Benchmark                                                                  Mode  Cnt         Score         Error   Units
+MALExpressionBenchmark.cpuAverageUsed                                      thrpt    5     2452.942 ±  1006.602   ops/s
+MALExpressionBenchmark.cpuAverageUsed:·gc.alloc.rate.norm                  thrpt    5   498406.713 ±  8307.017    B/op
+MALExpressionBenchmark.cpuTotalPercentage                                  thrpt    5     6128.649 ±  2139.236   ops/s
+MALExpressionBenchmark.cpuTotalPercentage:·gc.alloc.rate.norm              thrpt    5   272509.367 ±   886.178    B/op
+MALExpressionBenchmark.filesystemPercentage                                thrpt    5     7179.282 ±  3904.003   ops/s
+MALExpressionBenchmark.filesystemPercentage:·gc.alloc.rate.norm            thrpt    5   170570.488 ±   158.432    B/op
+MALExpressionBenchmark.memoryUsed                                          thrpt    5   100009.386 ± 29830.757   ops/s
+MALExpressionBenchmark.memoryUsed:·gc.alloc.rate.norm                      thrpt    5    22472.013 ±     0.056    B/op
+MALExpressionBenchmark.podMemoryUtilization                                thrpt    5      392.509 ±   199.085   ops/s
+MALExpressionBenchmark.podMemoryUtilization:·gc.alloc.rate.norm            thrpt    5  2395596.077 ±    71.668    B/op
+
+Compiled by the ExpressionCompiler vs run by the Groovy scripts, the expressions above and all rules of otel-rules/vm.yaml.
+# Measurement: 5 iterations, 2 s each, 2 forks
+# Threads: 1 thread on 1 CPU, so the errors are large.
+The per-op allocation is the same, the operations of SampleFamily dominate. The dispatch-bound expressions, memoryUsed
+and vmRules, are 10%-20% faster compiled, the others are in the errors.
+
+Benchmark                                                                  (engine)   Mode  Cnt        Score        Error   Units
+MALExpressionBenchmark.cpuAverageUsed                                      compiled  thrpt   10     3713.788 ±   1404.582   ops/s
+MALExpressionBenchmark.cpuAverageUsed:·gc.alloc.rate.norm                  compiled  thrpt   10   499085.470 ±  17414.669    B/op
+MALExpressionBenchmark.cpuAverageUsed                                        groovy  thrpt   10     3281.412 ±    771.297   ops/s
+MALExpressionBenchmark.cpuAverageUsed:·gc.alloc.rate.norm                    groovy  thrpt   10   490372.749 ±  16622.730    B/op
+MALExpressionBenchmark.cpuTotalPercentage                                  compiled  thrpt   10     8207.916 ±   1659.672   ops/s
+MALExpressionBenchmark.cpuTotalPercentage:·gc.alloc.rate.norm              compiled  thrpt   10   271916.959 ±   2070.738    B/op
+MALExpressionBenchmark.cpuTotalPercentage                                    groovy  thrpt   10     8909.842 ±   3807.624   ops/s
+MALExpressionBenchmark.cpuTotalPercentage:·gc.alloc.rate.norm                groovy  thrpt   10   271706.384 ±   2037.041    B/op
+MALExpressionBenchmark.filesystemPercentage                                compiled  thrpt   10    10932.803 ±   3905.673   ops/s
+MALExpressionBenchmark.filesystemPercentage:·gc.alloc.rate.norm            compiled  thrpt   10   170192.025 ±      0.015    B/op
+MALExpressionBenchmark.filesystemPercentage                                  groovy  thrpt   10    11824.712 ±   2918.721   ops/s
+MALExpressionBenchmark.filesystemPercentage:·gc.alloc.rate.norm              groovy  thrpt   10   175320.019 ±   7649.459    B/op
+MALExpressionBenchmark.memoryUsed                                          compiled  thrpt   10   130911.401 ±  45171.456   ops/s
+MALExpressionBenchmark.memoryUsed:·gc.alloc.rate.norm                      compiled  thrpt   10    22200.002 ±      0.001    B/op
+MALExpressionBenchmark.memoryUsed                                            groovy  thrpt   10   109660.895 ±  23986.249   ops/s
+MALExpressionBenchmark.memoryUsed:·gc.alloc.rate.norm                        groovy  thrpt   10    22532.002 ±     57.371    B/op
+MALExpressionBenchmark.podMemoryUtilization                                compiled  thrpt   10      703.386 ±    264.061   ops/s
+MALExpressionBenchmark.podMemoryUtilization:·gc.alloc.rate.norm            compiled  thrpt   10  2327272.415 ± 108410.365    B/op
+MALExpressionBenchmark.podMemoryUtilization                                  groovy  thrpt   10      807.855 ±    216.119   ops/s
+MALExpressionBenchmark.podMemoryUtilization:·gc.alloc.rate.norm              groovy  thrpt   10  2315453.419 ± 127516.074    B/op
+MALExpressionBenchmark.vmRules                                             compiled  thrpt   10     1439.385 ±    370.751   ops/s
+MALExpressionBenchmark.vmRules:·gc.alloc.rate.norm                         compiled  thrpt   10  1436586.053 ±  27237.624    B/op
+MALExpressionBenchmark.vmRules                                               groovy  thrpt   10     1300.558 ±    251.727   ops/s
+MALExpressionBenchmark.vmRules:·gc.alloc.rate.norm                           groovy  thrpt   10  1422917.072 ±  28890.899    B/op
+ */
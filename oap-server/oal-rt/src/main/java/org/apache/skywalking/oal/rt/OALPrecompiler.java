@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.rt;
+
+import java.io.File;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
+import org.apache.skywalking.oap.server.core.oal.rt.OALDefine;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilderFactory;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+
+/**
+ * OALPrecompiler generates the metrics, metrics builder and dispatcher classes of the OAL scripts at the build time,
+ * which is the same as {@link OALRuntime} does in the OAP booting stage. The class files and the checksums of the
+ * scripts are written into the given folder, and packaged with the OAP server.
+ *
+ * In the runtime, {@link OALRuntime} loads the precompiled classes directly, unless the script has been changed.
+ *
+ * Usage: OALPrecompiler ${output folder} ${OALDefine class name} [${OALDefine class name} ...]
+ */
+@Slf4j
+public class OALPrecompiler {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                "Usage: OALPrecompiler ${output folder} ${OALDefine class name} [${OALDefine class name} ...]");
+        }
+        final File outputFolder = new File(args[0]);
+
+        scanSources();
+        for (int i = 1; i < args.length; i++) {
+            final OALDefine define = (OALDefine) Class.forName(args[i]).getField("INSTANCE").get(null);
+            final long start = System.currentTimeMillis();
+
+            final OALRuntime runtime = new OALRuntime(define);
+            runtime.setStorageBuilderFactory(new StorageBuilderFactory.Default());
+            runtime.precompile(outputFolder);
+
+            log.info(
+                "Precompiled {} into {}, took {} ms.", define.getConfigFile(), outputFolder.getAbsolutePath(),
+                System.currentTimeMillis() - start
+            );
+        }
+    }
+
+    /**
+     * The source scopes are required by the OAL script parser, which are registered in the CoreModule in the runtime.
+     */
+    private static void scanSources() throws IOException, StorageException {
+        AnnotationScan scopeScan = new AnnotationScan();
+        scopeScan.registerListener(new DefaultScopeDefine.Listener());
+        scopeScan.scan();
+    }
+}
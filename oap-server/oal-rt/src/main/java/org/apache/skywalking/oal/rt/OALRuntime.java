@@ -25,8 +25,12 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -49,6 +53,7 @@ import javassist.bytecode.annotation.IntegerMemberValue;
 import javassist.bytecode.annotation.StringMemberValue;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.JavaVersion;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.skywalking.oal.rt.output.AllDispatcherContext;
@@ -91,6 +96,7 @@ public class OALRuntime implements OALEngine {
     private static final String METRICS_STREAM_PROCESSOR = "org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor";
     private static final String[] METRICS_CLASS_METHODS = {
         "id",
+        "metricsID",
         "hashCode",
         "remoteHashCode",
         "equals",
@@ -104,6 +110,10 @@ public class OALRuntime implements OALEngine {
         "entity2Storage",
         "storage2Entity"
     };
+    /**
+     * The folder of the checksum files of the precompiled OAL scripts, see {@link OALPrecompiler}.
+     */
+    static final String PRECOMPILED_CHECKSUM_FOLDER = "oal-rt/precompiled/";
     private static boolean IS_RT_TEMP_FOLDER_INIT_COMPLETED = false;
 
     private final OALDefine oalDefine;
@@ -117,6 +127,11 @@ public class OALRuntime implements OALEngine {
     private final List<Class> metricsClasses;
     private final List<Class> dispatcherClasses;
     private final boolean openEngineDebug;
+    /**
+     * The output folder of the class files when running by {@link OALPrecompiler}. Null means the generated classes are
+     * loaded into the current class loader.
+     */
+    private File precompileOutput;
 
     public OALRuntime(OALDefine define) {
         oalDefine = define;
@@ -153,23 +168,135 @@ public class OALRuntime implements OALEngine {
         }
 
         this.currentClassLoader = currentClassLoader;
-        Reader read;
+        final String script = readScript();
+        final OALScripts oalScripts = parseScript(script);
+
+        if (isPrecompiled(oalScripts, script)) {
+            log.info("Load the precompiled OAL classes of {}.", oalDefine.getConfigFile());
+            this.loadPrecompiledClasses(oalScripts);
+        } else {
+            this.generateClassAtRuntime(oalScripts);
+        }
+    }
+
+    /**
+     * Generate the classes of the OAL script, and write them into the given folder rather than loading them. The
+     * checksum of the script is written at the same time, which is used to verify whether the precompiled classes
+     * could be used in the runtime.
+     *
+     * @param outputFolder the root folder of the class files.
+     */
+    public void precompile(File outputFolder) throws ModuleStartException, OALCompileException {
+        this.precompileOutput = outputFolder;
+        final String script = readScript();
+        this.generateClassAtRuntime(parseScript(script));
 
+        final File checksumFile = new File(outputFolder, checksumFilePath());
         try {
-            read = ResourceUtils.read(oalDefine.getConfigFile());
+            FileUtils.writeStringToFile(checksumFile, checksum(script), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ModuleStartException("Can't write " + checksumFile.getAbsolutePath(), e);
+        }
+    }
+
+    private String readScript() throws ModuleStartException {
+        try (Reader read = ResourceUtils.read(oalDefine.getConfigFile())) {
+            return IOUtils.toString(read);
         } catch (FileNotFoundException e) {
             throw new ModuleStartException("Can't locate " + oalDefine.getConfigFile(), e);
+        } catch (IOException e) {
+            throw new ModuleStartException("Can't read " + oalDefine.getConfigFile(), e);
         }
+    }
 
-        OALScripts oalScripts;
+    private OALScripts parseScript(String script) throws ModuleStartException {
         try {
-            ScriptParser scriptParser = ScriptParser.createFromFile(read, oalDefine.getSourcePackage());
-            oalScripts = scriptParser.parse();
+            ScriptParser scriptParser = ScriptParser.createFromScriptText(script, oalDefine.getSourcePackage());
+            return scriptParser.parse();
         } catch (IOException e) {
             throw new ModuleStartException("OAL script parse analysis failure.", e);
         }
+    }
+
+    /**
+     * The precompiled classes are used only when the checksum of the current script matches the one generated at the
+     * build time, and all the classes exist. Otherwise, such as the script has been changed by the user, the classes are
+     * generated dynamically.
+     */
+    private boolean isPrecompiled(OALScripts oalScripts, String script) {
+        try (InputStream checksumStream = currentClassLoader.getResourceAsStream(checksumFilePath())) {
+            if (checksumStream == null) {
+                return false;
+            }
+            final String precompiledChecksum = IOUtils.toString(checksumStream, StandardCharsets.UTF_8).trim();
+            if (!precompiledChecksum.equals(checksum(script))) {
+                log.info(
+                    "{} is different from the precompiled one, generate the classes dynamically.",
+                    oalDefine.getConfigFile()
+                );
+                return false;
+            }
+        } catch (IOException e) {
+            log.warn("Can't read the precompiled checksum of " + oalDefine.getConfigFile() + ", ignore.", e);
+            return false;
+        }
+
+        for (AnalysisResult metricsStmt : oalScripts.getMetricsStmts()) {
+            if (!isClassPresent(metricsClassName(metricsStmt, true))
+                || !isClassPresent(metricsBuilderClassName(metricsStmt, true))
+                || !isClassPresent(dispatcherClassName(metricsStmt.getFrom().getSourceName(), true))) {
+                log.warn("The precompiled classes of {} are incomplete, ignore.", oalDefine.getConfigFile());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isClassPresent(String className) {
+        return currentClassLoader.getResource(className.replace('.', '/') + ".class") != null;
+    }
+
+    private void loadPrecompiledClasses(OALScripts oalScripts) throws OALCompileException {
+        List<AnalysisResult> metricsStmts = oalScripts.getMetricsStmts();
+        metricsStmts.forEach(this::buildDispatcherContext);
+
+        try {
+            for (AnalysisResult metricsStmt : metricsStmts) {
+                metricsClasses.add(Class.forName(metricsClassName(metricsStmt, true), true, currentClassLoader));
+            }
+            for (String scopeName : allDispatcherContext.getAllContext().keySet()) {
+                dispatcherClasses.add(Class.forName(dispatcherClassName(scopeName, true), true, currentClassLoader));
+            }
+        } catch (ClassNotFoundException e) {
+            throw new OALCompileException(e.getMessage(), e);
+        }
+
+        oalScripts.getDisableCollection().getAllDisableSources().forEach(disable -> {
+            DisableRegister.INSTANCE.add(disable);
+        });
+    }
+
+    private String checksumFilePath() {
+        return PRECOMPILED_CHECKSUM_FOLDER + oalDefine.getConfigFile() + ".checksum";
+    }
 
-        this.generateClassAtRuntime(oalScripts);
+    /**
+     * The checksum includes the storage builder template, as the builder classes are generated by it.
+     */
+    private String checksum(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(script.getBytes(StandardCharsets.UTF_8));
+            digest.update(storageBuilderFactory.builderTemplate().getSuperClass().getBytes(StandardCharsets.UTF_8));
+            digest.update(storageBuilderFactory.builderTemplate().getTemplatePath().getBytes(StandardCharsets.UTF_8));
+            StringBuilder checksum = new StringBuilder();
+            for (byte b : digest.digest()) {
+                checksum.append(String.format("%02x", b));
+            }
+            return checksum.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
     }
 
     @Override
@@ -317,11 +444,7 @@ public class OALRuntime implements OALEngine {
 
         Class targetClass;
         try {
-            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
-                targetClass = metricsClass.toClass(currentClassLoader, null);
-            } else {
-                targetClass = metricsClass.toClass(MetricClassPackageHolder.class);
-            }
+            targetClass = toClass(metricsClass, MetricClassPackageHolder.class);
         } catch (CannotCompileException e) {
             log.error("Can't compile/load " + className + ".", e);
             throw new OALCompileException(e.getMessage(), e);
@@ -375,11 +498,7 @@ public class OALRuntime implements OALEngine {
         }
 
         try {
-            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
-                metricsBuilderClass.toClass(currentClassLoader, null);
-            } else {
-                metricsBuilderClass.toClass(MetricBuilderClassPackageHolder.class);
-            }
+            toClass(metricsBuilderClass, MetricBuilderClassPackageHolder.class);
         } catch (CannotCompileException e) {
             log.error("Can't compile/load " + className + ".", e);
             throw new OALCompileException(e.getMessage(), e);
@@ -428,6 +547,22 @@ public class OALRuntime implements OALEngine {
             throw new OALCompileException(e.getMessage(), e);
         }
 
+        /**
+         * Add the stateless matcher singletons, shared by all filter and entrance expressions.
+         *
+         * private static final ${matcherClassName} ${matcherFieldName} = new ${matcherClassName}();
+         */
+        for (Map.Entry<String, String> matcher : dispatcherContext.getMatchers().entrySet()) {
+            try {
+                dispatcherClass.addField(CtField.make(
+                    "private static final " + matcher.getKey() + " " + matcher.getValue()
+                        + " = new " + matcher.getKey() + "();", dispatcherClass));
+            } catch (CannotCompileException e) {
+                log.error("Can't add matcher field " + matcher.getValue() + " in " + className + ".", e);
+                throw new OALCompileException(e.getMessage(), e);
+            }
+        }
+
         /**
          * Generate methods
          */
@@ -457,11 +592,7 @@ public class OALRuntime implements OALEngine {
 
         Class targetClass;
         try {
-            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
-                targetClass = dispatcherClass.toClass(currentClassLoader, null);
-            } else {
-                targetClass = dispatcherClass.toClass(DispatcherClassPackageHolder.class);
-            }
+            targetClass = toClass(dispatcherClass, DispatcherClassPackageHolder.class);
         } catch (CannotCompileException e) {
             log.error("Can't compile/load " + className + ".", e);
             throw new OALCompileException(e.getMessage(), e);
@@ -471,6 +602,27 @@ public class OALRuntime implements OALEngine {
         return targetClass;
     }
 
+    /**
+     * Load the generated class into the class loader, or write it into {@link #precompileOutput} when precompiling.
+     *
+     * @return the loaded class, or null when precompiling.
+     */
+    private Class toClass(CtClass ctClass, Class<?> packageHolder) throws CannotCompileException {
+        if (precompileOutput != null) {
+            try {
+                ctClass.writeFile(precompileOutput.getAbsolutePath());
+            } catch (IOException e) {
+                throw new CannotCompileException(e);
+            }
+            return null;
+        }
+        if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
+            return ctClass.toClass(currentClassLoader, null);
+        } else {
+            return ctClass.toClass(packageHolder);
+        }
+    }
+
     private String metricsClassName(AnalysisResult metricsStmt, boolean fullName) {
         return (fullName ? oalDefine.getDynamicMetricsClassPackage() : "") + metricsStmt.getMetricsName() + "Metrics";
     }
@@ -495,7 +647,7 @@ public class OALRuntime implements OALEngine {
         });
         metricsStmt.setMetricsClassPackage(oalDefine.getDynamicMetricsClassPackage());
         metricsStmt.setSourcePackage(oalDefine.getSourcePackage());
-        context.getMetrics().add(metricsStmt);
+        context.addMetrics(metricsStmt);
     }
 
     private void prepareRTTempFolder() {
@@ -19,10 +19,14 @@
 package org.apache.skywalking.oal.rt.output;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oal.rt.parser.AnalysisResult;
+import org.apache.skywalking.oal.rt.parser.Expression;
 
 @Getter
 @Setter
@@ -32,4 +36,43 @@ public class DispatcherContext {
     private String source;
     private String packageName;
     private List<AnalysisResult> metrics = new ArrayList<>();
+    /**
+     * The matcher singletons declared as the static fields of the dispatcher. The key is the matcher class name, the
+     * value is the field name. All matchers are stateless.
+     */
+    private Map<String, String> matchers = new LinkedHashMap<>();
+    /**
+     * The distinct filter expressions of all metrics from this source. Each one is evaluated at most once per source.
+     */
+    private List<Expression> filterExpressions = new ArrayList<>();
+
+    private final Map<String, String> predicates = new HashMap<>();
+
+    /**
+     * Add the metrics into this dispatcher, and assign the matcher singleton and the shared predicate for its filter and
+     * entrance expressions.
+     */
+    public void addMetrics(AnalysisResult metricsStmt) {
+        metrics.add(metricsStmt);
+        final List<Expression> metricsFilters = metricsStmt.getFilters().getFilterExpressions();
+        if (metricsFilters != null) {
+            for (Expression filterExpression : metricsFilters) {
+                filterExpression.setMatcher(matcherOf(filterExpression));
+                filterExpression.setPredicate(predicates.computeIfAbsent(filterExpression.literal(), literal -> {
+                    filterExpressions.add(filterExpression);
+                    return "_p" + (filterExpressions.size() - 1);
+                }));
+            }
+        }
+        for (Object arg : metricsStmt.getEntryMethod().getArgsExpressions()) {
+            if (arg instanceof Expression) {
+                final Expression argExpression = (Expression) arg;
+                argExpression.setMatcher(matcherOf(argExpression));
+            }
+        }
+    }
+
+    private String matcherOf(Expression expression) {
+        return matchers.computeIfAbsent(expression.getExpressionObject(), className -> "_m" + matchers.size());
+    }
 }
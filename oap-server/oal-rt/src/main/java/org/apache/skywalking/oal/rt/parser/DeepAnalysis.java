@@ -30,6 +30,8 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.ConstOne;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
+import org.apache.skywalking.oap.server.core.source.Source;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 import static java.util.Objects.isNull;
@@ -83,6 +85,7 @@ public class DeepAnalysis {
         entryMethod.setMethodName(entranceMethod.getName());
 
         // 4. Use parameter's annotation of entrance method to generate aggregation entrance.
+        final boolean weighted = isWeighted(result);
         for (Parameter parameter : entranceMethod.getParameters()) {
             Class<?> parameterType = parameter.getType();
             Annotation[] parameterAnnotations = parameter.getAnnotations();
@@ -92,15 +95,18 @@ public class DeepAnalysis {
             }
             Annotation annotation = parameterAnnotations[0];
             if (annotation instanceof SourceFrom) {
-                entryMethod.addArg(
-                    parameterType,
-                    TypeCastUtil.withCast(
-                        result.getFrom().getSourceCastType(),
-                        "source." + ClassMethodUtil.toGetMethod(result.getFrom().getSourceAttribute())
-                    )
+                String value = TypeCastUtil.withCast(
+                    result.getFrom().getSourceCastType(),
+                    "source." + ClassMethodUtil.toGetMethod(result.getFrom().getSourceAttribute())
                 );
+                if (weighted && ((SourceFrom) annotation).weighted()) {
+                    value = "(" + value + ") * source.getWeight()";
+                }
+                entryMethod.addArg(parameterType, value);
             } else if (annotation instanceof ConstOne) {
                 entryMethod.addArg(parameterType, "1");
+            } else if (annotation instanceof Weight) {
+                entryMethod.addArg(parameterType, weighted ? "source.getWeight()" : "1");
             } else if (annotation instanceof org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Expression) {
                 if (isNull(result.getAggregationFuncStmt().getFuncConditionExpressions())
                     || result.getAggregationFuncStmt().getFuncConditionExpressions().isEmpty()) {
@@ -151,4 +157,15 @@ public class DeepAnalysis {
         return result;
     }
 
+    /**
+     * @return true if the source extends {@link Source}, which carries the weight.
+     */
+    private static boolean isWeighted(AnalysisResult result) {
+        try {
+            return Source.class.isAssignableFrom(
+                Class.forName(result.getSourcePackage() + result.getFrom().getSourceName()));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
 }
@@ -27,6 +27,17 @@ public class Expression {
     private String expressionObject;
     private String left;
     private String right;
+    /**
+     * The static field name of the matcher singleton in the generated dispatcher.
+     */
+    @Setter
+    private String matcher;
+    /**
+     * The local variable name holding the result of this filter expression in the generated dispatcher, which is shared
+     * by all metrics having the same filter expression.
+     */
+    @Setter
+    private String predicate;
 
     public void setLeft(String left) {
         this.left = left;
@@ -35,4 +46,12 @@ public class Expression {
     public void setRight(String right) {
         this.right = right;
     }
+
+    /**
+     * @return the literal of this expression, the expressions having the same literal get the same result from one
+     * source.
+     */
+    public String literal() {
+        return expressionObject + "(" + left + ", " + right + ")";
+    }
 }
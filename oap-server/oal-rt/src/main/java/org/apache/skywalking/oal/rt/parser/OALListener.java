@@ -44,6 +44,7 @@ public class OALListener extends OALParserBaseListener {
     @Override
     public void enterAggregationStatement(@NotNull OALParser.AggregationStatementContext ctx) {
         current = new AnalysisResult();
+        current.setSourcePackage(sourcePackage);
     }
 
     @Override
@@ -1,6 +1,27 @@
-public void dispatch(org.apache.skywalking.oap.server.core.source.ISource source) {
-${sourcePackage}${source} _source = (${sourcePackage}${source})source;
+public void dispatch(org.apache.skywalking.oap.server.core.source.ISource iSource) {
+${sourcePackage}${source} source = (${sourcePackage}${source})iSource;
+java.util.List metricsList = new java.util.ArrayList(${metrics?size});
+<#list filterExpressions as filterExpression>
+    int ${filterExpression.predicate} = 0;
+</#list>
+boolean matched;
 <#list metrics as metrics>
-    do${metrics.metricsName}(_source);
+    matched = true;
+    <#if metrics.filters.filterExpressions??>
+        <#list metrics.filters.filterExpressions as filterExpression>
+            if (matched) {
+            if (${filterExpression.predicate} == 0) {
+            ${filterExpression.predicate} = ${filterExpression.matcher}.match(${filterExpression.left}, ${filterExpression.right}) ? 1 : 2;
+            }
+            matched = ${filterExpression.predicate} == 1;
+            }
+        </#list>
+    </#if>
+    if (matched) {
+    metricsList.add(do${metrics.metricsName}(source));
+    }
 </#list>
+if (!metricsList.isEmpty()) {
+org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor.getInstance().in(metricsList);
+}
 }
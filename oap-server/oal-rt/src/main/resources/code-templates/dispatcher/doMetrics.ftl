@@ -1,13 +1,4 @@
-private void do${metricsName}(${sourcePackage}${from.sourceName} source) {
-
-<#if filters.filterExpressions??>
-    <#list filters.filterExpressions as filterExpression>
-        if (!new ${filterExpression.expressionObject}().match(${filterExpression.left}, ${filterExpression.right})) {
-        return;
-        }
-    </#list>
-</#if>
-
+private ${metricsClassPackage}${metricsName}Metrics do${metricsName}(${sourcePackage}${from.sourceName} source) {
 ${metricsClassPackage}${metricsName}Metrics metrics = new ${metricsClassPackage}${metricsName}Metrics();
 metrics.setTimeBucket(source.getTimeBucket());
 <#list fieldsFromSource as field>
@@ -18,9 +9,9 @@ metrics.${entryMethod.methodName}(
     <#if entryMethod.argTypes[arg_index] < 3>
         ${arg}
     <#else>
-        new ${arg.expressionObject}().match(${arg.left}, ${arg.right})
+        ${arg.matcher}.match(${arg.left}, ${arg.right})
     </#if><#if arg_has_next>, </#if>
 </#list>);
 
-org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor.getInstance().in(metrics);
+return metrics;
 }
@@ -0,0 +1,13 @@
+protected org.apache.skywalking.oap.server.core.analysis.metrics.MetricsID metricsID0() {
+String splitJointId = null;
+<#list fieldsFromSource as sourceField>
+    <#if sourceField.isID()>
+        <#if sourceField.getTypeName() == "java.lang.String">
+            splitJointId = splitJointId == null ? ${sourceField.fieldName} : splitJointId + org.apache.skywalking.oap.server.core.Const.ID_CONNECTOR + ${sourceField.fieldName};
+        <#else>
+            splitJointId = splitJointId == null ? String.valueOf(${sourceField.fieldName}) : splitJointId + org.apache.skywalking.oap.server.core.Const.ID_CONNECTOR + ${sourceField.fieldName};
+        </#if>
+    </#if>
+</#list>
+return new org.apache.skywalking.oap.server.core.analysis.metrics.MetricsID(getTimeBucket(), splitJointId);
+}
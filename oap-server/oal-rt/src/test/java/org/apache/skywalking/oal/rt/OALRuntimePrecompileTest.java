@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.rt;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javassist.ClassPool;
+import org.apache.commons.io.FileUtils;
+import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
+import org.apache.skywalking.oap.server.core.oal.rt.OALDefine;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilderFactory;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.apache.skywalking.oap.server.library.util.ResourceUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Every case uses its own script and dispatcher catalog, as a generated class can only be defined once in the JVM.
+ */
+public class OALRuntimePrecompileTest {
+    private static final String SOURCE_PACKAGE = "org.apache.skywalking.oap.server.core.source";
+    private static final String METRICS_PACKAGE = "org.apache.skywalking.oap.server.core.source.oal.rt.metrics.";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void init() throws IOException, StorageException {
+        AnnotationScan scopeScan = new AnnotationScan();
+        scopeScan.registerListener(new DefaultScopeDefine.Listener());
+        scopeScan.scan();
+    }
+
+    @AfterClass
+    public static void clear() {
+        DefaultScopeDefine.reset();
+    }
+
+    @Test
+    public void shouldLoadPrecompiledClassesWhenChecksumMatches() throws Exception {
+        final OALDefine define = new TestOALDefine("oal/precompile-matched.oal", "PrecompileMatched");
+        final File output = precompile(define);
+
+        try (URLClassLoader loader = classLoaderOf(output)) {
+            final List<Class> metricsClasses = start(define, loader);
+
+            assertEquals(1, metricsClasses.size());
+            assertEquals(METRICS_PACKAGE + "PrecompileMatchedServiceCpmMetrics", metricsClasses.get(0).getName());
+            assertSame(loader, metricsClasses.get(0).getClassLoader());
+        }
+    }
+
+    @Test
+    public void shouldGenerateClassesWhenScriptEdited() throws Exception {
+        final OALDefine define = new TestOALDefine("oal/precompile-edited.oal", "PrecompileEdited");
+        final File output = precompile(define);
+
+        final File script = new File(ResourceUtils.class.getClassLoader().getResource(define.getConfigFile()).toURI());
+        final String original = FileUtils.readFileToString(script, StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(
+            script, original + "precompile_edited_service_sla = from(Service.*).percent(status == true);\n",
+            StandardCharsets.UTF_8
+        );
+        try (URLClassLoader loader = classLoaderOf(output)) {
+            final List<Class> metricsClasses = start(define, loader);
+
+            assertEquals(2, metricsClasses.size());
+            for (final Class metricsClass : metricsClasses) {
+                assertNotSame(loader, metricsClass.getClassLoader());
+            }
+        } finally {
+            FileUtils.writeStringToFile(script, original, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void shouldGenerateClassesWhenPrecompiledClassMissing() throws Exception {
+        final OALDefine define = new TestOALDefine("oal/precompile-missing.oal", "PrecompileMissing");
+        final File output = precompile(define);
+        final File metricsClassFile = new File(
+            output, (METRICS_PACKAGE + "PrecompileMissingServiceCpmMetrics").replace('.', '/') + ".class");
+        assertTrue(metricsClassFile.delete());
+
+        try (URLClassLoader loader = classLoaderOf(output)) {
+            final List<Class> metricsClasses = start(define, loader);
+
+            assertEquals(1, metricsClasses.size());
+            assertNotSame(loader, metricsClasses.get(0).getClassLoader());
+        }
+    }
+
+    /**
+     * Precompile with a separated class pool, so the generated classes are not frozen in the default one, which is
+     * used by the dynamic generation.
+     */
+    private File precompile(OALDefine define) throws Exception {
+        final File output = tempFolder.newFolder();
+        final OALRuntime runtime = new OALRuntime(define);
+        Whitebox.setInternalState(runtime, "classPool", new ClassPool(true));
+        runtime.setStorageBuilderFactory(new StorageBuilderFactory.Default());
+        runtime.precompile(output);
+        return output;
+    }
+
+    private static List<Class> start(OALDefine define, ClassLoader loader) throws Exception {
+        final OALRuntime runtime = new OALRuntime(define);
+        runtime.setStorageBuilderFactory(new StorageBuilderFactory.Default());
+        runtime.start(loader);
+        return Whitebox.getInternalState(runtime, "metricsClasses");
+    }
+
+    private static URLClassLoader classLoaderOf(File folder) throws IOException {
+        return new URLClassLoader(new URL[] {folder.toURI().toURL()}, OALRuntimePrecompileTest.class.getClassLoader());
+    }
+
+    private static class TestOALDefine extends OALDefine {
+        private TestOALDefine(String configFile, String catalog) {
+            super(configFile, SOURCE_PACKAGE, catalog);
+        }
+    }
+}
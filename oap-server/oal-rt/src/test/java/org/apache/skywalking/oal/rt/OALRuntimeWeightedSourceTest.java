@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.rt;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.Layer;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
+import org.apache.skywalking.oap.server.core.oal.rt.OALDefine;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.core.source.Service;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilderFactory;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertEquals;
+
+public class OALRuntimeWeightedSourceTest {
+    private static final String[] METRICS_NAMES = {
+        "WeightedServiceCpm",
+        "WeightedServiceRespTime",
+        "WeightedServiceLatencySum",
+        "WeightedServicePercentile",
+        "WeightedServicePercentile2",
+        "WeightedServiceSla",
+        "WeightedServiceHeatmap",
+        "WeightedServiceMax"
+    };
+
+    @BeforeClass
+    public static void init() throws IOException, StorageException {
+        AnnotationScan scopeScan = new AnnotationScan();
+        scopeScan.registerListener(new DefaultScopeDefine.Listener());
+        scopeScan.scan();
+    }
+
+    @AfterClass
+    public static void clear() {
+        DefaultScopeDefine.reset();
+    }
+
+    @Test
+    public void shouldAcceptWeightedSourceAsRepeatedOnes() throws Exception {
+        final OALRuntime runtime = new OALRuntime(new TestOALDefine());
+        runtime.setStorageBuilderFactory(new StorageBuilderFactory.Default());
+        runtime.start(OALRuntimeWeightedSourceTest.class.getClassLoader());
+        final List<Class> dispatcherClasses = Whitebox.getInternalState(runtime, "dispatcherClasses");
+        assertEquals(1, dispatcherClasses.size());
+        final Object dispatcher = dispatcherClasses.get(0).newInstance();
+
+        for (final String metricsName : METRICS_NAMES) {
+            final Metrics weighted = Whitebox.invokeMethod(dispatcher, "do" + metricsName, service(120, true, 3));
+            weighted.combine(Whitebox.<Metrics>invokeMethod(dispatcher, "do" + metricsName, service(350, false, 2)));
+
+            final Metrics repeated = Whitebox.invokeMethod(dispatcher, "do" + metricsName, service(120, true, 1));
+            repeated.combine(Whitebox.<Metrics>invokeMethod(dispatcher, "do" + metricsName, service(120, true, 1)));
+            repeated.combine(Whitebox.<Metrics>invokeMethod(dispatcher, "do" + metricsName, service(120, true, 1)));
+            repeated.combine(Whitebox.<Metrics>invokeMethod(dispatcher, "do" + metricsName, service(350, false, 1)));
+            repeated.combine(Whitebox.<Metrics>invokeMethod(dispatcher, "do" + metricsName, service(350, false, 1)));
+
+            weighted.calculate();
+            repeated.calculate();
+            assertEquals(metricsName, repeated.serialize().build(), weighted.serialize().build());
+        }
+    }
+
+    private static Service service(int latency, boolean status, long weight) {
+        final Service service = new Service();
+        service.setTimeBucket(202210191005L);
+        service.setName("svc");
+        service.setLayer(Layer.MESH);
+        service.setLatency(latency);
+        service.setStatus(status);
+        service.setWeight(weight);
+        return service;
+    }
+
+    private static class TestOALDefine extends OALDefine {
+        private TestOALDefine() {
+            super("oal/weighted-source.oal", "org.apache.skywalking.oap.server.core.source", "Weighted");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.rt.output;
+
+import org.apache.skywalking.oal.rt.parser.AnalysisResult;
+import org.apache.skywalking.oal.rt.parser.EntryMethod;
+import org.apache.skywalking.oal.rt.parser.Expression;
+import org.apache.skywalking.oap.server.core.analysis.metrics.expression.NotEqualMatch;
+import org.apache.skywalking.oap.server.core.analysis.metrics.expression.StringMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DispatcherContextTest {
+
+    @Test
+    public void testSharedFilterExpressions() {
+        DispatcherContext context = new DispatcherContext();
+        AnalysisResult mqCount = metrics(expression(StringMatch.class.getName(), "source.getType()", "RequestType.MQ"));
+        AnalysisResult mqLatency = metrics(
+            expression(StringMatch.class.getName(), "source.getType()", "RequestType.MQ"),
+            expression(NotEqualMatch.class.getName(), "source.getTag(\"transmission.latency\")", "null")
+        );
+        context.addMetrics(mqCount);
+        context.addMetrics(mqLatency);
+
+        Assert.assertEquals(2, context.getMetrics().size());
+        Assert.assertEquals(2, context.getMatchers().size());
+        Assert.assertEquals(2, context.getFilterExpressions().size());
+
+        Expression first = mqCount.getFilters().getFilterExpressions().get(0);
+        Expression shared = mqLatency.getFilters().getFilterExpressions().get(0);
+        Expression second = mqLatency.getFilters().getFilterExpressions().get(1);
+        Assert.assertEquals(first.getPredicate(), shared.getPredicate());
+        Assert.assertEquals(first.getMatcher(), shared.getMatcher());
+        Assert.assertNotEquals(first.getPredicate(), second.getPredicate());
+        Assert.assertNotEquals(first.getMatcher(), second.getMatcher());
+    }
+
+    private static AnalysisResult metrics(Expression... filters) {
+        AnalysisResult result = new AnalysisResult();
+        result.setEntryMethod(new EntryMethod());
+        for (Expression filter : filters) {
+            result.getFilters().addFilterExpressions(filter);
+        }
+        return result;
+    }
+
+    private static Expression expression(String matcher, String left, String right) {
+        Expression expression = new Expression();
+        expression.setExpressionObject(matcher);
+        expression.setLeft(left);
+        expression.setRight(right);
+        return expression;
+    }
+}
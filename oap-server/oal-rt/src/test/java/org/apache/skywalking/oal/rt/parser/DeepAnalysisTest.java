@@ -71,6 +71,36 @@ public class DeepAnalysisTest {
         Assert.assertEquals(4, persistentFields.size());
     }
 
+    @Test
+    public void testWeightedSourceAnalysis() {
+        AnalysisResult result = new AnalysisResult();
+        result.setSourcePackage("org.apache.skywalking.oap.server.core.source.");
+        result.getFrom().setSourceName("Service");
+        result.getFrom().getSourceAttribute().add("latency");
+        result.setMetricsName("ServiceAvg");
+        result.getAggregationFuncStmt().setAggregationFunctionName("longAvg");
+
+        result = new DeepAnalysis().analysis(result);
+
+        EntryMethod method = result.getEntryMethod();
+        Assert.assertEquals("(long)((source.getLatency()) * source.getWeight())", method.getArgsExpressions().get(0));
+        Assert.assertEquals("(long)(source.getWeight())", method.getArgsExpressions().get(1));
+
+        result = new AnalysisResult();
+        result.setSourcePackage("org.apache.skywalking.oap.server.core.source.");
+        result.getFrom().setSourceName("Service");
+        result.getFrom().getSourceAttribute().add("latency");
+        result.setMetricsName("ServicePercentile");
+        result.getAggregationFuncStmt().setAggregationFunctionName("percentile2");
+
+        result = new DeepAnalysis().analysis(result);
+
+        method = result.getEntryMethod();
+        Assert.assertEquals(2, method.getArgsExpressions().size());
+        Assert.assertEquals("(int)(source.getLatency())", method.getArgsExpressions().get(0));
+        Assert.assertEquals("(long)(source.getWeight())", method.getArgsExpressions().get(1));
+    }
+
     @Test
     public void testEndpointAnalysis() {
         AnalysisResult result = new AnalysisResult();
@@ -80,7 +80,8 @@ public class ScriptParserTest {
         Assert.assertEquals("percent", endpointPercent.getAggregationFuncStmt().getAggregationFunctionName());
         EntryMethod entryMethod = endpointPercent.getEntryMethod();
         List<Object> methodArgsExpressions = entryMethod.getArgsExpressions();
-        Assert.assertEquals(1, methodArgsExpressions.size());
+        Assert.assertEquals(2, methodArgsExpressions.size());
+        Assert.assertEquals("(long)(1)", methodArgsExpressions.get(1));
     }
 
     @Test
@@ -268,7 +269,8 @@ public class ScriptParserTest {
         Assert.assertEquals("percent", servicePercent.getAggregationFuncStmt().getAggregationFunctionName());
         EntryMethod entryMethod = servicePercent.getEntryMethod();
         List<Object> methodArgsExpressions = entryMethod.getArgsExpressions();
-        Assert.assertEquals(1, methodArgsExpressions.size());
+        Assert.assertEquals(2, methodArgsExpressions.size());
+        Assert.assertEquals("(long)(1)", methodArgsExpressions.get(1));
     }
 
     @Test
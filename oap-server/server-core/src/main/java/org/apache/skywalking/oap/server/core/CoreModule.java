@@ -50,6 +50,7 @@ import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.HTTPHandlerRegister;
+import org.apache.skywalking.oap.server.core.server.admission.AdmissionControlInterceptor;
 import org.apache.skywalking.oap.server.core.source.SourceReceiver;
 import org.apache.skywalking.oap.server.core.storage.model.IModelManager;
 import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
@@ -133,6 +134,7 @@ public class CoreModule extends ModuleDefine {
     private void addServerInterface(List<Class> classes) {
         classes.add(GRPCHandlerRegister.class);
         classes.add(HTTPHandlerRegister.class);
+        classes.add(AdmissionControlInterceptor.class);
     }
 
     private void addInsideService(List<Class> classes) {
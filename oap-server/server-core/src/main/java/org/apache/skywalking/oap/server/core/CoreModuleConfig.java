@@ -193,6 +193,93 @@ public class CoreModuleConfig extends ModuleConfig {
      */
     private int httpMaxRequestHeaderSize = 8192;
 
+    /**
+     * Limit the concurrent calls of every gRPC receiver method adaptively, when the OAP is overloaded.
+     *
+     * @since 9.3.0
+     */
+    private boolean enableAdmissionControl = false;
+    /**
+     * The usage of the L1 aggregation buffers, from 0 to 1, beyond which the OAP is overloaded.
+     *
+     * @since 9.3.0
+     */
+    private double admissionControlMaxBufferUsage = 0.8;
+    /**
+     * The initial and maximum concurrent calls of every gRPC receiver method.
+     *
+     * @since 9.3.0
+     */
+    private int admissionControlMaxConcurrency = 10000;
+    /**
+     * The gRPC services limited first when the OAP is overloaded, separated by comma.
+     *
+     * @since 9.3.0
+     */
+    private String admissionControlLowPriorityServices =
+        "skywalking.v3.LogReportService,skywalking.v3.MeterReportService,skywalking.v3.BrowserPerfService";
+    /**
+     * The number of threads dispatching the received sources to the OAL metrics, 0 means the sources are dispatched in
+     * the receiver threads.
+     *
+     * @since 9.3.0
+     */
+    private int sourceDispatchThreads = 0;
+    /**
+     * The size of the source queue of every dispatch thread.
+     *
+     * @since 9.3.0
+     */
+    private int sourceDispatchBufferSize = 10000;
+    /**
+     * Roll the hour and day metrics up once an hour is closed, rather than downsampling every persisted minute
+     * metrics. The day metrics are rolled up from the closed hours. The open hours are held in memory, they are persisted
+     * on a graceful shutdown, and lost if the OAP crashes, up to one hour plus {@link #downsamplingRollupDelay}.
+     *
+     * @since 9.3.0
+     */
+    private boolean enableDownsamplingRollup = false;
+    /**
+     * The delay to close an hour for the rollup, to wait for the late arrivals. Unit is minute.
+     *
+     * @since 9.3.0
+     */
+    private int downsamplingRollupDelay = 2;
+    /**
+     * Serve the service, instance and endpoint lists and the endpoint keyword search from the OAP memory, see
+     * {@link org.apache.skywalking.oap.server.core.query.MetadataCatalog}.
+     *
+     * @since 9.3.0
+     */
+    private boolean enableMetadataCatalog = false;
+    /**
+     * The period of reconciling the metadata catalog with the storage. Unit is second.
+     *
+     * @since 9.3.0
+     */
+    private int metadataCatalogReconcilePeriod = 60;
+    /**
+     * The max number of the endpoints held by the metadata catalog.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    private int metadataCatalogMaxEndpoints = 200000;
+    /**
+     * The max number of the spans of the traces cached by the trace query for a minute, 0 means the traces are not
+     * cached.
+     *
+     * @since 9.3.0
+     */
+    private int traceQueryCacheMaxSpans = 100000;
+    /**
+     * A trace is cached by the trace query only if its latest span ended this time (in milliseconds) ago, the segments
+     * of a trace still in progress keep arriving.
+     *
+     * @since 9.3.0
+     */
+    private long traceQueryCacheSettleTime = 300000L;
+
     public CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
     }
@@ -60,6 +60,7 @@ import org.apache.skywalking.oap.server.core.query.AlarmQueryService;
 import org.apache.skywalking.oap.server.core.query.BrowserLogQueryService;
 import org.apache.skywalking.oap.server.core.query.EventQueryService;
 import org.apache.skywalking.oap.server.core.query.LogQueryService;
+import org.apache.skywalking.oap.server.core.query.MetadataCatalog;
 import org.apache.skywalking.oap.server.core.query.MetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsMetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
@@ -77,6 +78,7 @@ import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegisterImpl;
 import org.apache.skywalking.oap.server.core.server.HTTPHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.HTTPHandlerRegisterImpl;
+import org.apache.skywalking.oap.server.core.server.admission.AdmissionControlInterceptor;
 import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
 import org.apache.skywalking.oap.server.core.source.SourceReceiver;
 import org.apache.skywalking.oap.server.core.source.SourceReceiverImpl;
@@ -100,6 +102,7 @@ import org.apache.skywalking.oap.server.library.server.grpc.GRPCServer;
 import org.apache.skywalking.oap.server.library.server.http.HTTPServer;
 import org.apache.skywalking.oap.server.library.server.http.HTTPServerConfig;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.TelemetryRelatedContext;
 
 /**
@@ -114,6 +117,7 @@ public class CoreModuleProvider extends ModuleProvider {
 
     private final CoreModuleConfig moduleConfig;
     private GRPCServer grpcServer;
+    private AdmissionControlInterceptor admissionControlInterceptor;
     private HTTPServer httpServer;
     private RemoteClientManager remoteClientManager;
     private final AnnotationScan annotationScan;
@@ -124,6 +128,7 @@ public class CoreModuleProvider extends ModuleProvider {
     private OALEngineLoaderService oalEngineLoaderService;
     private LoggingConfigWatcher loggingConfigWatcher;
     private EndpointNameGroupingRule4OpenapiWatcher endpointNameGroupingRule4OpenapiWatcher;
+    private MetadataCatalog metadataCatalog;
 
     public CoreModuleProvider() {
         super();
@@ -236,6 +241,8 @@ public class CoreModuleProvider extends ModuleProvider {
 
         this.registerServiceImplementation(GRPCHandlerRegister.class, new GRPCHandlerRegisterImpl(grpcServer));
         this.registerServiceImplementation(HTTPHandlerRegister.class, new HTTPHandlerRegisterImpl(httpServer));
+        admissionControlInterceptor = new AdmissionControlInterceptor(moduleConfig);
+        this.registerServiceImplementation(AdmissionControlInterceptor.class, admissionControlInterceptor);
 
         this.registerServiceImplementation(IComponentLibraryCatalogService.class, new ComponentLibraryCatalogService());
 
@@ -256,10 +263,14 @@ public class CoreModuleProvider extends ModuleProvider {
         this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager(), storageModels));
         this.registerServiceImplementation(MetricsMetadataQueryService.class, new MetricsMetadataQueryService());
         this.registerServiceImplementation(MetricsQueryService.class, new MetricsQueryService(getManager()));
-        this.registerServiceImplementation(TraceQueryService.class, new TraceQueryService(getManager()));
+        this.registerServiceImplementation(TraceQueryService.class, new TraceQueryService(getManager(), moduleConfig));
         this.registerServiceImplementation(BrowserLogQueryService.class, new BrowserLogQueryService(getManager()));
         this.registerServiceImplementation(LogQueryService.class, new LogQueryService(getManager()));
-        this.registerServiceImplementation(MetadataQueryService.class, new MetadataQueryService(getManager()));
+        if (moduleConfig.isEnableMetadataCatalog()) {
+            metadataCatalog = new MetadataCatalog(getManager(), moduleConfig);
+        }
+        this.registerServiceImplementation(
+            MetadataQueryService.class, new MetadataQueryService(getManager(), metadataCatalog));
         this.registerServiceImplementation(AggregationQueryService.class, new AggregationQueryService(getManager()));
         this.registerServiceImplementation(AlarmQueryService.class, new AlarmQueryService(getManager()));
         this.registerServiceImplementation(TopNRecordsQueryService.class, new TopNRecordsQueryService(getManager()));
@@ -313,6 +324,9 @@ public class CoreModuleProvider extends ModuleProvider {
         metricsStreamProcessor.setL1FlushPeriod(moduleConfig.getL1FlushPeriod());
         metricsStreamProcessor.setStorageSessionTimeout(moduleConfig.getStorageSessionTimeout());
         metricsStreamProcessor.setMetricsDataTTL(moduleConfig.getMetricsDataTTL());
+        metricsStreamProcessor.setEnableDownsamplingRollup(moduleConfig.isEnableDownsamplingRollup());
+        metricsStreamProcessor.setDownsamplingRollupDelay(moduleConfig.getDownsamplingRollupDelay());
+        metricsStreamProcessor.setMetadataCatalog(metadataCatalog);
         TopNStreamProcessor.getInstance().setTopNWorkerReportCycle(moduleConfig.getTopNReportPeriod());
         apdexThresholdConfig = new ApdexThresholdConfig(this);
         ApdexMetrics.setDICT(apdexThresholdConfig);
@@ -323,6 +337,12 @@ public class CoreModuleProvider extends ModuleProvider {
     public void start() throws ModuleStartException {
         grpcServer.addHandler(new RemoteServiceHandler(getManager()));
         grpcServer.addHandler(new HealthCheckServiceHandler());
+        if (admissionControlInterceptor.isEnabled()) {
+            admissionControlInterceptor.start(getManager().find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class));
+            grpcServer.addHandler(admissionControlInterceptor);
+        }
         remoteClientManager.start();
 
         // Disable OAL script has higher priority
@@ -334,6 +354,12 @@ public class CoreModuleProvider extends ModuleProvider {
         } catch (IOException | IllegalAccessException | InstantiationException | StorageException e) {
             throw new ModuleStartException(e.getMessage(), e);
         }
+        if (moduleConfig.getSourceDispatchThreads() > 0) {
+            receiver.startAsyncDispatch(
+                moduleConfig.getSourceDispatchThreads(), moduleConfig.getSourceDispatchBufferSize(),
+                getManager().find(TelemetryModule.NAME).provider().getService(MetricsCreator.class)
+            );
+        }
 
         Address gRPCServerInstanceAddress = new Address(moduleConfig.getGRPCHost(), moduleConfig.getGRPCPort(), true);
         TelemetryRelatedContext.INSTANCE.setId(gRPCServerInstanceAddress.toString());
@@ -381,6 +407,9 @@ public class CoreModuleProvider extends ModuleProvider {
         }
 
         CacheUpdateTimer.INSTANCE.start(getManager(), moduleConfig.getMetricsDataTTL());
+        if (metadataCatalog != null) {
+            metadataCatalog.start();
+        }
 
         try {
             new UITemplateInitializer(getManager()).initAll();
@@ -44,19 +44,40 @@ public class DispatcherManager implements DispatcherDetectorListener {
     }
 
     public void forward(ISource source) {
-        if (source == null) {
-            return;
+        if (prepare(source)) {
+            dispatch(source);
         }
+    }
 
-        List<SourceDispatcher> dispatchers = dispatcherMap.get(source.scope());
+    /**
+     * Prepare the source, if any dispatcher of its scope exists. The prepared source could be dispatched through
+     * {@link #dispatch(ISource)} in another thread.
+     *
+     * @return false if the source should be ignored.
+     */
+    public boolean prepare(ISource source) {
+        if (source == null) {
+            return false;
+        }
 
         /**
          * Dispatcher is only generated by oal script analysis result.
          * So these will/could be possible, the given source doesn't have the dispatcher,
          * when the receiver is open, and oal script doesn't ask for analysis.
          */
+        if (!dispatcherMap.containsKey(source.scope())) {
+            return false;
+        }
+        source.prepare();
+        return true;
+    }
+
+    /**
+     * Dispatch the source prepared by {@link #prepare(ISource)} to all the dispatchers of its scope.
+     */
+    public void dispatch(ISource source) {
+        List<SourceDispatcher> dispatchers = dispatcherMap.get(source.scope());
         if (dispatchers != null) {
-            source.prepare();
             for (SourceDispatcher dispatcher : dispatchers) {
                 dispatcher.dispatch(source);
             }
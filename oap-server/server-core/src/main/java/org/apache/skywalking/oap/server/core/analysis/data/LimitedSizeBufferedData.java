@@ -19,19 +19,23 @@
 package org.apache.skywalking.oap.server.core.analysis.data;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.oap.server.core.storage.ComparableStorageData;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
 
 /**
  * LimitedSizeBufferedData is a thread no safe implementation of {@link BufferedData}. It collects limited records of
- * each {@link StorageData#id()}.
+ * each {@link StorageData#id()}, the biggest ones are kept in a bounded min-heap, and read in ascending order.
  */
 public class LimitedSizeBufferedData<STORAGE_DATA extends ComparableStorageData & StorageData> implements BufferedData<STORAGE_DATA> {
-    private final HashMap<String, LinkedList<STORAGE_DATA>> data;
+    private final HashMap<String, TopNHeap> data;
     private final int limitedSize;
+    /**
+     * The number of the records in all heaps.
+     */
+    private int size;
 
     public LimitedSizeBufferedData(int limitedSize) {
         this.data = new HashMap<>();
@@ -41,45 +45,96 @@ public class LimitedSizeBufferedData<STORAGE_DATA extends ComparableStorageData
     @Override
     public void accept(final STORAGE_DATA data) {
         final String id = data.id();
-        LinkedList<STORAGE_DATA> storageDataList = this.data.get(id);
-        if (storageDataList == null) {
-            storageDataList = new LinkedList<>();
-            this.data.put(id, storageDataList);
+        TopNHeap heap = this.data.get(id);
+        if (heap == null) {
+            heap = new TopNHeap();
+            this.data.put(id, heap);
         }
-
-        if (storageDataList.size() < limitedSize) {
-            storageDataList.add(data);
-            return;
+        if (heap.offer(data, limitedSize)) {
+            size++;
         }
-
-        for (int i = 0; i < storageDataList.size(); i++) {
-            STORAGE_DATA storageData = storageDataList.get(i);
-            if (data.compareTo(storageData) <= 0) {
-                if (i == 0) {
-                    // input data is less than the smallest in top N list, ignore
-                } else {
-                    // Remove the smallest in top N list
-                    // add the current data into the right position
-                    storageDataList.add(i, data);
-                    storageDataList.removeFirst();
-                }
-                return;
-            }
-        }
-
-        // Add the data as biggest in top N list
-        storageDataList.addLast(data);
-        storageDataList.removeFirst();
     }
 
     @Override
     public List<STORAGE_DATA> read() {
         try {
-            List<STORAGE_DATA> collection = new ArrayList<>();
-            data.values().forEach(collection::addAll);
+            List<STORAGE_DATA> collection = new ArrayList<>(size);
+            data.values().forEach(heap -> heap.sortTo(collection));
             return collection;
         } finally {
             data.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * TopNHeap is a min-heap of the biggest records of an ID, the array grows on demand, as most of the IDs, such as
+     * the slow statements of the spans, have only one record.
+     */
+    private static class TopNHeap {
+        private Object[] elements = new Object[1];
+        private int size;
+
+        /**
+         * @return true if the heap grows, false if the data replaces the smallest one or is ignored.
+         */
+        @SuppressWarnings("unchecked")
+        boolean offer(final ComparableStorageData data, final int limitedSize) {
+            if (size < limitedSize) {
+                if (size == elements.length) {
+                    elements = Arrays.copyOf(elements, Math.min(size << 1, limitedSize));
+                }
+                siftUp(size++, data);
+                return true;
+            }
+            if (data.compareTo(elements[0]) > 0) {
+                // Replace the smallest in top N, input data less than or equal to it is ignored.
+                siftDown(0, data);
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void siftUp(int k, final ComparableStorageData data) {
+            while (k > 0) {
+                final int parent = (k - 1) >>> 1;
+                final Object e = elements[parent];
+                if (data.compareTo(e) >= 0) {
+                    break;
+                }
+                elements[k] = e;
+                k = parent;
+            }
+            elements[k] = data;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void siftDown(int k, final ComparableStorageData data) {
+            final int half = size >>> 1;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                Object c = elements[child];
+                final int right = child + 1;
+                if (right < size && ((ComparableStorageData) c).compareTo(elements[right]) > 0) {
+                    c = elements[child = right];
+                }
+                if (data.compareTo(c) <= 0) {
+                    break;
+                }
+                elements[k] = c;
+                k = child;
+            }
+            elements[k] = data;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> void sortTo(final List<T> collection) {
+            if (size > 1) {
+                Arrays.sort(elements, 0, size);
+            }
+            for (int i = 0; i < size; i++) {
+                collection.add((T) elements[i]);
+            }
         }
     }
 }
@@ -23,15 +23,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.MetricsID;
 
 /**
  * MergableBufferedData is a thread no safe implementation of {@link BufferedData}. {@link Metrics} in this cache would
- * be {@link Metrics#combine(Metrics)} if their {@link Metrics#id()}s are same.
+ * be {@link Metrics#combine(Metrics)} if their {@link Metrics#metricsID()}s are same.
  *
  * Concurrency {@link #accept(Metrics)}s and {@link #read()} while {@link #accept(Metrics)} are both not recommended.
  */
 public class MergableBufferedData<METRICS extends Metrics> implements BufferedData<METRICS> {
-    private Map<String, METRICS> buffer;
+    private Map<MetricsID, METRICS> buffer;
 
     public MergableBufferedData() {
         buffer = new HashMap<>();
@@ -46,7 +47,7 @@ public class MergableBufferedData<METRICS extends Metrics> implements BufferedDa
      */
     @Override
     public void accept(final METRICS data) {
-        final String id = data.id();
+        final MetricsID id = data.metricsID();
         final METRICS existed = buffer.get(id);
         if (existed == null) {
             buffer.put(id, data);
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.meter.function;
+
+import com.google.common.base.Strings;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.meter.Meter;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.MultiIntValuesHolder;
+import org.apache.skywalking.oap.server.core.analysis.metrics.PercentileSketch;
+import org.apache.skywalking.oap.server.core.analysis.metrics.PercentileSketchTable;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.annotation.BanyanDB;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.ElasticSearch;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Entity;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Storage;
+
+/**
+ * HistogramPercentile2Function calculates the percentiles from the histogram buckets, as the
+ * avgHistogramPercentile/sumHistogramPercentile functions do, but the bucket counts are added into a {@link
+ * PercentileSketch} per group, rather than the string keyed {@link DataTable}. The sketches don't require the buckets
+ * to be compatible, and are merged without parsing and sorting the bucket keys.
+ *
+ * The percentile is scale-invariant, so the average and the summation of the bucket counts result in the same
+ * values. The sub-classes only declare the function names for the different downsampling types.
+ *
+ * @since 9.3.0
+ */
+@Slf4j
+public abstract class HistogramPercentile2Function extends Meter implements AcceptableValue<PercentileArgument>, MultiIntValuesHolder {
+    private static final String DEFAULT_GROUP = "";
+    public static final String SKETCHES = "sketches";
+    public static final String RANKS = "ranks";
+    public static final String VALUE = "value";
+
+    @Setter
+    @Getter
+    @Column(columnName = ENTITY_ID)
+    @BanyanDB.ShardingKey(index = 0)
+    private String entityId;
+    @Getter
+    @Setter
+    @Column(columnName = VALUE, dataType = Column.ValueDataType.LABELED_VALUE, storageOnly = true)
+    @ElasticSearch.Column(columnAlias = "datatable_value")
+    private DataTable percentileValues = new DataTable(10);
+    @Getter
+    @Setter
+    @Column(columnName = SKETCHES, storageOnly = true)
+    private PercentileSketchTable sketches = new PercentileSketchTable();
+    /**
+     * Rank
+     */
+    @Getter
+    @Setter
+    @Column(columnName = RANKS, storageOnly = true)
+    private IntList ranks = new IntList(10);
+
+    private boolean isCalculated = false;
+
+    @Override
+    public void accept(final MeterEntity entity, final PercentileArgument value) {
+        for (final int rank : value.getRanks()) {
+            if (rank <= 0) {
+                throw new IllegalArgumentException("Illegal rank value " + rank + ", must be positive");
+            }
+        }
+
+        if (ranks.size() > 0) {
+            if (ranks.size() != value.getRanks().length) {
+                throw new IllegalArgumentException(
+                    "Incompatible ranks size = [" + value.getRanks().length + "] for current PercentileFunction[" + ranks
+                        .size() + "]");
+            } else {
+                for (final int rank : value.getRanks()) {
+                    if (!ranks.include(rank)) {
+                        throw new IllegalArgumentException(
+                            "Rank " + rank + " doesn't exist in the previous ranks " + ranks);
+                    }
+                }
+            }
+        } else {
+            for (final int rank : value.getRanks()) {
+                ranks.add(rank);
+            }
+        }
+
+        this.entityId = entity.id();
+
+        final String group = Strings.isNullOrEmpty(value.getBucketedValues().getGroup()) ?
+            DEFAULT_GROUP : value.getBucketedValues().getGroup();
+        final PercentileSketch sketch = sketches.getOrCreate(group);
+        final long[] buckets = value.getBucketedValues().getBuckets();
+        final long[] values = value.getBucketedValues().getValues();
+        for (int i = 0; i < values.length; i++) {
+            // Long.MIN_VALUE, the infinite negative bucket, is counted as zero.
+            sketch.add(buckets[i], values[i]);
+        }
+
+        this.isCalculated = false;
+    }
+
+    @Override
+    public boolean combine(final Metrics metrics) {
+        HistogramPercentile2Function percentile = (HistogramPercentile2Function) metrics;
+
+        if (this.ranks.size() > 0 && !this.ranks.equals(percentile.getRanks())) {
+            log.warn("Incompatible ranks {} for current PercentileFunction{}", percentile.getRanks(), this.ranks);
+            return true;
+        }
+
+        this.sketches.merge(percentile.sketches);
+
+        this.isCalculated = false;
+        return true;
+    }
+
+    @Override
+    public void calculate() {
+        if (!isCalculated) {
+            final int[] sortedRanks = IntStream.range(0, ranks.size()).map(ranks::get).sorted().toArray();
+            sketches.forEach((group, sketch) -> {
+                final long[] values = sketch.valuesAt(sortedRanks);
+                for (int i = 0; i < sortedRanks.length; i++) {
+                    if (group.equals(DEFAULT_GROUP)) {
+                        percentileValues.put(String.valueOf(sortedRanks[i]), values[i]);
+                    } else {
+                        percentileValues.put(String.format("%s:%s", group, sortedRanks[i]), values[i]);
+                    }
+                }
+            });
+            isCalculated = true;
+        }
+    }
+
+    @Override
+    public Metrics toHour() {
+        HistogramPercentile2Function metrics = (HistogramPercentile2Function) createNew();
+        metrics.setEntityId(getEntityId());
+        metrics.setTimeBucket(toTimeBucketInHour());
+        metrics.getSketches().copyFrom(getSketches());
+        metrics.setRanks(getRanks());
+        metrics.setPercentileValues(getPercentileValues());
+        return metrics;
+    }
+
+    @Override
+    public Metrics toDay() {
+        HistogramPercentile2Function metrics = (HistogramPercentile2Function) createNew();
+        metrics.setEntityId(getEntityId());
+        metrics.setTimeBucket(toTimeBucketInDay());
+        metrics.getSketches().copyFrom(getSketches());
+        metrics.setRanks(getRanks());
+        metrics.setPercentileValues(getPercentileValues());
+        return metrics;
+    }
+
+    @Override
+    public int[] getValues() {
+        return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
+                               .stream()
+                               .flatMapToInt(l -> IntStream.of(l.intValue()))
+                               .toArray();
+    }
+
+    @Override
+    public int remoteHashCode() {
+        return entityId.hashCode();
+    }
+
+    @Override
+    public void deserialize(final RemoteData remoteData) {
+        this.setTimeBucket(remoteData.getDataLongs(0));
+
+        this.setEntityId(remoteData.getDataStrings(0));
+
+        this.setSketches(new PercentileSketchTable(remoteData.getDataObjectStrings(0)));
+        this.setRanks(new IntList(remoteData.getDataObjectStrings(1)));
+        this.setPercentileValues(new DataTable(remoteData.getDataObjectStrings(2)));
+    }
+
+    @Override
+    public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+        remoteBuilder.addDataLongs(getTimeBucket());
+
+        remoteBuilder.addDataStrings(entityId);
+
+        remoteBuilder.addDataObjectStrings(sketches.toStorageData());
+        remoteBuilder.addDataObjectStrings(ranks.toStorageData());
+        remoteBuilder.addDataObjectStrings(percentileValues.toStorageData());
+
+        return remoteBuilder;
+    }
+
+    @Override
+    protected String id0() {
+        return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+    }
+
+    protected static void storage2Entity(final HistogramPercentile2Function metrics, final Convert2Entity converter) {
+        metrics.setSketches(new PercentileSketchTable((String) converter.get(SKETCHES)));
+        metrics.setRanks(new IntList((String) converter.get(RANKS)));
+        metrics.setPercentileValues(new DataTable((String) converter.get(VALUE)));
+        metrics.setTimeBucket(((Number) converter.get(TIME_BUCKET)).longValue());
+        metrics.setEntityId((String) converter.get(ENTITY_ID));
+    }
+
+    protected static void entity2Storage(final HistogramPercentile2Function storageData, final Convert2Storage converter) {
+        converter.accept(SKETCHES, storageData.getSketches());
+        converter.accept(RANKS, storageData.getRanks());
+        converter.accept(VALUE, storageData.getPercentileValues());
+        converter.accept(TIME_BUCKET, storageData.getTimeBucket());
+        converter.accept(ENTITY_ID, storageData.getEntityId());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HistogramPercentile2Function)) {
+            return false;
+        }
+        HistogramPercentile2Function function = (HistogramPercentile2Function) o;
+        return Objects.equals(entityId, function.entityId) &&
+            getTimeBucket() == function.getTimeBucket();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entityId, getTimeBucket());
+    }
+}
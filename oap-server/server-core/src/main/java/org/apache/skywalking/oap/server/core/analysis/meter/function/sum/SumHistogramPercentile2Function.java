@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.meter.function.sum;
+
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.HistogramPercentile2Function;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.MeterFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.PercentileArgument;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Entity;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Storage;
+import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+
+/**
+ * The sketch based percentile of the histogram, used by `histogram_percentile2` in MAL with the SUM downsampling.
+ */
+@MeterFunction(functionName = "sumHistogramPercentile2")
+public abstract class SumHistogramPercentile2Function extends HistogramPercentile2Function implements AcceptableValue<PercentileArgument> {
+    @Override
+    public Class<? extends SumHistogramPercentile2FunctionBuilder> builder() {
+        return SumHistogramPercentile2FunctionBuilder.class;
+    }
+
+    public static class SumHistogramPercentile2FunctionBuilder implements StorageBuilder<SumHistogramPercentile2Function> {
+        @Override
+        public SumHistogramPercentile2Function storage2Entity(final Convert2Entity converter) {
+            SumHistogramPercentile2Function metrics = new SumHistogramPercentile2Function() {
+                @Override
+                public AcceptableValue<PercentileArgument> createNew() {
+                    throw new UnexpectedException("createNew should not be called");
+                }
+            };
+            HistogramPercentile2Function.storage2Entity(metrics, converter);
+            return metrics;
+        }
+
+        @Override
+        public void entity2Storage(final SumHistogramPercentile2Function storageData, final Convert2Storage converter) {
+            HistogramPercentile2Function.entity2Storage(storageData, converter);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 import org.apache.skywalking.oap.server.core.storage.annotation.ElasticSearch;
@@ -65,18 +66,22 @@ public abstract class ApdexMetrics extends Metrics implements IntValueHolder {
     @ElasticSearch.Column(columnAlias = "int_value")
     private int value;
 
+    public final void combine(int value, String name, boolean status) {
+        combine(value, name, status, 1L);
+    }
+
     @Entrance
-    public final void combine(@SourceFrom int value, @Arg String name, @Arg boolean status) {
+    public final void combine(@SourceFrom int value, @Arg String name, @Arg boolean status, @Weight long weight) {
         int t = DICT.lookup(name).intValue();
         int t4 = t * 4;
-        totalNum++;
+        totalNum += weight;
         if (!status || value > t4) {
             return;
         }
         if (value > t) {
-            tNum++;
+            tNum += weight;
         } else {
-            sNum++;
+            sNum += weight;
         }
     }
 
@@ -20,9 +20,9 @@ package org.apache.skywalking.oap.server.core.analysis.metrics;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.ConstOne;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
@@ -42,7 +42,7 @@ public abstract class CPMMetrics extends Metrics implements LongValueHolder {
     private long total;
 
     @Entrance
-    public final void combine(@ConstOne long count) {
+    public final void combine(@Weight long count) {
         this.total += count;
     }
 
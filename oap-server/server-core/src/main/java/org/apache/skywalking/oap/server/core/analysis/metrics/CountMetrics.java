@@ -20,9 +20,9 @@ package org.apache.skywalking.oap.server.core.analysis.metrics;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.ConstOne;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
@@ -37,7 +37,7 @@ public abstract class CountMetrics extends Metrics implements LongValueHolder {
     private long value;
 
     @Entrance
-    public final void combine(@ConstOne long count) {
+    public final void combine(@Weight long count) {
         this.value += count;
     }
 
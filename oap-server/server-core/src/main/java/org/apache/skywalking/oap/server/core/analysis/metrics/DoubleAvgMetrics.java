@@ -20,10 +20,10 @@ package org.apache.skywalking.oap.server.core.analysis.metrics;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.ConstOne;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 import org.apache.skywalking.oap.server.core.storage.annotation.ElasticSearch;
@@ -51,7 +51,7 @@ public abstract class DoubleAvgMetrics extends Metrics implements DoubleValueHol
     private double value;
 
     @Entrance
-    public final void combine(@SourceFrom double summation, @ConstOne long count) {
+    public final void combine(@SourceFrom(weighted = true) double summation, @Weight long count) {
         this.summation += summation;
         this.count += count;
     }
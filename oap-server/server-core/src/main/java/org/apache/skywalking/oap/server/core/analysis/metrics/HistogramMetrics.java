@@ -24,6 +24,7 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 /**
@@ -56,8 +57,12 @@ public abstract class HistogramMetrics extends Metrics {
      * @param step          the size of each step. A positive integer.
      * @param maxNumOfSteps Steps are used to group incoming value.
      */
+    public final void combine(int value, int step, int maxNumOfSteps) {
+        combine(value, step, maxNumOfSteps, 1L);
+    }
+
     @Entrance
-    public final void combine(@SourceFrom int value, @Arg int step, @Arg int maxNumOfSteps) {
+    public final void combine(@SourceFrom int value, @Arg int step, @Arg int maxNumOfSteps, @Weight long weight) {
         if (!dataset.hasData()) {
             for (int i = 0; i <= maxNumOfSteps; i++) {
                 String key = String.valueOf(i * step);
@@ -71,7 +76,7 @@ public abstract class HistogramMetrics extends Metrics {
         }
         String idx = String.valueOf(index * step);
 
-        dataset.valueAccumulation(idx, 1L);
+        dataset.valueAccumulation(idx, weight);
     }
 
     @Override
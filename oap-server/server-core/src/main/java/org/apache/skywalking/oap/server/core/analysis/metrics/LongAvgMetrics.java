@@ -20,10 +20,10 @@ package org.apache.skywalking.oap.server.core.analysis.metrics;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.ConstOne;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
@@ -48,7 +48,7 @@ public abstract class LongAvgMetrics extends Metrics implements LongValueHolder
     private long value;
 
     @Entrance
-    public final void combine(@SourceFrom long summation, @ConstOne long count) {
+    public final void combine(@SourceFrom(weighted = true) long summation, @Weight long count) {
         this.summation += summation;
         this.count += count;
     }
@@ -144,6 +144,8 @@ public abstract class Metrics extends StreamData implements StorageData {
 
     private volatile String id;
 
+    private volatile MetricsID metricsID;
+
     @Override
     public String id() {
         if (id == null) {
@@ -153,4 +155,23 @@ public abstract class Metrics extends StreamData implements StorageData {
     }
 
     protected abstract String id0();
+
+    /**
+     * @return the structured ID of this metrics, which is the key in the merge buffers and the L2 session cache. Its
+     * hash code is precomputed, and {@link MetricsID#build()} equals to {@link #id()}.
+     */
+    public MetricsID metricsID() {
+        if (metricsID == null) {
+            metricsID = metricsID0();
+        }
+        return metricsID;
+    }
+
+    /**
+     * The default implementation wraps the {@link #id()} string. The OAL generated metrics override this to build the
+     * ID from the time bucket and the entity ID directly, and build the ID string lazily.
+     */
+    protected MetricsID metricsID0() {
+        return MetricsID.wrap(id());
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.Const;
+
+/**
+ * MetricsID is the structured identity of a {@link Metrics}, which is the time bucket and the entity ID. It is the key of
+ * the merge buffers and the L2 session cache, instead of the storage ID string.
+ *
+ * The hash code is computed once in the constructor, and the storage ID string, {@code timeBucket_entityId}, is only
+ * built when {@link #build()} is called by the storage layer.
+ */
+public final class MetricsID {
+    private final long timeBucket;
+    /**
+     * The entity ID reference from the source, or the whole storage ID when created by {@link #wrap(String)}. Null
+     * means there is no ID column other than the time bucket.
+     */
+    private final String entityId;
+    private final int hashCode;
+    private volatile String id;
+
+    /**
+     * @param timeBucket of the metrics
+     * @param entityId   of the metrics, could be null
+     */
+    public MetricsID(long timeBucket, String entityId) {
+        this.timeBucket = timeBucket;
+        this.entityId = entityId;
+        this.hashCode = 31 * Long.hashCode(timeBucket) + (entityId == null ? 0 : entityId.hashCode());
+    }
+
+    /**
+     * Wrap an existing storage ID. This is used by the metrics implementations which build their IDs by codes, rather
+     * than the OAL generated ones. The wrapped ID is compared as a whole, as the time bucket may not be a part of it,
+     * such as the traffic metrics.
+     *
+     * @param id the storage ID built by {@link Metrics#id0()}
+     */
+    public static MetricsID wrap(String id) {
+        final MetricsID metricsID = new MetricsID(0, id);
+        metricsID.id = id;
+        return metricsID;
+    }
+
+    /**
+     * @return the storage ID string, which is built at the first time of calling.
+     */
+    public String build() {
+        if (id == null) {
+            if (entityId == null) {
+                id = String.valueOf(timeBucket);
+            } else {
+                id = new StringBuilder(20 + entityId.length())
+                    .append(timeBucket)
+                    .append(Const.ID_CONNECTOR)
+                    .append(entityId)
+                    .toString();
+            }
+        }
+        return id;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final MetricsID that = (MetricsID) o;
+        return hashCode == that.hashCode
+            && timeBucket == that.timeBucket
+            && Objects.equals(entityId, that.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return build();
+    }
+}
@@ -23,6 +23,7 @@ import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Expression;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
@@ -45,12 +46,16 @@ public abstract class PercentMetrics extends Metrics implements IntValueHolder {
     @Column(columnName = MATCH)
     private long match;
 
+    public final void combine(boolean isMatch) {
+        combine(isMatch, 1L);
+    }
+
     @Entrance
-    public final void combine(@Expression boolean isMatch) {
+    public final void combine(@Expression boolean isMatch, @Weight long weight) {
         if (isMatch) {
-            match++;
+            match += weight;
         }
-        total++;
+        total += weight;
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 import org.apache.skywalking.oap.server.core.storage.annotation.ElasticSearch;
 
@@ -71,13 +72,17 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
         dataset = new DataTable(30);
     }
 
+    public final void combine(int value, int precision) {
+        combine(value, precision, 1L);
+    }
+
     @Entrance
-    public final void combine(@SourceFrom int value, @Arg int precision) {
+    public final void combine(@SourceFrom int value, @Arg int precision, @Weight long weight) {
         this.isCalculated = false;
         this.precision = precision;
 
         String index = String.valueOf(value / precision);
-        dataset.valueAccumulation(index, 1L);
+        dataset.valueAccumulation(index, weight);
     }
 
     @Override
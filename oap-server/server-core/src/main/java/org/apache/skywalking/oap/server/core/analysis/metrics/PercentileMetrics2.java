@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.ElasticSearch;
+
+/**
+ * Percentile2 calculates the P50/75/90/95/99 values as {@link PercentileMetrics} does, but the raw values are
+ * counted in a {@link PercentileSketch} rather than the precision based {@link DataTable}. The sketch is cheaper to
+ * combine and persist, and the relative error of the values is bounded by {@link PercentileSketch#RELATIVE_ACCURACY},
+ * no matter how large the values are. No precision argument is required.
+ *
+ * The values are kept in the same format as {@link PercentileMetrics}, so it could be queried in the same way.
+ *
+ * @since 9.3.0
+ */
+@MetricsFunction(functionName = "percentile2")
+public abstract class PercentileMetrics2 extends Metrics implements MultiIntValuesHolder {
+    protected static final String SKETCH = "sketch";
+    protected static final String VALUE = "value";
+
+    private static final int[] RANKS = {
+        50,
+        75,
+        90,
+        95,
+        99
+    };
+
+    @Getter
+    @Setter
+    @Column(columnName = VALUE, dataType = Column.ValueDataType.LABELED_VALUE, storageOnly = true)
+    @ElasticSearch.Column(columnAlias = "datatable_value")
+    private DataTable percentileValues;
+    @Getter
+    @Setter
+    @Column(columnName = SKETCH, storageOnly = true)
+    private PercentileSketch sketch;
+
+    private boolean isCalculated;
+
+    public PercentileMetrics2() {
+        percentileValues = new DataTable(RANKS.length);
+        sketch = new PercentileSketch();
+    }
+
+    public final void combine(int value) {
+        combine(value, 1L);
+    }
+
+    @Entrance
+    public final void combine(@SourceFrom int value, @Weight long weight) {
+        this.isCalculated = false;
+        sketch.add(value, weight);
+    }
+
+    @Override
+    public boolean combine(Metrics metrics) {
+        this.isCalculated = false;
+
+        PercentileMetrics2 percentileMetrics = (PercentileMetrics2) metrics;
+        this.sketch.merge(percentileMetrics.sketch);
+        return true;
+    }
+
+    @Override
+    public final void calculate() {
+        if (!isCalculated) {
+            final long[] values = sketch.valuesAt(RANKS);
+            for (int i = 0; i < values.length; i++) {
+                percentileValues.put(String.valueOf(i), values[i]);
+            }
+            isCalculated = true;
+        }
+    }
+
+    @Override
+    public int[] getValues() {
+        final int[] values = new int[RANKS.length];
+        for (int i = 0; i < values.length; i++) {
+            final Long value = percentileValues.get(String.valueOf(i));
+            values[i] = value == null ? 0 : value.intValue();
+        }
+        return values;
+    }
+}
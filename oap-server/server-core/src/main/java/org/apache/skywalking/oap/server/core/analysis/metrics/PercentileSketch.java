@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+
+/**
+ * PercentileSketch is a mergeable quantile sketch with the relative error guarantee, following the idea of DDSketch.
+ * The positive values are counted in the logarithmic buckets, {@code (gamma^(i-1), gamma^i]}, and a value read from
+ * the bucket {@code i} is at most {@link #RELATIVE_ACCURACY} away from the real one. The values less than or equal
+ * to zero are counted as zero.
+ *
+ * The bucket counts are kept in a dense array from the lowest to the highest touched bucket. The sketch keeps at most
+ * {@link #MAX_BUCKETS} buckets, the lowest buckets are collapsed when it is exceeded, which only affects the accuracy
+ * of the lowest ranks, while the latency tails keep accurate.
+ *
+ * The accuracy is fixed, so that any two sketches are always mergeable, among L1/L2 aggregation and downsampling.
+ *
+ * @since 9.3.0
+ */
+public class PercentileSketch implements StorageDataComplexObject<PercentileSketch> {
+    public static final double RELATIVE_ACCURACY = 0.01;
+    public static final int MAX_BUCKETS = 2048;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MIN_GROWTH = 64;
+    private static final byte ENCODING_VERSION = 1;
+    private static final long[] EMPTY = new long[0];
+
+    private long zeroCount;
+    /**
+     * The count of bucket {@code offset + i} is {@code counts[i]}.
+     */
+    private long[] counts = EMPTY;
+    private int offset;
+    private long total;
+
+    public PercentileSketch() {
+    }
+
+    public PercentileSketch(String data) {
+        toObject(data);
+    }
+
+    public void add(long value) {
+        add(value, 1);
+    }
+
+    /**
+     * @param value to be counted, the value less than or equal to zero is counted as zero.
+     * @param count of the value, ignored when it is not positive.
+     */
+    public void add(long value, long count) {
+        if (count <= 0) {
+            return;
+        }
+        total += count;
+        if (value <= 0) {
+            zeroCount += count;
+            return;
+        }
+        final int index = indexOf(value);
+        ensureCapacity(index, index);
+        counts[Math.max(index - offset, 0)] += count;
+    }
+
+    public void merge(PercentileSketch sketch) {
+        if (sketch.total == 0) {
+            return;
+        }
+        total += sketch.total;
+        zeroCount += sketch.zeroCount;
+        if (sketch.counts.length == 0) {
+            return;
+        }
+        ensureCapacity(sketch.offset, sketch.offset + sketch.counts.length - 1);
+        for (int i = 0; i < sketch.counts.length; i++) {
+            counts[Math.max(sketch.offset + i - offset, 0)] += sketch.counts[i];
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * @param ranks in ascending order, each of which is in (0, 100].
+     * @return the values at the given ranks, in the same order of the ranks. All values are 0 if the sketch is empty.
+     */
+    public long[] valuesAt(int[] ranks) {
+        final long[] values = new long[ranks.length];
+        if (total == 0) {
+            return values;
+        }
+        int rankIdx = 0;
+        long count = zeroCount;
+        while (rankIdx < ranks.length && count >= roof(ranks[rankIdx])) {
+            values[rankIdx++] = 0;
+        }
+        for (int i = 0; i < counts.length && rankIdx < ranks.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            count += counts[i];
+            while (rankIdx < ranks.length && count >= roof(ranks[rankIdx])) {
+                values[rankIdx++] = valueOf(offset + i);
+            }
+        }
+        // Only happens when a rank is larger than 100, use the max value.
+        while (rankIdx < ranks.length) {
+            values[rankIdx++] = counts.length == 0 ? 0 : valueOf(offset + counts.length - 1);
+        }
+        return values;
+    }
+
+    private long roof(int rank) {
+        return Math.round(total * rank / 100.0);
+    }
+
+    private static int indexOf(long value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    /**
+     * @return the value which has the same relative distance to both bounds of the bucket.
+     */
+    private static long valueOf(int index) {
+        return Math.round(2 * Math.pow(GAMMA, index) / (GAMMA + 1));
+    }
+
+    /**
+     * Make sure the buckets from {@code minIndex} to {@code maxIndex} are addressable. When the range is wider than
+     * {@link #MAX_BUCKETS}, the lower buckets are collapsed into the lowest kept one, which is {@link #offset}, and any
+     * index lower than the offset should be counted in the first bucket.
+     */
+    private void ensureCapacity(int minIndex, int maxIndex) {
+        final int currentMax = offset + counts.length - 1;
+        if (counts.length > 0 && maxIndex <= currentMax
+            && (minIndex >= offset || counts.length == MAX_BUCKETS)) {
+            return;
+        }
+        final int newMin = counts.length == 0 ? minIndex : Math.min(minIndex, offset);
+        final int newMax = counts.length == 0 ? maxIndex : Math.max(maxIndex, currentMax);
+        final int newLength = Math.min(newMax - newMin + 1 + MIN_GROWTH, MAX_BUCKETS);
+        // Leave the spare room at both ends, unless the highest buckets can't be kept.
+        final int newOffset = Math.max(newMin - MIN_GROWTH / 2, newMax - newLength + 1);
+        final long[] newCounts = new long[newLength];
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                newCounts[Math.max(offset + i - newOffset, 0)] += counts[i];
+            }
+        }
+        counts = newCounts;
+        offset = newOffset;
+    }
+
+    /**
+     * The binary format is the version byte, the zero count, the offset of the first non-empty bucket, the number of
+     * buckets and the bucket counts, encoded as var-int. The bytes are Base64 encoded as the storage data.
+     */
+    @Override
+    public String toStorageData() {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(16 + Math.max(last - first + 1, 0) * 2);
+        out.write(ENCODING_VERSION);
+        writeVarLong(out, zeroCount);
+        writeVarLong(out, zigZag(offset + first));
+        writeVarLong(out, last - first + 1);
+        for (int i = first; i <= last; i++) {
+            writeVarLong(out, counts[i]);
+        }
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    @Override
+    public void toObject(final String data) {
+        final ByteBuffer in = ByteBuffer.wrap(Base64.getDecoder().decode(data));
+        final byte version = in.get();
+        if (version != ENCODING_VERSION) {
+            throw new IllegalArgumentException("Unsupported percentile sketch encoding version " + version);
+        }
+        zeroCount = readVarLong(in);
+        offset = (int) unZigZag(readVarLong(in));
+        final int length = (int) readVarLong(in);
+        counts = length == 0 ? EMPTY : new long[length];
+        total = zeroCount;
+        for (int i = 0; i < length; i++) {
+            counts[i] = readVarLong(in);
+            total += counts[i];
+        }
+    }
+
+    @Override
+    public void copyFrom(final PercentileSketch source) {
+        this.merge(source);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PercentileSketch)) {
+            return false;
+        }
+        return toStorageData().equals(((PercentileSketch) o).toStorageData());
+    }
+
+    @Override
+    public int hashCode() {
+        return toStorageData().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PercentileSketch{total=" + total + ", zeroCount=" + zeroCount + ", offset=" + offset
+            + ", counts=" + Arrays.toString(counts) + "}";
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+
+/**
+ * PercentileSketchTable keeps a {@link PercentileSketch} per group, such as the label values of the histogram in the
+ * meter system. The format of the storage data is the same as {@link DataTable}, while the values are the storage
+ * data of the sketches.
+ */
+@ToString
+@EqualsAndHashCode
+public class PercentileSketchTable implements StorageDataComplexObject<PercentileSketchTable> {
+    private final Map<String, PercentileSketch> data;
+
+    public PercentileSketchTable() {
+        data = new HashMap<>();
+    }
+
+    public PercentileSketchTable(String data) {
+        this();
+        toObject(data);
+    }
+
+    /**
+     * @return the sketch of the given group, which is created if absent.
+     */
+    public PercentileSketch getOrCreate(String group) {
+        return data.computeIfAbsent(group, k -> new PercentileSketch());
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public void forEach(BiConsumer<String, PercentileSketch> action) {
+        data.forEach(action);
+    }
+
+    public void merge(PercentileSketchTable table) {
+        table.data.forEach((group, sketch) -> getOrCreate(group).merge(sketch));
+    }
+
+    @Override
+    public String toStorageData() {
+        StringBuilder builder = new StringBuilder();
+
+        this.data.forEach((group, sketch) -> {
+            if (builder.length() != 0) {
+                // For the first element.
+                builder.append(Const.ARRAY_SPLIT);
+            }
+            builder.append(group).append(Const.KEY_VALUE_SPLIT).append(sketch.toStorageData());
+        });
+        return builder.toString();
+    }
+
+    @Override
+    public void toObject(final String data) {
+        String[] keyValues = data.split(Const.ARRAY_PARSER_SPLIT);
+        for (String keyValue : keyValues) {
+            final String[] keyValuePair = keyValue.split(Const.KEY_VALUE_SPLIT);
+            if (keyValuePair.length == 2) {
+                this.data.put(keyValuePair[0], new PercentileSketch(keyValuePair[1]));
+            }
+        }
+    }
+
+    @Override
+    public void copyFrom(final PercentileSketchTable source) {
+        this.merge(source);
+    }
+}
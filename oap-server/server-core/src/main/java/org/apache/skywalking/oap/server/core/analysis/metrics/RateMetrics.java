@@ -22,6 +22,7 @@ import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Expression;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Weight;
 import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
@@ -44,13 +45,17 @@ public abstract class RateMetrics extends Metrics implements IntValueHolder {
     @Column(columnName = NUMERATOR)
     private long numerator;
 
+    public final void combine(boolean isNumerator, boolean isDenominator) {
+        combine(isNumerator, isDenominator, 1L);
+    }
+
     @Entrance
-    public final void combine(@Expression boolean isNumerator, @Expression boolean isDenominator) {
+    public final void combine(@Expression boolean isNumerator, @Expression boolean isDenominator, @Weight long weight) {
         if (isNumerator) {
-            numerator++;
+            numerator += weight;
         }
         if (isDenominator) {
-            denominator++;
+            denominator += weight;
         }
     }
 
@@ -37,7 +37,7 @@ public abstract class SumMetrics extends Metrics implements LongValueHolder {
     private long value;
 
     @Entrance
-    public final void combine(@SourceFrom long count) {
+    public final void combine(@SourceFrom(weighted = true) long count) {
         this.value += count;
     }
 
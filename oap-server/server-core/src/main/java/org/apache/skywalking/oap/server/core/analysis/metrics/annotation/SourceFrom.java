@@ -26,4 +26,8 @@ import java.lang.annotation.Target;
 @Target(ElementType.PARAMETER)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface SourceFrom {
+    /**
+     * @return true if the parameter accepts the value of the source multiplied by its {@link Weight}.
+     */
+    boolean weighted() default false;
 }
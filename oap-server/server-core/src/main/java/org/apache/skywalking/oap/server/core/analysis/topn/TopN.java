@@ -51,6 +51,6 @@ public abstract class TopN extends Record implements ComparableStorageData {
     @Override
     public int compareTo(Object o) {
         TopN target = (TopN) o;
-        return (int) (latency - target.latency);
+        return Long.compare(latency, target.latency);
     }
 }
@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
 import org.apache.skywalking.oap.server.core.exporter.ExporterModule;
 import org.apache.skywalking.oap.server.core.exporter.MetricValuesExportService;
@@ -37,14 +39,30 @@ public class ExportWorker extends AbstractWorker<ExportEvent> {
 
     @Override
     public void in(ExportEvent event) {
+        if (isExporterActivated()) {
+            exportService.export(event);
+        }
+    }
+
+    /**
+     * Forward the metrics of the same event type in a batch, rather than an {@link ExportEvent} per metrics.
+     */
+    public void in(ExportEvent.EventType type, List<Metrics> metricsList) {
+        if (!metricsList.isEmpty() && isExporterActivated()) {
+            exportService.export(type, metricsList);
+        }
+    }
+
+    private boolean isExporterActivated() {
         if (exportService != null || getModuleDefineHolder().has(ExporterModule.NAME)) {
             if (exportService == null) {
                 exportService = getModuleDefineHolder().find(ExporterModule.NAME)
                                                        .provider()
                                                        .getService(MetricValuesExportService.class);
             }
-            exportService.export(event);
+            return true;
         }
+        return false;
     }
 
 }
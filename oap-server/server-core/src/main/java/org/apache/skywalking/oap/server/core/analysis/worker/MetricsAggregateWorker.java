@@ -86,6 +86,13 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
         dataCarrier.produce(metrics);
     }
 
+    /**
+     * @return the usage of the L1 aggregation buffer, from 0 to 1.
+     */
+    double getBufferUsage() {
+        return dataCarrier.getBufferUsage();
+    }
+
     /**
      * Dequeue consuming. According to {@link IConsumer#consume(List)}, this is a serial operation for every work
      * instance.
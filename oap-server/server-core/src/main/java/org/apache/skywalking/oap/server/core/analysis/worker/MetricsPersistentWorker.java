@@ -36,6 +36,7 @@ import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.MetricsID;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
@@ -58,12 +59,16 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private static long SESSION_TIMEOUT_OFFSITE_COUNTER = 0;
 
     private final Model model;
-    private final Map<Metrics, Metrics> context;
+    private final Map<MetricsID, Metrics> context;
     private final IMetricsDAO metricsDAO;
     private final Optional<AbstractWorker<Metrics>> nextAlarmWorker;
-    private final Optional<AbstractWorker<ExportEvent>> nextExportWorker;
+    private final Optional<ExportWorker> nextExportWorker;
     private final DataCarrier<Metrics> dataCarrier;
     private final Optional<MetricsTransWorker> transWorker;
+    /**
+     * @since 9.3.0 The worker receiving the metrics inserted or updated, which is the metadata catalog of the traffic.
+     */
+    private final Optional<AbstractWorker<Metrics>> nextTrafficWorker;
     private final boolean enableDatabaseSession;
     private final boolean supportUpdate;
     private long sessionTimeout;
@@ -84,8 +89,9 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private int metricsDataTTL;
 
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
-                            AbstractWorker<Metrics> nextAlarmWorker, AbstractWorker<ExportEvent> nextExportWorker,
-                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate,
+                            AbstractWorker<Metrics> nextAlarmWorker, ExportWorker nextExportWorker,
+                            MetricsTransWorker transWorker, AbstractWorker<Metrics> nextTrafficWorker,
+                            boolean enableDatabaseSession, boolean supportUpdate,
                             long storageSessionTimeout, int metricsDataTTL) {
         super(moduleDefineHolder, new ReadWriteSafeCache<>(new MergableBufferedData(), new MergableBufferedData()));
         this.model = model;
@@ -95,6 +101,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         this.nextAlarmWorker = Optional.ofNullable(nextAlarmWorker);
         this.nextExportWorker = Optional.ofNullable(nextExportWorker);
         this.transWorker = Optional.ofNullable(transWorker);
+        this.nextTrafficWorker = Optional.ofNullable(nextTrafficWorker);
         this.supportUpdate = supportUpdate;
         this.sessionTimeout = storageSessionTimeout;
         this.persistentCounter = 0;
@@ -138,7 +145,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                             long storageSessionTimeout,
                             int metricsDataTTL) {
         this(moduleDefineHolder, model, metricsDAO,
-             null, null, null,
+             null, null, null, null,
              enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL
         );
         // For a down-sampling metrics, we prolong the session timeout for 4 times, nearly 5 minutes.
@@ -158,6 +165,13 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         dataCarrier.produce(metrics);
     }
 
+    /**
+     * Persist the cached metrics in the next round, even if the down-sampling worker isn't due in it.
+     */
+    void persistInNextRound() {
+        persistentCounter = 0;
+    }
+
     @Override
     public List<PrepareRequest> buildBatchRequests() {
         if (persistentCounter++ % persistentMod != 0) {
@@ -168,6 +182,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
 
         long start = System.currentTimeMillis();
         if (lastCollection.size() == 0) {
+            transWorker.ifPresent(MetricsTransWorker::endOfRound);
             return Collections.emptyList();
         }
 
@@ -191,6 +206,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         if (metricsList.size() > 0) {
             flushDataToStorage(metricsList, prepareRequests);
         }
+        transWorker.ifPresent(MetricsTransWorker::endOfRound);
 
         if (prepareRequests.size() > 0) {
             log.debug(
@@ -207,8 +223,12 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             loadFromStorage(metricsList);
 
             long timestamp = System.currentTimeMillis();
+            // The metrics are handed over to the exporter in batches after the loop.
+            final boolean exportActivated = nextExportWorker.isPresent();
+            final List<Metrics> totalExports = exportActivated ? new ArrayList<>(metricsList.size()) : null;
+            final List<Metrics> incrementExports = exportActivated ? new ArrayList<>(metricsList.size()) : null;
             for (Metrics metrics : metricsList) {
-                Metrics cachedMetrics = context.get(metrics);
+                Metrics cachedMetrics = context.get(metrics.metricsID());
                 if (cachedMetrics != null) {
                     /*
                      * If the metrics is not supportUpdate, defined through MetricsExtension#supportUpdate,
@@ -226,21 +246,28 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                     }
                     cachedMetrics.calculate();
                     prepareRequests.add(metricsDAO.prepareBatchUpdate(model, cachedMetrics));
-                    nextWorker(cachedMetrics);
+                    nextWorker(cachedMetrics, totalExports);
+                    nextTrafficWorker.ifPresent(worker -> worker.in(cachedMetrics));
                     cachedMetrics.setLastUpdateTimestamp(timestamp);
                 } else {
                     metrics.calculate();
                     prepareRequests.add(metricsDAO.prepareBatchInsert(model, metrics));
-                    nextWorker(metrics);
+                    nextWorker(metrics, totalExports);
+                    nextTrafficWorker.ifPresent(worker -> worker.in(metrics));
                     metrics.setLastUpdateTimestamp(timestamp);
                 }
 
                 /*
                  * The `metrics` should be not changed in all above process. Exporter is an async process.
                  */
-                nextExportWorker.ifPresent(exportEvenWorker -> exportEvenWorker.in(
-                    new ExportEvent(metrics, ExportEvent.EventType.INCREMENT)));
+                if (incrementExports != null) {
+                    incrementExports.add(metrics);
+                }
             }
+            nextExportWorker.ifPresent(exportWorker -> {
+                exportWorker.in(ExportEvent.EventType.TOTAL, totalExports);
+                exportWorker.in(ExportEvent.EventType.INCREMENT, incrementExports);
+            });
         } catch (Throwable t) {
             log.error(t.getMessage(), t);
         } finally {
@@ -248,10 +275,11 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         }
     }
 
-    private void nextWorker(Metrics metrics) {
+    private void nextWorker(Metrics metrics, List<Metrics> totalExports) {
         nextAlarmWorker.ifPresent(nextAlarmWorker -> nextAlarmWorker.in(metrics));
-        nextExportWorker.ifPresent(
-            nextExportWorker -> nextExportWorker.in(new ExportEvent(metrics, ExportEvent.EventType.TOTAL)));
+        if (totalExports != null) {
+            totalExports.add(metrics);
+        }
     }
 
     /**
@@ -263,7 +291,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             List<Metrics> notInCacheMetrics =
                 metrics.stream()
                        .filter(m -> {
-                           final Metrics cachedValue = context.get(m);
+                           final Metrics cachedValue = context.get(m.metricsID());
                            // Not cached or session disabled, the metric could be tagged `not in cache`.
                            if (cachedValue == null || !enableDatabaseSession) {
                                return true;
@@ -278,7 +306,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
 
                                if (metricsDAO.isExpiredCache(model, cachedValue, currentTimeMillis, metricsDataTTL)) {
                                    // The expired metrics should be removed from the context and tagged `not in cache` directly.
-                                   context.remove(m);
+                                   context.remove(m.metricsID());
                                    return true;
                                }
                            }
@@ -295,7 +323,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                 // Clear the cache only after results from DB are returned successfully.
                 context.clear();
             }
-            dbMetrics.forEach(m -> context.put(m, m));
+            dbMetrics.forEach(m -> context.put(m.metricsID(), m));
         } catch (final Exception e) {
             log.error("Failed to load metrics for merging", e);
         }
@@ -319,7 +347,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     /**
      * Metrics queue processor, merge the received metrics if existing one with same ID(s) and time bucket.
      *
-     * ID is declared through {@link Object#hashCode()} and {@link Object#equals(Object)} as usual.
+     * ID is declared through {@link Metrics#metricsID()}, which has the precomputed hash code.
      */
     private class PersistentConsumer implements IConsumer<Metrics> {
         @Override
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+
+/**
+ * MetricsRollupWorker is the {@link MetricsTransWorker} of the rollup mode. Rather than forwarding every persisted
+ * minute metrics to the hour and day workers, it keeps a log of the hour buckets, and rolls an hour bucket up once the
+ * hour is closed, which means the hour and a delay for the late arrivals have passed.
+ *
+ * The hour metrics of a closed hour are written once, and the day metrics are rolled up from the closed hours rather
+ * than from the minutes. The metrics arriving after the hour is closed are collected in a new bucket of the same hour,
+ * and merged with the stored ones by the hour and day workers.
+ *
+ * The log is only held in memory, it holds the hour metrics of every entity of the open hours. The open hour buckets
+ * are persisted by {@link #flushOnShutdown()} when the OAP shuts down gracefully, and lost if the OAP crashes.
+ */
+public class MetricsRollupWorker extends MetricsTransWorker {
+    private final Map<Long, MergableBufferedData<Metrics>> hourBuckets;
+    private final long delay;
+
+    /**
+     * @param delay in milliseconds, to wait for the late arrivals after an hour ends.
+     */
+    public MetricsRollupWorker(ModuleDefineHolder moduleDefineHolder,
+                               AbstractWorker<Metrics> hourPersistenceWorker,
+                               AbstractWorker<Metrics> dayPersistenceWorker,
+                               long delay) {
+        super(moduleDefineHolder, hourPersistenceWorker, dayPersistenceWorker);
+        this.hourBuckets = new TreeMap<>();
+        this.delay = delay;
+    }
+
+    /**
+     * Accept the minute metrics into the log of its hour bucket. The minute persistent worker calls it in the
+     * persistent round only, the lock is only contended by {@link #flushOnShutdown()}.
+     */
+    @Override
+    public synchronized void in(Metrics metrics) {
+        final Metrics hour = metrics.toHour();
+        hourBuckets.computeIfAbsent(hour.getTimeBucket(), bucket -> new MergableBufferedData<>()).accept(hour);
+    }
+
+    @Override
+    public void endOfRound() {
+        rollup(System.currentTimeMillis());
+    }
+
+    /**
+     * Forward the hour buckets closed before the given time to the hour and day workers.
+     */
+    synchronized void rollup(long now) {
+        final long openHour = TimeBucket.getTimeBucket(now - delay, DownSampling.Hour);
+        final Iterator<Map.Entry<Long, MergableBufferedData<Metrics>>> buckets = hourBuckets.entrySet().iterator();
+        while (buckets.hasNext()) {
+            final Map.Entry<Long, MergableBufferedData<Metrics>> bucket = buckets.next();
+            if (bucket.getKey() >= openHour) {
+                break;
+            }
+            for (final Metrics hour : bucket.getValue().read()) {
+                // The hour worker merges the metrics in place, so clone the day one before forwarding.
+                final Metrics day = dayPersistenceWorker == null ? null : hour.toDay();
+                if (hourPersistenceWorker != null) {
+                    hourPersistenceWorker.in(hour);
+                }
+                if (day != null) {
+                    dayPersistenceWorker.in(day);
+                }
+            }
+            buckets.remove();
+        }
+    }
+
+    /**
+     * Write all the hour buckets, including the open ones, into the caches of the hour and day workers directly rather
+     * than their queues, and let them persist in the next round. The hour metrics written here are merged with the
+     * later minutes of the same hour by the hour and day workers after the OAP restarts.
+     */
+    synchronized void flushOnShutdown() {
+        final List<Metrics> hours = new ArrayList<>();
+        final List<Metrics> days = new ArrayList<>();
+        for (final MergableBufferedData<Metrics> bucket : hourBuckets.values()) {
+            for (final Metrics hour : bucket.read()) {
+                if (dayPersistenceWorker != null) {
+                    days.add(hour.toDay());
+                }
+                hours.add(hour);
+            }
+        }
+        hourBuckets.clear();
+        flushInto(hourPersistenceWorker, hours);
+        flushInto(dayPersistenceWorker, days);
+    }
+
+    private static void flushInto(AbstractWorker<Metrics> worker, List<Metrics> metrics) {
+        if (worker == null || metrics.isEmpty()) {
+            return;
+        }
+        if (worker instanceof MetricsPersistentWorker) {
+            final MetricsPersistentWorker persistentWorker = (MetricsPersistentWorker) worker;
+            persistentWorker.onWork(metrics);
+            persistentWorker.persistInNextRound();
+        } else {
+            metrics.forEach(worker::in);
+        }
+    }
+
+    /**
+     * @return the number of the hour buckets not rolled up yet.
+     */
+    int getOpenBuckets() {
+        return hourBuckets.size();
+    }
+}
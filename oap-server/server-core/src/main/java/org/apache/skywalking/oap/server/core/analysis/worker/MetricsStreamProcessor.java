@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -34,6 +35,7 @@ import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
 import org.apache.skywalking.oap.server.core.analysis.StreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
+import org.apache.skywalking.oap.server.core.query.MetadataCatalog;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilderFactory;
 import org.apache.skywalking.oap.server.core.storage.StorageDAO;
@@ -43,6 +45,7 @@ import org.apache.skywalking.oap.server.core.storage.annotation.Storage;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
 import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 
@@ -69,6 +72,10 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
      */
     @Getter
     private List<MetricsPersistentWorker> persistentWorkers = new ArrayList<>();
+    /**
+     * The rollup workers holding the open hours, only used when the rollup is enabled.
+     */
+    private final List<MetricsRollupWorker> rollupWorkers = new ArrayList<>();
 
     /**
      * The period of L1 aggregation flush. Unit is ms.
@@ -92,6 +99,29 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
      */
     @Setter
     private int metricsDataTTL = 3;
+    /**
+     * @since 9.3.0 Roll the hour and day metrics up from the closed hours, see {@link MetricsRollupWorker}.
+     */
+    @Setter
+    private boolean enableDownsamplingRollup = false;
+    /**
+     * @since 9.3.0 The delay to close an hour for the rollup. Unit is minute.
+     */
+    @Setter
+    private int downsamplingRollupDelay = 2;
+    /**
+     * @since 9.3.0 The metadata catalog receiving the new traffic, null if the catalog is disabled.
+     */
+    @Setter
+    private MetadataCatalog metadataCatalog;
+
+    /**
+     * Hand the open hours of all the rollup workers to the hour and day workers, which persist them in the next round.
+     * It's called when the OAP shuts down, as the open hours are only held in memory.
+     */
+    public void flushRollupOnShutdown() {
+        rollupWorkers.forEach(MetricsRollupWorker::flushOnShutdown);
+    }
 
     public static MetricsStreamProcessor getInstance() {
         return PROCESSOR;
@@ -105,6 +135,28 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         }
     }
 
+    /**
+     * @return the max usage of the L1 aggregation buffers, which indicates the backlog of the metrics analysis.
+     */
+    public double getL1AggregationBufferUsage() {
+        double usage = 0;
+        for (final MetricsAggregateWorker worker : entryWorkers.values()) {
+            usage = Math.max(usage, worker.getBufferUsage());
+        }
+        return usage;
+    }
+
+    /**
+     * Accept all metrics generated from one source by the OAL generated dispatcher in one call. Every metrics is routed
+     * to the entrance worker of its own type, and enqueued into the L1 aggregation queue of that worker one by one.
+     * The metrics of one source are of different types, so they can't share one enqueue.
+     */
+    public void in(List<Metrics> metricsList) {
+        for (int i = 0; i < metricsList.size(); i++) {
+            in(metricsList.get(i));
+        }
+    }
+
     /**
      * Create the workers and work flow for every metrics.
      *
@@ -175,8 +227,17 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                 dayPersistentWorker = downSamplingWorker(moduleDefineHolder, metricsDAO, model, supportUpdate);
             }
 
-            transWorker = new MetricsTransWorker(
-                moduleDefineHolder, hourPersistentWorker, dayPersistentWorker);
+            if (enableDownsamplingRollup) {
+                MetricsRollupWorker rollupWorker = new MetricsRollupWorker(
+                    moduleDefineHolder, hourPersistentWorker, dayPersistentWorker,
+                    TimeUnit.MINUTES.toMillis(downsamplingRollupDelay)
+                );
+                rollupWorkers.add(rollupWorker);
+                transWorker = rollupWorker;
+            } else {
+                transWorker = new MetricsTransWorker(
+                    moduleDefineHolder, hourPersistentWorker, dayPersistentWorker);
+            }
         }
 
         Model model = modelSetter.add(
@@ -184,7 +245,9 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
             false
         );
         MetricsPersistentWorker minutePersistentWorker = minutePersistentWorker(
-            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate);
+            moduleDefineHolder, metricsDAO, model, transWorker,
+            metadataCatalog == null ? null : metadataCatalog.trafficWorkerOf(metricsClass), supportUpdate
+        );
 
         String remoteReceiverWorkerName = stream.getName() + "_rec";
         IWorkerInstanceSetter workerInstanceSetter = moduleDefineHolder.find(CoreModule.NAME)
@@ -203,12 +266,13 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                                                            IMetricsDAO metricsDAO,
                                                            Model model,
                                                            MetricsTransWorker transWorker,
+                                                           AbstractWorker<Metrics> trafficWorker,
                                                            boolean supportUpdate) {
         AlarmNotifyWorker alarmNotifyWorker = new AlarmNotifyWorker(moduleDefineHolder);
         ExportWorker exportWorker = new ExportWorker(moduleDefineHolder);
 
         MetricsPersistentWorker minutePersistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker,
+            moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker, trafficWorker,
             enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL
         );
         persistentWorkers.add(minutePersistentWorker);
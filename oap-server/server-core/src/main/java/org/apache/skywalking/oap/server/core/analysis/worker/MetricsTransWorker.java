@@ -29,12 +29,12 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
  * hour, day and month, including some of them through CoreModuleConfig#downsampling.
  */
 public class MetricsTransWorker extends AbstractWorker<Metrics> {
-    private final MetricsPersistentWorker hourPersistenceWorker;
-    private final MetricsPersistentWorker dayPersistenceWorker;
+    protected final AbstractWorker<Metrics> hourPersistenceWorker;
+    protected final AbstractWorker<Metrics> dayPersistenceWorker;
 
     public MetricsTransWorker(ModuleDefineHolder moduleDefineHolder,
-                              MetricsPersistentWorker hourPersistenceWorker,
-                              MetricsPersistentWorker dayPersistenceWorker) {
+                              AbstractWorker<Metrics> hourPersistenceWorker,
+                              AbstractWorker<Metrics> dayPersistenceWorker) {
         super(moduleDefineHolder);
         this.hourPersistenceWorker = hourPersistenceWorker;
         this.dayPersistenceWorker = dayPersistenceWorker;
@@ -54,4 +54,11 @@ public class MetricsTransWorker extends AbstractWorker<Metrics> {
             dayPersistenceWorker.in(metrics.toDay());
         }
     }
+
+    /**
+     * Called by the minute persistent worker at the end of every persistent round, after all metrics of the round have
+     * been transferred.
+     */
+    public void endOfRound() {
+    }
 }
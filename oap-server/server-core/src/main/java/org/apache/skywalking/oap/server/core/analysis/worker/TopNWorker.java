@@ -52,7 +52,7 @@ public class TopNWorker extends PersistenceWorker<TopN> {
         );
         this.recordDAO = recordDAO;
         this.model = model;
-        this.dataCarrier = new DataCarrier<>("TopNWorker", 1, 1000);
+        this.dataCarrier = new DataCarrier<>("TopNWorker." + model.getName(), "TopNWorker", 1, 1000);
         this.dataCarrier.consume(new TopNWorker.TopNConsumer(), 1);
         this.lastReportTimestamp = System.currentTimeMillis();
         // Top N persistent works per 10 minutes default.
@@ -29,4 +29,8 @@ public class ExportData {
     private final MetricsMetaInfo meta;
     private final Metrics metrics;
     private final ExportEvent.EventType eventType;
+    /**
+     * @since 9.3.0 The time when the data is handed over to the exporter, for the lag of the export.
+     */
+    private final long timestamp = System.currentTimeMillis();
 }
\ No newline at end of file
@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.server.core.exporter;
 
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.library.module.Service;
 
 /**
@@ -31,4 +33,17 @@ public interface MetricValuesExportService extends Service {
      * @param event value is only accurate when the method invokes. Don't cache it.
      */
     void export(ExportEvent event);
+
+    /**
+     * Export the metrics of the same event type in a batch, such as all metrics persisted in a round of a model. The
+     * default implementation exports them one by one.
+     *
+     * @param metricsList values are only accurate when the method invokes. Don't cache them.
+     * @since 9.3.0
+     */
+    default void export(ExportEvent.EventType type, List<Metrics> metricsList) {
+        for (final Metrics metrics : metricsList) {
+            export(new ExportEvent(metrics, type));
+        }
+    }
 }
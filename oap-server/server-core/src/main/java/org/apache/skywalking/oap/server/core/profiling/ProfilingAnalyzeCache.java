@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+import java.util.stream.LongStream;
+
+/**
+ * The analyzations of the profiling data in the finished time ranges. The UI queries the same ranges again and again
+ * while the user goes through the analyzation, such as switching the threads, the spans or the aggregate types. The
+ * data of a finished range doesn't change anymore, so its analyzation could be reused.
+ *
+ * @param <T> the analyzation type.
+ */
+public class ProfilingAnalyzeCache<T> {
+    /**
+     * The max number of the stack elements kept by the cached analyzations.
+     */
+    private static final long MAX_CACHED_ELEMENTS = 100_000;
+    /**
+     * The data of a time range ended before this are considered complete, so the analyzation could be cached.
+     */
+    private static final long CACHEABLE_DELAY = Duration.ofMinutes(1).toMillis();
+
+    private final Cache<String, T> cache;
+    private final ToIntFunction<T> elementCounter;
+
+    /**
+     * @param elementCounter counts the stack elements of an analyzation, which is the weight of it in the cache.
+     */
+    public ProfilingAnalyzeCache(ToIntFunction<T> elementCounter) {
+        this.elementCounter = elementCounter;
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumWeight(MAX_CACHED_ELEMENTS)
+                                 .<String, T>weigher((key, analyzation) -> elementCounter.applyAsInt(analyzation))
+                                 .expireAfterAccess(Duration.ofMinutes(10))
+                                 .build();
+    }
+
+    /**
+     * Get the cached analyzation, or analyze it and cache the result if all the time ranges are finished.
+     *
+     * @param key       identifies the analyzation.
+     * @param rangeEnds the end timestamps of the analyzed time ranges.
+     */
+    public T get(String key, LongStream rangeEnds, Analyzer<T> analyzer) throws IOException {
+        if (!isFinished(rangeEnds, System.currentTimeMillis())) {
+            return analyzer.analyze();
+        }
+        final T cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final T analyzation = analyzer.analyze();
+        // the data may not be persisted yet, don't keep the empty result.
+        if (elementCounter.applyAsInt(analyzation) > 0) {
+            cache.put(key, analyzation);
+        }
+        return analyzation;
+    }
+
+    /**
+     * @return true if there is any time range, and all of them ended the cacheable delay ago.
+     */
+    static boolean isFinished(LongStream rangeEnds, long now) {
+        final long cacheableEnd = now - CACHEABLE_DELAY;
+        final long[] ends = rangeEnds.toArray();
+        if (ends.length == 0) {
+            return false;
+        }
+        for (final long end : ends) {
+            if (end > cacheableEnd) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    public interface Analyzer<T> {
+        T analyze() throws IOException;
+    }
+}
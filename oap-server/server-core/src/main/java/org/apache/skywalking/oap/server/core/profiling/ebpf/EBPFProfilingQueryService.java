@@ -19,7 +19,6 @@
 package org.apache.skywalking.oap.server.core.profiling.ebpf;
 
 import com.google.gson.Gson;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
 import org.apache.skywalking.oap.server.core.analysis.DownSampling;
@@ -28,6 +27,7 @@ import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.analysis.manual.process.ProcessDetectType;
 import org.apache.skywalking.oap.server.core.analysis.manual.process.ProcessTraffic;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.profiling.ProfilingAnalyzeCache;
 import org.apache.skywalking.oap.server.core.profiling.ebpf.analyze.EBPFProfilingAnalyzer;
 import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilingTargetType;
 import org.apache.skywalking.oap.server.core.query.enumeration.ProfilingSupportStatus;
@@ -65,7 +65,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
-@RequiredArgsConstructor
 public class EBPFProfilingQueryService implements Service {
     private static final Gson GSON = new Gson();
 
@@ -78,9 +77,22 @@ public class EBPFProfilingQueryService implements Service {
     private IEBPFProfilingTaskDAO taskDAO;
     private IEBPFProfilingScheduleDAO scheduleDAO;
     private EBPFProfilingAnalyzer profilingAnalyzer;
+    /**
+     * Keyed by the schedules, the time ranges and the aggregate type.
+     */
+    private final ProfilingAnalyzeCache<EBPFProfilingAnalyzation> analyzeCache;
+
     private IMetricsDAO processMetricsDAO;
     private Model processTrafficModel;
 
+    public EBPFProfilingQueryService(ModuleManager moduleManager, CoreModuleConfig config, StorageModels storageModels) {
+        this.moduleManager = moduleManager;
+        this.config = config;
+        this.storageModels = storageModels;
+        this.analyzeCache = new ProfilingAnalyzeCache<>(
+            analyzation -> analyzation.getTrees().stream().mapToInt(t -> t.getElements().size()).sum());
+    }
+
     private IEBPFProfilingTaskDAO getTaskDAO() {
         if (taskDAO == null) {
             this.taskDAO = moduleManager.find(StorageModule.NAME)
@@ -214,7 +226,16 @@ public class EBPFProfilingQueryService implements Service {
     public EBPFProfilingAnalyzation getEBPFProfilingAnalyzation(List<String> scheduleIdList,
                                                                 List<EBPFProfilingAnalyzeTimeRange> timeRanges,
                                                                 EBPFProfilingAnalyzeAggregateType aggregateType) throws IOException {
-        return getProfilingAnalyzer().analyze(scheduleIdList, timeRanges, aggregateType);
+        if (CollectionUtils.isEmpty(scheduleIdList) || CollectionUtils.isEmpty(timeRanges)) {
+            return getProfilingAnalyzer().analyze(scheduleIdList, timeRanges, aggregateType);
+        }
+        final StringBuilder key = new StringBuilder(aggregateType.name());
+        scheduleIdList.stream().sorted().forEach(id -> key.append('_').append(id));
+        timeRanges.forEach(r -> key.append('_').append(r.getStart()).append('-').append(r.getEnd()));
+        return analyzeCache.get(
+            key.toString(), timeRanges.stream().mapToLong(EBPFProfilingAnalyzeTimeRange::getEnd),
+            () -> getProfilingAnalyzer().analyze(scheduleIdList, timeRanges, aggregateType)
+        );
     }
 
     private Process convertProcess(ProcessTraffic traffic) {
@@ -34,11 +34,14 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -55,47 +58,72 @@ public class EBPFProfilingAnalyzer {
     private final ModuleManager moduleManager;
     protected IEBPFProfilingDataDAO dataDAO;
     private long maxQueryTimeoutInSecond;
+    private final int fetchDataThreadPoolSize;
     private final ExecutorService fetchDataThreadPool;
 
     public EBPFProfilingAnalyzer(ModuleManager moduleManager, int maxDurationOfQuery, int fetchDataThreadPoolSize) {
         this.moduleManager = moduleManager;
         this.maxQueryTimeoutInSecond = maxDurationOfQuery;
+        this.fetchDataThreadPoolSize = fetchDataThreadPoolSize;
         this.fetchDataThreadPool = Executors.newFixedThreadPool(fetchDataThreadPoolSize);
     }
 
     /**
-     * search data and analyze
+     * search data and analyze, the pages of the data are fetched concurrently, and merged into the trees one by one as
+     * they are fetched. At most as many pages as the fetching threads are in flight, to bound the memory.
      */
     public EBPFProfilingAnalyzation analyze(List<String> scheduleIdList,
                                             List<EBPFProfilingAnalyzeTimeRange> ranges,
                                             EBPFProfilingAnalyzeAggregateType aggregateType) throws IOException {
         EBPFProfilingAnalyzation analyzation = new EBPFProfilingAnalyzation();
+        final EBPFProfilingTreeMerger merger = new EBPFProfilingTreeMerger(aggregateType);
 
         // query data
         long queryDataMaxTimestamp = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(maxQueryTimeoutInSecond);
-        final Stream<EBPFProfilingStack> stackStream = buildTimeRanges(ranges).parallelStream().map(r -> {
-            try {
-                return fetchDataThreadPool.submit(() -> getDataDAO().queryData(scheduleIdList, r.getMinTime(), r.getMaxTime()))
-                        .get(queryDataMaxTimestamp - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
-            } catch (Exception e) {
-                log.warn(e.getMessage(), e);
-                return Collections.<EBPFProfilingDataRecord>emptyList();
+        final List<TimeRange> timeRanges = buildTimeRanges(ranges);
+        final CompletionService<List<EBPFProfilingDataRecord>> fetching = new ExecutorCompletionService<>(fetchDataThreadPool);
+        int submitted = 0;
+        for (int fetched = 0; fetched < timeRanges.size(); fetched++) {
+            for (; submitted < timeRanges.size() && submitted - fetched < fetchDataThreadPoolSize; submitted++) {
+                final TimeRange r = timeRanges.get(submitted);
+                fetching.submit(() -> queryData(scheduleIdList, r));
             }
-        }).flatMap(Collection::stream).map(e -> {
             try {
-                return EBPFProfilingStack.deserialize(e, aggregateType);
-            } catch (Exception ex) {
-                log.warn("could not deserialize the stack", ex);
-                return null;
+                final Future<List<EBPFProfilingDataRecord>> page = fetching.poll(
+                    queryDataMaxTimestamp - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+                if (page == null) {
+                    log.warn("query eBPF profiling data timeout, {} of {} pages are analyzed", fetched, timeRanges.size());
+                    break;
+                }
+                // analyze tree
+                merger.merge(page.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.warn(e.getMessage(), e);
             }
-        }).filter(Objects::nonNull).distinct();
-
-        // analyze tree
-        generateTrees(analyzation, stackStream);
+        }
 
+        analyzation.getTrees().addAll(merger.build());
         return analyzation;
     }
 
+    /**
+     * Query the data of the time range, the records out of the range are excluded, as some storages include the end
+     * time, then the pages don't overlap.
+     */
+    private List<EBPFProfilingDataRecord> queryData(List<String> scheduleIdList, TimeRange range) throws IOException {
+        final List<EBPFProfilingDataRecord> records = getDataDAO().queryData(scheduleIdList, range.getMinTime(), range.getMaxTime());
+        final List<EBPFProfilingDataRecord> result = new ArrayList<>(records.size());
+        for (EBPFProfilingDataRecord record : records) {
+            if (record.getUploadTime() >= range.getMinTime() && record.getUploadTime() < range.getMaxTime()) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
     public void generateTrees(EBPFProfilingAnalyzation analyzation, Stream<EBPFProfilingStack> stackStream) {
         Collection<EBPFProfilingTree> stackTrees = stackStream
                 // stack list cannot be empty
@@ -107,12 +135,24 @@ public class EBPFProfilingAnalyzer {
         analyzation.getTrees().addAll(stackTrees);
     }
 
+    /**
+     * Merge the overlapped time ranges, and split them, so the data of the same time is queried once.
+     */
     protected List<TimeRange> buildTimeRanges(List<EBPFProfilingAnalyzeTimeRange> timeRanges) {
-        return timeRanges.parallelStream()
-                .map(r -> buildTimeRanges(r.getStart(), r.getEnd()))
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
+        final List<EBPFProfilingAnalyzeTimeRange> sorted = timeRanges.stream()
+                .filter(r -> r.getStart() < r.getEnd())
+                .sorted(Comparator.comparingLong(EBPFProfilingAnalyzeTimeRange::getStart))
                 .collect(Collectors.toList());
+        final List<TimeRange> result = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); ) {
+            final long start = sorted.get(i).getStart();
+            long end = sorted.get(i).getEnd();
+            for (i++; i < sorted.size() && sorted.get(i).getStart() <= end; i++) {
+                end = Math.max(end, sorted.get(i).getEnd());
+            }
+            result.addAll(buildTimeRanges(start, end));
+        }
+        return result;
     }
 
     /**
@@ -29,8 +29,10 @@ import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilin
 import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilingTargetType;
 import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingAnalyzeAggregateType;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * Transform the {@link EBPFProfilingDataRecord} as runtime data
@@ -44,8 +46,17 @@ public class EBPFProfilingStack {
 
     public static EBPFProfilingStack deserialize(EBPFProfilingDataRecord record,
                                                  EBPFProfilingAnalyzeAggregateType aggregateType) throws Exception {
+        return deserialize(record, aggregateType, Symbol::new);
+    }
+
+    /**
+     * @param symbolFactory creates the symbols of the stack, which could share the same symbol instances.
+     */
+    public static EBPFProfilingStack deserialize(EBPFProfilingDataRecord record,
+                                                 EBPFProfilingAnalyzeAggregateType aggregateType,
+                                                 BiFunction<String, EBPFProfilingStackType, Symbol> symbolFactory) throws Exception {
         final EBPFProfilingStack stack = new EBPFProfilingStack();
-        analyzeSymbolAndDimension(record, aggregateType, stack);
+        analyzeSymbolAndDimension(record, aggregateType, stack, symbolFactory);
         stack.setUploadTime(record.getUploadTime());
         return stack;
     }
@@ -60,17 +71,18 @@ public class EBPFProfilingStack {
 
     private static void analyzeSymbolAndDimension(EBPFProfilingDataRecord record,
                                        EBPFProfilingAnalyzeAggregateType aggregateType,
-                                       EBPFProfilingStack toStack) throws Exception {
+                                       EBPFProfilingStack toStack,
+                                       BiFunction<String, EBPFProfilingStackType, Symbol> symbolFactory) throws Exception {
         final EBPFProfilingTargetType targetType = EBPFProfilingTargetType.valueOf(record.getTargetType());
         switch (targetType) {
             case ON_CPU:
                 final EBPFOnCPUProfiling onCPUProfiling = EBPFOnCPUProfiling.parseFrom(record.getDataBinary());
                 toStack.setDumpCount(onCPUProfiling.getDumpCount());
-                toStack.setSymbols(parseSymbols(onCPUProfiling.getStacksList()));
+                toStack.setSymbols(parseSymbols(onCPUProfiling.getStacksList(), symbolFactory));
                 break;
             case OFF_CPU:
                 final EBPFOffCPUProfiling offCPUProfiling = EBPFOffCPUProfiling.parseFrom(record.getDataBinary());
-                toStack.setSymbols(parseSymbols(offCPUProfiling.getStacksList()));
+                toStack.setSymbols(parseSymbols(offCPUProfiling.getStacksList(), symbolFactory));
                 if (aggregateType == EBPFProfilingAnalyzeAggregateType.DURATION) {
                     toStack.setDumpCount(offCPUProfiling.getDuration());
                 } else {
@@ -82,15 +94,15 @@ public class EBPFProfilingStack {
         }
     }
 
-    private static List<Symbol> parseSymbols(List<EBPFProfilingStackMetadata> metadataList) {
-        final LinkedList<Symbol> symbols = new LinkedList<>();
+    private static List<Symbol> parseSymbols(List<EBPFProfilingStackMetadata> metadataList,
+                                             BiFunction<String, EBPFProfilingStackType, Symbol> symbolFactory) {
+        final List<Symbol> symbols = new ArrayList<>();
         for (EBPFProfilingStackMetadata stack : metadataList) {
-            stack.getStackSymbolsList()
-                    .forEach(s -> symbols.addFirst(new Symbol(
-                            s,
-                            EBPFProfilingStackType.valueOf(stack.getStackType())
-                    )));
+            final EBPFProfilingStackType stackType = EBPFProfilingStackType.valueOf(stack.getStackType());
+            stack.getStackSymbolsList().forEach(s -> symbols.add(symbolFactory.apply(s, stackType)));
         }
+        // the symbols are reported from the leaf to the root
+        Collections.reverse(symbols);
         return symbols;
     }
-}
\ No newline at end of file
+}
@@ -18,34 +18,41 @@
 
 package org.apache.skywalking.oap.server.core.profiling.ebpf.analyze;
 
-import com.google.common.base.Objects;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingStackElement;
 import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingTree;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * EBPF profiling data analyze intermediate state data
  */
 public class EBPFProfilingStackNode {
+    private static final int CHILDREN_INDEX_THRESHOLD = 8;
 
     private EBPFProfilingStack.Symbol codeSignature;
+    /**
+     * The children in the order of detection. It is created with the first child, as most nodes are the leaves.
+     */
     private List<EBPFProfilingStackNode> children;
+    /**
+     * The children keyed by their code signatures, which is built only when the children are more than {@link
+     * #CHILDREN_INDEX_THRESHOLD}, as scanning a few children is cheaper than hashing.
+     */
+    private Map<EBPFProfilingStack.Symbol, EBPFProfilingStackNode> childrenIndex;
     private long dumpCount;
 
     /**
      * create new empty, un-init node
      */
     public static EBPFProfilingStackNode newNode() {
-        EBPFProfilingStackNode emptyNode = new EBPFProfilingStackNode();
-        emptyNode.children = new ArrayList<>();
-        return emptyNode;
+        return new EBPFProfilingStackNode();
     }
 
     /**
@@ -65,27 +72,16 @@ public class EBPFProfilingStackNode {
             EBPFProfilingStack.Symbol elementCodeSignature = stackList.get(depth);
 
             // find same code signature children
-            EBPFProfilingStackNode childElement = null;
-            for (EBPFProfilingStackNode child : parent.children) {
-                if (Objects.equal(child.codeSignature, elementCodeSignature)) {
-                    childElement = child;
-                    break;
-                }
-            }
-
-            if (childElement != null) {
-                // add detected stack
-                childElement.detectedBy(stack);
-                parent = childElement;
-            } else {
+            EBPFProfilingStackNode childElement = parent.getChild(elementCodeSignature);
+            if (childElement == null) {
                 // add children
-                EBPFProfilingStackNode childNode = newNode();
-                childNode.codeSignature = elementCodeSignature;
-                childNode.detectedBy(stack);
-
-                parent.children.add(childNode);
-                parent = childNode;
+                childElement = newNode();
+                childElement.codeSignature = elementCodeSignature;
+                parent.addChild(childElement);
             }
+            // add detected stack
+            childElement.detectedBy(stack);
+            parent = childElement;
         }
     }
 
@@ -104,42 +100,23 @@ public class EBPFProfilingStackNode {
         while (!stack.isEmpty()) {
             Tuple2<EBPFProfilingStackNode, EBPFProfilingStackNode> needCombineNode = stack.pop();
 
-            // merge value children to key
-            // add to stack if need to keep traversal
-            combineChildrenNodes(needCombineNode._1, needCombineNode._2, stack::add);
-        }
-
-        return this;
-    }
-
-    /**
-     * merge all children nodes to appoint node
-     */
-    private void combineChildrenNodes(EBPFProfilingStackNode targetNode, EBPFProfilingStackNode beingMergedNode,
-                                      Consumer<Tuple2<EBPFProfilingStackNode, EBPFProfilingStackNode>> continueChildrenMerging) {
-        if (beingMergedNode.children.isEmpty()) {
-            return;
-        }
-
-        for (EBPFProfilingStackNode childrenNode : targetNode.children) {
-            // find node from being merged node children
-            for (ListIterator<EBPFProfilingStackNode> it = beingMergedNode.children.listIterator(); it.hasNext(); ) {
-                EBPFProfilingStackNode node = it.next();
-                if (node != null && node.matches(childrenNode)) {
-                    childrenNode.combineDetectedStacks(node);
-                    continueChildrenMerging.accept(Tuple.of(childrenNode, node));
-
-                    it.set(null);
-                    break;
+            // merge value children to key, add to stack if need to keep traversal
+            final EBPFProfilingStackNode targetNode = needCombineNode._1;
+            if (needCombineNode._2.children == null) {
+                continue;
+            }
+            for (EBPFProfilingStackNode beingMergedNode : needCombineNode._2.children) {
+                final EBPFProfilingStackNode childrenNode = targetNode.getChild(beingMergedNode.codeSignature);
+                if (childrenNode == null) {
+                    targetNode.addChild(beingMergedNode);
+                } else {
+                    childrenNode.combineDetectedStacks(beingMergedNode);
+                    stack.add(Tuple.of(childrenNode, beingMergedNode));
                 }
             }
         }
 
-        for (EBPFProfilingStackNode node : beingMergedNode.children) {
-            if (node != null) {
-                targetNode.children.add(node);
-            }
-        }
+        return this;
     }
 
     /**
@@ -161,6 +138,9 @@ public class EBPFProfilingStackNode {
             EBPFProfilingStackElement respElement = mergingPair._1;
 
             // generate children node and add to stack and all node mapping
+            if (mergingPair._2.children == null) {
+                continue;
+            }
             for (EBPFProfilingStackNode children : mergingPair._2.children) {
                 EBPFProfilingStackElement element = children.buildElement(idGenerator++);
                 element.setParentId(respElement.getId());
@@ -177,6 +157,35 @@ public class EBPFProfilingStackNode {
         return tree;
     }
 
+    private EBPFProfilingStackNode getChild(EBPFProfilingStack.Symbol codeSignature) {
+        if (childrenIndex != null) {
+            return childrenIndex.get(codeSignature);
+        }
+        if (children != null) {
+            for (EBPFProfilingStackNode child : children) {
+                if (Objects.equals(child.codeSignature, codeSignature)) {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void addChild(EBPFProfilingStackNode child) {
+        if (children == null) {
+            children = new ArrayList<>();
+        }
+        children.add(child);
+        if (childrenIndex != null) {
+            childrenIndex.put(child.codeSignature, child);
+        } else if (children.size() > CHILDREN_INDEX_THRESHOLD) {
+            childrenIndex = new HashMap<>();
+            for (EBPFProfilingStackNode c : children) {
+                childrenIndex.put(c.codeSignature, c);
+            }
+        }
+    }
+
     private void detectedBy(EBPFProfilingStack stack) {
         this.dumpCount += stack.getDumpCount();
     }
@@ -194,8 +203,4 @@ public class EBPFProfilingStackNode {
         return element;
     }
 
-    private boolean matches(EBPFProfilingStackNode node) {
-        return Objects.equal(this.codeSignature, node.codeSignature);
-    }
-
-}
\ No newline at end of file
+}
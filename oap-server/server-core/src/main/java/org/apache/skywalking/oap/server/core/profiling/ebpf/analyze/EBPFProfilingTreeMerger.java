@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling.ebpf.analyze;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilingDataRecord;
+import org.apache.skywalking.oap.server.core.profiling.ebpf.storage.EBPFProfilingStackType;
+import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingAnalyzeAggregateType;
+import org.apache.skywalking.oap.server.core.query.type.EBPFProfilingTree;
+import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merge the profiling data into the trees page by page, for {@link EBPFProfilingAnalyzer}. The stacks of a page are
+ * discarded once they are merged, only the trees are kept. The symbols are interned, so the stacks of the same code
+ * signatures share the symbol instances, and they are compared by the references mostly.
+ */
+@Slf4j
+public class EBPFProfilingTreeMerger {
+    private final EBPFProfilingAnalyzeAggregateType aggregateType;
+    private final Map<EBPFProfilingStackType, Map<String, EBPFProfilingStack.Symbol>> symbols =
+        new EnumMap<>(EBPFProfilingStackType.class);
+    private final Map<EBPFProfilingStack.Symbol, EBPFProfilingStackNode> trees = new LinkedHashMap<>();
+
+    public EBPFProfilingTreeMerger(EBPFProfilingAnalyzeAggregateType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    /**
+     * Merge a page of the data, the duplicate stacks are merged once. The records of the same stack are duplicate only
+     * when they are uploaded at the same time, so the pages split by the upload time don't overlap.
+     */
+    public void merge(List<EBPFProfilingDataRecord> records) {
+        final Set<StackKey> distinct = new HashSet<>(records.size());
+        for (EBPFProfilingDataRecord record : records) {
+            final EBPFProfilingStack stack;
+            try {
+                stack = EBPFProfilingStack.deserialize(record, aggregateType, this::intern);
+            } catch (Exception e) {
+                log.warn("could not deserialize the stack", e);
+                continue;
+            }
+            if (distinct.add(new StackKey(stack))) {
+                merge(stack);
+            }
+        }
+    }
+
+    public void merge(EBPFProfilingStack stack) {
+        // stack list cannot be empty
+        if (CollectionUtils.isEmpty(stack.getSymbols())) {
+            return;
+        }
+        trees.computeIfAbsent(stack.getSymbols().get(0), s -> EBPFProfilingStackNode.newNode()).accumulateFrom(stack);
+    }
+
+    public List<EBPFProfilingTree> build() {
+        final List<EBPFProfilingTree> result = new ArrayList<>(trees.size());
+        trees.values().forEach(tree -> result.add(tree.buildAnalyzeResult()));
+        return result;
+    }
+
+    private EBPFProfilingStack.Symbol intern(String name, EBPFProfilingStackType stackType) {
+        return symbols.computeIfAbsent(stackType, t -> new HashMap<>())
+                      .computeIfAbsent(name, n -> new EBPFProfilingStack.Symbol(n, stackType));
+    }
+
+    /**
+     * The identity of the stack, as {@link EBPFProfilingStack#equals(Object)}, with the hash computed once. The
+     * symbols are interned, so they are compared by the references.
+     */
+    private static final class StackKey {
+        private final EBPFProfilingStack stack;
+        private final int hash;
+
+        private StackKey(EBPFProfilingStack stack) {
+            this.stack = stack;
+            int h = Long.hashCode(stack.getUploadTime());
+            h = 31 * h + Long.hashCode(stack.getDumpCount());
+            for (EBPFProfilingStack.Symbol symbol : stack.getSymbols()) {
+                h = 31 * h + System.identityHashCode(symbol);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StackKey)) {
+                return false;
+            }
+            final StackKey that = (StackKey) o;
+            if (hash != that.hash
+                || stack.getUploadTime() != that.stack.getUploadTime()
+                || stack.getDumpCount() != that.stack.getDumpCount()
+                || stack.getSymbols().size() != that.stack.getSymbols().size()) {
+                return false;
+            }
+            for (int i = 0; i < stack.getSymbols().size(); i++) {
+                if (stack.getSymbols().get(i) != that.stack.getSymbols().get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
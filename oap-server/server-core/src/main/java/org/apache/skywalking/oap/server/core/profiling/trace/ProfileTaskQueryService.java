@@ -31,6 +31,7 @@ import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
 import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
+import org.apache.skywalking.oap.server.core.profiling.ProfilingAnalyzeCache;
 import org.apache.skywalking.oap.server.core.profiling.trace.analyze.ProfileAnalyzer;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.query.type.KeyValue;
@@ -63,6 +64,10 @@ public class ProfileTaskQueryService implements Service {
     private IComponentLibraryCatalogService componentLibraryCatalogService;
 
     private final ProfileAnalyzer profileAnalyzer;
+    /**
+     * Keyed by the segment id and the time ranges.
+     */
+    private final ProfilingAnalyzeCache<ProfileAnalyzation> analyzeCache;
 
     public ProfileTaskQueryService(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
         this.moduleManager = moduleManager;
@@ -70,6 +75,8 @@ public class ProfileTaskQueryService implements Service {
             moduleManager, moduleConfig.getMaxPageSizeOfQueryProfileSnapshot(),
             moduleConfig.getMaxSizeOfAnalyzeProfileSnapshot()
         );
+        this.analyzeCache = new ProfilingAnalyzeCache<>(
+            analyzation -> analyzation.getTrees().stream().mapToInt(t -> t.getElements().size()).sum());
     }
 
     private IProfileTaskQueryDAO getProfileTaskDAO() {
@@ -170,7 +177,15 @@ public class ProfileTaskQueryService implements Service {
 
     public ProfileAnalyzation getProfileAnalyze(final String segmentId,
                                                 final List<ProfileAnalyzeTimeRange> timeRanges) throws IOException {
-        return profileAnalyzer.analyze(segmentId, timeRanges);
+        if (CollectionUtils.isEmpty(timeRanges)) {
+            return profileAnalyzer.analyze(segmentId, timeRanges);
+        }
+        final StringBuilder key = new StringBuilder(segmentId);
+        timeRanges.forEach(r -> key.append('_').append(r.getStart()).append('-').append(r.getEnd()));
+        return analyzeCache.get(
+            key.toString(), timeRanges.stream().mapToLong(ProfileAnalyzeTimeRange::getEnd),
+            () -> profileAnalyzer.analyze(segmentId, timeRanges)
+        );
     }
 
     public ProfiledSegment getProfiledSegment(String segmentId) throws IOException {
@@ -20,26 +20,23 @@ package org.apache.skywalking.oap.server.core.profiling.trace.analyze;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
 import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzation;
 import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzeTimeRange;
-import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.profiling.trace.IProfileThreadSnapshotQueryDAO;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
-import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Analyze {@link ProfileStack} data to {@link ProfileAnalyzation}
+ * Analyze {@link ProfileStack} data to {@link ProfileAnalyzation}. The snapshots are queried page by page, and merged
+ * into the trees once a page is loaded, so only one page of the snapshots is kept in the memory.
  *
  * See: https://github.com/apache/skywalking/blob/421ba88dbfba48cdc5845547381aa4763775b4b1/docs/en/guides/backend-profile.md#thread-analyst
  */
@@ -47,8 +44,6 @@ public class ProfileAnalyzer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProfileAnalyzer.class);
 
-    private static final ProfileAnalyzeCollector ANALYZE_COLLECTOR = new ProfileAnalyzeCollector();
-
     private final int threadSnapshotAnalyzeBatchSize;
     private final int analyzeSnapshotMaxSize;
 
@@ -77,21 +72,31 @@ public class ProfileAnalyzer {
             analyzation.setTip("Out of snapshot analyze limit, " + sequenceSearch.getTotalSequenceCount() + " snapshots found, but analysis first " + analyzeSnapshotMaxSize + " snapshots only.");
         }
 
-        // query snapshots
-        List<ProfileStack> stacks = sequenceSearch.getRanges().parallelStream().map(r -> {
+        // query and merge snapshots page by page, in the ascending order of the sequence
+        final ProfileStackMerger merger = new ProfileStackMerger();
+        int mergedSequence = Integer.MIN_VALUE;
+        for (SequenceRange range : sequenceSearch.getSortedRanges()) {
+            // the time ranges could be overlapped
+            final int minSequence = Math.max(range.getMinSequence(), mergedSequence);
+            if (minSequence >= range.getMaxSequence()) {
+                continue;
+            }
+            mergedSequence = range.getMaxSequence();
+
+            final List<ProfileThreadSnapshotRecord> records;
             try {
-                return getProfileThreadSnapshotQueryDAO().queryRecords(segmentId, r.getMinSequence(), r.getMaxSequence());
+                records = new ArrayList<>(
+                    getProfileThreadSnapshotQueryDAO().queryRecords(segmentId, minSequence, range.getMaxSequence()));
             } catch (IOException e) {
                 LOGGER.warn(e.getMessage(), e);
-                return Collections.<ProfileThreadSnapshotRecord>emptyList();
+                continue;
             }
-        }).flatMap(Collection::stream).map(ProfileStack::deserialize).distinct().collect(Collectors.toList());
+            records.sort(Comparator.comparingInt(ProfileThreadSnapshotRecord::getSequence));
+            records.forEach(merger::merge);
+        }
 
         // analyze
-        final List<ProfileStackTree> trees = analyze(stacks);
-        if (trees != null) {
-            analyzation.getTrees().addAll(trees);
-        }
+        analyzation.getTrees().addAll(merger.build());
 
         return analyzation;
     }
@@ -133,24 +138,6 @@ public class ProfileAnalyzer {
         return sequenceSearch;
     }
 
-    /**
-     * Analyze records
-     */
-    protected List<ProfileStackTree> analyze(List<ProfileStack> stacks) {
-        if (CollectionUtils.isEmpty(stacks)) {
-            return null;
-        }
-
-        // using parallel stream
-        Map<String, ProfileStackTree> stackTrees = stacks.parallelStream()
-                                                         // stack list cannot be empty
-                                                         .filter(s -> CollectionUtils.isNotEmpty(s.getStack()))
-                                                         .collect(Collectors.groupingBy(s -> s.getStack()
-                                                                                              .get(0), ANALYZE_COLLECTOR));
-
-        return new ArrayList<>(stackTrees.values());
-    }
-
     protected IProfileThreadSnapshotQueryDAO getProfileThreadSnapshotQueryDAO() {
         if (profileThreadSnapshotQueryDAO == null) {
             profileThreadSnapshotQueryDAO = moduleManager.find(StorageModule.NAME)
@@ -172,6 +159,12 @@ public class ProfileAnalyzer {
             return ranges;
         }
 
+        public List<SequenceRange> getSortedRanges() {
+            final List<SequenceRange> sorted = new ArrayList<>(ranges);
+            sorted.sort(Comparator.comparingInt(SequenceRange::getMinSequence));
+            return sorted;
+        }
+
         public int getTotalSequenceCount() {
             return totalSequenceCount;
         }
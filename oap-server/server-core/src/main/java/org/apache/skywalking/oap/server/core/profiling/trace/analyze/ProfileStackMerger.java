@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling.trace.analyze;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
+
+/**
+ * ProfileStackMerger merges the thread snapshots into the stack trees one by one, so the snapshots could be released
+ * once merged. The code signatures are interned, every frame is kept once no matter how many snapshots include it.
+ */
+class ProfileStackMerger {
+    private final Map<String, String> codeSignatures = new HashMap<>();
+    private final Map<String, ProfileStackNode> roots = new HashMap<>();
+    private final List<String> stack = new ArrayList<>();
+    private int lastSequence = Integer.MIN_VALUE;
+
+    /**
+     * Merge the snapshot into the tree of its first frame. The snapshots should be merged in the ascending order of
+     * the sequence, the duplicated ones are ignored.
+     */
+    void merge(ProfileThreadSnapshotRecord record) {
+        if (record.getSequence() <= lastSequence) {
+            return;
+        }
+        lastSequence = record.getSequence();
+
+        final ProfileStack profileStack = ProfileStack.deserialize(record);
+        // stack list cannot be empty
+        if (profileStack.getStack().isEmpty()) {
+            return;
+        }
+
+        stack.clear();
+        for (final String codeSignature : profileStack.getStack()) {
+            stack.add(codeSignatures.computeIfAbsent(codeSignature, k -> k));
+        }
+        roots.computeIfAbsent(stack.get(0), ProfileStackNode::new)
+             .accumulateFrom(stack, profileStack.getSequence(), profileStack.getDumpTime());
+    }
+
+    List<ProfileStackTree> build() {
+        final List<ProfileStackTree> trees = new ArrayList<>(roots.size());
+        roots.values().forEach(root -> trees.add(root.buildAnalyzeResult()));
+        return trees;
+    }
+}
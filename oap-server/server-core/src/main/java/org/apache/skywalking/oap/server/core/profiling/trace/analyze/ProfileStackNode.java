@@ -18,239 +18,125 @@
 
 package org.apache.skywalking.oap.server.core.profiling.trace.analyze;
 
-import com.google.common.base.Objects;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
-import java.util.function.Consumer;
 import org.apache.skywalking.oap.server.core.query.type.ProfileStackElement;
 import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
 
 /**
- * Work for profiling stacks, intermediate state of the {@link ProfileStackElement} and {@link ProfileStack}
+ * Work for profiling stacks, intermediate state of the {@link ProfileStackElement} and {@link ProfileStack}.
+ *
+ * The stacks are accumulated in the ascending order of the sequence, so the node only keeps the current time window of
+ * the continuous sequences and the duration of the closed windows, rather than all the detected stacks.
  */
 public class ProfileStackNode {
 
-    private String codeSignature;
-    private List<ProfileStack> detectedStacks;
-    private List<ProfileStackNode> children;
-    private int duration;
+    private final String codeSignature;
+    private final List<ProfileStackNode> children = new ArrayList<>(2);
+    private int count;
+    private int lastSequence;
+    private long windowStartTime;
+    private long lastDumpTime;
+    private long closedWindowsDuration;
 
-    /**
-     * create new empty, un-init node
-     */
-    public static ProfileStackNode newNode() {
-        ProfileStackNode emptyNode = new ProfileStackNode();
-        emptyNode.detectedStacks = new LinkedList<>();
-        emptyNode.children = new ArrayList<>();
-        return emptyNode;
+    ProfileStackNode(String codeSignature) {
+        this.codeSignature = codeSignature;
     }
 
     /**
-     * accumulate {@link ProfileStack} to this tree, it will invoke on the tree root node
+     * accumulate the interned code signatures of the stack to this tree, it will invoke on the tree root node. The
+     * signatures should be the same instances for the same frame, see {@link ProfileStackMerger}.
      */
-    public void accumulateFrom(ProfileStack stack) {
-        List<String> stackList = stack.getStack();
-        if (codeSignature == null) {
-            codeSignature = stackList.get(0);
-        }
-        // add detected stack
-        this.detectedBy(stack);
+    void accumulateFrom(List<String> stack, int sequence, long dumpTime) {
+        this.detectedBy(sequence, dumpTime);
 
-        // handle stack children
         ProfileStackNode parent = this;
-        for (int depth = 1; depth < stackList.size(); depth++) {
-            String elementCodeSignature = stackList.get(depth);
+        for (int depth = 1; depth < stack.size(); depth++) {
+            final String elementCodeSignature = stack.get(depth);
 
             // find same code signature children
             ProfileStackNode childElement = null;
-            for (ProfileStackNode child : parent.children) {
-                if (Objects.equal(child.codeSignature, elementCodeSignature)) {
+            for (final ProfileStackNode child : parent.children) {
+                if (child.codeSignature == elementCodeSignature) {
                     childElement = child;
                     break;
                 }
             }
-
-            if (childElement != null) {
-                // add detected stack
-                childElement.detectedBy(stack);
-                parent = childElement;
-            } else {
-                // add children
-                ProfileStackNode childNode = newNode();
-                childNode.codeSignature = elementCodeSignature;
-                childNode.detectedBy(stack);
-
-                parent.children.add(childNode);
-                parent = childNode;
-            }
-        }
-    }
-
-    /**
-     * combine from other {@link ProfileStackNode}
-     */
-    public ProfileStackNode combine(ProfileStackNode node) {
-        // combine this node
-        this.combineDetectedStacks(node);
-
-        // merge tree using LDR to traversal tree node
-        // using stack to avoid recursion
-        // merge key.children <- value.children
-        LinkedList<Pair<ProfileStackNode, ProfileStackNode>> stack = new LinkedList<>();
-        stack.add(new Pair<>(this, node));
-        while (!stack.isEmpty()) {
-            Pair<ProfileStackNode, ProfileStackNode> needCombineNode = stack.pop();
-
-            // merge value children to key
-            // add to stack if need to keep traversal
-            combineChildrenNodes(needCombineNode.key, needCombineNode.value, stack::add);
-        }
-
-        return this;
-    }
-
-    /**
-     * merge all children nodes to appoint node
-     */
-    private void combineChildrenNodes(ProfileStackNode targetNode, ProfileStackNode beingMergedNode,
-        Consumer<Pair<ProfileStackNode, ProfileStackNode>> continueChildrenMerging) {
-        if (beingMergedNode.children.isEmpty()) {
-            return;
-        }
-
-        for (ProfileStackNode childrenNode : targetNode.children) {
-            // find node from being merged node children
-            for (ListIterator<ProfileStackNode> it = beingMergedNode.children.listIterator(); it.hasNext(); ) {
-                ProfileStackNode node = it.next();
-                if (node != null && node.matches(childrenNode)) {
-                    childrenNode.combineDetectedStacks(node);
-                    continueChildrenMerging.accept(new Pair<>(childrenNode, node));
-
-                    it.set(null);
-                    break;
-                }
+            if (childElement == null) {
+                childElement = new ProfileStackNode(elementCodeSignature);
+                parent.children.add(childElement);
             }
-        }
 
-        for (ProfileStackNode node : beingMergedNode.children) {
-            if (node != null) {
-                targetNode.children.add(node);
-            }
+            childElement.detectedBy(sequence, dumpTime);
+            parent = childElement;
         }
     }
 
     /**
-     * build GraphQL result, calculate duration and count data using parallels
+     * build GraphQL result, the elements are identified in the breadth-first order.
      */
-    public ProfileStackTree buildAnalyzeResult() {
-        // all nodes add to single-level list (such as flat), work for parallel calculating
-        LinkedList<Pair<ProfileStackElement, ProfileStackNode>> nodeMapping = new LinkedList<>();
+    ProfileStackTree buildAnalyzeResult() {
+        final ProfileStackTree tree = new ProfileStackTree();
         int idGenerator = 1;
 
-        ProfileStackElement root = buildElement(idGenerator++);
-        nodeMapping.add(new Pair<>(root, this));
+        final ProfileStackElement root = buildElement(idGenerator++);
+        tree.getElements().add(root);
 
-        // same with combine logic
-        LinkedList<Pair<ProfileStackElement, ProfileStackNode>> stack = new LinkedList<>();
-        stack.add(new Pair<>(root, this));
-        while (!stack.isEmpty()) {
-            Pair<ProfileStackElement, ProfileStackNode> mergingPair = stack.pop();
-            ProfileStackElement respElement = mergingPair.key;
+        final ArrayDeque<ProfileStackElement> elements = new ArrayDeque<>();
+        final ArrayDeque<ProfileStackNode> nodes = new ArrayDeque<>();
+        elements.add(root);
+        nodes.add(this);
+        while (!nodes.isEmpty()) {
+            final ProfileStackElement parentElement = elements.poll();
+            final ProfileStackNode parentNode = nodes.poll();
 
-            // generate children node and add to stack and all node mapping
-            for (ProfileStackNode children : mergingPair.value.children) {
-                ProfileStackElement element = children.buildElement(idGenerator++);
-                element.setParentId(respElement.getId());
+            for (final ProfileStackNode child : parentNode.children) {
+                final ProfileStackElement element = child.buildElement(idGenerator++);
+                element.setParentId(parentElement.getId());
+                tree.getElements().add(element);
 
-                Pair<ProfileStackElement, ProfileStackNode> pair = new Pair<>(element, children);
-                stack.add(pair);
-                nodeMapping.add(pair);
+                elements.add(element);
+                nodes.add(child);
             }
         }
 
-        // calculate durations
-        nodeMapping.parallelStream().forEach(t -> t.value.calculateDuration(t.key));
-        nodeMapping.parallelStream().forEach(t -> t.value.calculateDurationExcludeChild(t.key));
-
-        ProfileStackTree tree = new ProfileStackTree();
-        nodeMapping.forEach(n -> tree.getElements().add(n.key));
-
         return tree;
     }
 
-    private void detectedBy(ProfileStack stack) {
-        this.detectedStacks.add(stack);
-    }
-
-    private void combineDetectedStacks(ProfileStackNode node) {
-        this.detectedStacks.addAll(node.detectedStacks);
-    }
-
-    private ProfileStackElement buildElement(int id) {
-        ProfileStackElement element = new ProfileStackElement();
-        element.setId(id);
-        element.setCodeSignature(this.codeSignature);
-        element.setCount(this.detectedStacks.size());
-        return element;
-    }
-
-    /**
-     * calculate duration to {@link ProfileStackElement#getDuration()}
-     */
-    private void calculateDuration(ProfileStackElement element) {
-        if (this.detectedStacks.size() <= 1) {
-            element.setDuration(0);
-            return;
-        }
-
-        Collections.sort(this.detectedStacks);
-
-        // calculate time windows duration
-        ProfileStack currentTimeWindowStartStack = detectedStacks.get(0);
-        ProfileStack currentTimeWindowEndTack = detectedStacks.get(0);
-        long duration = 0;
-        for (ListIterator<ProfileStack> it = detectedStacks.listIterator(1); it.hasNext(); ) {
-            ProfileStack currentStack = it.next();
-
-            // is continuity
-            if (currentTimeWindowEndTack.getSequence() + 1 != currentStack.getSequence()) {
-                duration += currentTimeWindowEndTack.getDumpTime() - currentTimeWindowStartStack.getDumpTime();
-                currentTimeWindowStartStack = currentStack;
-            }
-
-            currentTimeWindowEndTack = currentStack;
+    private void detectedBy(int sequence, long dumpTime) {
+        if (count == 0) {
+            windowStartTime = dumpTime;
+        } else if (lastSequence + 1 != sequence) {
+            // the continuity is broken, close the current time window
+            closedWindowsDuration += lastDumpTime - windowStartTime;
+            windowStartTime = dumpTime;
         }
-
-        // calculate last one time windows
-        duration += currentTimeWindowEndTack.getDumpTime() - currentTimeWindowStartStack.getDumpTime();
-
-        this.duration = Math.toIntExact(duration);
-        element.setDuration(this.duration);
+        lastSequence = sequence;
+        lastDumpTime = dumpTime;
+        count++;
     }
 
     /**
-     * calculate duration to {@link ProfileStackElement#getDurationChildExcluded()}, expends on {@link
-     * #calculateDuration(ProfileStackElement)}
+     * @return the duration of all time windows of the continuous sequences.
      */
-    private void calculateDurationExcludeChild(ProfileStackElement element) {
-        element.setDurationChildExcluded(element.getDuration() - children.stream().mapToInt(t -> t.duration).sum());
+    private int duration() {
+        return Math.toIntExact(closedWindowsDuration + lastDumpTime - windowStartTime);
     }
 
-    private boolean matches(ProfileStackNode node) {
-        return Objects.equal(this.codeSignature, node.codeSignature);
-    }
-
-    private static class Pair<K, V> {
-        private final K key;
-        private final V value;
+    private ProfileStackElement buildElement(int id) {
+        final ProfileStackElement element = new ProfileStackElement();
+        element.setId(id);
+        element.setCodeSignature(this.codeSignature);
+        element.setCount(this.count);
 
-        public Pair(K key, V value) {
-            this.key = key;
-            this.value = value;
+        final int duration = duration();
+        int childrenDuration = 0;
+        for (final ProfileStackNode child : children) {
+            childrenDuration += child.duration();
         }
+        element.setDuration(duration);
+        element.setDurationChildExcluded(duration - childrenDuration);
+        return element;
     }
-
 }
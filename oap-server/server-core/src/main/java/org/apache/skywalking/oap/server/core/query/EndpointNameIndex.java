@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.skywalking.oap.server.core.query.type.Endpoint;
+
+/**
+ * EndpointNameIndex holds the endpoints of one service, and indexes the names by the lower case trigrams for the
+ * keyword search. A keyword is matched when it is contained in the name, ignoring the case. The keywords shorter than
+ * a trigram are matched by scanning the names.
+ */
+class EndpointNameIndex {
+    private static final int GRAM = 3;
+
+    private final List<Endpoint> endpoints;
+    private final Set<String> ids;
+    private final Map<String, Postings> grams;
+    /**
+     * The time when all endpoints of the service were loaded from the storage.
+     */
+    private final long loadTime;
+
+    EndpointNameIndex(List<Endpoint> endpoints, long loadTime) {
+        this.loadTime = loadTime;
+        this.endpoints = new ArrayList<>(endpoints.size());
+        this.ids = new HashSet<>(endpoints.size());
+        this.grams = new HashMap<>();
+        endpoints.forEach(this::add);
+    }
+
+    /**
+     * Add the endpoint if it is not indexed yet.
+     */
+    synchronized void add(Endpoint endpoint) {
+        if (!ids.add(endpoint.getId())) {
+            return;
+        }
+        final int position = endpoints.size();
+        endpoints.add(endpoint);
+        for (final String gram : gramsOf(endpoint.getName())) {
+            grams.computeIfAbsent(gram, g -> new Postings()).add(position);
+        }
+    }
+
+    long getLoadTime() {
+        return loadTime;
+    }
+
+    synchronized int size() {
+        return endpoints.size();
+    }
+
+    /**
+     * @return at most limit endpoints whose names contain the keyword, in the order they are indexed.
+     */
+    synchronized List<Endpoint> find(String keyword, int limit) {
+        final List<Endpoint> result = new ArrayList<>(Math.min(limit, endpoints.size()));
+        if (StringUtils.isEmpty(keyword)) {
+            for (int i = 0; i < endpoints.size() && result.size() < limit; i++) {
+                result.add(endpoints.get(i));
+            }
+            return result;
+        }
+        if (keyword.length() < GRAM) {
+            for (int i = 0; i < endpoints.size() && result.size() < limit; i++) {
+                collect(endpoints.get(i), keyword, result);
+            }
+            return result;
+        }
+        // Every trigram of the keyword is required, verify the candidates of the most selective one.
+        Postings candidates = null;
+        for (final String gram : gramsOf(keyword)) {
+            final Postings postings = grams.get(gram);
+            if (postings == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || postings.size < candidates.size) {
+                candidates = postings;
+            }
+        }
+        for (int i = 0; i < candidates.size && result.size() < limit; i++) {
+            collect(endpoints.get(candidates.positions[i]), keyword, result);
+        }
+        return result;
+    }
+
+    private static void collect(Endpoint endpoint, String keyword, List<Endpoint> result) {
+        if (StringUtils.containsIgnoreCase(endpoint.getName(), keyword)) {
+            result.add(endpoint);
+        }
+    }
+
+    private static Set<String> gramsOf(String name) {
+        if (name == null || name.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        final String lowerCase = name.toLowerCase(Locale.ROOT);
+        final Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= lowerCase.length(); i++) {
+            result.add(lowerCase.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    /**
+     * The ascending positions of the endpoints including a trigram.
+     */
+    private static class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        private void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.Layer;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.manual.endpoint.EndpointTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.instance.InstanceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.enumeration.Language;
+import org.apache.skywalking.oap.server.core.query.type.Attribute;
+import org.apache.skywalking.oap.server.core.query.type.Endpoint;
+import org.apache.skywalking.oap.server.core.query.type.Service;
+import org.apache.skywalking.oap.server.core.query.type.ServiceInstance;
+import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.query.IMetadataQueryDAO;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * MetadataCatalog holds the services, instances and endpoints in the OAP memory for the metadata queries.
+ *
+ * <ul>
+ *     <li>The services are loaded at the first query, the instances and the endpoints of a service are loaded at the
+ *     first query of the service. The services are reloaded every reconcile period, the instances and the endpoints
+ *     changed since the last reconciliation are merged, and they are fully reloaded every hour to drop the deleted
+ *     ones.</li>
+ *     <li>The new {@link ServiceTraffic}s, {@link EndpointTraffic}s and the {@link InstanceTraffic}s inserted or pinged
+ *     through this OAP are added immediately, the ones persisted by the other OAP nodes show up after the next
+ *     reconciliation.</li>
+ * </ul>
+ *
+ * The number of the endpoints held is limited by the {@link CoreModuleConfig#getMetadataCatalogMaxEndpoints()}, the
+ * services having more endpoints than the limit are always searched in the storage.
+ */
+@Slf4j
+public class MetadataCatalog {
+    /**
+     * The period of the full reload of the instances and the endpoints of a service.
+     */
+    private static final long FULL_RELOAD_PERIOD = TimeUnit.HOURS.toMillis(1);
+    /**
+     * The changes persisted within the grace before the last reconciliation are merged again, as the other OAP nodes
+     * flush the traffic in their own persistent periods.
+     */
+    private static final long RECONCILE_GRACE = TimeUnit.MINUTES.toMillis(10);
+
+    private final ModuleManager moduleManager;
+    private final long reconcilePeriod;
+    private final int maxEndpoints;
+
+    private final Cache<String, EndpointNameIndex> endpoints;
+    private final Cache<String, InstanceList> instances;
+    private volatile long lastReconcileTime;
+    /**
+     * The services of all layers, null before the first load.
+     */
+    private volatile List<Service> services;
+
+    private IMetadataQueryDAO metadataQueryDAO;
+    private CounterMetrics[] hitCounters;
+    private CounterMetrics[] missCounters;
+
+    public MetadataCatalog(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
+        this.moduleManager = moduleManager;
+        this.reconcilePeriod = moduleConfig.getMetadataCatalogReconcilePeriod();
+        this.maxEndpoints = moduleConfig.getMetadataCatalogMaxEndpoints();
+        // One segment only, so the weight limit applies to all endpoints rather than to a quarter of the services.
+        this.endpoints = CacheBuilder.newBuilder()
+                                     .concurrencyLevel(1)
+                                     .maximumWeight(maxEndpoints)
+                                     .weigher((String serviceId, EndpointNameIndex index) -> index.size())
+                                     .build();
+        this.instances = CacheBuilder.newBuilder()
+                                     .maximumSize(10_000)
+                                     .expireAfterWrite(FULL_RELOAD_PERIOD, TimeUnit.MILLISECONDS)
+                                     .build();
+        this.lastReconcileTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Start the reconciliation, and the hit and miss counters.
+     */
+    public void start() {
+        final MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                           .provider()
+                                                           .getService(MetricsCreator.class);
+        final Type[] types = Type.values();
+        hitCounters = new CounterMetrics[types.length];
+        missCounters = new CounterMetrics[types.length];
+        for (final Type type : types) {
+            hitCounters[type.ordinal()] = counter(metricsCreator, type, "hit");
+            missCounters[type.ordinal()] = counter(metricsCreator, type, "miss");
+        }
+
+        Executors.newSingleThreadScheduledExecutor()
+                 .scheduleWithFixedDelay(
+                     new RunnableWithExceptionProtection(
+                         this::reconcile, t -> log.error("Metadata catalog reconciliation failure.", t)),
+                     reconcilePeriod, reconcilePeriod, TimeUnit.SECONDS
+                 );
+    }
+
+    private static CounterMetrics counter(MetricsCreator metricsCreator, Type type, String result) {
+        return metricsCreator.createCounter(
+            "metadata_catalog_query_count", "The number of the metadata queries served by the catalog or the storage",
+            new MetricsTag.Keys("type", "result"), new MetricsTag.Values(type.name().toLowerCase(), result)
+        );
+    }
+
+    public List<Service> listServices(final String layer, final String group) throws IOException {
+        List<Service> loaded = services;
+        if (loaded == null) {
+            count(Type.SERVICE, false);
+            loaded = loadServices();
+        } else {
+            count(Type.SERVICE, true);
+        }
+        final String layerName = StringUtils.isEmpty(layer) ? null : Layer.valueOf(layer).name();
+        final List<Service> result = new ArrayList<>();
+        for (final Service service : loaded) {
+            if (layerName != null && !service.getLayers().contains(layerName)) {
+                continue;
+            }
+            if (StringUtils.isNotEmpty(group) && !group.equals(service.getGroup())) {
+                continue;
+            }
+            result.add(copy(service));
+        }
+        return result;
+    }
+
+    /**
+     * List the instances pinged since the start, the end is ignored as the storage does.
+     */
+    public List<ServiceInstance> listInstances(final long startTimestamp, final long endTimestamp,
+                                               final String serviceId) throws IOException {
+        final long sinceTimeBucket = TimeBucket.getMinuteTimeBucket(startTimestamp);
+        final InstanceList cached = instances.getIfPresent(serviceId);
+        if (cached != null && cached.coveredFrom <= sinceTimeBucket) {
+            count(Type.INSTANCE, true);
+            return cached.list(sinceTimeBucket);
+        }
+        count(Type.INSTANCE, false);
+        final List<ServiceInstance> loaded = getMetadataQueryDAO().listInstances(
+            startTimestamp, endTimestamp, serviceId);
+        final InstanceList instanceList = new InstanceList(sinceTimeBucket);
+        instanceList.merge(loaded);
+        instances.put(serviceId, instanceList);
+        return loaded;
+    }
+
+    public List<Endpoint> findEndpoint(final String keyword, final String serviceId,
+                                       final int limit) throws IOException {
+        EndpointNameIndex index = endpoints.getIfPresent(serviceId);
+        if (index != null) {
+            count(Type.ENDPOINT, true);
+            return index.find(keyword, limit);
+        }
+        count(Type.ENDPOINT, false);
+        index = loadEndpoints(serviceId, System.currentTimeMillis());
+        if (index == null) {
+            return getMetadataQueryDAO().findEndpoint(keyword, serviceId, limit);
+        }
+        return index.find(keyword, limit);
+    }
+
+    void reconcile() {
+        reconcile(System.currentTimeMillis());
+    }
+
+    /**
+     * Reload the services, and merge the instances and the endpoints changed since the last reconciliation into the
+     * cached services.
+     */
+    void reconcile(final long now) {
+        final long since = lastReconcileTime - RECONCILE_GRACE;
+        final long sinceTimeBucket = TimeBucket.getMinuteTimeBucket(since);
+        try {
+            if (services != null) {
+                loadServices();
+            }
+            for (final String serviceId : new ArrayList<>(endpoints.asMap().keySet())) {
+                final EndpointNameIndex index = endpoints.getIfPresent(serviceId);
+                if (index == null) {
+                    continue;
+                }
+                if (now - index.getLoadTime() >= FULL_RELOAD_PERIOD) {
+                    loadEndpoints(serviceId, now);
+                    continue;
+                }
+                for (final Endpoint endpoint : getMetadataQueryDAO().listEndpoints(
+                    serviceId, sinceTimeBucket, maxEndpoints)) {
+                    if (endpoint != null) {
+                        index.add(endpoint);
+                    }
+                }
+                reweigh(serviceId, index);
+            }
+            for (final String serviceId : new ArrayList<>(instances.asMap().keySet())) {
+                final InstanceList instanceList = instances.getIfPresent(serviceId);
+                if (instanceList != null) {
+                    instanceList.merge(getMetadataQueryDAO().listInstances(since, now, serviceId));
+                }
+            }
+            lastReconcileTime = now;
+        } catch (IOException e) {
+            log.warn("Unable to reconcile the metadata catalog", e);
+        }
+    }
+
+    /**
+     * Add the new traffic persisted by this OAP.
+     */
+    void onTraffic(Metrics traffic) {
+        if (traffic instanceof ServiceTraffic) {
+            onServiceTraffic((ServiceTraffic) traffic);
+        } else if (traffic instanceof EndpointTraffic) {
+            final EndpointTraffic endpointTraffic = (EndpointTraffic) traffic;
+            final EndpointNameIndex index = endpoints.getIfPresent(endpointTraffic.getServiceId());
+            if (index == null) {
+                return;
+            }
+            final Endpoint endpoint = new Endpoint();
+            endpoint.setId(endpointTraffic.id());
+            endpoint.setName(endpointTraffic.getName());
+            index.add(endpoint);
+            reweigh(endpointTraffic.getServiceId(), index);
+        } else if (traffic instanceof InstanceTraffic) {
+            final InstanceTraffic instanceTraffic = (InstanceTraffic) traffic;
+            final InstanceList instanceList = instances.getIfPresent(instanceTraffic.getServiceId());
+            if (instanceList != null) {
+                instanceList.merge(Collections.singletonList(toInstance(instanceTraffic)));
+            }
+        }
+    }
+
+    /**
+     * Put the grown index again, so the cache weighs it again and evicts the others if needed. The index having more
+     * endpoints than the limit is dropped.
+     */
+    private void reweigh(String serviceId, EndpointNameIndex index) {
+        if (index.size() >= maxEndpoints) {
+            endpoints.invalidate(serviceId);
+            return;
+        }
+        endpoints.asMap().replace(serviceId, index, index);
+    }
+
+    /**
+     * @return the worker adding the new traffic to the catalog, or null if the metrics is not cataloged.
+     */
+    public AbstractWorker<Metrics> trafficWorkerOf(Class<? extends Metrics> metricsClass) {
+        if (ServiceTraffic.class.equals(metricsClass)
+            || InstanceTraffic.class.equals(metricsClass)
+            || EndpointTraffic.class.equals(metricsClass)) {
+            return new AbstractWorker<Metrics>(moduleManager) {
+                @Override
+                public void in(final Metrics metrics) {
+                    onTraffic(metrics);
+                }
+            };
+        }
+        return null;
+    }
+
+    private synchronized void onServiceTraffic(ServiceTraffic traffic) {
+        if (services == null) {
+            return;
+        }
+        final String layer = traffic.getLayer().name();
+        for (final Service service : services) {
+            if (service.getId().equals(traffic.getServiceId()) && service.getLayers().contains(layer)) {
+                return;
+            }
+        }
+        final Service service = new Service();
+        service.setId(traffic.getServiceId());
+        service.setName(traffic.getName());
+        service.setShortName(traffic.getShortName());
+        service.setGroup(traffic.getGroup());
+        service.getLayers().add(layer);
+        final List<Service> updated = new ArrayList<>(services);
+        updated.add(service);
+        services = Collections.unmodifiableList(updated);
+    }
+
+    private List<Service> loadServices() throws IOException {
+        final List<Service> loaded = Collections.unmodifiableList(
+            new ArrayList<>(getMetadataQueryDAO().listServices(null, null)));
+        synchronized (this) {
+            services = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * @return the index of all endpoints of the service, or null if there are more endpoints than the limit.
+     */
+    private EndpointNameIndex loadEndpoints(String serviceId, long now) throws IOException {
+        final List<Endpoint> loaded = getMetadataQueryDAO().listEndpoints(serviceId, 0, maxEndpoints);
+        if (loaded.size() >= maxEndpoints) {
+            endpoints.invalidate(serviceId);
+            return null;
+        }
+        final EndpointNameIndex index = new EndpointNameIndex(
+            loaded.stream().filter(Objects::nonNull).collect(Collectors.toList()), now);
+        endpoints.put(serviceId, index);
+        return index;
+    }
+
+    private void count(Type type, boolean hit) {
+        final CounterMetrics[] counters = hit ? hitCounters : missCounters;
+        if (counters != null) {
+            counters[type.ordinal()].inc();
+        }
+    }
+
+    private static Service copy(Service service) {
+        final Service copy = new Service();
+        copy.setId(service.getId());
+        copy.setName(service.getName());
+        copy.setShortName(service.getShortName());
+        copy.setGroup(service.getGroup());
+        copy.setLayers(new HashSet<>(service.getLayers()));
+        return copy;
+    }
+
+    private static ServiceInstance toInstance(InstanceTraffic traffic) {
+        final ServiceInstance instance = new ServiceInstance();
+        instance.setId(traffic.id());
+        instance.setName(traffic.getName());
+        instance.setInstanceUUID(instance.getId());
+        instance.setLastPingTimeBucket(traffic.getLastPingTimestamp());
+        final JsonObject properties = traffic.getProperties();
+        if (properties != null) {
+            for (final Map.Entry<String, JsonElement> property : properties.entrySet()) {
+                final String key = property.getKey();
+                final String value = property.getValue().getAsString();
+                if (key.equals(InstanceTraffic.PropertyUtil.LANGUAGE)) {
+                    instance.setLanguage(Language.value(value));
+                } else {
+                    instance.getAttributes().add(new Attribute(key, value));
+                }
+            }
+        }
+        return instance;
+    }
+
+    private IMetadataQueryDAO getMetadataQueryDAO() {
+        if (metadataQueryDAO == null) {
+            metadataQueryDAO = moduleManager.find(StorageModule.NAME).provider().getService(IMetadataQueryDAO.class);
+        }
+        return metadataQueryDAO;
+    }
+
+    private enum Type {
+        SERVICE, INSTANCE, ENDPOINT
+    }
+
+    /**
+     * The instances of one service pinged since the covered minute.
+     */
+    @RequiredArgsConstructor
+    private static class InstanceList {
+        private final long coveredFrom;
+        private final Map<String, ServiceInstance> instances = new ConcurrentHashMap<>();
+
+        /**
+         * Add the instances, or replace the ones pinged earlier.
+         */
+        private void merge(List<ServiceInstance> pinged) {
+            for (final ServiceInstance instance : pinged) {
+                instances.merge(
+                    instance.getId(), instance,
+                    (old, latest) -> latest.getLastPingTimeBucket() >= old.getLastPingTimeBucket() ? latest : old
+                );
+            }
+        }
+
+        private List<ServiceInstance> list(long sinceTimeBucket) {
+            return instances.values()
+                            .stream()
+                            .filter(instance -> instance.getLastPingTimeBucket() >= sinceTimeBucket)
+                            .collect(Collectors.toList());
+        }
+    }
+}
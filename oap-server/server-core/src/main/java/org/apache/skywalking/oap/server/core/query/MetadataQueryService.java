@@ -48,10 +48,19 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 public class MetadataQueryService implements org.apache.skywalking.oap.server.library.module.Service {
 
     private final ModuleManager moduleManager;
+    /**
+     * @since 9.3.0 Serve the services, instances and endpoints from the OAP memory, null if the catalog is disabled.
+     */
+    private final MetadataCatalog metadataCatalog;
     private IMetadataQueryDAO metadataQueryDAO;
 
     public MetadataQueryService(ModuleManager moduleManager) {
+        this(moduleManager, null);
+    }
+
+    public MetadataQueryService(ModuleManager moduleManager, MetadataCatalog metadataCatalog) {
         this.moduleManager = moduleManager;
+        this.metadataCatalog = metadataCatalog;
     }
 
     private IMetadataQueryDAO getMetadataQueryDAO() {
@@ -66,6 +75,9 @@ public class MetadataQueryService implements org.apache.skywalking.oap.server.li
     }
 
     public List<Service> listServices(final String layer, final String group) throws IOException {
+        if (metadataCatalog != null) {
+            return this.combineServices(metadataCatalog.listServices(layer, group));
+        }
         return this.combineServices(getMetadataQueryDAO().listServices(layer, group));
     }
 
@@ -80,12 +92,20 @@ public class MetadataQueryService implements org.apache.skywalking.oap.server.li
 
     public List<ServiceInstance> listInstances(final long startTimestamp, final long endTimestamp,
                                                      final String serviceId) throws IOException {
+        if (metadataCatalog != null) {
+            return metadataCatalog.listInstances(startTimestamp, endTimestamp, serviceId)
+                                  .stream().distinct().collect(Collectors.toList());
+        }
         return getMetadataQueryDAO().listInstances(startTimestamp, endTimestamp, serviceId)
                                     .stream().distinct().collect(Collectors.toList());
     }
 
     public List<Endpoint> findEndpoint(final String keyword, final String serviceId,
                                        final int limit) throws IOException {
+        if (metadataCatalog != null) {
+            return metadataCatalog.findEndpoint(keyword, serviceId, limit)
+                                  .stream().distinct().collect(Collectors.toList());
+        }
         return getMetadataQueryDAO().findEndpoint(keyword, serviceId, limit)
                                     .stream().distinct().collect(Collectors.toList());
     }
@@ -63,6 +63,18 @@ public class MetricsQueryService implements Service {
             condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
     }
 
+    /**
+     * Read time-series values of the same metrics for multiple entities in one storage round trip.
+     *
+     * @param conditions of the same metrics name.
+     * @return values in the same order as the conditions.
+     */
+    public List<MetricsValues> readBatchMetricsValues(List<MetricsCondition> conditions,
+                                                      Duration duration) throws IOException {
+        return getMetricQueryDAO().readBatchMetricsValues(
+            conditions, ValueColumnMetadata.INSTANCE.getValueCName(conditions.get(0).getName()), duration);
+    }
+
     /**
      * Read value in the given time duration, usually as a linear.
      *
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
+import org.apache.skywalking.oap.server.core.query.type.KeyValue;
+import org.apache.skywalking.oap.server.core.query.type.LogEntity;
+import org.apache.skywalking.oap.server.core.query.type.Ref;
+import org.apache.skywalking.oap.server.core.query.type.RefType;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+
+/**
+ * TraceAssembler decodes the segments of a trace into the spans, and sorts the spans as the trees.
+ *
+ * The segments are decoded concurrently when there are at least {@link #PARALLEL_SEGMENTS} of them, the spans keep the
+ * order of the segments.
+ */
+class TraceAssembler {
+    private static final int PARALLEL_SEGMENTS = 8;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static volatile ExecutorService EXECUTOR;
+
+    private final IComponentLibraryCatalogService componentLibraryCatalogService;
+
+    TraceAssembler(IComponentLibraryCatalogService componentLibraryCatalogService) {
+        this.componentLibraryCatalogService = componentLibraryCatalogService;
+    }
+
+    /**
+     * Decode the segments into the spans, the null segments are ignored.
+     */
+    List<Span> decode(List<SegmentRecord> segments) throws IOException {
+        if (THREADS < 2 || segments.size() < PARALLEL_SEGMENTS) {
+            return decode(segments, 0, segments.size());
+        }
+        // Split the segments into a part per thread, the last part is decoded by the current thread.
+        final int parts = Math.min(THREADS, segments.size() / (PARALLEL_SEGMENTS / 2));
+        final List<CompletableFuture<List<Span>>> decoding = new ArrayList<>(parts - 1);
+        for (int part = 0; part < parts - 1; part++) {
+            final int from = part * segments.size() / parts;
+            final int to = (part + 1) * segments.size() / parts;
+            decoding.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return decode(segments, from, to);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor()));
+        }
+        final List<Span> last = decode(segments, (parts - 1) * segments.size() / parts, segments.size());
+
+        final List<Span> spans = new ArrayList<>();
+        try {
+            for (final CompletableFuture<List<Span>> part : decoding) {
+                spans.addAll(part.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+        spans.addAll(last);
+        return spans;
+    }
+
+    private List<Span> decode(List<SegmentRecord> segments, int from, int to) throws IOException {
+        final List<Span> spans = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            final SegmentRecord segment = segments.get(i);
+            if (segment != null) {
+                buildSpanList(SegmentObject.parseFrom(segment.getDataBinary()), spans);
+            }
+        }
+        return spans;
+    }
+
+    private void buildSpanList(SegmentObject segmentObject, List<Span> spans) {
+        segmentObject.getSpansList().forEach(spanObject -> {
+            Span span = new Span();
+            span.setTraceId(segmentObject.getTraceId());
+            span.setSegmentId(segmentObject.getTraceSegmentId());
+            span.setSpanId(spanObject.getSpanId());
+            span.setParentSpanId(spanObject.getParentSpanId());
+            span.setStartTime(spanObject.getStartTime());
+            span.setEndTime(spanObject.getEndTime());
+            span.setError(spanObject.getIsError());
+            span.setLayer(spanObject.getSpanLayer().name());
+            span.setType(spanObject.getSpanType().name());
+
+            String segmentSpanId = segmentObject.getTraceSegmentId() + Const.SEGMENT_SPAN_SPLIT + spanObject.getSpanId();
+            span.setSegmentSpanId(segmentSpanId);
+
+            String segmentParentSpanId = segmentObject.getTraceSegmentId() + Const.SEGMENT_SPAN_SPLIT + spanObject.getParentSpanId();
+            span.setSegmentParentSpanId(segmentParentSpanId);
+
+            span.setPeer(spanObject.getPeer());
+
+            span.setEndpointName(spanObject.getOperationName());
+
+            span.setServiceCode(segmentObject.getService());
+            span.setServiceInstanceName(segmentObject.getServiceInstance());
+
+            span.setComponent(componentLibraryCatalogService.getComponentName(spanObject.getComponentId()));
+
+            spanObject.getRefsList().forEach(reference -> {
+                Ref ref = new Ref();
+                ref.setTraceId(reference.getTraceId());
+                ref.setParentSegmentId(reference.getParentTraceSegmentId());
+
+                switch (reference.getRefType()) {
+                    case CrossThread:
+                        ref.setType(RefType.CROSS_THREAD);
+                        break;
+                    case CrossProcess:
+                        ref.setType(RefType.CROSS_PROCESS);
+                        break;
+                }
+                ref.setParentSpanId(reference.getParentSpanId());
+
+                span.setSegmentParentSpanId(
+                    ref.getParentSegmentId() + Const.SEGMENT_SPAN_SPLIT + ref.getParentSpanId());
+
+                span.getRefs().add(ref);
+            });
+
+            spanObject.getTagsList().forEach(tag -> {
+                KeyValue keyValue = new KeyValue();
+                keyValue.setKey(tag.getKey());
+                keyValue.setValue(tag.getValue());
+                span.getTags().add(keyValue);
+            });
+
+            spanObject.getLogsList().forEach(log -> {
+                LogEntity logEntity = new LogEntity();
+                logEntity.setTime(log.getTime());
+
+                log.getDataList().forEach(data -> {
+                    KeyValue keyValue = new KeyValue();
+                    keyValue.setKey(data.getKey());
+                    keyValue.setValue(data.getValue());
+                    logEntity.getData().add(keyValue);
+                });
+
+                span.getLogs().add(logEntity);
+            });
+
+            spans.add(span);
+        });
+    }
+
+    /**
+     * Sort the spans as the trees, every root is followed by its descendants in the depth-first order, and the children
+     * keep their order in the given spans. A span is a root when its parent is not in the spans.
+     *
+     * The children are indexed by the parent IDs, so the spans are sorted in the linear time.
+     */
+    static List<Span> sort(List<Span> spans) {
+        final Set<String> spanIds = new HashSet<>(spans.size() * 2);
+        for (final Span span : spans) {
+            spanIds.add(span.getSegmentSpanId());
+        }
+        final List<Span> rootSpans = new ArrayList<>();
+        final Map<String, List<Span>> children = new HashMap<>(spans.size() * 2);
+        for (final Span span : spans) {
+            if (spanIds.contains(span.getSegmentParentSpanId())) {
+                children.computeIfAbsent(span.getSegmentParentSpanId(), id -> new ArrayList<>(2)).add(span);
+            } else {
+                span.setRoot(true);
+                rootSpans.add(span);
+            }
+        }
+        /*
+         * In some cases, there are segment fragments, which could not be linked by Ref,
+         * because of two kinds of reasons.
+         * 1. Multiple leaf segments have no particular order in the storage.
+         * 2. Lost in sampling, agent fail safe, segment lost, even bug.
+         * Sorting the segments makes the trace view more readable.
+         */
+        rootSpans.sort(Comparator.comparing(Span::getStartTime));
+
+        final List<Span> sortedSpans = new ArrayList<>(spans.size());
+        final Set<Span> visited = Collections.newSetFromMap(new IdentityHashMap<>(spans.size() * 2));
+        final Deque<Span> stack = new ArrayDeque<>();
+        for (final Span root : rootSpans) {
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                final Span span = stack.pop();
+                // The spans of the duplicated IDs could refer to each other.
+                if (!visited.add(span)) {
+                    continue;
+                }
+                sortedSpans.add(span);
+                final List<Span> childSpans = children.get(span.getSegmentSpanId());
+                if (childSpans != null) {
+                    for (int i = childSpans.size() - 1; i >= 0; i--) {
+                        stack.push(childSpans.get(i));
+                    }
+                }
+            }
+        }
+        return sortedSpans;
+    }
+
+    private static ExecutorService executor() {
+        if (EXECUTOR == null) {
+            synchronized (TraceAssembler.class) {
+                if (EXECUTOR == null) {
+                    EXECUTOR = Executors.newFixedThreadPool(THREADS - 1, r -> {
+                        final Thread thread = new Thread(r, "TraceAssembler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return EXECUTOR;
+    }
+}
@@ -37,6 +37,13 @@ public class ServiceInstance {
     private Language language = Language.UNKNOWN;
     @Setter
     private String instanceUUID;
+    /**
+     * The minute time bucket of the last ping, which is used by the metadata catalog only.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    private long lastPingTimeBucket;
 
     public ServiceInstance() {
         this.attributes = new ArrayList<>();
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.server.admission;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.storage.PersistenceTimer;
+import org.apache.skywalking.oap.server.library.module.Service;
+import org.apache.skywalking.oap.server.library.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * AdmissionControlInterceptor limits the concurrent calls of every gRPC receiver method by the {@link
+ * ConcurrencyLimit}, according to the pressure of the OAP, which is sampled every second as the max of the L1
+ * aggregation buffer usage and the persistence latency, relative to their thresholds.
+ *
+ * When the pressure reaches 1, the limits of the low priority services, such as the logs and meters, back off first.
+ * The limits of the other services back off only when all the low priority limits have reached the minimum. The limits
+ * increase by 1 for every completed call once the OAP isn't overloaded. The calls beyond the limit are rejected with
+ * {@link Status#RESOURCE_EXHAUSTED} at once, rather than queued in the gRPC thread pool, so the agents keep their data
+ * to retry and the OAP sheds the load before the buffers block the receivers.
+ *
+ * @since 9.3.0
+ */
+@Slf4j
+public class AdmissionControlInterceptor implements ServerInterceptor, Service {
+    /**
+     * The OAP internal services, which are never limited.
+     */
+    private static final Set<String> EXEMPTED_SERVICES = ImmutableSet.of("RemoteService", "grpc.health.v1.Health");
+
+    @Getter
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final Set<String> lowPriorityServices;
+    private final DoubleSupplier pressureSupplier;
+    private final Map<String, ConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private volatile boolean overloaded;
+    private MetricsCreator metricsCreator;
+    private GaugeMetrics pressureGauge;
+    private ScheduledExecutorService scheduler;
+
+    public AdmissionControlInterceptor(CoreModuleConfig config) {
+        this(
+            config.isEnableAdmissionControl(),
+            config.getAdmissionControlMaxConcurrency(),
+            Arrays.stream(config.getAdmissionControlLowPriorityServices().split(Const.COMMA))
+                  .map(String::trim)
+                  .filter(service -> !service.isEmpty())
+                  .collect(Collectors.toSet()),
+            () -> Math.max(
+                MetricsStreamProcessor.getInstance().getL1AggregationBufferUsage()
+                    / config.getAdmissionControlMaxBufferUsage(),
+                (double) PersistenceTimer.INSTANCE.getPersistenceLatency()
+                    / TimeUnit.SECONDS.toMillis(config.getPersistentPeriod())
+            )
+        );
+    }
+
+    @VisibleForTesting
+    AdmissionControlInterceptor(boolean enabled,
+                                int maxConcurrency,
+                                Set<String> lowPriorityServices,
+                                DoubleSupplier pressureSupplier) {
+        this.enabled = enabled;
+        this.maxConcurrency = maxConcurrency;
+        this.lowPriorityServices = lowPriorityServices;
+        this.pressureSupplier = pressureSupplier;
+    }
+
+    /**
+     * Start sampling the pressure and adjusting the limits every second, until {@link #stop()} or the JVM shutdown.
+     */
+    public synchronized void start(MetricsCreator metricsCreator) {
+        if (scheduler != null) {
+            return;
+        }
+        initMetrics(metricsCreator);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "AdmissionControl-Adjust");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(
+            new RunnableWithExceptionProtection(
+                this::adjust,
+                t -> log.error("Adjust the admission control limits failure.", t)
+            ), 1, 1, TimeUnit.SECONDS
+        );
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "AdmissionControl-Shutdown"));
+    }
+
+    /**
+     * Stop adjusting the limits, the limits are kept as they are.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @VisibleForTesting
+    void initMetrics(MetricsCreator metricsCreator) {
+        this.metricsCreator = metricsCreator;
+        pressureGauge = metricsCreator.createGauge(
+            "grpc_admission_pressure", "The pressure of the OAP, which is overloaded at 1",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    @Override
+    public <REQUEST, RESPONSE> ServerCall.Listener<REQUEST> interceptCall(final ServerCall<REQUEST, RESPONSE> call,
+                                                                         final Metadata headers,
+                                                                         final ServerCallHandler<REQUEST, RESPONSE> next) {
+        final String fullMethodName = call.getMethodDescriptor().getFullMethodName();
+        final String serviceName = MethodDescriptor.extractFullServiceName(fullMethodName);
+        if (EXEMPTED_SERVICES.contains(serviceName)) {
+            return next.startCall(call, headers);
+        }
+
+        final ConcurrencyLimit limit = limits.computeIfAbsent(
+            fullMethodName, name -> newLimit(serviceName, name.substring(serviceName.length() + 1)));
+        if (!limit.tryAcquire()) {
+            call.close(
+                Status.RESOURCE_EXHAUSTED.withDescription(
+                    "OAP is overloaded, the concurrent calls of " + fullMethodName + " are limited to "
+                        + limit.getLimit()),
+                new Metadata()
+            );
+            return new ServerCall.Listener<REQUEST>() {
+            };
+        }
+
+        try {
+            return new ForwardingServerCallListener.SimpleForwardingServerCallListener<REQUEST>(
+                next.startCall(call, headers)) {
+                @Override
+                public void onComplete() {
+                    try {
+                        super.onComplete();
+                    } finally {
+                        limit.release(!overloaded);
+                    }
+                }
+
+                @Override
+                public void onCancel() {
+                    try {
+                        super.onCancel();
+                    } finally {
+                        limit.release(!overloaded);
+                    }
+                }
+            };
+        } catch (RuntimeException e) {
+            limit.release(false);
+            throw e;
+        }
+    }
+
+    private ConcurrencyLimit newLimit(String serviceName, String methodName) {
+        final MetricsTag.Keys keys = new MetricsTag.Keys("service", "method");
+        final MetricsTag.Values values = new MetricsTag.Values(serviceName, methodName);
+        return new ConcurrencyLimit(
+            lowPriorityServices.contains(serviceName),
+            maxConcurrency,
+            metricsCreator.createCounter(
+                "grpc_admission_rejected_count", "The number of the gRPC calls rejected by the admission control",
+                keys, values
+            ),
+            metricsCreator.createGauge(
+                "grpc_admission_concurrency_limit", "The limit of the concurrent gRPC calls", keys, values)
+        );
+    }
+
+    /**
+     * Back off the limits when the OAP is overloaded, the low priority ones first.
+     */
+    @VisibleForTesting
+    void adjust() {
+        final double pressure = pressureSupplier.getAsDouble();
+        pressureGauge.setValue(pressure);
+        overloaded = pressure >= 1;
+        if (!overloaded) {
+            return;
+        }
+
+        boolean lowPriorityExhausted = true;
+        for (final ConcurrencyLimit limit : limits.values()) {
+            if (limit.isLowPriority()) {
+                lowPriorityExhausted &= limit.getLimit() <= ConcurrencyLimit.MIN_LIMIT;
+                limit.backoff();
+            }
+        }
+        if (lowPriorityExhausted) {
+            for (final ConcurrencyLimit limit : limits.values()) {
+                if (!limit.isLowPriority()) {
+                    limit.backoff();
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    synchronized ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    @VisibleForTesting
+    ConcurrencyLimit getLimit(String fullMethodName) {
+        return limits.get(fullMethodName);
+    }
+}
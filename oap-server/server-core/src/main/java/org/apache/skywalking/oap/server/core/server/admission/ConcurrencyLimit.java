@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.server.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+
+/**
+ * The AIMD(additive increase, multiplicative decrease) limit of the concurrent calls of one gRPC method.
+ */
+class ConcurrencyLimit {
+    static final int MIN_LIMIT = 1;
+    static final double BACKOFF_RATIO = 0.9;
+
+    @Getter
+    private final boolean lowPriority;
+    private final int maxLimit;
+    private final AtomicInteger limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final CounterMetrics rejectedCounter;
+    private final GaugeMetrics limitGauge;
+
+    ConcurrencyLimit(boolean lowPriority, int maxLimit, CounterMetrics rejectedCounter, GaugeMetrics limitGauge) {
+        this.lowPriority = lowPriority;
+        this.maxLimit = Math.max(MIN_LIMIT, maxLimit);
+        this.limit = new AtomicInteger(this.maxLimit);
+        this.rejectedCounter = rejectedCounter;
+        this.limitGauge = limitGauge;
+        limitGauge.setValue(this.maxLimit);
+    }
+
+    /**
+     * @return true if the call is admitted, which must be released once it is completed or cancelled.
+     */
+    boolean tryAcquire() {
+        if (inflight.incrementAndGet() > limit.get()) {
+            inflight.decrementAndGet();
+            rejectedCounter.inc();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param increase true to increase the limit by 1, as the OAP isn't overloaded.
+     */
+    void release(boolean increase) {
+        inflight.decrementAndGet();
+        if (increase && limit.get() < maxLimit) {
+            limitGauge.setValue(limit.updateAndGet(current -> Math.min(maxLimit, current + 1)));
+        }
+    }
+
+    /**
+     * Decrease the limit multiplied by the {@link #BACKOFF_RATIO}, at least {@link #MIN_LIMIT}.
+     */
+    void backoff() {
+        limitGauge.setValue(limit.updateAndGet(current -> Math.max(MIN_LIMIT, (int) (current * BACKOFF_RATIO))));
+    }
+
+    int getLimit() {
+        return limit.get();
+    }
+
+    int getInflight() {
+        return inflight.get();
+    }
+}
@@ -26,4 +26,13 @@ public abstract class Source implements ISource {
     @Getter
     @Setter
     private long timeBucket;
+    /**
+     * The number of the requests this source stands for. A receiver could fold the requests whose fields are all the
+     * same into one source, then the OAL functions accept it as many times as the weight.
+     *
+     * @since 9.3.0
+     */
+    @Getter
+    @Setter
+    private long weight = 1;
 }
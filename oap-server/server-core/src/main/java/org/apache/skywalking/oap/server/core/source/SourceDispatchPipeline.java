@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.source;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherManager;
+import org.apache.skywalking.oap.server.library.datacarrier.DataCarrier;
+import org.apache.skywalking.oap.server.library.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.library.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.oap.server.library.datacarrier.partition.SimpleRollingPartitioner;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * SourceDispatchPipeline dispatches the sources in its own threads, rather than the receiver threads. The sources are
+ * prepared in the receiver threads, then partitioned to the dispatch threads by the hash of their entity IDs, so the
+ * sources of the same entity are always dispatched by the same thread. The sources without entity ID, such as logs,
+ * are partitioned in turn.
+ */
+@Slf4j
+class SourceDispatchPipeline {
+    private final DispatcherManager dispatcherManager;
+    private final MetricsCreator metricsCreator;
+    private final DataCarrier<ReceivedSource> dataCarrier;
+    /**
+     * The scopes of which the sources don't support {@link ISource#getEntityId()}.
+     */
+    private final Set<Integer> scopesWithoutEntity = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, ScopeMetrics> scopeMetrics = new ConcurrentHashMap<>();
+
+    SourceDispatchPipeline(final DispatcherManager dispatcherManager,
+                           final int threads,
+                           final int bufferSize,
+                           final MetricsCreator metricsCreator) {
+        this.dispatcherManager = dispatcherManager;
+        this.metricsCreator = metricsCreator;
+        this.dataCarrier = new DataCarrier<>("SourceDispatcher", "SOURCE_DISPATCHER", threads, bufferSize);
+        this.dataCarrier.setPartitioner(new EntityPartitioner());
+        this.dataCarrier.consume(new DispatchConsumer(), threads);
+    }
+
+    void produce(ISource source) {
+        if (dispatcherManager.prepare(source)) {
+            dataCarrier.produce(new ReceivedSource(source, System.currentTimeMillis()));
+        }
+    }
+
+    private ScopeMetrics scopeMetrics(int scope) {
+        ScopeMetrics metrics = scopeMetrics.get(scope);
+        if (metrics == null) {
+            metrics = scopeMetrics.computeIfAbsent(scope, ScopeMetrics::new);
+        }
+        return metrics;
+    }
+
+    @RequiredArgsConstructor
+    private static class ReceivedSource {
+        private final ISource source;
+        private final long receivedTime;
+    }
+
+    private class ScopeMetrics {
+        private final CounterMetrics dispatched;
+        private final HistogramMetrics lag;
+
+        private ScopeMetrics(int scope) {
+            final MetricsTag.Keys keys = new MetricsTag.Keys("scope");
+            final MetricsTag.Values values = new MetricsTag.Values(DefaultScopeDefine.nameOf(scope));
+            this.dispatched = metricsCreator.createCounter(
+                "source_dispatch_count", "The number of the dispatched sources", keys, values);
+            this.lag = metricsCreator.createHistogramMetric(
+                "source_dispatch_lag", "The lag in seconds from receiving to dispatching the sources", keys, values);
+        }
+    }
+
+    private class EntityPartitioner implements IDataPartitioner<ReceivedSource> {
+        private final SimpleRollingPartitioner<ReceivedSource> rolling = new SimpleRollingPartitioner<>();
+
+        @Override
+        public int partition(final int total, final ReceivedSource data) {
+            final ISource source = data.source;
+            final int scope = source.scope();
+            if (!scopesWithoutEntity.contains(scope)) {
+                try {
+                    final String entityId = source.getEntityId();
+                    if (entityId != null) {
+                        return Math.floorMod(entityId.hashCode(), total);
+                    }
+                } catch (RuntimeException e) {
+                    scopesWithoutEntity.add(scope);
+                    log.info("Sources of scope {} are dispatched without the entity affinity.",
+                             DefaultScopeDefine.nameOf(scope));
+                }
+            }
+            return rolling.partition(total, data);
+        }
+
+        @Override
+        public int maxRetryCount() {
+            return 1;
+        }
+    }
+
+    private class DispatchConsumer implements IConsumer<ReceivedSource> {
+        @Override
+        public void init(final Properties properties) {
+        }
+
+        @Override
+        public void consume(final List<ReceivedSource> data) {
+            final long now = System.currentTimeMillis();
+            for (final ReceivedSource received : data) {
+                final ISource source = received.source;
+                try {
+                    dispatcherManager.dispatch(source);
+                } catch (Exception e) {
+                    log.error("Dispatch the source of scope {} failure.", DefaultScopeDefine.nameOf(source.scope()), e);
+                }
+                final ScopeMetrics metrics = scopeMetrics(source.scope());
+                metrics.dispatched.inc();
+                metrics.lag.observe((now - received.receivedTime) / 1000d);
+            }
+        }
+
+        @Override
+        public void onError(final List<ReceivedSource> data, final Throwable t) {
+            log.error(t.getMessage(), t);
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+}
@@ -22,10 +22,15 @@ import java.io.IOException;
 import lombok.Getter;
 import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
 import org.apache.skywalking.oap.server.core.analysis.DispatcherManager;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 public class SourceReceiverImpl implements SourceReceiver {
     @Getter
     private final DispatcherManager dispatcherManager;
+    /**
+     * Dispatch the sources asynchronously if it exists, or in the receiver threads.
+     */
+    private volatile SourceDispatchPipeline dispatchPipeline;
 
     public SourceReceiverImpl() {
         this.dispatcherManager = new DispatcherManager();
@@ -33,7 +38,12 @@ public class SourceReceiverImpl implements SourceReceiver {
 
     @Override
     public void receive(ISource source) {
-        dispatcherManager.forward(source);
+        final SourceDispatchPipeline pipeline = dispatchPipeline;
+        if (pipeline != null) {
+            pipeline.produce(source);
+        } else {
+            dispatcherManager.forward(source);
+        }
     }
 
     @Override
@@ -41,6 +51,16 @@ public class SourceReceiverImpl implements SourceReceiver {
         return getDispatcherManager();
     }
 
+    /**
+     * Dispatch the sources in the given number of threads, rather than the receiver threads.
+     *
+     * @param threads    the number of the dispatch threads.
+     * @param bufferSize the size of the queue of every dispatch thread.
+     */
+    public void startAsyncDispatch(int threads, int bufferSize, MetricsCreator metricsCreator) {
+        dispatchPipeline = new SourceDispatchPipeline(dispatcherManager, threads, bufferSize, metricsCreator);
+    }
+
     public void scan() throws IOException, InstantiationException, IllegalAccessException {
         dispatcherManager.scan();
     }
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
@@ -50,6 +51,11 @@ public enum PersistenceTimer {
     private HistogramMetrics executeLatency;
     private HistogramMetrics allLatency;
     private ExecutorService prepareExecutorService;
+    /**
+     * The start time of the running round, 0 when no round is running.
+     */
+    private volatile long roundStartTime;
+    private volatile long lastRoundLatency;
 
     PersistenceTimer() {
     }
@@ -84,24 +90,62 @@ public enum PersistenceTimer {
 
         prepareExecutorService = Executors.newFixedThreadPool(moduleConfig.getPrepareThreads());
         if (!isStarted) {
-            Executors.newSingleThreadScheduledExecutor()
-                     .scheduleWithFixedDelay(
-                         new RunnableWithExceptionProtection(
-                             () -> extractDataAndSave(batchDAO).join(),
-                             t -> log.error("Extract data and save failure.", t)
-                         ), 5, moduleConfig.getPersistentPeriod(), TimeUnit.SECONDS
-                     );
+            final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            scheduler.scheduleWithFixedDelay(
+                new RunnableWithExceptionProtection(
+                    () -> extractDataAndSave(batchDAO).join(),
+                    t -> log.error("Extract data and save failure.", t)
+                ), 5, moduleConfig.getPersistentPeriod(), TimeUnit.SECONDS
+            );
+            if (moduleConfig.isEnableDownsamplingRollup()) {
+                Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> flushRollupOnShutdown(scheduler, batchDAO), "PersistenceTimer-RollupFlush"));
+            }
 
             this.isStarted = true;
         }
     }
 
+    /**
+     * Stop the timer, persist the metrics received so far, then persist the open hours of the rollup workers, which
+     * would be lost otherwise.
+     */
+    private void flushRollupOnShutdown(ScheduledExecutorService scheduler, IBatchDAO batchDAO) {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("The running persistence round isn't finished, skip flushing the rollup.");
+                return;
+            }
+            extractDataAndSave(batchDAO).join();
+            MetricsStreamProcessor.getInstance().flushRollupOnShutdown();
+            extractDataAndSave(batchDAO).join();
+            log.info("The open hours of the rollup are persisted.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            log.error("Flush the rollup on shutdown failure.", t);
+        }
+    }
+
+    /**
+     * @return the latency of the last round, or the elapsed time of the running round if it is longer. Unit is ms.
+     */
+    public long getPersistenceLatency() {
+        final long startTime = roundStartTime;
+        if (startTime == 0) {
+            return lastRoundLatency;
+        }
+        return Math.max(lastRoundLatency, System.currentTimeMillis() - startTime);
+    }
+
     private CompletableFuture<Void> extractDataAndSave(IBatchDAO batchDAO) {
         if (log.isDebugEnabled()) {
             log.debug("Extract data and save");
         }
 
         long startTime = System.currentTimeMillis();
+        roundStartTime = startTime;
 
         HistogramMetrics.Timer allTimer = allLatency.createTimer();
         List<PersistenceWorker<? extends StorageData>> workers = new ArrayList<>();
@@ -140,6 +184,8 @@ public enum PersistenceTimer {
         future.whenComplete((unused, throwable) -> {
             batchDAO.endOfFlush();
             allTimer.close();
+            lastRoundLatency = System.currentTimeMillis() - startTime;
+            roundStartTime = 0;
             if (log.isDebugEnabled()) {
                 log.debug(
                     "Batch persistence duration: {} ms",
@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.core.storage.query;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.query.enumeration.ProfilingSupportStatus;
 import org.apache.skywalking.oap.server.core.query.type.Endpoint;
 import org.apache.skywalking.oap.server.core.query.type.Process;
@@ -60,6 +61,20 @@ public interface IMetadataQueryDAO extends DAO {
      */
     List<Endpoint> findEndpoint(final String keyword, final String serviceId, final int limit) throws IOException;
 
+    /**
+     * @param serviceId       the owner of the endpoints
+     * @param sinceTimeBucket the minute time bucket, list the endpoints inserted since it only, or 0 for all. The
+     *                        storage implementation could ignore it and list all.
+     * @param limit           max size, the storage implementation should page through the endpoints when the size is
+     *                        limited per query.
+     * @return list of the endpoints of the service, at most limit.
+     * @since 9.3.0
+     */
+    default List<Endpoint> listEndpoints(final String serviceId, final long sinceTimeBucket,
+                                         final int limit) throws IOException {
+        return findEndpoint(Const.EMPTY_STRING, serviceId, limit);
+    }
+
     /**
      * @param serviceId the service id of the process.
      * @param supportStatus the profiling status of the process.
@@ -51,6 +51,24 @@ public interface IMetricsQueryDAO extends DAO {
                                     String valueColumnName,
                                     Duration duration) throws IOException;
 
+    /**
+     * Read time-series values of the same metrics for multiple entities, the result is in the same order as the
+     * conditions. The implementation should read them in one round trip if the storage supports, the default one
+     * reads them one by one.
+     *
+     * @param conditions of the same metrics name.
+     * @since 9.3.0
+     */
+    default List<MetricsValues> readBatchMetricsValues(List<MetricsCondition> conditions,
+                                                       String valueColumnName,
+                                                       Duration duration) throws IOException {
+        final List<MetricsValues> result = new ArrayList<>(conditions.size());
+        for (final MetricsCondition condition : conditions) {
+            result.add(readMetricsValues(condition, valueColumnName, duration));
+        }
+        return result;
+    }
+
     List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition,
                                                  String valueColumnName,
                                                  List<String> labels,
@@ -18,7 +18,12 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.storage.ComparableStorageData;
 import org.junit.Assert;
 import org.junit.Test;
@@ -49,22 +54,50 @@ public class LimitedSizeBufferedDataTest {
         }
     }
 
+    @Test
+    public void testKeepBiggestInOrder() {
+        LimitedSizeBufferedData<MockStorageData> collection = new LimitedSizeBufferedData<>(10);
+        List<Long> latencies = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            long latency = random.nextInt(100_000) * 100_000L;
+            latencies.add(latency);
+            collection.accept(new MockStorageData("id", latency));
+            collection.accept(new MockStorageData("single-" + i, latency));
+        }
+        latencies.sort(Collections.reverseOrder());
+
+        List<MockStorageData> read = collection.read();
+        Assert.assertEquals(1010, read.size());
+        Assert.assertEquals(
+            latencies.subList(0, 10).stream().sorted().collect(Collectors.toList()),
+            read.stream().filter(it -> it.id.equals("id")).map(it -> it.latency).collect(Collectors.toList())
+        );
+        Assert.assertTrue(collection.read().isEmpty());
+    }
+
     private class MockStorageData implements ComparableStorageData {
+        private final String id;
         private long latency;
 
         public MockStorageData(long latency) {
+            this("id", latency);
+        }
+
+        public MockStorageData(String id, long latency) {
+            this.id = id;
             this.latency = latency;
         }
 
         @Override
         public int compareTo(Object o) {
             MockStorageData target = (MockStorageData) o;
-            return (int) (latency - target.latency);
+            return Long.compare(latency, target.latency);
         }
 
         @Override
         public String id() {
-            return "id";
+            return id;
         }
 
         @Override
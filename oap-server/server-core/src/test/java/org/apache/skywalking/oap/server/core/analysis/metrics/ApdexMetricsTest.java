@@ -101,6 +101,17 @@ public class ApdexMetricsTest {
         assertThat(apdex1.getValue(), is(6500));
     }
 
+    @Test
+    public void testWeightedEntrance() {
+        ApdexMetrics apdex = new ApdexMetricsImpl();
+        apdex.combine(200, "foo", true, 3);
+        apdex.combine(1000, "foo", true, 1);
+        apdex.combine(3000, "foo", true, 1);
+        apdex.combine(200, "foo", false, 2);
+        apdex.calculate();
+        assertThat(apdex.getValue(), is(5000));
+    }
+
     public class ApdexMetricsImpl extends ApdexMetrics {
 
         @Override
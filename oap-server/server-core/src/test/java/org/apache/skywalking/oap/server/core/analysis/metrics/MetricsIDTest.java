@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsIDTest {
+
+    @Test
+    public void testBuild() {
+        Assert.assertEquals("202210191200_c2VydmljZQ==.1", new MetricsID(202210191200L, "c2VydmljZQ==.1").build());
+        Assert.assertEquals("202210191200", new MetricsID(202210191200L, null).build());
+        Assert.assertEquals("abc", MetricsID.wrap("abc").build());
+    }
+
+    @Test
+    public void testEquals() {
+        MetricsID id1 = new MetricsID(202210191200L, "c2VydmljZQ==.1");
+        MetricsID id2 = new MetricsID(202210191200L, new String("c2VydmljZQ==.1"));
+        Assert.assertEquals(id1, id2);
+        Assert.assertEquals(id1.hashCode(), id2.hashCode());
+
+        Assert.assertNotEquals(id1, new MetricsID(202210191201L, "c2VydmljZQ==.1"));
+        Assert.assertNotEquals(id1, new MetricsID(202210191200L, "c2VydmljZQ==.2"));
+        Assert.assertNotEquals(id1, new MetricsID(202210191200L, null));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PercentileMetrics2Test {
+
+    @Test
+    public void percentileTest() {
+        PercentileMetrics2Mocker metricsMocker = new PercentileMetrics2Mocker();
+
+        metricsMocker.combine(110);
+        metricsMocker.combine(90);
+        metricsMocker.combine(95);
+        metricsMocker.combine(99);
+        metricsMocker.combine(50);
+        metricsMocker.combine(50);
+        metricsMocker.combine(50);
+        metricsMocker.combine(50);
+        metricsMocker.combine(50);
+        metricsMocker.combine(75);
+        metricsMocker.combine(75);
+
+        metricsMocker.calculate();
+
+        final int[] expected = {
+            75,
+            90,
+            99,
+            99,
+            110
+        };
+        final int[] values = metricsMocker.getValues();
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], values[i], expected[i] * PercentileSketch.RELATIVE_ACCURACY + 1);
+        }
+    }
+
+    @Test
+    public void combineTest() {
+        PercentileMetrics2Mocker metricsMocker = new PercentileMetrics2Mocker();
+        metricsMocker.combine(0);
+        metricsMocker.combine(0);
+        metricsMocker.calculate();
+        Assert.assertArrayEquals(new int[] {
+            0,
+            0,
+            0,
+            0,
+            0
+        }, metricsMocker.getValues());
+
+        PercentileMetrics2Mocker another = new PercentileMetrics2Mocker();
+        for (int i = 0; i < 10; i++) {
+            another.combine(1000);
+        }
+        metricsMocker.combine(another);
+        metricsMocker.calculate();
+        for (final int value : metricsMocker.getValues()) {
+            Assert.assertEquals(1000, value, 1000 * PercentileSketch.RELATIVE_ACCURACY + 1);
+        }
+    }
+
+    public class PercentileMetrics2Mocker extends PercentileMetrics2 {
+
+        @Override
+        protected String id0() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PercentileSketchTest {
+    private static final int[] RANKS = {50, 75, 90, 95, 99};
+
+    @Test
+    public void testRelativeAccuracy() {
+        final Random random = new Random(17);
+        final long[] values = new long[100_000];
+        final PercentileSketch sketch = new PercentileSketch();
+        for (int i = 0; i < values.length; i++) {
+            // Long tail latency, from 1ms to about 1 hour.
+            values[i] = 1 + (long) Math.exp(random.nextDouble() * 15);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        final long[] actual = sketch.valuesAt(RANKS);
+        for (int i = 0; i < RANKS.length; i++) {
+            final long expected = values[(int) Math.round(values.length * RANKS[i] / 100.0) - 1];
+            Assert.assertEquals(expected, actual[i], expected * PercentileSketch.RELATIVE_ACCURACY + 1);
+        }
+        Assert.assertEquals(values.length, sketch.getTotal());
+    }
+
+    @Test
+    public void testZeroAndEmpty() {
+        final PercentileSketch sketch = new PercentileSketch();
+        Assert.assertArrayEquals(new long[] {0, 0, 0, 0, 0}, sketch.valuesAt(RANKS));
+
+        sketch.add(0);
+        sketch.add(-10);
+        sketch.add(Long.MIN_VALUE);
+        Assert.assertArrayEquals(new long[] {0, 0, 0, 0, 0}, sketch.valuesAt(RANKS));
+
+        sketch.add(100, 7);
+        Assert.assertArrayEquals(new long[] {100, 100, 100, 100, 100}, sketch.valuesAt(RANKS));
+    }
+
+    @Test
+    public void testMerge() {
+        final PercentileSketch merged = new PercentileSketch();
+        final PercentileSketch all = new PercentileSketch();
+        for (int i = 0; i < 10; i++) {
+            final PercentileSketch part = new PercentileSketch();
+            for (int v = 1; v <= 1000; v++) {
+                part.add((long) v * (i + 1));
+                all.add((long) v * (i + 1));
+            }
+            merged.merge(part);
+        }
+        Assert.assertEquals(all.getTotal(), merged.getTotal());
+        Assert.assertArrayEquals(all.valuesAt(RANKS), merged.valuesAt(RANKS));
+        Assert.assertEquals(all, merged);
+    }
+
+    @Test
+    public void testCollapseLowestBuckets() {
+        final PercentileSketch sketch = new PercentileSketch();
+        sketch.add(1, 100);
+        sketch.add(Long.MAX_VALUE / 2, 1000);
+        final long[] values = sketch.valuesAt(new int[] {5, 50});
+        // The lowest buckets are collapsed, while the high ones keep accurate.
+        Assert.assertTrue(values[0] > 1);
+        Assert.assertEquals(Long.MAX_VALUE / 2, values[1], Long.MAX_VALUE / 2 * PercentileSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    public void testStorageData() {
+        final PercentileSketch sketch = new PercentileSketch();
+        sketch.add(0, 3);
+        for (int v = 1; v < 5000; v += 7) {
+            sketch.add(v);
+        }
+        final PercentileSketch restored = new PercentileSketch(sketch.toStorageData());
+        Assert.assertEquals(sketch.getTotal(), restored.getTotal());
+        Assert.assertArrayEquals(sketch.valuesAt(RANKS), restored.valuesAt(RANKS));
+        Assert.assertEquals(sketch.toStorageData(), restored.toStorageData());
+
+        final PercentileSketch empty = new PercentileSketch(new PercentileSketch().toStorageData());
+        Assert.assertTrue(empty.isEmpty());
+
+        final PercentileSketch copied = new PercentileSketch();
+        copied.copyFrom(restored);
+        Assert.assertEquals(sketch, copied);
+    }
+}
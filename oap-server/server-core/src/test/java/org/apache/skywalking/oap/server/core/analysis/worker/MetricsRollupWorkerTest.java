@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CountMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsRollupWorkerTest {
+    private RecordingWorker hourWorker;
+    private RecordingWorker dayWorker;
+    private MetricsRollupWorker rollupWorker;
+
+    @Before
+    public void setUp() {
+        hourWorker = new RecordingWorker();
+        dayWorker = new RecordingWorker();
+        rollupWorker = new MetricsRollupWorker(null, hourWorker, dayWorker, 120_000);
+    }
+
+    @Test
+    public void testRollupClosedHours() {
+        rollupWorker.in(minute("svc-a", 202210191005L, 1));
+        rollupWorker.in(minute("svc-a", 202210191059L, 2));
+        rollupWorker.in(minute("svc-b", 202210191030L, 10));
+        rollupWorker.in(minute("svc-a", 202210191100L, 4));
+
+        // The hour 10 is not closed until the delay has passed.
+        rollupWorker.rollup(at(202210191101L));
+        Assert.assertTrue(hourWorker.received.isEmpty());
+        Assert.assertTrue(dayWorker.received.isEmpty());
+
+        rollupWorker.rollup(at(202210191103L));
+        Assert.assertEquals(2, hourWorker.received.size());
+        Assert.assertEquals(2, dayWorker.received.size());
+        Assert.assertEquals(1, rollupWorker.getOpenBuckets());
+
+        final CountMetricsImpl hour = find(hourWorker.received, "svc-a");
+        Assert.assertEquals(2022101910L, hour.getTimeBucket());
+        Assert.assertEquals(3, hour.getValue());
+        final CountMetricsImpl day = find(dayWorker.received, "svc-a");
+        Assert.assertEquals(20221019L, day.getTimeBucket());
+        Assert.assertEquals(3, day.getValue());
+        Assert.assertEquals(10, find(dayWorker.received, "svc-b").getValue());
+
+        // The hour metrics forwarded are merged by the hour worker, the day one must not be affected.
+        hour.combine(100);
+        Assert.assertEquals(3, day.getValue());
+    }
+
+    @Test
+    public void testRollupLateArrivals() {
+        rollupWorker.in(minute("svc-a", 202210191005L, 1));
+        rollupWorker.rollup(at(202210191103L));
+        Assert.assertEquals(1, hourWorker.received.size());
+
+        rollupWorker.in(minute("svc-a", 202210191030L, 5));
+        rollupWorker.rollup(at(202210191104L));
+        Assert.assertEquals(2, hourWorker.received.size());
+        Assert.assertEquals(5, ((CountMetricsImpl) hourWorker.received.get(1)).getValue());
+        Assert.assertEquals(2022101910L, hourWorker.received.get(1).getTimeBucket());
+        Assert.assertEquals(0, rollupWorker.getOpenBuckets());
+    }
+
+    @Test
+    public void testRollupWithoutDayWorker() {
+        rollupWorker = new MetricsRollupWorker(null, hourWorker, null, 0);
+        rollupWorker.in(minute("svc-a", 202210191005L, 1));
+        rollupWorker.rollup(at(202210191100L));
+        Assert.assertEquals(1, hourWorker.received.size());
+        Assert.assertTrue(dayWorker.received.isEmpty());
+    }
+
+    @Test
+    public void testFlushOpenHoursOnShutdown() {
+        rollupWorker.in(minute("svc-a", 202210191005L, 1));
+        rollupWorker.in(minute("svc-a", 202210191100L, 4));
+        rollupWorker.in(minute("svc-a", 202210191101L, 2));
+
+        rollupWorker.flushOnShutdown();
+        Assert.assertEquals(0, rollupWorker.getOpenBuckets());
+        Assert.assertEquals(2, hourWorker.received.size());
+        Assert.assertEquals(2, dayWorker.received.size());
+        Assert.assertEquals(6, ((CountMetricsImpl) hourWorker.received.get(1)).getValue());
+        Assert.assertEquals(2022101911L, hourWorker.received.get(1).getTimeBucket());
+        Assert.assertEquals(20221019L, dayWorker.received.get(1).getTimeBucket());
+
+        rollupWorker.rollup(at(202210191300L));
+        Assert.assertEquals(2, hourWorker.received.size());
+    }
+
+    private static long at(long minuteBucket) {
+        return TimeBucket.getTimestamp(minuteBucket, DownSampling.Minute);
+    }
+
+    private static CountMetricsImpl minute(String entityId, long timeBucket, long value) {
+        final CountMetricsImpl metrics = new CountMetricsImpl();
+        metrics.setEntityId(entityId);
+        metrics.setTimeBucket(timeBucket);
+        metrics.combine(value);
+        return metrics;
+    }
+
+    private static CountMetricsImpl find(List<Metrics> metrics, String entityId) {
+        return (CountMetricsImpl) metrics.stream()
+                                         .filter(m -> entityId.equals(((CountMetricsImpl) m).getEntityId()))
+                                         .findFirst()
+                                         .orElseThrow(AssertionError::new);
+    }
+
+    private static class RecordingWorker extends AbstractWorker<Metrics> {
+        private final List<Metrics> received = new ArrayList<>();
+
+        RecordingWorker() {
+            super(null);
+        }
+
+        @Override
+        public void in(Metrics metrics) {
+            received.add(metrics);
+        }
+    }
+
+    private static class CountMetricsImpl extends CountMetrics {
+        @Getter
+        @Setter
+        private String entityId;
+
+        @Override
+        protected String id0() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return copy(toTimeBucketInHour());
+        }
+
+        @Override
+        public Metrics toDay() {
+            return copy(toTimeBucketInDay());
+        }
+
+        private CountMetricsImpl copy(long timeBucket) {
+            final CountMetricsImpl metrics = new CountMetricsImpl();
+            metrics.setEntityId(entityId);
+            metrics.setTimeBucket(timeBucket);
+            metrics.setValue(getValue());
+            return metrics;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
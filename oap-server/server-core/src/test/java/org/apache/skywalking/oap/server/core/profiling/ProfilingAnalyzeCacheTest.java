@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProfilingAnalyzeCacheTest {
+    private static final long FINISHED = System.currentTimeMillis() - 10 * 60 * 1000;
+
+    @Test
+    public void testIsFinished() {
+        final long now = System.currentTimeMillis();
+        assertFalse(ProfilingAnalyzeCache.isFinished(LongStream.empty(), now));
+        assertTrue(ProfilingAnalyzeCache.isFinished(LongStream.of(now - 120_000, now - 60_000), now));
+        assertFalse(ProfilingAnalyzeCache.isFinished(LongStream.of(now - 120_000, now - 59_999), now));
+    }
+
+    @Test
+    public void testCacheFinishedRanges() throws IOException {
+        final ProfilingAnalyzeCache<List<String>> cache = new ProfilingAnalyzeCache<>(List::size);
+        final AtomicInteger analyzed = new AtomicInteger();
+        final List<String> first = cache.get("key", LongStream.of(FINISHED), () -> {
+            analyzed.incrementAndGet();
+            return Arrays.asList("a", "b");
+        });
+        final List<String> second = cache.get("key", LongStream.of(FINISHED), () -> {
+            analyzed.incrementAndGet();
+            return Arrays.asList("a", "b");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, analyzed.get());
+    }
+
+    @Test
+    public void testNotCacheUnfinishedRanges() throws IOException {
+        final ProfilingAnalyzeCache<List<String>> cache = new ProfilingAnalyzeCache<>(List::size);
+        final AtomicInteger analyzed = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.get("key", LongStream.of(FINISHED, System.currentTimeMillis()), () -> {
+                analyzed.incrementAndGet();
+                return Collections.singletonList("a");
+            });
+        }
+
+        assertEquals(2, analyzed.get());
+    }
+
+    @Test
+    public void testNotCacheEmptyAnalyzation() throws IOException {
+        final ProfilingAnalyzeCache<List<String>> cache = new ProfilingAnalyzeCache<>(List::size);
+        final AtomicInteger analyzed = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.get("key", LongStream.of(FINISHED), () -> {
+                analyzed.incrementAndGet();
+                return Collections.emptyList();
+            });
+        }
+
+        assertEquals(2, analyzed.get());
+    }
+}
@@ -129,6 +129,7 @@ public class EBPFProfilingAnalyzeContext {
                 final String symbolData = symbols.get((int) beginTime);
                 final EBPFProfilingDataRecord record = new EBPFProfilingDataRecord();
                 record.setTargetType(EBPFProfilingTargetType.ON_CPU.value());
+                record.setUploadTime(beginTime);
                 final int count = Integer.parseInt(StringUtils.substringBefore(symbolData, ":"));
                 final List<String> symbols = Arrays.asList(StringUtils.substringAfter(symbolData, ":").split("-"));
                 // revert symbol to the real case
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.Layer;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.manual.endpoint.EndpointTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.instance.InstanceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
+import org.apache.skywalking.oap.server.core.query.type.Endpoint;
+import org.apache.skywalking.oap.server.core.query.type.Service;
+import org.apache.skywalking.oap.server.core.query.type.ServiceInstance;
+import org.apache.skywalking.oap.server.core.storage.query.IMetadataQueryDAO;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.AdditionalMatchers.gt;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MetadataCatalogTest {
+    private static final String SERVICE_ID = IDManager.ServiceID.buildId("checkout", true);
+
+    private IMetadataQueryDAO metadataQueryDAO;
+    private CoreModuleConfig moduleConfig;
+    private ModuleManager moduleManager;
+
+    @Before
+    public void setUp() throws Exception {
+        metadataQueryDAO = mock(IMetadataQueryDAO.class);
+        moduleManager = mock(ModuleManager.class);
+        final ModuleServiceHolder moduleServiceHolder = mock(ModuleServiceHolder.class);
+        doReturn((ModuleProviderHolder) () -> moduleServiceHolder).when(moduleManager).find(anyString());
+        doReturn(new MetricsCreatorNoop()).when(moduleServiceHolder).getService(MetricsCreator.class);
+        doReturn(metadataQueryDAO).when(moduleServiceHolder).getService(IMetadataQueryDAO.class);
+        moduleConfig = new CoreModuleConfig();
+        moduleConfig.setMetadataCatalogMaxEndpoints(100);
+
+        doReturn(endpoints("GET:/orders/{id}", "POST:/orders", "GET:/carts/{id}", "/health"))
+            .when(metadataQueryDAO).listEndpoints(eq(SERVICE_ID), eq(0L), anyInt());
+    }
+
+    @Test
+    public void testFindEndpoint() throws Exception {
+        final MetadataCatalog catalog = new MetadataCatalog(moduleManager, moduleConfig);
+
+        Assert.assertEquals(
+            Arrays.asList("GET:/orders/{id}", "POST:/orders"), names(catalog.findEndpoint("/ORDERS", SERVICE_ID, 10)));
+        Assert.assertEquals(
+            Collections.singletonList("GET:/orders/{id}"), names(catalog.findEndpoint("/orders", SERVICE_ID, 1)));
+        Assert.assertEquals(
+            Arrays.asList("GET:/orders/{id}", "GET:/carts/{id}"), names(catalog.findEndpoint("id", SERVICE_ID, 10)));
+        Assert.assertEquals(4, catalog.findEndpoint(null, SERVICE_ID, 10).size());
+        Assert.assertTrue(catalog.findEndpoint("/payments", SERVICE_ID, 10).isEmpty());
+
+        // The endpoints are loaded once, and never searched in the storage.
+        verify(metadataQueryDAO, times(1)).listEndpoints(eq(SERVICE_ID), anyLong(), anyInt());
+        verify(metadataQueryDAO, times(0)).findEndpoint(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    public void testNewEndpointTraffic() throws Exception {
+        final MetadataCatalog catalog = new MetadataCatalog(moduleManager, moduleConfig);
+        Assert.assertTrue(catalog.findEndpoint("payments", SERVICE_ID, 10).isEmpty());
+
+        final EndpointTraffic traffic = new EndpointTraffic();
+        traffic.setServiceId(SERVICE_ID);
+        traffic.setName("POST:/payments");
+        catalog.onTraffic(traffic);
+        catalog.onTraffic(traffic);
+
+        final List<Endpoint> found = catalog.findEndpoint("payments", SERVICE_ID, 10);
+        Assert.assertEquals(1, found.size());
+        Assert.assertEquals(IDManager.EndpointID.buildId(SERVICE_ID, "POST:/payments"), found.get(0).getId());
+    }
+
+    @Test
+    public void testTooManyEndpoints() throws Exception {
+        moduleConfig.setMetadataCatalogMaxEndpoints(4);
+        doReturn(Collections.emptyList()).when(metadataQueryDAO).findEndpoint("orders", SERVICE_ID, 10);
+        final MetadataCatalog catalog = new MetadataCatalog(moduleManager, moduleConfig);
+
+        catalog.findEndpoint("orders", SERVICE_ID, 10);
+        catalog.findEndpoint("orders", SERVICE_ID, 10);
+
+        verify(metadataQueryDAO, times(2)).findEndpoint("orders", SERVICE_ID, 10);
+    }
+
+    @Test
+    public void testGrownEndpointsReweighed() throws Exception {
+        moduleConfig.setMetadataCatalogMaxEndpoints(6);
+        final String otherServiceId = IDManager.ServiceID.buildId("cart", true);
+        doReturn(endpoints("GET:/carts/{id}", "POST:/carts"))
+            .when(metadataQueryDAO).listEndpoints(eq(otherServiceId), eq(0L), anyInt());
+        final MetadataCatalog catalog = new MetadataCatalog(moduleManager, moduleConfig);
+        catalog.findEndpoint("carts", otherServiceId, 10);
+        catalog.findEndpoint("orders", SERVICE_ID, 10);
+
+        // 6 endpoints are held, the 7th one is over the limit and evicts the least recently used service.
+        catalog.onTraffic(endpointTraffic("POST:/payments"));
+        catalog.findEndpoint("carts", otherServiceId, 10);
+        verify(metadataQueryDAO, times(2)).listEndpoints(eq(otherServiceId), anyLong(), anyInt());
+        verify(metadataQueryDAO, times(1)).listEndpoints(eq(SERVICE_ID), anyLong(), anyInt());
+
+        // The service growing to the limit is searched in the storage.
+        catalog.onTraffic(endpointTraffic("POST:/refunds"));
+        catalog.onTraffic(endpointTraffic("POST:/coupons"));
+        catalog.findEndpoint("orders", SERVICE_ID, 10);
+        verify(metadataQueryDAO, times(2)).listEndpoints(eq(SERVICE_ID), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testReconcileEndpointsIncrementally() throws Exception {
+        final long now = System.currentTimeMillis();
+        final MetadataCatalog catalog = new MetadataCatalog(moduleManager, moduleConfig);
+        catalog.findEndpoint("orders", SERVICE_ID, 10);
+
+        final long sinceTimeBucket = TimeBucket.getMinuteTimeBucket(now - TimeUnit.MINUTES.toMillis(11));
+        doReturn(endpoints("POST:/payments")).when(metadataQueryDAO)
+                                             .listEndpoints(eq(SERVICE_ID), gt(sinceTimeBucket), anyInt());
+        catalog.reconcile(now + TimeUnit.MINUTES.toMillis(1));
+        Assert.assertEquals(1, catalog.findEndpoint("payments", SERVICE_ID, 10).size());
+        verify(metadataQueryDAO, times(1)).listEndpoints(eq(SERVICE_ID), eq(0L), anyInt());
+
+        // All endpoints are reloaded every hour, the deleted ones are dropped.
+        catalog.reconcile(now + TimeUnit.HOURS.toMillis(2));
+        verify(metadataQueryDAO, times(2)).listEndpoints(eq(SERVICE_ID), eq(0L), anyInt());
+        Assert.assertTrue(catalog.findEndpoint("payments", SERVICE_ID, 10).isEmpty());
+    }
+
+    @Test
+    public void testListInstances() throws Exception {
+        final long now = at(202210191030L);
+        doReturn(Arrays.asList(instance("pod-1", 202210191029L), instance("pod-2", 202210191005L)))
+            .when(metadataQueryDAO).listInstances(anyLong(), anyLong(), eq(SERVICE_ID));
+        final MetadataCatalog catalog = new MetadataCatalog(moduleManager, moduleConfig);
+
+        Assert.assertEquals(2, catalog.listInstances(at(202210191000L), now, SERVICE_ID).size());
+        // The moving windows inside the loaded one are served by the catalog.
+        Assert.assertEquals(2, catalog.listInstances(at(202210191001L), now, SERVICE_ID).size());
+        Assert.assertEquals(
+            Collections.singletonList("pod-1"),
+            instanceNames(catalog.listInstances(at(202210191015L), now, SERVICE_ID))
+        );
+        verify(metadataQueryDAO, times(1)).listInstances(anyLong(), anyLong(), eq(SERVICE_ID));
+
+        // The pings through this OAP are added immediately.
+        catalog.onTraffic(instanceTraffic("pod-2", 202210191031L));
+        catalog.onTraffic(instanceTraffic("pod-3", 202210191031L));
+        Assert.assertEquals(
+            Arrays.asList("pod-2", "pod-3"),
+            instanceNames(catalog.listInstances(at(202210191031L), now, SERVICE_ID))
+        );
+        verify(metadataQueryDAO, times(1)).listInstances(anyLong(), anyLong(), eq(SERVICE_ID));
+
+        // The window starting before the loaded one is loaded again.
+        catalog.listInstances(at(202210190900L), now, SERVICE_ID);
+        verify(metadataQueryDAO, times(2)).listInstances(anyLong(), anyLong(), eq(SERVICE_ID));
+    }
+
+    @Test
+    public void testListServices() throws Exception {
+        doReturn(Arrays.asList(service("checkout", Layer.GENERAL, "shop"), service("mesh-checkout", Layer.MESH, null)))
+            .when(metadataQueryDAO).listServices(null, null);
+        final MetadataCatalog catalog = new MetadataCatalog(moduleManager, moduleConfig);
+
+        Assert.assertEquals(2, catalog.listServices(null, null).size());
+        Assert.assertEquals(1, catalog.listServices(Layer.MESH.name(), null).size());
+        Assert.assertEquals(1, catalog.listServices(null, "shop").size());
+
+        final ServiceTraffic traffic = new ServiceTraffic();
+        traffic.setName("payment");
+        traffic.setLayer(Layer.GENERAL);
+        catalog.onTraffic(traffic);
+        Assert.assertEquals(2, catalog.listServices(Layer.GENERAL.name(), null).size());
+
+        // The returned services are merged by the caller, the catalog must not be changed.
+        catalog.listServices(null, null).forEach(service -> service.getLayers().add(Layer.K8S.name()));
+        Assert.assertTrue(catalog.listServices(Layer.K8S.name(), null).isEmpty());
+
+        verify(metadataQueryDAO, times(1)).listServices(null, null);
+        catalog.reconcile();
+        verify(metadataQueryDAO, times(2)).listServices(null, null);
+    }
+
+    private static EndpointTraffic endpointTraffic(String name) {
+        final EndpointTraffic traffic = new EndpointTraffic();
+        traffic.setServiceId(SERVICE_ID);
+        traffic.setName(name);
+        return traffic;
+    }
+
+    private static InstanceTraffic instanceTraffic(String name, long lastPingTimeBucket) {
+        final InstanceTraffic traffic = new InstanceTraffic();
+        traffic.setServiceId(SERVICE_ID);
+        traffic.setName(name);
+        traffic.setLastPingTimestamp(lastPingTimeBucket);
+        return traffic;
+    }
+
+    private static ServiceInstance instance(String name, long lastPingTimeBucket) {
+        final ServiceInstance instance = new ServiceInstance();
+        instance.setId(IDManager.ServiceInstanceID.buildId(SERVICE_ID, name));
+        instance.setName(name);
+        instance.setLastPingTimeBucket(lastPingTimeBucket);
+        return instance;
+    }
+
+    private static long at(long minuteTimeBucket) {
+        return TimeBucket.getTimestamp(minuteTimeBucket, DownSampling.Minute);
+    }
+
+    private static List<String> instanceNames(List<ServiceInstance> instances) {
+        return instances.stream().map(ServiceInstance::getName).sorted().collect(Collectors.toList());
+    }
+
+    private static Service service(String name, Layer layer, String group) {
+        final Service service = new Service();
+        service.setId(IDManager.ServiceID.buildId(name, true));
+        service.setName(name);
+        service.setGroup(group);
+        service.getLayers().add(layer.name());
+        return service;
+    }
+
+    private static List<Endpoint> endpoints(String... names) {
+        final List<Endpoint> endpoints = new ArrayList<>();
+        for (final String name : names) {
+            final Endpoint endpoint = new Endpoint();
+            endpoint.setId(IDManager.EndpointID.buildId(SERVICE_ID, name));
+            endpoint.setName(name);
+            endpoints.add(endpoint);
+        }
+        return endpoints;
+    }
+
+    private static List<String> names(List<Endpoint> endpoints) {
+        return endpoints.stream().map(Endpoint::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class TraceAssemblerTest {
+    @Test
+    public void testAssemble() throws Exception {
+        final List<SegmentRecord> segments = new ArrayList<>();
+        // The segments are in no particular order, the second one is a fragment whose parent segment is lost.
+        segments.add(segment("s2", 300, "s1", 2, 0, 0, 1));
+        segments.add(segment("s3", 200, "lost", 1, 0, 0));
+        segments.add(null);
+        segments.add(segment("s1", 100, null, 0, 0, 0, 1, 1));
+
+        final TraceAssembler assembler = new TraceAssembler(mock(IComponentLibraryCatalogService.class));
+        final List<Span> spans = TraceAssembler.sort(assembler.decode(segments));
+
+        Assert.assertEquals(
+            Arrays.asList("s1S0", "s1S1", "s1S3", "s1S4", "s1S2", "s2S0", "s2S1", "s2S3", "s2S2", "s3S0", "s3S1", "s3S2"),
+            spans.stream().map(Span::getSegmentSpanId).collect(Collectors.toList())
+        );
+        Assert.assertEquals(
+            Arrays.asList("s1S0", "s3S0"),
+            spans.stream().filter(Span::isRoot).map(Span::getSegmentSpanId).collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testDecodeManySegments() throws Exception {
+        final List<SegmentRecord> segments = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            segments.add(segment("s" + i, i, i == 0 ? null : "s" + (i - 1), 1, 0));
+        }
+
+        final TraceAssembler assembler = new TraceAssembler(mock(IComponentLibraryCatalogService.class));
+        final List<Span> decoded = assembler.decode(segments);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("s" + i, decoded.get(i * 2).getSegmentId());
+        }
+
+        final List<Span> spans = TraceAssembler.sort(decoded);
+        Assert.assertEquals(200, spans.size());
+        Assert.assertEquals(1, spans.stream().filter(Span::isRoot).count());
+        Assert.assertEquals("s99S1", spans.get(199).getSegmentSpanId());
+    }
+
+    /**
+     * @param parents the parent span IDs of the spans after the first one of the segment.
+     */
+    private static SegmentRecord segment(String segmentId, long startTime, String parentSegmentId,
+                                         int parentSpanId, int... parents) {
+        final SegmentObject.Builder segment = SegmentObject.newBuilder()
+                                                           .setTraceId("trace")
+                                                           .setTraceSegmentId(segmentId);
+        final SpanObject.Builder entry = SpanObject.newBuilder()
+                                                   .setSpanId(0)
+                                                   .setParentSpanId(-1)
+                                                   .setStartTime(startTime);
+        if (parentSegmentId != null) {
+            entry.addRefs(SegmentReference.newBuilder()
+                                          .setRefType(RefType.CrossProcess)
+                                          .setParentTraceSegmentId(parentSegmentId)
+                                          .setParentSpanId(parentSpanId));
+        }
+        segment.addSpans(entry);
+        for (int i = 0; i < parents.length; i++) {
+            segment.addSpans(SpanObject.newBuilder()
+                                       .setSpanId(i + 1)
+                                       .setParentSpanId(parents[i])
+                                       .setStartTime(startTime + i + 1));
+        }
+        final SegmentRecord record = new SegmentRecord();
+        record.setSegmentId(segmentId);
+        record.setDataBinary(segment.build().toByteArray());
+        return record;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TraceQueryServiceTest {
+    @Test
+    public void testCacheSettledTrace() throws Exception {
+        final long endTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10);
+        final ITraceQueryDAO dao = dao(endTime);
+        final TraceQueryService service = service(dao);
+
+        Assert.assertEquals(1, service.queryTrace("trace").getSpans().size());
+        Assert.assertEquals(1, service.queryTrace("trace").getSpans().size());
+        verify(dao, times(1)).doFlexibleTraceQuery("trace");
+    }
+
+    @Test
+    public void testNotCacheTraceInProgress() throws Exception {
+        final long endTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(10);
+        final ITraceQueryDAO dao = dao(endTime);
+        final TraceQueryService service = service(dao);
+
+        Assert.assertEquals(1, service.queryTrace("trace").getSpans().size());
+        Assert.assertEquals(1, service.queryTrace("trace").getSpans().size());
+        verify(dao, times(2)).doFlexibleTraceQuery("trace");
+    }
+
+    @Test
+    public void testIsSettled() {
+        final Span early = span(1000);
+        final Span late = span(5000);
+        Assert.assertTrue(TraceQueryService.isSettled(Arrays.asList(late, early), 8000, 3000));
+        Assert.assertFalse(TraceQueryService.isSettled(Arrays.asList(early, late), 7999, 3000));
+        Assert.assertFalse(TraceQueryService.isSettled(Collections.emptyList(), 8000, 3000));
+    }
+
+    private static TraceQueryService service(ITraceQueryDAO dao) {
+        final TraceQueryService service = new TraceQueryService(mock(ModuleManager.class), new CoreModuleConfig());
+        Whitebox.setInternalState(service, "traceQueryDAO", dao);
+        return service;
+    }
+
+    private static ITraceQueryDAO dao(long endTime) throws Exception {
+        final ITraceQueryDAO dao = mock(ITraceQueryDAO.class);
+        when(dao.queryByTraceId(anyString())).thenReturn(Collections.emptyList());
+        when(dao.doFlexibleTraceQuery(anyString())).thenAnswer(
+            invocation -> new ArrayList<>(Collections.singletonList(span(endTime))));
+        return dao;
+    }
+
+    private static Span span(long endTime) {
+        final Span span = new Span();
+        span.setTraceId("trace");
+        span.setSegmentId("segment");
+        span.setSpanId(0);
+        span.setParentSpanId(-1);
+        span.setSegmentSpanId("segmentS0");
+        span.setSegmentParentSpanId("segmentS-1");
+        span.setStartTime(endTime - 100);
+        span.setEndTime(endTime);
+        return span;
+    }
+}
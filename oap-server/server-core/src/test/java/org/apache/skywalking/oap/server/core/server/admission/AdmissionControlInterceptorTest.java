@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.server.admission;
+
+import com.google.common.collect.ImmutableSet;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AdmissionControlInterceptorTest {
+    private static final String LOG_METHOD = "skywalking.v3.LogReportService/collect";
+    private static final String SEGMENT_METHOD = "skywalking.v3.TraceSegmentReportService/collect";
+    private static final String REMOTE_METHOD = "RemoteService/call";
+
+    private final AtomicReference<Double> pressure = new AtomicReference<>(0D);
+    private final ServerCallHandler<String, String> handler = (call, headers) -> new ServerCall.Listener<String>() {
+    };
+    private AdmissionControlInterceptor interceptor;
+
+    @Before
+    public void setUp() {
+        interceptor = new AdmissionControlInterceptor(
+            true, 100, ImmutableSet.of("skywalking.v3.LogReportService"), pressure::get);
+        interceptor.initMetrics(new MetricsCreatorNoop());
+    }
+
+    @Test
+    public void testRejectBeyondLimit() {
+        interceptor = new AdmissionControlInterceptor(true, 2, ImmutableSet.of(), pressure::get);
+        interceptor.initMetrics(new MetricsCreatorNoop());
+
+        final ServerCall.Listener<String> first = intercept(mockCall(SEGMENT_METHOD));
+        intercept(mockCall(SEGMENT_METHOD));
+        final ServerCall<String, String> rejected = mockCall(SEGMENT_METHOD);
+        intercept(rejected);
+        final ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(rejected).close(status.capture(), any(Metadata.class));
+        Assert.assertEquals(Status.Code.RESOURCE_EXHAUSTED, status.getValue().getCode());
+
+        first.onComplete();
+        final ServerCall<String, String> admitted = mockCall(SEGMENT_METHOD);
+        intercept(admitted);
+        verify(admitted, never()).close(any(Status.class), any(Metadata.class));
+        Assert.assertEquals(2, interceptor.getLimit(SEGMENT_METHOD).getInflight());
+    }
+
+    @Test
+    public void testBackoffLowPriorityFirst() {
+        openCalls(LOG_METHOD, 10);
+        openCalls(SEGMENT_METHOD, 10);
+
+        pressure.set(2D);
+        interceptor.adjust();
+        Assert.assertEquals(90, interceptor.getLimit(LOG_METHOD).getLimit());
+        Assert.assertEquals(100, interceptor.getLimit(SEGMENT_METHOD).getLimit());
+
+        while (interceptor.getLimit(LOG_METHOD).getLimit() > ConcurrencyLimit.MIN_LIMIT) {
+            interceptor.adjust();
+        }
+        Assert.assertEquals(100, interceptor.getLimit(SEGMENT_METHOD).getLimit());
+        interceptor.adjust();
+        Assert.assertEquals(ConcurrencyLimit.MIN_LIMIT, interceptor.getLimit(LOG_METHOD).getLimit());
+        Assert.assertEquals(90, interceptor.getLimit(SEGMENT_METHOD).getLimit());
+    }
+
+    @Test
+    public void testIncreaseAfterRecovery() {
+        final List<ServerCall.Listener<String>> calls = openCalls(LOG_METHOD, 10);
+
+        pressure.set(2D);
+        interceptor.adjust();
+        calls.get(0).onComplete();
+        Assert.assertEquals(90, interceptor.getLimit(LOG_METHOD).getLimit());
+
+        pressure.set(0.5D);
+        interceptor.adjust();
+        calls.get(1).onComplete();
+        calls.get(2).onCancel();
+        Assert.assertEquals(92, interceptor.getLimit(LOG_METHOD).getLimit());
+        Assert.assertEquals(7, interceptor.getLimit(LOG_METHOD).getInflight());
+    }
+
+    @Test
+    public void testExemptedServices() {
+        interceptor = new AdmissionControlInterceptor(true, 1, ImmutableSet.of(), pressure::get);
+        interceptor.initMetrics(new MetricsCreatorNoop());
+
+        for (int i = 0; i < 3; i++) {
+            final ServerCall<String, String> call = mockCall(REMOTE_METHOD);
+            intercept(call);
+            verify(call, never()).close(any(Status.class), any(Metadata.class));
+        }
+        Assert.assertNull(interceptor.getLimit(REMOTE_METHOD));
+    }
+
+    @Test
+    public void testStartAndStop() {
+        interceptor.start(new MetricsCreatorNoop());
+        final ScheduledExecutorService scheduler = interceptor.getScheduler();
+        Assert.assertFalse(scheduler.isShutdown());
+        interceptor.start(new MetricsCreatorNoop());
+        Assert.assertSame(scheduler, interceptor.getScheduler());
+
+        interceptor.stop();
+        Assert.assertTrue(scheduler.isShutdown());
+    }
+
+    private List<ServerCall.Listener<String>> openCalls(String fullMethodName, int count) {
+        final List<ServerCall.Listener<String>> listeners = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            listeners.add(intercept(mockCall(fullMethodName)));
+        }
+        return listeners;
+    }
+
+    private ServerCall.Listener<String> intercept(ServerCall<String, String> call) {
+        return interceptor.interceptCall(call, new Metadata(), handler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ServerCall<String, String> mockCall(String fullMethodName) {
+        final MethodDescriptor.Marshaller<String> marshaller = mock(MethodDescriptor.Marshaller.class);
+        final MethodDescriptor<String, String> method = MethodDescriptor.<String, String>newBuilder()
+                                                                        .setType(MethodDescriptor.MethodType.UNARY)
+                                                                        .setFullMethodName(fullMethodName)
+                                                                        .setRequestMarshaller(marshaller)
+                                                                        .setResponseMarshaller(marshaller)
+                                                                        .build();
+        final ServerCall<String, String> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(method);
+        return call;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.server.admission;
+
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ConcurrencyLimitTest {
+    private final CounterMetrics rejectedCounter = mock(CounterMetrics.class);
+    private final GaugeMetrics limitGauge = mock(GaugeMetrics.class);
+
+    @Test
+    public void testBackoffWithoutInflight() {
+        final ConcurrencyLimit limit = new ConcurrencyLimit(false, 100, rejectedCounter, limitGauge);
+        Assert.assertEquals(0, limit.getInflight());
+
+        limit.backoff();
+        Assert.assertEquals(90, limit.getLimit());
+        verify(limitGauge).setValue(90);
+        limit.backoff();
+        Assert.assertEquals(81, limit.getLimit());
+    }
+
+    @Test
+    public void testBackoffToMinLimit() {
+        final ConcurrencyLimit limit = new ConcurrencyLimit(false, 2, rejectedCounter, limitGauge);
+        Assert.assertTrue(limit.tryAcquire());
+
+        limit.backoff();
+        Assert.assertEquals(ConcurrencyLimit.MIN_LIMIT, limit.getLimit());
+        limit.backoff();
+        Assert.assertEquals(ConcurrencyLimit.MIN_LIMIT, limit.getLimit());
+        Assert.assertFalse(limit.tryAcquire());
+        verify(rejectedCounter).inc();
+    }
+
+    @Test
+    public void testIncreaseUpToMaxLimit() {
+        final ConcurrencyLimit limit = new ConcurrencyLimit(false, 10, rejectedCounter, limitGauge);
+        limit.backoff();
+        Assert.assertEquals(9, limit.getLimit());
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(limit.tryAcquire());
+            limit.release(true);
+        }
+        Assert.assertEquals(10, limit.getLimit());
+        Assert.assertEquals(0, limit.getInflight());
+
+        Assert.assertTrue(limit.tryAcquire());
+        limit.release(false);
+        Assert.assertEquals(10, limit.getLimit());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.source;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.oap.server.core.analysis.Layer;
+import org.apache.skywalking.oap.server.core.analysis.SourceDispatcher;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SourceReceiverImplTest {
+    private static final AtomicInteger DISPATCHED = new AtomicInteger();
+    private static final Map<String, Thread> DISPATCH_THREADS = new ConcurrentHashMap<>();
+    private static final AtomicInteger SAME_THREAD_VIOLATIONS = new AtomicInteger();
+
+    @BeforeClass
+    public static void setup() {
+        DefaultScopeDefine.reset();
+        new DefaultScopeDefine.Listener().notify(Service.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        DefaultScopeDefine.reset();
+    }
+
+    @Test
+    public void testAsyncDispatchWithEntityAffinity() throws Exception {
+        final SourceReceiverImpl receiver = new SourceReceiverImpl();
+        receiver.getDispatcherManager().addIfAsSourceDispatcher(RecordingDispatcher.class);
+        receiver.startAsyncDispatch(4, 100, new MetricsCreatorNoop());
+
+        final int services = 10;
+        final int sources = 1000;
+        for (int i = 0; i < sources; i++) {
+            final Service service = new Service();
+            service.setName("service-" + i % services);
+            service.setLayer(Layer.GENERAL);
+            receiver.receive(service);
+            // No dispatcher for the scope, ignored.
+            receiver.receive(new Endpoint());
+        }
+
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (DISPATCHED.get() < sources && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(sources, DISPATCHED.get());
+        Assert.assertEquals(services, DISPATCH_THREADS.size());
+        Assert.assertEquals(0, SAME_THREAD_VIOLATIONS.get());
+        Assert.assertFalse(DISPATCH_THREADS.containsValue(Thread.currentThread()));
+    }
+
+    public static class RecordingDispatcher implements SourceDispatcher<Service> {
+        @Override
+        public void dispatch(final Service source) {
+            final Thread previous = DISPATCH_THREADS.putIfAbsent(source.getEntityId(), Thread.currentThread());
+            if (previous != null && previous != Thread.currentThread()) {
+                SAME_THREAD_VIOLATIONS.incrementAndGet();
+            }
+            DISPATCHED.incrementAndGet();
+        }
+    }
+}
@@ -21,8 +21,8 @@ package org.apache.skywalking.oap.server.fetcher.prometheus.http;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -30,59 +30,122 @@ import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpVersion;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.Builder;
 import org.apache.skywalking.oap.server.library.server.ssl.HTTPDynamicSslContext;
 
+/**
+ * HTTPClient scrapes one target. The connection is kept alive and reused by the following requests, and it is
+ * reconnected once it becomes inactive. There is at most one request in flight, as the responses of the same
+ * connection can't be told apart.
+ */
 @Builder
 public class HTTPClient {
+    private static final long TIMEOUT_SECONDS = 10;
 
     private final String url;
 
     private final String caFilePath;
 
-    public String request() throws URISyntaxException, InterruptedException {
-        URI uri = new URI(url);
-        String scheme = uri.getScheme() == null ? "http" : uri.getScheme();
-        String host = uri.getHost() == null ? "127.0.0.1" : uri.getHost();
-        int port = uri.getPort();
+    /**
+     * The event loops shared by all the clients.
+     */
+    private final EventLoopGroup group;
 
-        // Configure SSL context if necessary.
-        final boolean ssl = "https".equalsIgnoreCase(scheme);
-        final HTTPDynamicSslContext sslCtx = ssl ? HTTPDynamicSslContext.forClient(caFilePath) : null;
+    private Channel channel;
 
-        // Configure the client.
-        EventLoopGroup group = new NioEventLoopGroup();
-        BlockingQueue<String> channel = new SynchronousQueue<>();
-        try {
-            Bootstrap b = new Bootstrap();
-            b.group(group)
-                .channel(NioSocketChannel.class)
-                .handler(new HTTPClientInitializer(sslCtx, channel));
+    private HTTPClientHandler handler;
 
-            // Make the connection attempt.
-            Channel ch = b.connect(host, port).sync().channel();
+    /**
+     * Send the request without waiting for the response, so the targets are scraped concurrently.
+     *
+     * @return the future of the response body, which must be closed to release the buffers.
+     */
+    public synchronized CompletableFuture<InputStream> requestAsync() {
+        final CompletableFuture<InputStream> response = new CompletableFuture<>();
+        try {
+            final URI uri = new URI(url);
+            final String host = uri.getHost() == null ? "127.0.0.1" : uri.getHost();
+            if (channel == null || !channel.isActive()) {
+                connect(uri, host);
+            }
+            if (!handler.expect(response)) {
+                response.completeExceptionally(new IllegalStateException("The previous request is still in flight"));
+                return response;
+            }
 
             // Prepare the HTTP request.
             HttpRequest request = new DefaultFullHttpRequest(
                 HttpVersion.HTTP_1_1, HttpMethod.GET, uri.getRawPath(), Unpooled.EMPTY_BUFFER);
             request.headers().set(HttpHeaderNames.HOST, host);
-            request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-            request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.TEXT_PLAIN);
+            request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP);
 
             // Send the HTTP request.
-            ch.writeAndFlush(request);
+            channel.writeAndFlush(request).addListener(f -> {
+                if (!f.isSuccess()) {
+                    handler.fail(f.cause());
+                }
+            });
+        } catch (Exception e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    public InputStream request() throws URISyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        return await(requestAsync());
+    }
 
-            return Objects.requireNonNull(channel.poll(10, TimeUnit.SECONDS), "Request timeout");
-        } finally {
-            // Shut down executor threads to exit.
-            group.shutdownGracefully();
+    /**
+     * Wait for the response of {@link #requestAsync()}. The connection is closed if the response times out, so the
+     * late response isn't taken as the one of the next request.
+     */
+    public InputStream await(CompletableFuture<InputStream> response) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return response.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            close();
+            throw new TimeoutException("Request timeout: " + url);
         }
     }
 
+    public synchronized void close() {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void connect(URI uri, String host) throws InterruptedException {
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme();
+
+        // Configure SSL context if necessary.
+        final boolean ssl = "https".equalsIgnoreCase(scheme);
+        final HTTPDynamicSslContext sslCtx = ssl ? HTTPDynamicSslContext.forClient(caFilePath) : null;
+
+        final HTTPClientHandler newHandler = new HTTPClientHandler();
+        Bootstrap b = new Bootstrap();
+        b.group(group)
+         .channel(NioSocketChannel.class)
+         .handler(new HTTPClientInitializer(sslCtx, newHandler));
+
+        // Make the connection attempt.
+        final ChannelFuture connected = b.connect(host, uri.getPort());
+        if (!connected.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            connected.channel().close();
+            throw new IllegalStateException("Connect timeout: " + url);
+        }
+        if (!connected.isSuccess()) {
+            throw new IllegalStateException("Failed to connect: " + url, connected.cause());
+        }
+        channel = connected.channel();
+        handler = newHandler;
+    }
 }
@@ -18,47 +18,103 @@
 
 package org.apache.skywalking.oap.server.fetcher.prometheus.http;
 
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
-import io.netty.util.CharsetUtil;
-import java.util.concurrent.BlockingQueue;
-import lombok.RequiredArgsConstructor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 
-@RequiredArgsConstructor
+/**
+ * HTTPClientHandler aggregates the content of the response into a composite buffer without copying, and hands it over
+ * as an {@link InputStream}, which releases the buffer once it is closed.
+ */
 @Slf4j
 public class HTTPClientHandler extends SimpleChannelInboundHandler<HttpObject> {
 
-    private final BlockingQueue<String> channel;
+    private CompletableFuture<InputStream> response;
+
+    private CompositeByteBuf body;
+
+    private boolean keepAlive;
+
+    /**
+     * @return false if the previous response is not completed.
+     */
+    synchronized boolean expect(CompletableFuture<InputStream> response) {
+        if (this.response != null && !this.response.isDone()) {
+            return false;
+        }
+        this.response = response;
+        return true;
+    }
 
-    private final StringBuilder buf = new StringBuilder();
+    synchronized void fail(Throwable cause) {
+        if (response != null) {
+            response.completeExceptionally(cause);
+        }
+        release();
+    }
 
     @Override
     public void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
         if (msg instanceof HttpResponse) {
-            buf.setLength(0);
+            release();
+            body = ctx.alloc().compositeBuffer(Integer.MAX_VALUE);
+            keepAlive = HttpUtil.isKeepAlive((HttpResponse) msg);
         }
-        if (msg instanceof HttpContent) {
+        if (msg instanceof HttpContent && body != null) {
             HttpContent content = (HttpContent) msg;
-            buf.append(content.content().toString(CharsetUtil.UTF_8));
+            body.addComponent(true, content.content().retain());
             if (content instanceof LastHttpContent) {
-                try {
-                    channel.put(buf.toString());
-                } catch (InterruptedException e) {
-                    ctx.fireExceptionCaught(e);
+                final InputStream stream = new ByteBufInputStream(body, true);
+                body = null;
+                // Close before completing, so the next request doesn't reuse the closing connection.
+                if (!keepAlive) {
+                    ctx.close();
+                }
+                if (!complete(stream)) {
+                    closeQuietly(stream);
                 }
-                ctx.close();
             }
         }
     }
 
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        fail(new IllegalStateException("Connection closed"));
+        super.channelInactive(ctx);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         log.error("HTTP request error", cause);
+        fail(cause);
         ctx.close();
     }
+
+    private synchronized boolean complete(InputStream stream) {
+        return response != null && response.complete(stream);
+    }
+
+    private void release() {
+        if (body != null) {
+            body.release();
+            body = null;
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+        }
+    }
 }
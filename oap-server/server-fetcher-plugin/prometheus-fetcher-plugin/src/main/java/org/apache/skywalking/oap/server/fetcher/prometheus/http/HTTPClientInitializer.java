@@ -24,16 +24,15 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.ssl.SslContext;
-import java.util.concurrent.BlockingQueue;
 
 public class HTTPClientInitializer extends ChannelInitializer<SocketChannel> {
 
     private final SslContext sslCtx;
-    private final BlockingQueue<String> channel;
+    private final HTTPClientHandler handler;
 
-    public HTTPClientInitializer(SslContext sslCtx, BlockingQueue<String> channel) {
+    public HTTPClientInitializer(SslContext sslCtx, HTTPClientHandler handler) {
         this.sslCtx = sslCtx;
-        this.channel = channel;
+        this.handler = handler;
     }
 
     @Override
@@ -50,6 +49,6 @@ public class HTTPClientInitializer extends ChannelInitializer<SocketChannel> {
         // Remove the following line if you don't want automatic content decompression.
         p.addLast(new HttpContentDecompressor());
 
-        p.addLast(new HTTPClientHandler(channel));
+        p.addLast(handler);
     }
 }
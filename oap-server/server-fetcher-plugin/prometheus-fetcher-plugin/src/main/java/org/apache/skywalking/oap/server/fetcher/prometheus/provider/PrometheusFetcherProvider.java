@@ -19,26 +19,29 @@
 package org.apache.skywalking.oap.server.fetcher.prometheus.provider;
 
 import com.google.common.collect.Maps;
-import io.vavr.CheckedFunction1;
-import java.io.ByteArrayInputStream;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.vavr.control.Try;
 import java.io.InputStream;
 import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.Charsets;
 import org.apache.skywalking.oap.meter.analyzer.MetricConvert;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.PrometheusMetricConverter;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rules;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.StaticConfig;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Target;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.fetcher.prometheus.http.HTTPClient;
@@ -68,6 +71,11 @@ public class PrometheusFetcherProvider extends ModuleProvider {
 
     private ScheduledExecutorService ses;
 
+    /**
+     * The event loops of the scrape connections of all the targets.
+     */
+    private EventLoopGroup eventLoopGroup;
+
     private HistogramMetrics histogram;
 
     private CounterMetrics errorCounter;
@@ -98,6 +106,7 @@ public class PrometheusFetcherProvider extends ModuleProvider {
             Math.min(rules.size(), config.getMaxConvertWorker()),
             new CustomThreadFactory("meter-converter")
         );
+        eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("prometheus-fetcher", true));
     }
 
     @Override
@@ -125,6 +134,11 @@ public class PrometheusFetcherProvider extends ModuleProvider {
 
                 private final PrometheusMetricConverter converter = new PrometheusMetricConverter(r, service);
 
+                /**
+                 * The clients are kept by the target URLs, to reuse the connections in the next rounds.
+                 */
+                private final Map<String, HTTPClient> clients = new HashMap<>();
+
                 @Override public void run() {
                     try (HistogramMetrics.Timer ignored = histogram.createTimer()) {
                         if (Objects.isNull(r.getStaticConfig())) {
@@ -132,39 +146,53 @@ public class PrometheusFetcherProvider extends ModuleProvider {
                         }
                         StaticConfig sc = r.getStaticConfig();
                         long now = System.currentTimeMillis();
-                        converter.toMeter(sc.getTargets().stream()
-                                .map(CheckedFunction1.liftTry(target -> {
-                                    URI url = new URI(target.getUrl());
-                                    URI targetURL = url.resolve(r.getMetricsPath());
-                                    String content = HTTPClient.builder().url(targetURL.toString()).caFilePath(target.getSslCaFilePath()).build().request();
-                                    List<Metric> result = new ArrayList<>();
-                                    try (InputStream targetStream = new ByteArrayInputStream(content.getBytes(Charsets.UTF_8))) {
-                                        Parser p = Parsers.text(targetStream);
-                                        MetricFamily mf;
-                                        while ((mf = p.parse(now)) != null) {
-                                            mf.getMetrics().forEach(metric -> {
-                                                if (Objects.isNull(sc.getLabels())) {
-                                                    return;
+                        // Send all the requests first, the responses are parsed as they are awaited one by one.
+                        final List<Try<Map.Entry<HTTPClient, CompletableFuture<InputStream>>>> responses = new ArrayList<>();
+                        sc.getTargets().forEach(target -> responses.add(Try.of(() -> {
+                            URI url = new URI(target.getUrl());
+                            String targetURL = url.resolve(r.getMetricsPath()).toString();
+                            HTTPClient client = clients.computeIfAbsent(
+                                targetURL,
+                                k -> HTTPClient.builder()
+                                               .url(targetURL)
+                                               .caFilePath(target.getSslCaFilePath())
+                                               .group(eventLoopGroup)
+                                               .build()
+                            );
+                            return Maps.immutableEntry(client, client.requestAsync());
+                        })));
+                        final List<Metric> result = new ArrayList<>();
+                        for (int i = 0; i < responses.size(); i++) {
+                            final Target target = sc.getTargets().get(i);
+                            MetricConvert.log(responses.get(i).mapTry(response -> {
+                                final List<Metric> metrics = new ArrayList<>();
+                                try (InputStream targetStream = response.getKey().await(response.getValue())) {
+                                    Parser p = Parsers.text(targetStream);
+                                    MetricFamily mf;
+                                    while ((mf = p.parse(now)) != null) {
+                                        mf.getMetrics().forEach(metric -> {
+                                            if (Objects.isNull(sc.getLabels())) {
+                                                return;
+                                            }
+                                            Map<String, String> extraLabels = Maps.newHashMap(sc.getLabels());
+                                            extraLabels.put("instance", target.getUrl());
+                                            extraLabels.forEach((key, value) -> {
+                                                if (metric.getLabels().containsKey(key)) {
+                                                    metric.getLabels().put("exported_" + key, metric.getLabels().get(key));
                                                 }
-                                                Map<String, String> extraLabels = Maps.newHashMap(sc.getLabels());
-                                                extraLabels.put("instance", target.getUrl());
-                                                extraLabels.forEach((key, value) -> {
-                                                    if (metric.getLabels().containsKey(key)) {
-                                                        metric.getLabels().put("exported_" + key, metric.getLabels().get(key));
-                                                    }
-                                                    metric.getLabels().put(key, value);
-                                                });
+                                                metric.getLabels().put(key, value);
                                             });
-                                            result.addAll(mf.getMetrics());
-                                        }
-                                    }
-                                    if (log.isDebugEnabled()) {
-                                        log.debug("Fetch metrics from prometheus: {}", result);
+                                        });
+                                        metrics.addAll(mf.getMetrics());
                                     }
-                                    return result;
-                                }))
-                                .flatMap(tryIt -> MetricConvert.log(tryIt, "Load metric"))
-                                .flatMap(Collection::stream));
+                                }
+                                return metrics;
+                            }), "Load metric").forEach(result::addAll);
+                        }
+                        if (log.isDebugEnabled()) {
+                            log.debug("Fetch metrics from prometheus: {}", result);
+                        }
+                        converter.toMeter(result.stream());
                     } catch (Exception e) {
                         errorCounter.inc();
                         log.error(e.getMessage(), e);
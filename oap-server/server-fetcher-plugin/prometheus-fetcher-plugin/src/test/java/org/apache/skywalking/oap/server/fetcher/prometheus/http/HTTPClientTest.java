@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.fetcher.prometheus.http;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HTTPClientTest {
+    private EventLoopGroup group;
+    private Channel server;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile boolean keepAlive = true;
+
+    @Before
+    public void setup() throws InterruptedException {
+        group = new NioEventLoopGroup(2);
+        server = new ServerBootstrap()
+            .group(group)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    connections.incrementAndGet();
+                    ch.pipeline()
+                      .addLast(new HttpServerCodec())
+                      .addLast(new HttpObjectAggregator(1024 * 1024))
+                      .addLast(new MetricsHandler());
+                }
+            })
+            .bind("127.0.0.1", 0).sync().channel();
+    }
+
+    @After
+    public void tearDown() {
+        server.close().syncUninterruptibly();
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    @Test
+    public void shouldReuseConnection() throws Exception {
+        final HTTPClient client = newClient();
+        try {
+            assertEquals("metric 1\n", read(client));
+            assertEquals("metric 2\n", read(client));
+            assertEquals(1, connections.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void shouldReconnectWhenConnectionClosed() throws Exception {
+        keepAlive = false;
+        final HTTPClient client = newClient();
+        try {
+            assertEquals("metric 1\n", read(client));
+            assertEquals("metric 2\n", read(client));
+            assertEquals(2, connections.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    private HTTPClient newClient() {
+        final int port = ((InetSocketAddress) server.localAddress()).getPort();
+        return HTTPClient.builder().url("http://127.0.0.1:" + port + "/metrics").group(group).build();
+    }
+
+    private static String read(HTTPClient client) throws Exception {
+        try (InputStream body = client.request()) {
+            return IOUtils.toString(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private class MetricsHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+            final FullHttpResponse response = new DefaultFullHttpResponse(
+                HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+                Unpooled.copiedBuffer("metric " + requests.incrementAndGet() + "\n", StandardCharsets.UTF_8)
+            );
+            response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+            HttpUtil.setKeepAlive(response, keepAlive && HttpUtil.isKeepAlive(request));
+            if (HttpUtil.isKeepAlive(response)) {
+                ctx.writeAndFlush(response);
+            } else {
+                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+    }
+}
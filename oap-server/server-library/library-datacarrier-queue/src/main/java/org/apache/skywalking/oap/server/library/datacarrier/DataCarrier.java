@@ -86,6 +86,13 @@ public class DataCarrier<T> {
         return this.channels.save(data);
     }
 
+    /**
+     * @return the ratio of the data waiting to be consumed to the capacity of all channels, from 0 to 1.
+     */
+    public double getBufferUsage() {
+        return (double) channels.getQueuedSize() / channels.size();
+    }
+
     /**
      * set consumeDriver to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work.
      *
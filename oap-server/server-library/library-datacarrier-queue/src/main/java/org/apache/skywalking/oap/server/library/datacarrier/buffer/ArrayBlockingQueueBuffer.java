@@ -64,4 +64,9 @@ public class ArrayBlockingQueueBuffer<T> implements QueueBuffer<T> {
     public int getBufferSize() {
         return bufferSize;
     }
+
+    @Override
+    public int getQueuedSize() {
+        return queue.size();
+    }
 }
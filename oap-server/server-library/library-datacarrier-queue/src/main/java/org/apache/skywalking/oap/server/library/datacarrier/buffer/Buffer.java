@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.library.datacarrier.buffer;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.library.datacarrier.common.AtomicRangeInteger;
 
 /**
@@ -28,6 +29,10 @@ public class Buffer<T> implements QueueBuffer<T> {
     private final Object[] buffer;
     private BufferStrategy strategy;
     private AtomicRangeInteger index;
+    /**
+     * The number of the saved data not obtained yet, kept by the save and obtain, rather than scanning the buffer.
+     */
+    private final AtomicInteger queuedSize = new AtomicInteger();
 
     Buffer(int bufferSize, BufferStrategy strategy) {
         buffer = new Object[bufferSize];
@@ -49,6 +54,8 @@ public class Buffer<T> implements QueueBuffer<T> {
                     return false;
                 default:
             }
+        } else {
+            queuedSize.incrementAndGet();
         }
         buffer[i] = data;
         return true;
@@ -59,18 +66,29 @@ public class Buffer<T> implements QueueBuffer<T> {
         return buffer.length;
     }
 
+    @Override
+    public int getQueuedSize() {
+        // The count is approximate when a slot is overwritten while being obtained, keep it in the range.
+        return Math.min(buffer.length, Math.max(0, queuedSize.get()));
+    }
+
     @Override
     public void obtain(List<T> consumeList) {
         this.obtain(consumeList, 0, buffer.length);
     }
 
     void obtain(List<T> consumeList, int start, int end) {
+        int obtained = 0;
         for (int i = start; i < end; i++) {
             if (buffer[i] != null) {
                 consumeList.add((T) buffer[i]);
                 buffer[i] = null;
+                obtained++;
             }
         }
+        if (obtained > 0) {
+            queuedSize.addAndGet(-obtained);
+        }
     }
 
 }
@@ -87,6 +87,17 @@ public class Channels<T> {
         return size;
     }
 
+    /**
+     * @return the number of the data waiting to be consumed in all channels.
+     */
+    public long getQueuedSize() {
+        long queuedSize = 0;
+        for (QueueBuffer<T> buffer : bufferChannels) {
+            queuedSize += buffer.getQueuedSize();
+        }
+        return queuedSize;
+    }
+
     public QueueBuffer<T> getBuffer(int index) {
         return this.bufferChannels[index];
     }
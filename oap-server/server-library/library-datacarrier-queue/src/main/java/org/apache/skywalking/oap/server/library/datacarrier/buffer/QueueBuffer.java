@@ -43,4 +43,9 @@ public interface QueueBuffer<T> {
     void obtain(List<T> consumeList);
 
     int getBufferSize();
+
+    /**
+     * @return the number of the data waiting to be obtained, which is an estimate while the data is being saved.
+     */
+    int getQueuedSize();
 }
@@ -80,6 +80,35 @@ public class DataCarrierTest {
 
     }
 
+    @Test
+    public void testBufferUsage() throws IllegalAccessException {
+        DataCarrier<SampleData> blocking = new DataCarrier<SampleData>(2, 100);
+        DataCarrier<SampleData> ifPossible = new DataCarrier<SampleData>(2, 100, BufferStrategy.IF_POSSIBLE);
+        Assert.assertEquals(0, blocking.getBufferUsage(), 0);
+        Assert.assertEquals(0, ifPossible.getBufferUsage(), 0);
+
+        for (int i = 0; i < 50; i++) {
+            blocking.produce(new SampleData().setName("d" + i));
+            ifPossible.produce(new SampleData().setName("d" + i));
+        }
+        Assert.assertEquals(0.25, blocking.getBufferUsage(), 0);
+        Assert.assertEquals(0.25, ifPossible.getBufferUsage(), 0);
+
+        for (int i = 0; i < 200; i++) {
+            ifPossible.produce(new SampleData().setName("e" + i));
+        }
+        Assert.assertEquals(1, ifPossible.getBufferUsage(), 0);
+
+        Channels<SampleData> channels = (Channels<SampleData>) MemberModifier.field(DataCarrier.class, "channels")
+                                                                               .get(ifPossible);
+        List<SampleData> consumeList = new ArrayList<>();
+        channels.getBuffer(0).obtain(consumeList);
+        Assert.assertEquals(100, consumeList.size());
+        Assert.assertEquals(0.5, ifPossible.getBufferUsage(), 0);
+        channels.getBuffer(1).obtain(consumeList);
+        Assert.assertEquals(0, ifPossible.getBufferUsage(), 0);
+    }
+
     @Test
     public void testIfPossibleProduce() throws IllegalAccessException {
         DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100, BufferStrategy.IF_POSSIBLE);
@@ -18,12 +18,11 @@
 
 package org.apache.skywalking.oap.server.library.util.prometheus.parser;
 
-import com.google.common.collect.Maps;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Counter;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Gauge;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Histogram;
@@ -34,9 +33,7 @@ import org.apache.skywalking.oap.server.library.util.prometheus.parser.sample.Te
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
+import static org.apache.skywalking.oap.server.library.util.prometheus.parser.sample.SampleParser.parseDouble;
 
 @RequiredArgsConstructor
 public class Context {
@@ -98,7 +95,7 @@ public class Context {
                 samples.forEach(textSample -> metricFamilyBuilder
                     .addMetric(Gauge.builder()
                         .name(name)
-                        .value(convertStringToDouble(textSample.getValue()))
+                        .value(textSample.getValue())
                         .labels(textSample.getLabels())
                         .timestamp(now)
                         .build()));
@@ -107,81 +104,66 @@ public class Context {
                 samples.forEach(textSample -> metricFamilyBuilder
                     .addMetric(Counter.builder()
                         .name(name)
-                        .value(convertStringToDouble(textSample.getValue()))
+                        .value(textSample.getValue())
                         .labels(textSample.getLabels())
                         .timestamp(now)
                         .build()));
                 break;
             case HISTOGRAM:
-                samples.stream()
-                    .map(sample -> {
-                        Map<String, String> labels = Maps.newHashMap(sample.getLabels());
-                        labels.remove("le");
-                        return Pair.of(labels, sample);
-                    })
-                    .collect(groupingBy(Pair::getLeft, mapping(Pair::getRight, toList())))
-                    .forEach((labels, samples) -> {
-                        Histogram.HistogramBuilder hBuilder = Histogram.builder();
-                        hBuilder.name(name).timestamp(now);
-                        hBuilder.labels(labels);
-                        samples.forEach(textSample -> {
-                            if (textSample.getName().endsWith("_count")) {
-                                hBuilder.sampleCount((long) convertStringToDouble(textSample.getValue()));
-                            } else if (textSample.getName().endsWith("_sum")) {
-                                hBuilder.sampleSum(convertStringToDouble(textSample.getValue()));
-                            } else if (textSample.getLabels().containsKey("le")) {
-                                hBuilder.bucket(
-                                    convertStringToDouble(textSample.getLabels().remove("le")),
-                                    (long) convertStringToDouble(textSample.getValue())
-                                );
-                            }
-                        });
-                        metricFamilyBuilder.addMetric(hBuilder.build());
+                groupBy("le").forEach((labels, samples) -> {
+                    Histogram.HistogramBuilder hBuilder = Histogram.builder();
+                    hBuilder.name(name).timestamp(now);
+                    hBuilder.labels(labels);
+                    samples.forEach(textSample -> {
+                        if (textSample.getName().endsWith("_count")) {
+                            hBuilder.sampleCount((long) textSample.getValue());
+                        } else if (textSample.getName().endsWith("_sum")) {
+                            hBuilder.sampleSum(textSample.getValue());
+                        } else if (textSample.getLabels().containsKey("le")) {
+                            hBuilder.bucket(
+                                parseDouble(textSample.getLabels().remove("le")),
+                                (long) textSample.getValue()
+                            );
+                        }
                     });
+                    metricFamilyBuilder.addMetric(hBuilder.build());
+                });
                 break;
             case SUMMARY:
-                samples.stream()
-                    .map(sample -> {
-                        Map<String, String> labels = Maps.newHashMap(sample.getLabels());
-                        labels.remove("quantile");
-                        return Pair.of(labels, sample);
-                    })
-                    .collect(groupingBy(Pair::getLeft, mapping(Pair::getRight, toList())))
-                    .forEach((labels, samples) -> {
-                        Summary.SummaryBuilder sBuilder = Summary.builder();
-                        sBuilder.name(name).timestamp(now);
-                        sBuilder.labels(labels);
-                        samples.forEach(textSample -> {
-                            if (textSample.getName().endsWith("_count")) {
-                                sBuilder.sampleCount((long) convertStringToDouble(textSample.getValue()));
-                            } else if (textSample.getName().endsWith("_sum")) {
-                                sBuilder.sampleSum(convertStringToDouble(textSample.getValue()));
-                            } else if (textSample.getLabels().containsKey("quantile")) {
-                                sBuilder.quantile(
-                                    convertStringToDouble(textSample.getLabels().remove("quantile")),
-                                    convertStringToDouble(textSample.getValue())
-                                );
-                            }
-                        });
-                        metricFamilyBuilder.addMetric(sBuilder.build());
+                groupBy("quantile").forEach((labels, samples) -> {
+                    Summary.SummaryBuilder sBuilder = Summary.builder();
+                    sBuilder.name(name).timestamp(now);
+                    sBuilder.labels(labels);
+                    samples.forEach(textSample -> {
+                        if (textSample.getName().endsWith("_count")) {
+                            sBuilder.sampleCount((long) textSample.getValue());
+                        } else if (textSample.getName().endsWith("_sum")) {
+                            sBuilder.sampleSum(textSample.getValue());
+                        } else if (textSample.getLabels().containsKey("quantile")) {
+                            sBuilder.quantile(
+                                parseDouble(textSample.getLabels().remove("quantile")),
+                                textSample.getValue()
+                            );
+                        }
                     });
+                    metricFamilyBuilder.addMetric(sBuilder.build());
+                });
 
                 break;
         }
         metricFamily = metricFamilyBuilder.build();
     }
 
-    private static double convertStringToDouble(String valueString) {
-        double doubleValue;
-        if (valueString.equalsIgnoreCase("NaN")) {
-            doubleValue = Double.NaN;
-        } else if (valueString.equalsIgnoreCase("+Inf")) {
-            doubleValue = Double.POSITIVE_INFINITY;
-        } else if (valueString.equalsIgnoreCase("-Inf")) {
-            doubleValue = Double.NEGATIVE_INFINITY;
-        } else {
-            doubleValue = Double.parseDouble(valueString);
+    /**
+     * Group the samples by the labels except the given one, such as the buckets of the same histogram.
+     */
+    private Map<Map<String, String>, List<TextSample>> groupBy(String excludedLabel) {
+        final Map<Map<String, String>, List<TextSample>> groups = new HashMap<>();
+        for (final TextSample sample : samples) {
+            final Map<String, String> labels = new HashMap<>(sample.getLabels());
+            labels.remove(excludedLabel);
+            groups.computeIfAbsent(labels, k -> new ArrayList<>()).add(sample);
         }
-        return doubleValue;
+        return groups;
     }
 }
@@ -18,55 +18,68 @@
 
 package org.apache.skywalking.oap.server.library.util.prometheus.parser;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.skywalking.oap.server.library.util.prometheus.Parser;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricFamily;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricType;
+import org.apache.skywalking.oap.server.library.util.prometheus.parser.sample.SampleParser;
 import org.apache.skywalking.oap.server.library.util.prometheus.parser.sample.TextSample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * TextParser reads the Prometheus text exposition format from the stream line by line, and returns the metric
+ * families one by one. The lines are kept as bytes in a reused buffer, only the comments are decoded as strings.
+ */
 public class TextParser implements Parser {
     private static final Logger LOG = LoggerFactory.getLogger(TextParser.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream inputStream;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
 
-    private final BufferedReader reader;
+    private byte[] line = new byte[1024];
+    private int lineStart;
+    private int lineEnd;
+    /**
+     * The current line belongs to the next metric family, it is read again by the next {@link #parse(long)}.
+     */
+    private boolean lineUnconsumed;
 
-    private String lastLineReadFromStream;
+    private final SampleParser sampleParser = new SampleParser();
 
     public TextParser(final InputStream inputStream) {
-        this.reader = new BufferedReader(new InputStreamReader(inputStream));
+        this.inputStream = inputStream;
     }
 
     @Override
     public MetricFamily parse(long now) throws IOException {
-        String line;
-        if (lastLineReadFromStream != null) {
-            line = lastLineReadFromStream;
-            lastLineReadFromStream = null;
-        } else {
-            line = reader.readLine();
-        }
-        if (line == null) {
+        if (lineUnconsumed) {
+            lineUnconsumed = false;
+        } else if (!readLine()) {
             return null;
         }
 
         Context ctx = new Context(now);
-        while (line != null) {
-            line = line.trim();
-
+        boolean hasLine = true;
+        while (hasLine) {
             try {
-                if (parseLine(line, ctx)) {
+                if (parseLine(ctx)) {
+                    lineUnconsumed = true;
                     break;
                 }
             } catch (Exception e) {
-                LOG.debug("Failed to process line - it will be ignored: {}", line, e);
+                LOG.debug("Failed to process line - it will be ignored: {}", lineAsString(), e);
             }
 
-            line = reader.readLine();
+            hasLine = readLine();
         }
 
         if (!ctx.name.isEmpty()) {
@@ -76,19 +89,21 @@ public class TextParser implements Parser {
         return ctx.metricFamily;
     }
 
-    private boolean parseLine(String line, Context ctx) {
-        if (line.isEmpty()) {
+    /**
+     * @return true if the line of the next metric family is read.
+     */
+    private boolean parseLine(Context ctx) {
+        if (lineStart == lineEnd) {
             return false;
         }
-        if (line.charAt(0) == '#') {
-            String[] parts = line.split("[ \t]+", 4);
+        if (line[lineStart] == '#') {
+            String[] parts = lineAsString().split("[ \t]+", 4);
             if (parts.length < 3) {
                 return false;
             }
             if (parts[1].equals("HELP")) {
                 if (!parts[2].equals(ctx.name)) {
                     if (!ctx.name.isEmpty()) {
-                        this.lastLineReadFromStream = line;
                         return true;
                     }
                     ctx.clear();
@@ -102,7 +117,6 @@ public class TextParser implements Parser {
             } else if (parts[1].equals("TYPE")) {
                 if (!parts[2].equals(ctx.name)) {
                     if (!ctx.name.isEmpty()) {
-                        this.lastLineReadFromStream = line;
                         return true;
                     }
                     ctx.clear();
@@ -112,17 +126,74 @@ public class TextParser implements Parser {
             }
             return false;
         }
-        TextSample sample = TextSample.parse(line);
+        TextSample sample = sampleParser.parse(line, lineStart, lineEnd);
         if (!ctx.allowedNames.contains(sample.getName())) {
             if (!ctx.name.isEmpty()) {
-                this.lastLineReadFromStream = line;
                 return true;
             }
             ctx.clear();
-            LOG.debug("Ignoring an unexpected metric: {}", line);
+            LOG.debug("Ignoring an unexpected metric: {}", lineAsString());
         } else {
             ctx.samples.add(sample);
         }
         return false;
     }
+
+    /**
+     * Read the next line into {@link #line}, and trim it as {@link String#trim()}.
+     *
+     * @return false if the end of the stream is reached.
+     */
+    private boolean readLine() throws IOException {
+        int length = 0;
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = inputStream.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (!read) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+            read = true;
+            int end = position;
+            while (end < limit && buffer[end] != '\n') {
+                end++;
+            }
+            final int size = end - position;
+            if (length + size > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + size));
+            }
+            System.arraycopy(buffer, position, line, length, size);
+            length += size;
+            if (end < limit) {
+                position = end + 1;
+                break;
+            }
+            position = limit;
+        }
+
+        lineStart = 0;
+        lineEnd = length;
+        while (lineStart < lineEnd && isTrimmed(line[lineStart])) {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && isTrimmed(line[lineEnd - 1])) {
+            lineEnd--;
+        }
+        return true;
+    }
+
+    private static boolean isTrimmed(final byte b) {
+        // The bytes of the multi-byte UTF-8 characters are negative.
+        return b >= 0 && b <= ' ';
+    }
+
+    private String lineAsString() {
+        return new String(line, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.util.prometheus.parser.sample;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SampleParser parses the sample lines of the Prometheus text exposition format from the bytes directly, without
+ * decoding the line or splitting it by the regular expressions. The metric names, label names and label values are
+ * mostly repeated among the lines, they are decoded once and reused by a small direct-mapped cache.
+ *
+ * The optional timestamp of the sample is ignored.
+ */
+public class SampleParser {
+    private static final int CACHE_SIZE = 4096;
+
+    private final byte[][] cachedBytes = new byte[CACHE_SIZE][];
+    private final String[] cachedStrings = new String[CACHE_SIZE];
+
+    private byte[] escaped = new byte[64];
+
+    /**
+     * @param line   the bytes of the line, in UTF-8.
+     * @param start  of the trimmed line, inclusive.
+     * @param end    of the trimmed line, exclusive.
+     * @throws IllegalStateException if the line isn't a valid sample.
+     */
+    public TextSample parse(final byte[] line, final int start, final int end) {
+        int i = start;
+        while (i < end && line[i] != '{' && !isWhitespace(line[i])) {
+            i++;
+        }
+        final String name = string(line, start, i);
+        i = skipWhitespaces(line, i, end);
+
+        final Map<String, String> labels = new LinkedHashMap<>();
+        if (i < end && line[i] == '{') {
+            i = skipWhitespaces(line, i + 1, end);
+            while (i < end && line[i] != '}') {
+                final int nameStart = i;
+                while (i < end && line[i] != '=' && line[i] != '}' && !isWhitespace(line[i])) {
+                    i++;
+                }
+                final int nameEnd = i;
+                i = skipWhitespaces(line, i, end);
+                i = expect(line, i, end, '=');
+                i = skipWhitespaces(line, i, end);
+                i = expect(line, i, end, '"');
+                i = parseLabelValue(line, i, end, labels, string(line, nameStart, nameEnd));
+                i = skipWhitespaces(line, i, end);
+                if (i < end && line[i] == ',') {
+                    i = skipWhitespaces(line, i + 1, end);
+                } else if (i >= end || line[i] != '}') {
+                    throw invalid(line, i, end);
+                }
+            }
+            i = skipWhitespaces(line, expect(line, i, end, '}'), end);
+        }
+
+        int valueEnd = i;
+        while (valueEnd < end && !isWhitespace(line[valueEnd])) {
+            valueEnd++;
+        }
+        return new TextSample(name, labels, parseValue(line, i, valueEnd));
+    }
+
+    /**
+     * @return the index after the closing quote of the value.
+     */
+    private int parseLabelValue(final byte[] line, final int start, final int end,
+                                final Map<String, String> labels, final String labelName) {
+        int i = start;
+        while (i < end && line[i] != '"' && line[i] != '\\') {
+            i++;
+        }
+        if (i < end && line[i] == '"') {
+            labels.put(labelName, string(line, start, i));
+            return i + 1;
+        }
+
+        int length = 0;
+        for (i = start; i < end && line[i] != '"'; i++) {
+            byte b = line[i];
+            if (b == '\\' && i + 1 < end) {
+                b = line[++i];
+                if (b == 'n') {
+                    b = '\n';
+                }
+            }
+            if (length == escaped.length) {
+                escaped = Arrays.copyOf(escaped, length * 2);
+            }
+            escaped[length++] = b;
+        }
+        if (i >= end) {
+            throw invalid(line, i, end);
+        }
+        labels.put(labelName, new String(escaped, 0, length, StandardCharsets.UTF_8));
+        return i + 1;
+    }
+
+    /**
+     * The integers, which most of the values are, are parsed without the string.
+     */
+    static double parseValue(final byte[] line, final int start, final int end) {
+        if (start >= end) {
+            throw invalid(line, start, end);
+        }
+        int i = start;
+        final boolean negative = line[i] == '-';
+        if (negative || line[i] == '+') {
+            i++;
+        }
+        if (i < end && end - i <= 18) {
+            long value = 0;
+            for (; i < end; i++) {
+                final int digit = line[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+            }
+            if (i == end) {
+                return negative ? -value : value;
+            }
+        }
+        return parseDouble(new String(line, start, end - start, StandardCharsets.US_ASCII));
+    }
+
+    public static double parseDouble(final String value) {
+        if (value.equalsIgnoreCase("NaN")) {
+            return Double.NaN;
+        } else if (value.equalsIgnoreCase("+Inf")) {
+            return Double.POSITIVE_INFINITY;
+        } else if (value.equalsIgnoreCase("-Inf")) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Double.parseDouble(value);
+    }
+
+    private String string(final byte[] bytes, final int start, final int end) {
+        final int length = end - start;
+        int hash = length;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        final int index = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+        final byte[] cached = cachedBytes[index];
+        if (cached != null && equals(cached, bytes, start, length)) {
+            return cachedStrings[index];
+        }
+        final String string = new String(bytes, start, length, StandardCharsets.UTF_8);
+        cachedBytes[index] = Arrays.copyOfRange(bytes, start, end);
+        cachedStrings[index] = string;
+        return string;
+    }
+
+    private static boolean equals(final byte[] cached, final byte[] bytes, final int start, final int length) {
+        if (cached.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached[i] != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int expect(final byte[] line, final int i, final int end, final char c) {
+        if (i >= end || line[i] != c) {
+            throw invalid(line, i, end);
+        }
+        return i + 1;
+    }
+
+    private static int skipWhitespaces(final byte[] line, int i, final int end) {
+        while (i < end && isWhitespace(line[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static IllegalStateException invalid(final byte[] line, final int offset, final int end) {
+        return new IllegalStateException(String.format(
+            "At offset %d, character is %s", offset, offset < end ? String.valueOf((char) line[offset]) : "EOL"));
+    }
+}
@@ -19,31 +19,14 @@
 package org.apache.skywalking.oap.server.library.util.prometheus.parser.sample;
 
 import java.util.Map;
-import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@RequiredArgsConstructor
 @Getter
 public class TextSample {
 
     private final String name;
     private final Map<String, String> labels;
-    private final String value;
-    private final String line;
-
-    public static TextSample parse(String line) {
-        Context ctx = new Context();
-        State state = State.NAME;
-        for (int c = 0; c < line.length(); c++) {
-            char charAt = line.charAt(c);
-            state = state.nextState(charAt, ctx);
-            if (state == State.INVALID) {
-                throw new IllegalStateException(String.format("At offset %d, character is %c", c, charAt));
-            } else if (state == State.END) {
-                break;
-            }
-        }
-        return new TextSample(ctx.name.toString(), ctx.labels, ctx.value.toString(), line);
-    }
-}
\ No newline at end of file
+    private final double value;
+}
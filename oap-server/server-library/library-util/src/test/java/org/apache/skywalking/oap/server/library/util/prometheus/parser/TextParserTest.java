@@ -18,11 +18,14 @@
 
 package org.apache.skywalking.oap.server.library.util.prometheus.parser;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
 import java.util.Queue;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Counter;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Gauge;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Histogram;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricFamily;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricType;
@@ -33,6 +36,7 @@ import org.junit.Test;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 public class TextParserTest {
@@ -127,4 +131,27 @@ public class TextParserTest {
             assertThat(mfNum , is(3));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parseEscapedLabelValues() throws IOException {
+        final String text = "# TYPE msdos_file_access_time_seconds gauge\n"
+            + "msdos_file_access_time_seconds{path=\"C:\\\\DIR\\\\FILE.TXT\","
+            + "error=\"Cannot find file:\\n\\\"FILE.TXT\\\"\"} 1.458255915e9\n";
+        final TextParser parser = new TextParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+
+        final MetricFamily expected = new MetricFamily.Builder()
+            .setName("msdos_file_access_time_seconds")
+            .setType(MetricType.GAUGE)
+            .setHelp("")
+            .addMetric(Gauge.builder()
+                            .name("msdos_file_access_time_seconds")
+                            .label("path", "C:\\DIR\\FILE.TXT")
+                            .label("error", "Cannot find file:\n\"FILE.TXT\"")
+                            .value(1.458255915e9)
+                            .timestamp(now)
+                            .build())
+            .build();
+        assertThat(parser.parse(now), is(expected));
+        assertNull(parser.parse(now));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.util.prometheus.parser.sample;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SampleParserTest {
+    private final SampleParser parser = new SampleParser();
+
+    @Test
+    public void testEscapedLabelValues() {
+        final TextSample sample = parse(
+            "msdos_file_access_time_seconds{path=\"C:\\\\DIR\\\\FILE.TXT\",error=\"Cannot find file:\\n\\\"FILE.TXT\\\"\"}"
+                + " 1.458255915e9");
+
+        assertEquals("msdos_file_access_time_seconds", sample.getName());
+        final Map<String, String> labels = new LinkedHashMap<>();
+        labels.put("path", "C:\\DIR\\FILE.TXT");
+        labels.put("error", "Cannot find file:\n\"FILE.TXT\"");
+        assertEquals(labels, sample.getLabels());
+        assertEquals(1.458255915e9, sample.getValue(), 0);
+    }
+
+    @Test
+    public void testLabelsWithSpacesAndTrailingComma() {
+        final TextSample sample = parse("http_requests_total{ method = \"post\" , code=\"200\", } 1027");
+
+        final Map<String, String> labels = new LinkedHashMap<>();
+        labels.put("method", "post");
+        labels.put("code", "200");
+        assertEquals(labels, sample.getLabels());
+        assertEquals(1027, sample.getValue(), 0);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        assertTrue(Double.isNaN(parse("metric NaN").getValue()));
+        assertEquals(Double.POSITIVE_INFINITY, parse("metric +Inf").getValue(), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, parse("metric -Inf").getValue(), 0);
+    }
+
+    @Test
+    public void testExponentValues() {
+        assertEquals(1.7560473e+07, parse("rpc_duration_seconds_sum 1.7560473e+07").getValue(), 0);
+        assertEquals(1.5e-3, parse("metric 1.5E-3").getValue(), 0);
+        assertEquals(-2e2, parse("metric -2e2").getValue(), 0);
+    }
+
+    @Test
+    public void testIntegerAndFloatValues() {
+        assertEquals(3, parse("metric    3").getValue(), 0);
+        assertEquals(-42, parse("metric -42").getValue(), 0);
+        assertEquals(7, parse("metric +7").getValue(), 0);
+        assertEquals(12.47, parse("metric 12.47").getValue(), 0);
+        assertEquals(123456789012345678L, parse("metric 123456789012345678").getValue(), 0);
+        // longer than the integer fast path
+        assertEquals(1234567890123456789012.0, parse("metric 1234567890123456789012").getValue(), 0);
+    }
+
+    @Test
+    public void testTimestampIgnored() {
+        final TextSample sample = parse("http_requests_total{method=\"post\",code=\"400\"}    3 1395066363000");
+        assertEquals(3, sample.getValue(), 0);
+
+        final TextSample beforeEpoch = parse("something_weird{problem=\"division by zero\"} +Inf -3982045");
+        assertEquals(Collections.singletonMap("problem", "division by zero"), beforeEpoch.getLabels());
+        assertEquals(Double.POSITIVE_INFINITY, beforeEpoch.getValue(), 0);
+    }
+
+    @Test
+    public void testWithoutLabels() {
+        final TextSample sample = parse("metric_without_timestamp_and_labels 12.47");
+
+        assertEquals("metric_without_timestamp_and_labels", sample.getName());
+        assertTrue(sample.getLabels().isEmpty());
+        assertEquals(12.47, sample.getValue(), 0);
+    }
+
+    @Test
+    public void testParseWithinLine() {
+        final byte[] line = "  metric{a=\"b\"} 5  ".getBytes(StandardCharsets.UTF_8);
+        final TextSample sample = parser.parse(line, 2, line.length - 2);
+
+        assertEquals("metric", sample.getName());
+        assertEquals(Collections.singletonMap("a", "b"), sample.getLabels());
+        assertEquals(5, sample.getValue(), 0);
+    }
+
+    @Test
+    public void testCachedNames() {
+        final TextSample first = parse("metric{a=\"b\"} 1");
+        final TextSample second = parse("metric{a=\"c\"} 2");
+
+        assertSame(first.getName(), second.getName());
+        assertEquals("c", second.getLabels().get("a"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnclosedLabelValue() {
+        parse("metric{a=\"b} 1");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingValue() {
+        parse("metric{a=\"b\"}");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testInvalidValue() {
+        parse("metric 12abc");
+    }
+
+    private TextSample parse(String line) {
+        final byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(bytes, 0, bytes.length);
+    }
+}
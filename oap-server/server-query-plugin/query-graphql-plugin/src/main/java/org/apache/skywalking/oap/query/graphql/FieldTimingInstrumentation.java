@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql;
+
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * Observe the latency of the top level fields, each of them is a query of the UI widgets, to find the slow ones. The
+ * latency of the batched fields includes the waiting for the batch.
+ */
+public class FieldTimingInstrumentation extends SimpleInstrumentation {
+    private final MetricsCreator metricsCreator;
+    private final Map<String, HistogramMetrics> latencies = new ConcurrentHashMap<>();
+
+    public FieldTimingInstrumentation(MetricsCreator metricsCreator) {
+        this.metricsCreator = metricsCreator;
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(final InstrumentationFieldFetchParameters parameters) {
+        if (parameters.getExecutionStepInfo().getPath().getLevel() != 1) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        final HistogramMetrics.Timer timer = latencies.computeIfAbsent(
+            parameters.getField().getName(),
+            field -> metricsCreator.createHistogramMetric(
+                "graphql_query_field_latency", "The latency of the top level GraphQL query fields",
+                new MetricsTag.Keys("field"), new MetricsTag.Values(field)
+            )
+        ).createTimer();
+        return SimpleInstrumentationContext.whenCompleted((result, t) -> timer.finish());
+    }
+}
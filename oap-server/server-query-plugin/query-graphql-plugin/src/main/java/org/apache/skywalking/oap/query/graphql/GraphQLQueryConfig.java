@@ -32,4 +32,5 @@ public class GraphQLQueryConfig extends ModuleConfig {
     private int maxQueryComplexity = 1000;
     private boolean enableUpdateUITemplate = false;
     private boolean enableOnDemandPodLog = false;
+    private int preparsedDocumentCacheSize = 1000;
 }
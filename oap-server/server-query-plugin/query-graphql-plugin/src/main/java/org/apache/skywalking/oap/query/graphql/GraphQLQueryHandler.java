@@ -24,9 +24,14 @@ import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.annotation.Blocking;
 import com.linecorp.armeria.server.annotation.Post;
 import com.linecorp.armeria.server.graphql.GraphqlService;
+import com.linecorp.armeria.server.graphql.GraphqlServiceBuilder;
 import graphql.analysis.MaxQueryComplexityInstrumentation;
 import graphql.schema.GraphQLSchema;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.query.graphql.resolver.MetricsValuesBatchLoader;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 @Slf4j
 public class GraphQLQueryHandler {
@@ -34,9 +39,13 @@ public class GraphQLQueryHandler {
 
     public GraphQLQueryHandler(
         final GraphQLQueryConfig config,
-        final GraphQLSchema schema) {
+        final GraphQLSchema schema,
+        final ModuleManager moduleManager) {
         final int allowedComplexity = config.getMaxQueryComplexity();
-        graphqlService =
+        final MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                           .provider()
+                                                           .getService(MetricsCreator.class);
+        final GraphqlServiceBuilder builder =
             GraphqlService
                 .builder()
                 .schema(schema)
@@ -46,8 +55,15 @@ public class GraphQLQueryHandler {
                         allowedComplexity,
                         info.getComplexity());
                     return true;
-                }))
-                .build();
+                }), new FieldTimingInstrumentation(metricsCreator))
+                .configureDataLoaderRegistry(registry -> registry.register(
+                    MetricsValuesBatchLoader.NAME, MetricsValuesBatchLoader.newDataLoader(moduleManager)));
+        if (config.getPreparsedDocumentCacheSize() > 0) {
+            final PreparsedDocumentCache documentCache = new PreparsedDocumentCache(
+                config.getPreparsedDocumentCacheSize());
+            builder.configureGraphql(graphql -> graphql.preparsedDocumentProvider(documentCache));
+        }
+        graphqlService = builder.build();
     }
 
     @Blocking
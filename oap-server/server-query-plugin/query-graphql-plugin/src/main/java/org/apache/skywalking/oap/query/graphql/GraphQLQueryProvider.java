@@ -138,7 +138,7 @@ public class GraphQLQueryProvider extends ModuleProvider {
                                                   .provider()
                                                   .getService(HTTPHandlerRegister.class);
         service.addHandler(
-            new GraphQLQueryHandler(config, schemaBuilder.build().makeExecutableSchema()),
+            new GraphQLQueryHandler(config, schemaBuilder.build().makeExecutableSchema(), getManager()),
             Collections.singletonList(HttpMethod.POST)
         );
     }
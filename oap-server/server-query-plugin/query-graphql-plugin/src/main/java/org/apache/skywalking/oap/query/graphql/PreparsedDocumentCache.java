@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.util.function.Function;
+
+/**
+ * Cache the parsed and validated documents by the query text, the dashboards send the same queries with different
+ * variables repeatedly. The documents with errors are not cached, and neither are the queries with the {@code @skip} or
+ * {@code @include} directives, whose complexity, checked in the validation, depends on the variables.
+ */
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+    private final Cache<String, PreparsedDocumentEntry> cache;
+
+    public PreparsedDocumentCache(int maxSize) {
+        cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(final ExecutionInput executionInput,
+                                              final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        final String query = executionInput.getQuery();
+        final PreparsedDocumentEntry cached = cache.getIfPresent(query);
+        if (cached != null) {
+            return cached;
+        }
+        final PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors() && !query.contains("@skip") && !query.contains("@include")) {
+            cache.put(query, entry);
+        }
+        return entry;
+    }
+
+    long size() {
+        return cache.size();
+    }
+}
@@ -89,7 +89,7 @@ public class MetricQuery implements GraphQLQueryResolver {
         condition.setName(metrics.getName());
         condition.setEntity(new MockEntity(metrics.getId()));
 
-        final MetricsValues metricsValues = query.readMetricsValues(condition, duration);
+        final MetricsValues metricsValues = query.readMetricsValues(condition, duration, null).join();
         return metricsValues.getValues();
     }
 
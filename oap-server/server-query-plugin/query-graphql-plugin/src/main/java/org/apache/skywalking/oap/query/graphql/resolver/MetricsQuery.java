@@ -19,10 +19,12 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import graphql.kickstart.tools.GraphQLQueryResolver;
+import graphql.schema.DataFetchingEnvironment;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.query.AggregationQueryService;
@@ -40,6 +42,7 @@ import org.apache.skywalking.oap.server.core.query.type.KVInt;
 import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
 import org.apache.skywalking.oap.server.core.query.type.SelectedRecord;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.dataloader.DataLoader;
 
 /**
  * Metrics v2 query protocol implementation.
@@ -121,9 +124,14 @@ public class MetricsQuery implements GraphQLQueryResolver {
     }
 
     /**
-     * Read time-series values in the duration of required metrics
+     * Read time-series values in the duration of required metrics. The reads dispatched together are coalesced by the
+     * {@link MetricsValuesBatchLoader} when the query is executed with it.
+     *
+     * @param env of the field, null or without the loader registered to read immediately.
      */
-    public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration) throws IOException {
+    public CompletableFuture<MetricsValues> readMetricsValues(MetricsCondition condition,
+                                                              Duration duration,
+                                                              DataFetchingEnvironment env) throws IOException {
         if (MetricsType.UNKNOWN.equals(typeOfMetrics(condition.getName())) || !condition.getEntity().isValid()) {
             final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
             MetricsValues values = new MetricsValues();
@@ -136,9 +144,14 @@ public class MetricsQuery implements GraphQLQueryResolver {
                 kvInt.setValue(0);
                 values.getValues().addKVInt(kvInt);
             });
-            return values;
+            return CompletableFuture.completedFuture(values);
+        }
+        final DataLoader<MetricsValuesBatchLoader.Read, MetricsValues> loader =
+            env == null ? null : env.getDataLoader(MetricsValuesBatchLoader.NAME);
+        if (loader == null) {
+            return CompletableFuture.completedFuture(getMetricsQueryService().readMetricsValues(condition, duration));
         }
-        return getMetricsQueryService().readMetricsValues(condition, duration);
+        return loader.load(new MetricsValuesBatchLoader.Read(condition, duration));
     }
 
     /**
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql.resolver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.Try;
+
+/**
+ * Coalesce the {@link MetricsQuery#readMetricsValues} fields dispatched together, such as the aliased fields of a
+ * dashboard widget, the reads of the same metrics and duration are sent to the storage in one batch.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class MetricsValuesBatchLoader implements BatchLoader<MetricsValuesBatchLoader.Read, Try<MetricsValues>> {
+    public static final String NAME = "metricsValues";
+
+    private final ModuleManager moduleManager;
+    private MetricsQueryService metricsQueryService;
+
+    /**
+     * The data loader registry is shared by all the requests, so the result caching is disabled and only the batching
+     * is applied. A batch may hold the reads of different requests, so every read fails on its own.
+     */
+    public static DataLoader<Read, MetricsValues> newDataLoader(ModuleManager moduleManager) {
+        return DataLoaderFactory.newDataLoaderWithTry(
+            new MetricsValuesBatchLoader(moduleManager), DataLoaderOptions.newOptions().setCachingEnabled(false));
+    }
+
+    private MetricsQueryService getMetricsQueryService() {
+        if (metricsQueryService == null) {
+            this.metricsQueryService = moduleManager.find(CoreModule.NAME)
+                                                    .provider()
+                                                    .getService(MetricsQueryService.class);
+        }
+        return metricsQueryService;
+    }
+
+    @Override
+    public CompletionStage<List<Try<MetricsValues>>> load(final List<Read> reads) {
+        final Map<Batch, List<Integer>> batches = new LinkedHashMap<>();
+        for (int i = 0; i < reads.size(); i++) {
+            batches.computeIfAbsent(new Batch(reads.get(i)), k -> new ArrayList<>()).add(i);
+        }
+
+        final List<Try<MetricsValues>> result = new ArrayList<>(reads.size());
+        for (int i = 0; i < reads.size(); i++) {
+            result.add(null);
+        }
+        for (final List<Integer> indexes : batches.values()) {
+            final List<MetricsCondition> conditions = new ArrayList<>(indexes.size());
+            indexes.forEach(index -> conditions.add(reads.get(index).getCondition()));
+            try {
+                final List<MetricsValues> values = getMetricsQueryService().readBatchMetricsValues(
+                    conditions, reads.get(indexes.get(0)).getDuration());
+                for (int i = 0; i < indexes.size(); i++) {
+                    result.set(indexes.get(i), Try.succeeded(values.get(i)));
+                }
+            } catch (IOException e) {
+                log.warn("Fail to read the metrics values of {} in batch, read them one by one.",
+                         conditions.get(0).getName(), e);
+                for (final Integer index : indexes) {
+                    result.set(index, readOne(reads.get(index)));
+                }
+            }
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private Try<MetricsValues> readOne(Read read) {
+        try {
+            return Try.succeeded(getMetricsQueryService().readMetricsValues(read.getCondition(), read.getDuration()));
+        } catch (IOException e) {
+            return Try.failed(e);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Read {
+        private final MetricsCondition condition;
+        private final Duration duration;
+    }
+
+    /**
+     * The reads of the same metrics in the same duration are read together.
+     */
+    @EqualsAndHashCode
+    private static class Batch {
+        private final String name;
+        private final String start;
+        private final String end;
+        private final Step step;
+
+        private Batch(Read read) {
+            this.name = read.getCondition().getName();
+            this.start = read.getDuration().getStart();
+            this.end = read.getDuration().getEnd();
+            this.step = read.getDuration().getStep();
+        }
+    }
+}
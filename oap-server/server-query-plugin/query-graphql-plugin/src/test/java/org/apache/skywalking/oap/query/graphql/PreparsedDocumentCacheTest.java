@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PreparsedDocumentCacheTest {
+    private PreparsedDocumentCache cache;
+    private GraphQL graphQL;
+
+    @Before
+    public void setup() {
+        cache = new PreparsedDocumentCache(10);
+        graphQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(
+            new SchemaParser().parse("type Query { version: String, time: Int }"),
+            RuntimeWiring.newRuntimeWiring()
+                         .type("Query", wiring -> wiring.dataFetcher("version", env -> "9.3.0")
+                                                        .dataFetcher("time", env -> 1))
+                         .build()
+        )).instrumentation(new MaxQueryComplexityInstrumentation(1)).preparsedDocumentProvider(cache).build();
+    }
+
+    @Test
+    public void shouldCacheValidDocuments() {
+        for (int i = 0; i < 2; i++) {
+            final ExecutionResult result = graphQL.execute("{ version }");
+            assertTrue(result.getErrors().isEmpty());
+            assertEquals(Collections.singletonMap("version", "9.3.0"), result.getData());
+        }
+        assertEquals(1, cache.size());
+
+        assertFalse(graphQL.execute("{ unknown }").getErrors().isEmpty());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheDocumentsDependingOnVariables() {
+        final String query = "query ($all: Boolean!) { version time @include(if: $all) }";
+        assertTrue(graphQL.execute(input(query, false)).getErrors().isEmpty());
+        assertEquals(0, cache.size());
+        assertFalse(graphQL.execute(input(query, true)).getErrors().isEmpty());
+    }
+
+    @Test
+    public void shouldNotCacheTooComplexDocuments() {
+        for (int i = 0; i < 2; i++) {
+            assertFalse(graphQL.execute("{ version time }").getErrors().isEmpty());
+        }
+        assertEquals(0, cache.size());
+    }
+
+    private static ExecutionInput input(String query, boolean all) {
+        return ExecutionInput.newExecutionInput(query).variables(Collections.singletonMap("all", all)).build();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql.resolver;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.kickstart.tools.SchemaParser;
+import graphql.scalars.ExtendedScalars;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.query.graphql.FieldTimingInstrumentation;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.query.MetricsMetadataQueryService;
+import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
+import org.apache.skywalking.oap.server.core.query.enumeration.MetricsType;
+import org.apache.skywalking.oap.server.core.query.enumeration.Scope;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MetricsValuesBatchLoaderTest {
+    private static final String SCHEMA =
+        "schema { query: Query }\n"
+            + "type Query {\n"
+            + "  readMetricsValues(condition: MetricsCondition!, duration: Duration!): MetricsValues!\n"
+            + "}\n"
+            + "input MetricsCondition { name: String! entity: Entity! }\n"
+            + "input Entity { scope: Scope serviceName: String normal: Boolean }\n"
+            + "enum Scope { All Service ServiceInstance Endpoint ServiceRelation ServiceInstanceRelation "
+            + "EndpointRelation ProcessRelation }\n"
+            + "input Duration { start: String! end: String! step: Step! }\n"
+            + "enum Step { DAY HOUR MINUTE SECOND }\n"
+            + "type MetricsValues { label: String values: IntValues! }\n"
+            + "type IntValues { values: [KVInt!]! }\n"
+            + "type KVInt { id: ID! value: Long! }\n"
+            + "scalar Long\n";
+
+    private static final String QUERY =
+        "query ($duration: Duration!) {\n"
+            + "  a: readMetricsValues(condition: {name: \"service_cpm\", "
+            + "entity: {scope: Service, serviceName: \"a\", normal: true}}, duration: $duration) "
+            + "{ values { values { value } } }\n"
+            + "  b: readMetricsValues(condition: {name: \"service_cpm\", "
+            + "entity: {scope: Service, serviceName: \"b\", normal: true}}, duration: $duration) "
+            + "{ values { values { value } } }\n"
+            + "  c: readMetricsValues(condition: {name: \"service_sla\", "
+            + "entity: {scope: Service, serviceName: \"c\", normal: true}}, duration: $duration) "
+            + "{ values { values { value } } }\n"
+            + "}";
+
+    private ModuleManager moduleManager;
+    private MetricsQueryService metricsQueryService;
+    private GraphQL graphQL;
+
+    @Before
+    public void setup() throws Exception {
+        moduleManager = mock(ModuleManager.class);
+        final ModuleServiceHolder serviceHolder = mock(ModuleServiceHolder.class);
+        doReturn((ModuleProviderHolder) () -> serviceHolder).when(moduleManager).find(anyString());
+
+        final MetricsMetadataQueryService metadataQueryService = mock(MetricsMetadataQueryService.class);
+        doReturn(MetricsType.REGULAR_VALUE).when(metadataQueryService).typeOfMetrics(anyString());
+        doReturn(metadataQueryService).when(serviceHolder).getService(MetricsMetadataQueryService.class);
+
+        metricsQueryService = mock(MetricsQueryService.class);
+        doAnswer(invocation -> {
+            final List<MetricsCondition> conditions = invocation.getArgument(0);
+            final List<MetricsValues> result = new ArrayList<>();
+            for (final MetricsCondition condition : conditions) {
+                final MetricsValues values = new MetricsValues();
+                final KVInt kv = new KVInt();
+                kv.setValue(condition.getName().length() * 10L + conditions.size());
+                values.getValues().addKVInt(kv);
+                result.add(values);
+            }
+            return result;
+        }).when(metricsQueryService).readBatchMetricsValues(anyList(), any());
+        doReturn(metricsQueryService).when(serviceHolder).getService(MetricsQueryService.class);
+
+        graphQL = GraphQL.newGraphQL(
+            SchemaParser.newParser()
+                        .schemaString(SCHEMA)
+                        .resolvers(new MetricsQuery(moduleManager))
+                        .dictionary(Scope.class, Step.class)
+                        .scalars(ExtendedScalars.GraphQLLong)
+                        .build()
+                        .makeExecutableSchema()
+        ).instrumentation(new FieldTimingInstrumentation(new MetricsCreatorNoop())).build();
+    }
+
+    @Test
+    public void shouldBatchReadsOfSameMetrics() throws Exception {
+        final DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register(MetricsValuesBatchLoader.NAME, MetricsValuesBatchLoader.newDataLoader(moduleManager));
+
+        final ExecutionResult result = graphQL.execute(
+            ExecutionInput.newExecutionInput(QUERY).variables(variables()).dataLoaderRegistry(registry).build());
+
+        assertTrue(result.getErrors().toString(), result.getErrors().isEmpty());
+        final Map<String, Object> data = result.getData();
+        assertEquals(112L, firstValue(data.get("a")));
+        assertEquals(112L, firstValue(data.get("b")));
+        assertEquals(111L, firstValue(data.get("c")));
+        verify(metricsQueryService, times(2)).readBatchMetricsValues(anyList(), any());
+        verify(metricsQueryService, never()).readMetricsValues(any(), any());
+    }
+
+    @Test
+    public void shouldReadOneByOneWhenBatchFails() throws Exception {
+        final Answer<?> batchRead = invocation -> {
+            final List<MetricsCondition> conditions = invocation.getArgument(0);
+            if ("service_cpm".equals(conditions.get(0).getName())) {
+                throw new IOException("batch read failure");
+            }
+            return Collections.singletonList(new MetricsValues());
+        };
+        doAnswer(batchRead).when(metricsQueryService).readBatchMetricsValues(anyList(), any());
+        doAnswer(invocation -> {
+            final MetricsCondition condition = invocation.getArgument(0);
+            if (IDManager.ServiceID.buildId("b", true).equals(condition.getEntity().buildId())) {
+                throw new IOException("single read failure");
+            }
+            return new MetricsValues();
+        }).when(metricsQueryService).readMetricsValues(any(), any());
+        final DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register(MetricsValuesBatchLoader.NAME, MetricsValuesBatchLoader.newDataLoader(moduleManager));
+
+        final ExecutionResult result = graphQL.execute(
+            ExecutionInput.newExecutionInput(QUERY).variables(variables()).dataLoaderRegistry(registry).build());
+
+        assertEquals(1, result.getErrors().size());
+        // only the failed read of b is reported, the other reads of its batch succeed.
+        assertEquals(Collections.singletonList("b"), result.getErrors().get(0).getPath());
+        verify(metricsQueryService, times(2)).readBatchMetricsValues(anyList(), any());
+        verify(metricsQueryService, times(2)).readMetricsValues(any(), any());
+    }
+
+    @Test
+    public void shouldReadImmediatelyWithoutLoader() throws Exception {
+        final MetricsValues values = new MetricsValues();
+        doReturn(values).when(metricsQueryService).readMetricsValues(any(), any());
+
+        final ExecutionResult result = graphQL.execute(
+            ExecutionInput.newExecutionInput(QUERY).variables(variables()).build());
+
+        assertTrue(result.getErrors().toString(), result.getErrors().isEmpty());
+        verify(metricsQueryService, times(3)).readMetricsValues(any(), any());
+        verify(metricsQueryService, never()).readBatchMetricsValues(anyList(), any());
+    }
+
+    private static Map<String, Object> variables() {
+        final Map<String, Object> duration = new HashMap<>();
+        duration.put("start", "2022-10-10 1010");
+        duration.put("end", "2022-10-10 1012");
+        duration.put("step", "MINUTE");
+        return Collections.singletonMap("duration", duration);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object firstValue(Object metricsValues) {
+        final Map<String, Object> values = (Map<String, Object>) ((Map<String, Object>) metricsValues).get("values");
+        return ((List<Map<String, Object>>) values.get("values")).get(0).get("value");
+    }
+}
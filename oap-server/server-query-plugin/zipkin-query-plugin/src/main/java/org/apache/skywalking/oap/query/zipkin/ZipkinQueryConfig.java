@@ -37,4 +37,17 @@ public class ZipkinQueryConfig extends ModuleConfig {
     private String uiEnvironment = "";
     private long uiDefaultLookback = 900000L;
     private boolean uiSearchEnabled = true;
+    /**
+     * The max number of the spans of the complete traces cached by the trace queries, 0 means the traces are not
+     * cached.
+     *
+     * @since 9.3.0
+     */
+    private long traceCacheMaxSpans = 100000;
+    /**
+     * A trace is complete and cached once its latest span ended this time (in milliseconds) ago.
+     *
+     * @since 9.3.0
+     */
+    private long traceCacheSettleTime = 300000L;
 }
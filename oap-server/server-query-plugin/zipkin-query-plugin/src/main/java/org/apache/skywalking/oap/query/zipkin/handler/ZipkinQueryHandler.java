@@ -23,10 +23,12 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.gson.Gson;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
 import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.ResponseHeadersBuilder;
+import com.linecorp.armeria.common.stream.StreamMessage;
 import com.linecorp.armeria.server.annotation.Blocking;
 import com.linecorp.armeria.server.annotation.Default;
 import com.linecorp.armeria.server.annotation.ExceptionHandler;
@@ -34,11 +36,12 @@ import com.linecorp.armeria.server.annotation.Get;
 import com.linecorp.armeria.server.annotation.Param;
 import java.io.IOException;
 import java.io.StringWriter;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -53,7 +56,6 @@ import org.apache.skywalking.oap.query.zipkin.ZipkinQueryConfig;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.library.util.StringUtil;
 import zipkin2.Span;
-import zipkin2.codec.SpanBytesEncoder;
 import zipkin2.storage.QueryRequest;
 
 import static com.linecorp.armeria.common.HttpHeaderNames.CACHE_CONTROL;
@@ -72,6 +74,7 @@ public class ZipkinQueryHandler {
     private TagAutoCompleteQueryService tagQueryService;
     private final long defaultLookback;
     private final int namesMaxAge;
+    private final ZipkinTraceCache traceCache;
     private static final Gson GSON = new Gson();
 
     volatile int serviceCount;
@@ -82,6 +85,7 @@ public class ZipkinQueryHandler {
         this.moduleManager = moduleManager;
         this.defaultLookback = config.getLookback();
         this.namesMaxAge = config.getNamesMaxAge();
+        this.traceCache = new ZipkinTraceCache(config.getTraceCacheMaxSpans(), config.getTraceCacheSettleTime());
     }
 
     private IZipkinQueryDAO getZipkinQueryDAO() {
@@ -144,16 +148,21 @@ public class ZipkinQueryHandler {
         if (StringUtil.isEmpty(traceId)) {
             return AggregatedHttpResponse.of(BAD_REQUEST, ANY_TEXT_TYPE, "traceId is empty or null");
         }
-        List<Span> trace = getZipkinQueryDAO().getTrace(Span.normalizeTraceId(traceId.trim()));
+        String normalizeTraceId = Span.normalizeTraceId(traceId.trim());
+        byte[] cached = traceCache.get(normalizeTraceId);
+        if (cached != null) {
+            return response(cached);
+        }
+        List<Span> trace = getZipkinQueryDAO().getTrace(normalizeTraceId);
         if (CollectionUtils.isEmpty(trace)) {
             return AggregatedHttpResponse.of(NOT_FOUND, ANY_TEXT_TYPE, traceId + " not found");
         }
-        return response(SpanBytesEncoder.JSON_V2.encodeList(trace));
+        return response(traceCache.encode(trace));
     }
 
     @Get("/api/v2/traces")
     @Blocking
-    public AggregatedHttpResponse getTraces(
+    public HttpResponse getTraces(
         @Param("serviceName") Optional<String> serviceName,
         @Param("remoteServiceName") Optional<String> remoteServiceName,
         @Param("spanName") Optional<String> spanName,
@@ -176,26 +185,63 @@ public class ZipkinQueryHandler {
                         .limit(limit)
                         .build();
         List<List<Span>> traces = getZipkinQueryDAO().getTraces(queryRequest);
-        return response(encodeTraces(traces));
+        List<byte[]> encodedTraces = new ArrayList<>(traces.size());
+        for (List<Span> trace : traces) {
+            encodedTraces.add(traceCache.encode(trace));
+        }
+        return tracesResponse(encodedTraces);
     }
 
     @Get("/api/v2/traceMany")
     @Blocking
-    public AggregatedHttpResponse getTracesByIds(@Param("traceIds") String traceIds) throws IOException {
+    public HttpResponse getTracesByIds(@Param("traceIds") String traceIds) throws IOException {
         if (StringUtil.isEmpty(traceIds)) {
-            return AggregatedHttpResponse.of(BAD_REQUEST, ANY_TEXT_TYPE, "traceIds is empty or null");
+            return HttpResponse.of(BAD_REQUEST, ANY_TEXT_TYPE, "traceIds is empty or null");
         }
 
         Set<String> normalizeTraceIds = new LinkedHashSet<>();
         String[] traceIdsArr = traceIds.split(",", 1000);
         for (String traceId : traceIdsArr) {
             if (!normalizeTraceIds.add(Span.normalizeTraceId(traceId.trim()))) {
-                return AggregatedHttpResponse.of(BAD_REQUEST, ANY_TEXT_TYPE, "traceId: " + traceId + " duplicate ");
+                return HttpResponse.of(BAD_REQUEST, ANY_TEXT_TYPE, "traceId: " + traceId + " duplicate ");
             }
         }
 
-        List<List<Span>> traces = getZipkinQueryDAO().getTraces(normalizeTraceIds);
-        return response(encodeTraces(traces));
+        // Only the traces not cached are queried, all in one query.
+        Map<String, byte[]> encodedTraces = new HashMap<>(normalizeTraceIds.size());
+        Set<String> missedTraceIds = new LinkedHashSet<>();
+        for (String traceId : normalizeTraceIds) {
+            byte[] cached = traceCache.get(traceId);
+            if (cached != null) {
+                encodedTraces.put(traceId, cached);
+            } else {
+                missedTraceIds.add(traceId);
+            }
+        }
+        List<byte[]> unmatchedTraces = new ArrayList<>();
+        if (!missedTraceIds.isEmpty()) {
+            for (List<Span> trace : getZipkinQueryDAO().getTraces(missedTraceIds)) {
+                if (CollectionUtils.isEmpty(trace)) {
+                    continue;
+                }
+                byte[] encoded = traceCache.encode(trace);
+                String traceId = trace.get(0).traceId();
+                if (missedTraceIds.contains(traceId) && !encodedTraces.containsKey(traceId)) {
+                    encodedTraces.put(traceId, encoded);
+                } else {
+                    unmatchedTraces.add(encoded);
+                }
+            }
+        }
+        List<byte[]> orderedTraces = new ArrayList<>(encodedTraces.size());
+        for (String traceId : normalizeTraceIds) {
+            byte[] encoded = encodedTraces.remove(traceId);
+            if (encoded != null) {
+                orderedTraces.add(encoded);
+            }
+        }
+        orderedTraces.addAll(unmatchedTraces);
+        return tracesResponse(orderedTraces);
     }
 
     @Get("/api/v2/autocompleteKeys")
@@ -240,31 +286,21 @@ public class ZipkinQueryHandler {
         return AggregatedHttpResponse.of(headers.build(), HttpData.ofUtf8(GSON.toJson(values)));
     }
 
-    private byte[] encodeTraces(List<List<Span>> traces) {
-        if (CollectionUtils.isEmpty(traces)) {
-            return new byte[] {
-                '[',
-                ']'
-            };
-        }
-        List<byte[]> encodedTraces = new ArrayList<>(traces.size());
-        int tracesSize = traces.size();
-        int length = 0;
-        for (List<Span> trace : traces) {
-            byte[] traceByte = SpanBytesEncoder.JSON_V2.encodeList(trace);
-            encodedTraces.add(traceByte);
-            length += traceByte.length;
-        }
-        //bytes length = length + '[' + ']' + join ','
-        byte[] allByteArray = new byte[length + 2 + traces.size() - 1];
-        ByteBuffer buff = ByteBuffer.wrap(allByteArray);
-        buff.put((byte) '[');
-        for (int i = 0; i < tracesSize; i++) {
-            buff.put(encodedTraces.get(i));
-            if (i < tracesSize - 1)
-                buff.put((byte) ',');
+    /**
+     * Send the encoded traces as a JSON list, every trace is a chunk of the response without being copied together.
+     */
+    private HttpResponse tracesResponse(List<byte[]> encodedTraces) {
+        List<HttpData> chunks = new ArrayList<>(encodedTraces.size() * 2 + 1);
+        chunks.add(HttpData.ofUtf8("["));
+        for (int i = 0; i < encodedTraces.size(); i++) {
+            if (i > 0) {
+                chunks.add(HttpData.ofUtf8(","));
+            }
+            chunks.add(HttpData.wrap(encodedTraces.get(i)));
         }
-        buff.put((byte) ']');
-        return buff.array();
+        chunks.add(HttpData.ofUtf8("]"));
+        return HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                              .contentType(MediaType.JSON)
+                                              .build(), StreamMessage.of(chunks.toArray(new HttpData[0])));
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.zipkin.handler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import zipkin2.Span;
+import zipkin2.codec.SpanBytesEncoder;
+
+/**
+ * The encoded JSON of the complete traces. A trace is complete once its latest span ended the settle time ago, its
+ * spans are not going to change anymore, so the trace is encoded once and served from the cache afterwards.
+ */
+class ZipkinTraceCache {
+    /**
+     * Null if the cache is disabled.
+     */
+    private final Cache<String, EncodedTrace> cache;
+    private final long settleTimeMillis;
+
+    ZipkinTraceCache(long maxSpans, long settleTimeMillis) {
+        if (maxSpans > 0) {
+            this.cache = CacheBuilder.newBuilder()
+                                     .maximumWeight(maxSpans)
+                                     .weigher((String traceId, EncodedTrace trace) -> trace.getSpanCount())
+                                     .build();
+        } else {
+            this.cache = null;
+        }
+        this.settleTimeMillis = settleTimeMillis;
+    }
+
+    /**
+     * @return the encoded trace, or null if it is not cached.
+     */
+    byte[] get(String traceId) {
+        if (cache == null) {
+            return null;
+        }
+        final EncodedTrace trace = cache.getIfPresent(traceId);
+        return trace == null ? null : trace.getJson();
+    }
+
+    /**
+     * Encode the spans of the trace as a JSON list, and cache it if the trace is complete.
+     */
+    byte[] encode(List<Span> trace) {
+        final byte[] json = SpanBytesEncoder.JSON_V2.encodeList(trace);
+        if (cache != null && isComplete(trace, System.currentTimeMillis())) {
+            cache.put(trace.get(0).traceId(), new EncodedTrace(json, trace.size()));
+        }
+        return json;
+    }
+
+    boolean isComplete(List<Span> trace, long now) {
+        long latestEnd = 0;
+        for (final Span span : trace) {
+            latestEnd = Math.max(latestEnd, span.timestampAsLong() + span.durationAsLong());
+        }
+        // The timestamp and duration are in microseconds.
+        return latestEnd > 0 && now - latestEnd / 1000 >= settleTimeMillis;
+    }
+
+    long size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class EncodedTrace {
+        private final byte[] json;
+        private final int spanCount;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.zipkin.handler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import zipkin2.Span;
+import zipkin2.codec.SpanBytesEncoder;
+
+public class ZipkinTraceCacheTest {
+    private static final long SETTLE_TIME = TimeUnit.MINUTES.toMillis(5);
+
+    @Test
+    public void testCacheCompleteTrace() {
+        final ZipkinTraceCache cache = new ZipkinTraceCache(100, SETTLE_TIME);
+        final List<Span> trace = trace("1", System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10));
+
+        final byte[] json = cache.encode(trace);
+        Assert.assertArrayEquals(SpanBytesEncoder.JSON_V2.encodeList(trace), json);
+        Assert.assertArrayEquals(json, cache.get(trace.get(0).traceId()));
+    }
+
+    @Test
+    public void testNotCacheRecentTrace() {
+        final ZipkinTraceCache cache = new ZipkinTraceCache(100, SETTLE_TIME);
+        final List<Span> trace = trace("2", System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1));
+
+        Assert.assertNotNull(cache.encode(trace));
+        Assert.assertNull(cache.get(trace.get(0).traceId()));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        final ZipkinTraceCache cache = new ZipkinTraceCache(0, SETTLE_TIME);
+        final List<Span> trace = trace("3", System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10));
+
+        Assert.assertNotNull(cache.encode(trace));
+        Assert.assertNull(cache.get(trace.get(0).traceId()));
+    }
+
+    @Test
+    public void testBoundedBySpans() {
+        final ZipkinTraceCache cache = new ZipkinTraceCache(3, SETTLE_TIME);
+        final long start = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10);
+        for (int i = 0; i < 10; i++) {
+            cache.encode(trace(Integer.toHexString(i + 16), start));
+        }
+        Assert.assertTrue(cache.size() <= 1);
+    }
+
+    private static List<Span> trace(String traceId, long startMillis) {
+        final Span root = Span.newBuilder()
+                              .traceId(traceId)
+                              .id("1")
+                              .name("get")
+                              .timestamp(TimeUnit.MILLISECONDS.toMicros(startMillis))
+                              .duration(1000L)
+                              .build();
+        final Span child = root.toBuilder()
+                               .id("2")
+                               .parentId("1")
+                               .timestamp(TimeUnit.MILLISECONDS.toMicros(startMillis) + 100)
+                               .duration(500L)
+                               .build();
+        return Arrays.asList(root, child);
+    }
+}
@@ -27,14 +27,18 @@ import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.aop.server.receiver.mesh.TelemetryDataDispatcher;
 import org.apache.skywalking.apm.network.servicemesh.v3.ServiceMeshMetric;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.apache.skywalking.oap.server.library.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.receiver.envoy.als.ALSHTTPAnalysis;
 import org.apache.skywalking.oap.server.receiver.envoy.als.AccessLogAnalyzer;
 import org.apache.skywalking.oap.server.receiver.envoy.als.Role;
+import org.apache.skywalking.oap.server.receiver.envoy.als.ServiceMeshMetricsAggregator;
 import org.apache.skywalking.oap.server.receiver.envoy.als.tcp.TCPAccessLogAnalyzer;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
@@ -52,6 +56,10 @@ public class AccessLogServiceGRPCHandler extends AccessLogServiceGrpc.AccessLogS
     private final CounterMetrics counter;
     private final HistogramMetrics histogram;
     private final CounterMetrics sourceDispatcherCounter;
+    /**
+     * Fold the metrics of the HTTP access logs before dispatching, null if the aggregation is disabled.
+     */
+    private final ServiceMeshMetricsAggregator httpMetricsAggregator;
 
     public AccessLogServiceGRPCHandler(ModuleManager manager,
                                        EnvoyMetricReceiverConfig config) throws ModuleStartException {
@@ -91,6 +99,21 @@ public class AccessLogServiceGRPCHandler extends AccessLogServiceGrpc.AccessLogS
             "envoy_als_source_dispatch_count", "The count of envoy ALS metric received", MetricsTag.EMPTY_KEY,
             MetricsTag.EMPTY_VALUE
         );
+
+        if (config.getAlsHTTPAggregationWindow() > 0) {
+            httpMetricsAggregator = new ServiceMeshMetricsAggregator();
+            Executors.newSingleThreadScheduledExecutor()
+                     .scheduleWithFixedDelay(
+                         new RunnableWithExceptionProtection(
+                             () -> httpMetricsAggregator.flush(TelemetryDataDispatcher::process),
+                             t -> LOGGER.error("Failed to dispatch the aggregated ALS metrics.", t)
+                         ),
+                         config.getAlsHTTPAggregationWindow(), config.getAlsHTTPAggregationWindow(),
+                         TimeUnit.MILLISECONDS
+                     );
+        } else {
+            httpMetricsAggregator = null;
+        }
     }
 
     @Override
@@ -143,6 +166,11 @@ public class AccessLogServiceGRPCHandler extends AccessLogServiceGrpc.AccessLogS
                                     sourceResult.addAll(result.getMetrics());
                                 }
                             }
+                            if (httpMetricsAggregator != null) {
+                                sourceDispatcherCounter.inc(sourceResult.size());
+                                sourceResult.forEach(httpMetricsAggregator::aggregate);
+                                sourceResult.clear();
+                            }
 
                             break;
                         case TCP_LOGS:
@@ -37,6 +37,12 @@ public class EnvoyMetricReceiverConfig extends ModuleConfig {
     private String alsTCPAnalysis;
     @Getter
     private String k8sServiceNameRule;
+    /**
+     * The window in milliseconds to fold the metrics of the HTTP access logs with the same source, destination, endpoint
+     * and status before dispatching, 0 means dispatching every access log immediately.
+     */
+    @Getter
+    private long alsHTTPAggregationWindow = 0;
 
     private final ServiceMetaInfoFactory serviceMetaInfoFactory = new ServiceMetaInfoFactoryImpl();
     @Getter
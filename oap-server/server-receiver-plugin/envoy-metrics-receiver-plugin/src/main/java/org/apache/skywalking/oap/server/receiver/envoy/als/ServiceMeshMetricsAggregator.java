@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.envoy.als;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import org.apache.skywalking.apm.network.servicemesh.v3.ServiceMeshMetric;
+
+/**
+ * ServiceMeshMetricsAggregator folds the {@link ServiceMeshMetric}s adapted from the HTTP access logs within a short
+ * window, by the source, destination, endpoint, status, protocol and the other dimensions of the same minute, into an
+ * accumulator of the request count, the latency histogram and the summation of the sidecar internal latencies.
+ *
+ * Every {@link #flush} emits the folded metrics per latency with the number of the requests, which is the weight of the
+ * sources dispatched from it. The sidecar internal latencies are spread over them without changing the summation, then
+ * the metrics calculated from them are the same as from the un-folded ones.
+ */
+public class ServiceMeshMetricsAggregator {
+    private static final long MINUTE_IN_MILLIS = 60_000L;
+
+    private final Map<ServiceMeshMetric, Accumulator> accumulators = new ConcurrentHashMap<>();
+
+    public void aggregate(final ServiceMeshMetric.Builder metrics) {
+        final long startTime = metrics.getStartTime();
+        final ServiceMeshMetric key = metrics.clone()
+                                             .setStartTime(startTime - startTime % MINUTE_IN_MILLIS)
+                                             .clearEndTime()
+                                             .clearLatency()
+                                             .clearInternalRequestLatencyNanos()
+                                             .clearInternalResponseLatencyNanos()
+                                             .build();
+        accumulators.compute(key, (k, accumulator) -> {
+            if (accumulator == null) {
+                accumulator = new Accumulator();
+            }
+            accumulator.add(metrics);
+            return accumulator;
+        });
+    }
+
+    /**
+     * Emit the folded metrics and reset the accumulators, the metrics aggregated concurrently are kept for the next
+     * flush.
+     *
+     * @param emitter accepts the folded metrics and the number of the requests folded into it.
+     */
+    public void flush(final BiConsumer<ServiceMeshMetric.Builder, Long> emitter) {
+        for (final ServiceMeshMetric key : accumulators.keySet()) {
+            final Accumulator accumulator = accumulators.remove(key);
+            if (accumulator != null) {
+                accumulator.emit(key, emitter);
+            }
+        }
+    }
+
+    public int size() {
+        return accumulators.size();
+    }
+
+    /**
+     * Accumulator is only accessed in the {@link ConcurrentHashMap#compute} and after removed from the map, so it
+     * doesn't need more synchronization.
+     */
+    private static class Accumulator {
+        /**
+         * The request count of every latency, in the ascending order.
+         */
+        private final TreeMap<Integer, Long> latencies = new TreeMap<>();
+        private long count;
+        private long internalRequestLatencyNanos;
+        private long internalResponseLatencyNanos;
+
+        private void add(final ServiceMeshMetric.Builder metrics) {
+            latencies.merge(metrics.getLatency(), 1L, Long::sum);
+            count++;
+            internalRequestLatencyNanos += metrics.getInternalRequestLatencyNanos();
+            internalResponseLatencyNanos += metrics.getInternalResponseLatencyNanos();
+        }
+
+        /**
+         * The first {@code internalRequestLatencyNanos % count} requests get one more nanosecond than the average,
+         * so does the response latency, they keep the summations and the average calculated by the OAL.
+         */
+        private void emit(final ServiceMeshMetric key, final BiConsumer<ServiceMeshMetric.Builder, Long> emitter) {
+            final long requestAvg = Math.floorDiv(internalRequestLatencyNanos, count);
+            final long requestRemainder = Math.floorMod(internalRequestLatencyNanos, count);
+            final long responseAvg = Math.floorDiv(internalResponseLatencyNanos, count);
+            final long responseRemainder = Math.floorMod(internalResponseLatencyNanos, count);
+
+            long index = 0;
+            for (final Map.Entry<Integer, Long> latency : latencies.entrySet()) {
+                final long end = index + latency.getValue();
+                while (index < end) {
+                    long runEnd = end;
+                    if (index < requestRemainder) {
+                        runEnd = Math.min(runEnd, requestRemainder);
+                    }
+                    if (index < responseRemainder) {
+                        runEnd = Math.min(runEnd, responseRemainder);
+                    }
+                    final ServiceMeshMetric.Builder metrics =
+                        key.toBuilder()
+                           .setEndTime(key.getStartTime() + latency.getKey())
+                           .setLatency(latency.getKey())
+                           .setInternalRequestLatencyNanos(requestAvg + (index < requestRemainder ? 1 : 0))
+                           .setInternalResponseLatencyNanos(responseAvg + (index < responseRemainder ? 1 : 0));
+                    emitter.accept(metrics, runEnd - index);
+                    index = runEnd;
+                }
+            }
+        }
+    }
+}
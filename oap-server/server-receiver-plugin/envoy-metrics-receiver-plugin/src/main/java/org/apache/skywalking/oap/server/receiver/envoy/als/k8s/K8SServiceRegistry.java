@@ -24,8 +24,10 @@ import static java.util.Optional.ofNullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,6 +44,10 @@ import org.apache.skywalking.library.kubernetes.KubernetesServiceWatcher;
 import org.apache.skywalking.oap.server.library.util.StringUtil;
 import org.apache.skywalking.oap.server.receiver.envoy.EnvoyMetricReceiverConfig;
 import org.apache.skywalking.oap.server.receiver.envoy.als.ServiceMetaInfo;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 import com.google.common.collect.ImmutableMap;
 import io.kubernetes.client.openapi.models.V1Endpoints;
 import io.kubernetes.client.openapi.models.V1Node;
@@ -49,9 +55,15 @@ import io.kubernetes.client.openapi.models.V1NodeAddress;
 import io.kubernetes.client.openapi.models.V1NodeStatus;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodStatus;
 import io.kubernetes.client.openapi.models.V1Service;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * K8SServiceRegistry maps the IPs of the pods to the services, by the endpoints of the services. The mapping of an IP is
+ * only re-composed when the pod, service or endpoints of it changes, and the pod and endpoints which don't own the IP
+ * any more, such as a deleted pod whose IP is reused by a new one, can't remove or override the mapping.
+ */
 @Slf4j
 public class K8SServiceRegistry
     implements KubernetesServiceListener, KubernetesPodListener,
@@ -64,13 +76,19 @@ public class K8SServiceRegistry
 
     protected final Map<String/* ip */, String/* namespace:serviceName */> ipServiceMap;
 
+    protected final Map<String/* namespace:serviceName */, Set<String/* ip */>> serviceIPsMap;
+
     protected final ServiceNameFormatter serviceNameFormatter;
 
     private final EnvoyMetricReceiverConfig config;
 
     private final Set<String> nodeIPs = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
-    public K8SServiceRegistry(final EnvoyMetricReceiverConfig config) {
+    private final CounterMetrics lookupHitCounter;
+    private final CounterMetrics lookupMissCounter;
+    private final HistogramMetrics updateLatency;
+
+    public K8SServiceRegistry(final EnvoyMetricReceiverConfig config, final MetricsCreator metricsCreator) {
         this.config = config;
 
         serviceNameFormatter = new ServiceNameFormatter(config.getK8sServiceNameRule());
@@ -78,6 +96,21 @@ public class K8SServiceRegistry
         idServiceMap = new ConcurrentHashMap<>();
         ipPodMap = new ConcurrentHashMap<>();
         ipServiceMap = new ConcurrentHashMap<>();
+        serviceIPsMap = new ConcurrentHashMap<>();
+
+        lookupHitCounter = metricsCreator.createCounter(
+            "k8s_als_service_lookup_count", "The count of looking up the service of the IPs in the K8s ALS analysis",
+            new MetricsTag.Keys("result"), new MetricsTag.Values("hit")
+        );
+        lookupMissCounter = metricsCreator.createCounter(
+            "k8s_als_service_lookup_count", "The count of looking up the service of the IPs in the K8s ALS analysis",
+            new MetricsTag.Keys("result"), new MetricsTag.Values("miss")
+        );
+        updateLatency = metricsCreator.createHistogramMetric(
+            "k8s_als_service_registry_update_latency",
+            "The latency of updating the IP to service registry of the K8s ALS analysis",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
     }
 
     public void start() throws IOException {
@@ -89,18 +122,20 @@ public class K8SServiceRegistry
 
     @Override
     public void onServiceAdded(final V1Service service) {
-        ofNullable(service.getMetadata()).ifPresent(
-            metadata -> idServiceMap.put(metadata.getNamespace() + ":" + metadata.getName(), service)
-        );
-
-        recompose();
+        ofNullable(service.getMetadata()).ifPresent(metadata -> update(() -> {
+            final String id = metadata.getNamespace() + ":" + metadata.getName();
+            idServiceMap.put(id, service);
+            recompose(serviceIPsMap.getOrDefault(id, Collections.emptySet()));
+        }));
     }
 
     @Override
     public void onServiceDeleted(final V1Service service) {
-        ofNullable(service.getMetadata()).ifPresent(
-            metadata -> idServiceMap.remove(metadata.getNamespace() + ":" + metadata.getName())
-        );
+        ofNullable(service.getMetadata()).ifPresent(metadata -> update(() -> {
+            final String id = metadata.getNamespace() + ":" + metadata.getName();
+            idServiceMap.remove(id);
+            recompose(serviceIPsMap.getOrDefault(id, Collections.emptySet()));
+        }));
     }
 
     @Override
@@ -110,53 +145,74 @@ public class K8SServiceRegistry
 
     @Override
     public void onPodAdded(final V1Pod pod) {
-        ofNullable(pod.getStatus()).flatMap(status -> ofNullable(status.getPodIP())).ifPresent(podIP -> ipPodMap.put(podIP, pod));
-
-        recompose();
+        podIP(pod).ifPresent(podIP -> update(() -> {
+            ipPodMap.put(podIP, pod);
+            recompose(podIP);
+        }));
     }
 
     @Override
     public void onPodDeleted(final V1Pod pod) {
-        ofNullable(pod.getStatus()).flatMap(status -> ofNullable(status.getPodIP())).ifPresent(ipPodMap::remove);
+        podIP(pod).ifPresent(podIP -> update(() -> {
+            // The IP may have been reused by another pod.
+            if (ipPodMap.computeIfPresent(podIP, (ip, current) -> isSamePod(current, pod) ? null : current) == null) {
+                recompose(podIP);
+            }
+        }));
     }
 
     @Override
     public void onPodUpdated(V1Pod oldPod, V1Pod newPod) {
+        final Optional<String> oldIP = podIP(oldPod);
+        if (oldIP.isPresent() && !oldIP.equals(podIP(newPod))) {
+            onPodDeleted(oldPod);
+        }
         onPodAdded(newPod);
     }
 
     @Override
     public void onEndpointsAdded(final V1Endpoints endpoints) {
-        V1ObjectMeta endpointsMetadata = endpoints.getMetadata();
-        if (isNull(endpointsMetadata)) {
-            log.error("Endpoints metadata is null: {}", endpoints);
-            return;
-        }
-
-        final String namespace = endpointsMetadata.getNamespace();
-        final String name = endpointsMetadata.getName();
-
-        ofNullable(endpoints.getSubsets()).ifPresent(subsets -> subsets.forEach(
-            subset -> ofNullable(subset.getAddresses()).ifPresent(addresses -> addresses.forEach(
-                address -> ofNullable(address.getIp()).ifPresent(ip -> ipServiceMap.put(ip, namespace + ":" + name))
-            ))
-        ));
-
-        recompose();
+        onEndpointsUpdated(null, endpoints);
     }
 
     @Override
     public void onEndpointsDeleted(final V1Endpoints endpoints) {
-        ofNullable(endpoints.getSubsets()).ifPresent(subsets -> subsets.forEach(
-            subset -> ofNullable(subset.getAddresses()).ifPresent(addresses -> addresses.forEach(
-                address -> ofNullable(address.getIp()).ifPresent(ipServiceMap::remove)
-            ))
-        ));
+        onEndpointsUpdated(endpoints, null);
     }
 
     @Override
     public void onEndpointsUpdated(V1Endpoints oldEndpoints, V1Endpoints newEndpoints) {
-        onEndpointsAdded(newEndpoints);
+        final V1Endpoints endpoints = newEndpoints != null ? newEndpoints : oldEndpoints;
+        final V1ObjectMeta endpointsMetadata = endpoints.getMetadata();
+        if (isNull(endpointsMetadata)) {
+            log.error("Endpoints metadata is null: {}", endpoints);
+            return;
+        }
+        final String id = endpointsMetadata.getNamespace() + ":" + endpointsMetadata.getName();
+
+        update(() -> {
+            final Set<String> ips = new HashSet<>();
+            forEachAddress(newEndpoints, ips::add);
+            final Set<String> affected = new HashSet<>(ips);
+            forEachAddress(oldEndpoints, affected::add);
+            // The addresses known by this registry, in case they are different from the old endpoints.
+            affected.addAll(serviceIPsMap.getOrDefault(id, Collections.emptySet()));
+
+            for (final String ip : affected) {
+                if (ips.contains(ip)) {
+                    ipServiceMap.put(ip, id);
+                } else {
+                    // The IP may have been moved to the endpoints of another service.
+                    ipServiceMap.remove(ip, id);
+                }
+            }
+            if (ips.isEmpty()) {
+                serviceIPsMap.remove(id);
+            } else {
+                serviceIPsMap.put(id, Collections.unmodifiableSet(ips));
+            }
+            recompose(affected);
+        });
     }
 
     @Override
@@ -174,6 +230,15 @@ public class K8SServiceRegistry
         forEachAddress(node, nodeIPs::remove);
     }
 
+    protected void forEachAddress(final V1Endpoints endpoints,
+                                  final Consumer<String> consume) {
+        ofNullable(endpoints).map(V1Endpoints::getSubsets).ifPresent(subsets -> subsets.forEach(
+            subset -> ofNullable(subset.getAddresses()).ifPresent(addresses -> addresses.forEach(
+                address -> ofNullable(address.getIp()).ifPresent(consume)
+            ))
+        ));
+    }
+
     protected void forEachAddress(final V1Node node,
                                   final Consumer<String> consume) {
         Optional.ofNullable(node)
@@ -207,27 +272,48 @@ public class K8SServiceRegistry
         }
         final ServiceMetaInfo service = ipServiceMetaInfoMap.get(ip);
         if (isNull(service)) {
+            lookupMissCounter.inc();
             log.debug("Unknown ip {}, ip -> service is null", ip);
             return config.serviceMetaInfoFactory().unknown();
         }
+        lookupHitCounter.inc();
         return service;
     }
 
-    protected void recompose() {
-        ipPodMap.forEach((ip, pod) -> {
-            final String namespaceService = ipServiceMap.get(ip);
-            final V1Service service;
-            if (isNullOrEmpty(namespaceService) || isNull(service = idServiceMap.get(namespaceService))) {
-                return;
-            }
+    /**
+     * The updates are serialized, as the IP mapping is composed of the pod, endpoints and service, which are watched
+     * by different informers.
+     */
+    private synchronized void update(final Runnable update) {
+        try (HistogramMetrics.Timer ignored = updateLatency.createTimer()) {
+            update.run();
+        }
+    }
 
-            if (isNull(pod.getMetadata())) {
-                log.warn("Pod metadata is null, {}", pod);
-                return;
-            }
+    protected void recompose(final Set<String> ips) {
+        ips.forEach(this::recompose);
+    }
 
-            ipServiceMetaInfoMap.computeIfAbsent(ip, unused -> composeServiceMetaInfo(service, pod));
-        });
+    /**
+     * Compose the service meta info of the IP by the current pod, endpoints and service of it, or remove it if any of
+     * them is absent.
+     */
+    protected void recompose(final String ip) {
+        final V1Pod pod = ipPodMap.get(ip);
+        final String namespaceService = ipServiceMap.get(ip);
+        final V1Service service;
+        if (isNull(pod) || isNullOrEmpty(namespaceService) || isNull(service = idServiceMap.get(namespaceService))) {
+            ipServiceMetaInfoMap.remove(ip);
+            return;
+        }
+
+        if (isNull(pod.getMetadata())) {
+            log.warn("Pod metadata is null, {}", pod);
+            ipServiceMetaInfoMap.remove(ip);
+            return;
+        }
+
+        ipServiceMetaInfoMap.put(ip, composeServiceMetaInfo(service, pod));
     }
 
     protected ServiceMetaInfo composeServiceMetaInfo(final V1Service service, final V1Pod pod) {
@@ -253,6 +339,23 @@ public class K8SServiceRegistry
         return serviceMetaInfo;
     }
 
+    private static Optional<String> podIP(final V1Pod pod) {
+        return ofNullable(pod).map(V1Pod::getStatus).map(V1PodStatus::getPodIP).filter(StringUtil::isNotBlank);
+    }
+
+    private static boolean isSamePod(final V1Pod pod, final V1Pod another) {
+        final V1ObjectMeta metadata = pod.getMetadata();
+        final V1ObjectMeta anotherMetadata = another.getMetadata();
+        if (isNull(metadata) || isNull(anotherMetadata)) {
+            return metadata == anotherMetadata;
+        }
+        if (!isNullOrEmpty(metadata.getUid()) && !isNullOrEmpty(anotherMetadata.getUid())) {
+            return metadata.getUid().equals(anotherMetadata.getUid());
+        }
+        return Objects.equals(metadata.getNamespace(), anotherMetadata.getNamespace())
+            && Objects.equals(metadata.getName(), anotherMetadata.getName());
+    }
+
     public boolean isNode(final String ip) {
         return nodeIPs.contains(ip);
     }
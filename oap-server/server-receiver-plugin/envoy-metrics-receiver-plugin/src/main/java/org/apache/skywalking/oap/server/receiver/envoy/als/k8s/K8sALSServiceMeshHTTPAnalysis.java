@@ -34,6 +34,8 @@ import org.apache.skywalking.oap.server.receiver.envoy.ServiceMetaInfoFactory;
 import org.apache.skywalking.oap.server.receiver.envoy.als.AbstractALSAnalyzer;
 import org.apache.skywalking.oap.server.receiver.envoy.als.Role;
 import org.apache.skywalking.oap.server.receiver.envoy.als.ServiceMetaInfo;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 import static org.apache.skywalking.oap.server.library.util.StringUtil.isBlank;
 import static org.apache.skywalking.oap.server.library.util.CollectionUtils.isNotEmpty;
@@ -58,7 +60,8 @@ public class K8sALSServiceMeshHTTPAnalysis extends AbstractALSAnalyzer {
     @SneakyThrows
     public void init(ModuleManager manager, EnvoyMetricReceiverConfig config) {
         this.config = config;
-        serviceRegistry = new K8SServiceRegistry(config);
+        serviceRegistry = new K8SServiceRegistry(
+            config, manager.find(TelemetryModule.NAME).provider().getService(MetricsCreator.class));
         serviceRegistry.start();
     }
 
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.envoy.als;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.network.common.v3.DetectPoint;
+import org.apache.skywalking.apm.network.servicemesh.v3.ServiceMeshMetric;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServiceMeshMetricsAggregatorTest {
+    private static final long START_TIME = 1665000000000L;
+
+    @Test
+    public void testFoldKeepsOALInputs() {
+        final ServiceMeshMetricsAggregator aggregator = new ServiceMeshMetricsAggregator();
+        final int[] latencies = {10, 20, 10, 30, 10, 20, 10};
+        final long[] requestNanos = {1000, 1003, -5, 2000, 7, 0, 11};
+        final long[] responseNanos = {-100, 30, 40, 50, 61, 70, 80};
+        for (int i = 0; i < latencies.length; i++) {
+            aggregator.aggregate(metrics("productpage", "/productpage", true)
+                                     .setStartTime(START_TIME + i * 1000)
+                                     .setLatency(latencies[i])
+                                     .setInternalRequestLatencyNanos(requestNanos[i])
+                                     .setInternalResponseLatencyNanos(responseNanos[i]));
+        }
+        aggregator.aggregate(metrics("productpage", "/productpage", false).setStartTime(START_TIME).setLatency(5));
+        aggregator.aggregate(metrics("productpage", "/details", true).setStartTime(START_TIME).setLatency(5));
+        // the next minute
+        aggregator.aggregate(metrics("productpage", "/productpage", true).setStartTime(START_TIME + 60_000)
+                                                                          .setLatency(10));
+        Assert.assertEquals(4, aggregator.size());
+
+        final List<ServiceMeshMetric.Builder> folded = new ArrayList<>();
+        final List<Long> counts = new ArrayList<>();
+        aggregator.flush((metrics, count) -> {
+            folded.add(metrics);
+            counts.add(count);
+        });
+        Assert.assertEquals(0, aggregator.size());
+
+        long count = 0;
+        long latency = 0;
+        long latencyOf10 = 0;
+        long requestNanosSum = 0;
+        long responseNanosSum = 0;
+        for (int i = 0; i < folded.size(); i++) {
+            final ServiceMeshMetric.Builder metrics = folded.get(i);
+            if (!metrics.getStatus() || !metrics.getEndpoint().equals("/productpage")
+                || metrics.getStartTime() != START_TIME) {
+                Assert.assertEquals(1L, (long) counts.get(i));
+                continue;
+            }
+            Assert.assertEquals("productpage", metrics.getDestServiceName());
+            Assert.assertEquals(DetectPoint.server, metrics.getDetectPoint());
+            count += counts.get(i);
+            latency += metrics.getLatency() * counts.get(i);
+            latencyOf10 += metrics.getLatency() == 10 ? counts.get(i) : 0;
+            requestNanosSum += metrics.getInternalRequestLatencyNanos() * counts.get(i);
+            responseNanosSum += metrics.getInternalResponseLatencyNanos() * counts.get(i);
+        }
+        Assert.assertEquals(latencies.length, count);
+        Assert.assertEquals(110, latency);
+        Assert.assertEquals(4, latencyOf10);
+        Assert.assertEquals(4016, requestNanosSum);
+        Assert.assertEquals(231, responseNanosSum);
+    }
+
+    private static ServiceMeshMetric.Builder metrics(String service, String endpoint, boolean status) {
+        return ServiceMeshMetric.newBuilder()
+                                .setSourceServiceName("gateway")
+                                .setSourceServiceInstance("gateway-0")
+                                .setDestServiceName(service)
+                                .setDestServiceInstance(service + "-0")
+                                .setEndpoint(endpoint)
+                                .setStatus(status)
+                                .setResponseCode(status ? 200 : 503)
+                                .setDetectPoint(DetectPoint.server);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.envoy.als.k8s;
+
+import io.kubernetes.client.openapi.models.V1EndpointAddress;
+import io.kubernetes.client.openapi.models.V1EndpointSubset;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import io.kubernetes.client.openapi.models.V1Service;
+import org.apache.skywalking.oap.server.receiver.envoy.EnvoyMetricReceiverConfig;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+public class K8SServiceRegistryTest {
+    private EnvoyMetricReceiverConfig config;
+    private K8SServiceRegistry registry;
+
+    @Before
+    public void setUp() {
+        config = new EnvoyMetricReceiverConfig();
+        Whitebox.setInternalState(config, "k8sServiceNameRule", "${service.metadata.name}");
+        registry = new K8SServiceRegistry(config, new MetricsCreatorNoop());
+    }
+
+    @Test
+    public void testComposeInAnyOrder() {
+        registry.onPodAdded(pod("reviews-v1", "uid-1", "10.0.0.1"));
+        Assert.assertTrue(registry.isEmpty());
+        registry.onEndpointsAdded(endpoints("reviews", "10.0.0.1"));
+        Assert.assertTrue(registry.isEmpty());
+        registry.onServiceAdded(service("reviews"));
+        Assert.assertEquals("reviews", registry.findService("10.0.0.1").getServiceName());
+        Assert.assertEquals("reviews-v1.default", registry.findService("10.0.0.1").getServiceInstanceName());
+
+        registry.onEndpointsAdded(endpoints("details", "10.0.0.2"));
+        registry.onServiceAdded(service("details"));
+        registry.onPodAdded(pod("details-v1", "uid-2", "10.0.0.2"));
+        Assert.assertEquals("details", registry.findService("10.0.0.2").getServiceName());
+
+        registry.onServiceDeleted(service("details"));
+        Assert.assertEquals(config.serviceMetaInfoFactory().unknown(), registry.findService("10.0.0.2"));
+        Assert.assertEquals("reviews", registry.findService("10.0.0.1").getServiceName());
+    }
+
+    @Test
+    public void testReusedPodIP() {
+        registry.onServiceAdded(service("reviews"));
+        registry.onEndpointsAdded(endpoints("reviews", "10.0.0.1"));
+        final V1Pod oldPod = pod("reviews-v1-a", "uid-1", "10.0.0.1");
+        registry.onPodAdded(oldPod);
+        Assert.assertEquals("reviews-v1-a.default", registry.findService("10.0.0.1").getServiceInstanceName());
+
+        // The new pod reuses the IP before the deletion of the old one is observed.
+        registry.onPodAdded(pod("reviews-v1-b", "uid-2", "10.0.0.1"));
+        Assert.assertEquals("reviews-v1-b.default", registry.findService("10.0.0.1").getServiceInstanceName());
+        registry.onPodDeleted(oldPod);
+        Assert.assertEquals("reviews-v1-b.default", registry.findService("10.0.0.1").getServiceInstanceName());
+    }
+
+    @Test
+    public void testMovedEndpointsAddress() {
+        registry.onServiceAdded(service("reviews"));
+        registry.onServiceAdded(service("ratings"));
+        registry.onPodAdded(pod("pod-1", "uid-1", "10.0.0.1"));
+        final V1Endpoints reviews = endpoints("reviews", "10.0.0.1");
+        registry.onEndpointsAdded(reviews);
+        Assert.assertEquals("reviews", registry.findService("10.0.0.1").getServiceName());
+
+        registry.onEndpointsAdded(endpoints("ratings", "10.0.0.1"));
+        registry.onEndpointsUpdated(reviews, endpoints("reviews"));
+        Assert.assertEquals("ratings", registry.findService("10.0.0.1").getServiceName());
+
+        registry.onEndpointsDeleted(endpoints("ratings", "10.0.0.1"));
+        Assert.assertTrue(registry.isEmpty());
+    }
+
+    private static V1Pod pod(String name, String uid, String ip) {
+        return new V1Pod().metadata(new V1ObjectMeta().namespace("default").name(name).uid(uid))
+                          .status(new V1PodStatus().podIP(ip));
+    }
+
+    private static V1Service service(String name) {
+        return new V1Service().metadata(new V1ObjectMeta().namespace("default").name(name));
+    }
+
+    private static V1Endpoints endpoints(String name, String... ips) {
+        final V1EndpointSubset subset = new V1EndpointSubset();
+        for (final String ip : ips) {
+            subset.addAddressesItem(new V1EndpointAddress().ip(ip));
+        }
+        return new V1Endpoints().metadata(new V1ObjectMeta().namespace("default").name(name)).addSubsetsItem(subset);
+    }
+}
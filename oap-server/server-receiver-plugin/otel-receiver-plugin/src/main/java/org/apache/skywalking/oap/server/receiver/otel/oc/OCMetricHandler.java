@@ -39,7 +39,7 @@ import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.oap.server.library.util.StringUtil;
 import org.apache.skywalking.oap.meter.analyzer.MetricConvert;
-import org.apache.skywalking.oap.meter.analyzer.prometheus.PrometheusMetricConverter;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.PrometheusMetricRouter;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rules;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
@@ -51,11 +51,10 @@ import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Histogra
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Summary;
 import org.apache.skywalking.oap.server.receiver.otel.Handler;
 import org.apache.skywalking.oap.server.receiver.otel.OtelMetricReceiverConfig;
-import static java.util.stream.Collectors.toList;
 
 public class OCMetricHandler extends MetricsServiceGrpc.MetricsServiceImplBase implements Handler {
     private static final String HOST_NAME_LABEL = "node_identifier_host_name";
-    private List<PrometheusMetricConverter> converters;
+    private PrometheusMetricRouter router;
 
     @Override public StreamObserver<ExportMetricsServiceRequest> export(
         StreamObserver<ExportMetricsServiceResponse> responseObserver) {
@@ -86,7 +85,7 @@ public class OCMetricHandler extends MetricsServiceGrpc.MetricsServiceImplBase i
                         nodeLabels.put(HOST_NAME_LABEL, resource.getLabelsMap().get("net.host.name"));
                     }
                 }
-                converters.forEach(m -> m.toMeter(request.getMetricsList().stream()
+                router.toMeter(request.getMetricsList().stream()
                     .flatMap(metric -> metric.getTimeseriesList().stream().map(timeSeries ->
                         Tuple.of(metric.getMetricDescriptor(),
                                  buildLabelsFromNodeInfo(
@@ -119,7 +118,7 @@ public class OCMetricHandler extends MetricsServiceGrpc.MetricsServiceImplBase i
                                 throw new UnsupportedOperationException("Unsupported OC type:" + t._1.getType());
                         }
                     }))
-                    .flatMap(tryIt -> MetricConvert.log(tryIt, "Convert OC metric to prometheus metric"))));
+                    .flatMap(tryIt -> MetricConvert.log(tryIt, "Convert OC metric to prometheus metric")));
             }
 
             @Override public void onError(Throwable throwable) {
@@ -185,8 +184,7 @@ public class OCMetricHandler extends MetricsServiceGrpc.MetricsServiceImplBase i
         if (rules.isEmpty()) {
             return;
         }
-        this.converters = rules.stream().map(r -> new PrometheusMetricConverter(r, meterSystem))
-            .collect(toList());
+        this.router = new PrometheusMetricRouter(rules, meterSystem);
         grpcHandlerRegister.addHandler(this);
     }
 }
@@ -19,7 +19,6 @@
 package org.apache.skywalking.oap.server.receiver.otel.otlp;
 
 import static io.opentelemetry.proto.metrics.v1.AggregationTemporality.AGGREGATION_TEMPORALITY_CUMULATIVE;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import java.util.HashMap;
 import java.util.List;
@@ -27,7 +26,7 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import org.apache.skywalking.oap.meter.analyzer.MetricConvert;
-import org.apache.skywalking.oap.meter.analyzer.prometheus.PrometheusMetricConverter;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.PrometheusMetricRouter;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rules;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
@@ -65,7 +64,7 @@ public class OpenTelemetryMetricHandler
             .put("job", "job_name")
             .put("service.name", "job_name")
             .build();
-    private List<PrometheusMetricConverter> converters;
+    private PrometheusMetricRouter router;
 
     @Override
     public String type() {
@@ -87,10 +86,7 @@ public class OpenTelemetryMetricHandler
             return;
         }
 
-        converters = rules
-            .stream()
-            .map(r -> new PrometheusMetricConverter(r, service))
-            .collect(toList());
+        router = new PrometheusMetricRouter(rules, service);
 
         grpcHandlerRegister.addHandler(this);
     }
@@ -113,20 +109,19 @@ public class OpenTelemetryMetricHandler
                     .collect(toMap(
                         it -> LABEL_MAPPINGS
                             .getOrDefault(it.getKey(), it.getKey())
-                            .replaceAll("\\.", "_"),
+                            .replace('.', '_'),
                         it -> it.getValue().getStringValue(),
                         (v1, v2) -> v1));
 
-            converters
-                .forEach(convert -> convert.toMeter(
-                    request
-                        .getScopeMetricsList().stream()
-                        .flatMap(scopeMetrics -> scopeMetrics
-                            .getMetricsList().stream()
-                            .flatMap(metric -> adaptMetrics(nodeLabels, metric))
-                            .map(Function1.liftTry(Function.identity()))
-                            .flatMap(tryIt -> MetricConvert.log(tryIt,
-                                "Convert OTEL metric to prometheus metric")))));
+            router.toMeter(
+                request
+                    .getScopeMetricsList().stream()
+                    .flatMap(scopeMetrics -> scopeMetrics
+                        .getMetricsList().stream()
+                        .flatMap(metric -> adaptMetrics(nodeLabels, metric))
+                        .map(Function1.liftTry(Function.identity()))
+                        .flatMap(tryIt -> MetricConvert.log(tryIt,
+                            "Convert OTEL metric to prometheus metric"))));
         });
 
         responseObserver.onNext(ExportMetricsServiceResponse.getDefaultInstance());
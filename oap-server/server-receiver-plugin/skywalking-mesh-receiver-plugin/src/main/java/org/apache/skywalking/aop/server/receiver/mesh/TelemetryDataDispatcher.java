@@ -35,6 +35,7 @@ import org.apache.skywalking.oap.server.core.source.ServiceInstance;
 import org.apache.skywalking.oap.server.core.source.ServiceInstanceRelation;
 import org.apache.skywalking.oap.server.core.source.ServiceInstanceUpdate;
 import org.apache.skywalking.oap.server.core.source.ServiceRelation;
+import org.apache.skywalking.oap.server.core.source.Source;
 import org.apache.skywalking.oap.server.core.source.SourceReceiver;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.StringUtil;
@@ -79,6 +80,18 @@ public class TelemetryDataDispatcher {
     }
 
     public static void process(ServiceMeshMetric.Builder data) {
+        process(data, 1);
+    }
+
+    /**
+     * Process the telemetry data folded from the given number of the identical ones, such as the pre-aggregated access
+     * logs. The sources are built and received once, weighted by the number of the folded ones, so the metrics are the
+     * same as processing them one by one.
+     *
+     * @param data  of the folded telemetry.
+     * @param count of the folded telemetry, positive.
+     */
+    public static void process(ServiceMeshMetric.Builder data, long count) {
         try (HistogramMetrics.Timer ignored = MESH_ANALYSIS_METRICS.createTimer()) {
             if (data.getSourceServiceName() != null) {
                 data.setSourceServiceName(NAME_LENGTH_CONTROL.formatServiceName(data.getSourceServiceName()));
@@ -100,32 +113,32 @@ public class TelemetryDataDispatcher {
                 data.setInternalErrorCode(Const.EMPTY_STRING);
             }
 
-            doDispatch(data);
+            doDispatch(data, count);
         } catch (Exception e) {
             MESH_ERROR_METRICS.inc();
             log.error(e.getMessage(), e);
         }
     }
 
-    static void doDispatch(ServiceMeshMetric.Builder metrics) {
+    static void doDispatch(ServiceMeshMetric.Builder metrics, long count) {
         long minuteTimeBucket = TimeBucket.getMinuteTimeBucket(metrics.getStartTime());
 
         if (org.apache.skywalking.apm.network.common.v3.DetectPoint.server.equals(metrics.getDetectPoint())) {
-            toService(metrics, minuteTimeBucket);
-            toServiceInstance(metrics, minuteTimeBucket);
+            toService(metrics, minuteTimeBucket, count);
+            toServiceInstance(metrics, minuteTimeBucket, count);
             toServiceInstanceTraffic(metrics, minuteTimeBucket);
-            toEndpoint(metrics, minuteTimeBucket);
+            toEndpoint(metrics, minuteTimeBucket, count);
         }
 
         String sourceService = metrics.getSourceServiceName();
         // Don't generate relation, if no source.
         if (StringUtil.isNotEmpty(sourceService)) {
-            toServiceRelation(metrics, minuteTimeBucket);
-            toServiceInstanceRelation(metrics, minuteTimeBucket);
+            toServiceRelation(metrics, minuteTimeBucket, count);
+            toServiceInstanceRelation(metrics, minuteTimeBucket, count);
         }
     }
 
-    private static void toService(ServiceMeshMetric.Builder metrics, long minuteTimeBucket) {
+    private static void toService(ServiceMeshMetric.Builder metrics, long minuteTimeBucket, long count) {
         Service service = new Service();
         service.setTimeBucket(minuteTimeBucket);
         service.setName(metrics.getDestServiceName());
@@ -142,10 +155,10 @@ public class TelemetryDataDispatcher {
         service.getTcpInfo().setReceivedBytes(metrics.getTcp().getReceivedBytes());
         service.getTcpInfo().setSentBytes(metrics.getTcp().getSentBytes());
 
-        SOURCE_RECEIVER.receive(service);
+        receive(service, count);
     }
 
-    private static void toServiceRelation(ServiceMeshMetric.Builder metrics, long minuteTimeBucket) {
+    private static void toServiceRelation(ServiceMeshMetric.Builder metrics, long minuteTimeBucket, long count) {
         ServiceRelation serviceRelation = new ServiceRelation();
         serviceRelation.setTimeBucket(minuteTimeBucket);
         serviceRelation.setSourceServiceName(metrics.getSourceServiceName());
@@ -168,10 +181,10 @@ public class TelemetryDataDispatcher {
         serviceRelation.getTcpInfo().setReceivedBytes(metrics.getTcp().getReceivedBytes());
         serviceRelation.getTcpInfo().setSentBytes(metrics.getTcp().getSentBytes());
 
-        SOURCE_RECEIVER.receive(serviceRelation);
+        receive(serviceRelation, count);
     }
 
-    private static void toServiceInstance(ServiceMeshMetric.Builder metrics, long minuteTimeBucket) {
+    private static void toServiceInstance(ServiceMeshMetric.Builder metrics, long minuteTimeBucket, long count) {
         ServiceInstance serviceInstance = new ServiceInstance();
         serviceInstance.setTimeBucket(minuteTimeBucket);
         serviceInstance.setName(metrics.getDestServiceInstance());
@@ -188,7 +201,7 @@ public class TelemetryDataDispatcher {
         serviceInstance.getTcpInfo().setReceivedBytes(metrics.getTcp().getReceivedBytes());
         serviceInstance.getTcpInfo().setSentBytes(metrics.getTcp().getSentBytes());
 
-        SOURCE_RECEIVER.receive(serviceInstance);
+        receive(serviceInstance, count);
     }
 
     private static void toServiceInstanceTraffic(ServiceMeshMetric.Builder metrics, long minuteTimeBucket) {
@@ -207,7 +220,9 @@ public class TelemetryDataDispatcher {
         SOURCE_RECEIVER.receive(instanceTraffic);
     }
 
-    private static void toServiceInstanceRelation(ServiceMeshMetric.Builder metrics, long minuteTimeBucket) {
+    private static void toServiceInstanceRelation(ServiceMeshMetric.Builder metrics,
+                                                  long minuteTimeBucket,
+                                                  long count) {
         ServiceInstanceRelation serviceRelation = new ServiceInstanceRelation();
         serviceRelation.setTimeBucket(minuteTimeBucket);
         serviceRelation.setSourceServiceInstanceName(metrics.getSourceServiceInstance());
@@ -231,10 +246,10 @@ public class TelemetryDataDispatcher {
         serviceRelation.getTcpInfo().setReceivedBytes(metrics.getTcp().getReceivedBytes());
         serviceRelation.getTcpInfo().setSentBytes(metrics.getTcp().getSentBytes());
 
-        SOURCE_RECEIVER.receive(serviceRelation);
+        receive(serviceRelation, count);
     }
 
-    private static void toEndpoint(ServiceMeshMetric.Builder metrics, long minuteTimeBucket) {
+    private static void toEndpoint(ServiceMeshMetric.Builder metrics, long minuteTimeBucket, long count) {
         if (StringUtil.isEmpty(metrics.getEndpoint())) {
             return;
         }
@@ -252,7 +267,12 @@ public class TelemetryDataDispatcher {
         endpoint.getSideCar().setInternalRequestLatencyNanos(metrics.getInternalRequestLatencyNanos());
         endpoint.getSideCar().setInternalResponseLatencyNanos(metrics.getInternalResponseLatencyNanos());
 
-        SOURCE_RECEIVER.receive(endpoint);
+        receive(endpoint, count);
+    }
+
+    private static void receive(Source source, long count) {
+        source.setWeight(count);
+        SOURCE_RECEIVER.receive(source);
     }
 
     private static RequestType protocol2Type(Protocol protocol) {
@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegisterImpl;
 import org.apache.skywalking.oap.server.core.server.HTTPHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.HTTPHandlerRegisterImpl;
+import org.apache.skywalking.oap.server.core.server.admission.AdmissionControlInterceptor;
 import org.apache.skywalking.oap.server.core.server.auth.AuthenticationInterceptor;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleDefine;
@@ -141,6 +142,11 @@ public class SharingServerModuleProvider extends ModuleProvider {
     public void start() {
         if (Objects.nonNull(grpcServer)) {
             grpcServer.addHandler(new HealthCheckServiceHandler());
+            AdmissionControlInterceptor admissionControlInterceptor =
+                getManager().find(CoreModule.NAME).provider().getService(AdmissionControlInterceptor.class);
+            if (admissionControlInterceptor.isEnabled()) {
+                grpcServer.addHandler(admissionControlInterceptor);
+            }
         }
 
         if (Objects.nonNull(receiverGRPCHandlerRegister)) {
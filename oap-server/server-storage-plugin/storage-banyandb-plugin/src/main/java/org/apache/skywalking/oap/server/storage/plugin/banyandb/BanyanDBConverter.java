@@ -216,7 +216,11 @@ public class BanyanDBConverter {
         private final DataPoint dataPoint;
 
         public StorageToMeasure(String modelName, DataPoint dataPoint) {
-            this.schema = MetadataRegistry.INSTANCE.findMetadata(modelName);
+            this(MetadataRegistry.INSTANCE.findMetadata(modelName), dataPoint);
+        }
+
+        public StorageToMeasure(MetadataRegistry.Schema schema, DataPoint dataPoint) {
+            this.schema = schema;
             this.dataPoint = dataPoint;
         }
 
@@ -37,8 +37,14 @@ import org.apache.skywalking.oap.server.library.client.healthcheck.HealthCheckab
 import org.apache.skywalking.oap.server.library.util.HealthChecker;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * BanyanDBStorageClient is a simple wrapper for the underlying {@link BanyanDBClient},
@@ -47,9 +53,23 @@ import java.util.List;
 public class BanyanDBStorageClient implements Client, HealthCheckable {
     final BanyanDBClient client;
     private final DelegatedHealthChecker healthChecker = new DelegatedHealthChecker();
+    /**
+     * Run the queries of {@link #query(List)} concurrently, null to run them one by one.
+     */
+    private final ExecutorService readExecutor;
 
-    public BanyanDBStorageClient(String host, int port) {
+    public BanyanDBStorageClient(String host, int port, int concurrentReadThreads) {
         this.client = new BanyanDBClient(host, port);
+        if (concurrentReadThreads > 1) {
+            final AtomicInteger threadIndex = new AtomicInteger();
+            this.readExecutor = Executors.newFixedThreadPool(concurrentReadThreads, r -> {
+                final Thread thread = new Thread(r, "BanyanDB-Read-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.readExecutor = null;
+        }
     }
 
     @Override
@@ -59,6 +79,9 @@ public class BanyanDBStorageClient implements Client, HealthCheckable {
 
     @Override
     public void shutdown() throws IOException {
+        if (this.readExecutor != null) {
+            this.readExecutor.shutdownNow();
+        }
         this.client.close();
     }
 
@@ -116,6 +139,40 @@ public class BanyanDBStorageClient implements Client, HealthCheckable {
         }
     }
 
+    /**
+     * Run the queries concurrently and return the responses in the same order. The client doesn't support querying
+     * multiple IDs in one request, so the ID lookups of a batch are sent together through this.
+     */
+    public List<MeasureQueryResponse> query(List<MeasureQuery> queries) throws IOException {
+        final List<MeasureQueryResponse> responses = new ArrayList<>(queries.size());
+        if (readExecutor == null || queries.size() < 2) {
+            for (final MeasureQuery q : queries) {
+                responses.add(query(q));
+            }
+            return responses;
+        }
+        final List<Future<MeasureQueryResponse>> futures = new ArrayList<>(queries.size());
+        for (final MeasureQuery q : queries) {
+            futures.add(readExecutor.submit(() -> query(q)));
+        }
+        try {
+            for (final Future<MeasureQueryResponse> future : futures) {
+                responses.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while querying measure", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException("fail to query measure", ex.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return responses;
+    }
+
     public void define(Property property) throws IOException {
         try {
             this.client.save(property);
@@ -39,6 +39,10 @@ public class BanyanDBStorageConfig extends ModuleConfig {
      * Concurrent consumer threads for batch writing.
      */
     private int concurrentWriteThreads = 2;
+    /**
+     * Concurrent threads to look up the measures by IDs, such as reading the metrics back before merging them.
+     */
+    private int concurrentReadThreads = 8;
     /**
      * Max size of {@link org.apache.skywalking.oap.server.core.query.type.ProfileTask} to be fetched
      * in a single request.
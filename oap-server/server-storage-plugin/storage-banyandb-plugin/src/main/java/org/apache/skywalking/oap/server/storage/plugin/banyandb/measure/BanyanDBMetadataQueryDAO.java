@@ -343,6 +343,10 @@ public class BanyanDBMetadataQueryDAO extends AbstractBanyanDBDAO implements IMe
         serviceInstance.setId(dataPoint.getId());
         serviceInstance.setName(dataPoint.getTagValue(InstanceTraffic.NAME));
         serviceInstance.setInstanceUUID(dataPoint.getId());
+        final Number lastPingTimeBucket = dataPoint.getTagValue(InstanceTraffic.LAST_PING_TIME_BUCKET);
+        if (lastPingTimeBucket != null) {
+            serviceInstance.setLastPingTimeBucket(lastPingTimeBucket.longValue());
+        }
 
         final String propString = dataPoint.getTagValue(InstanceTraffic.PROPERTIES);
         JsonObject properties = null;
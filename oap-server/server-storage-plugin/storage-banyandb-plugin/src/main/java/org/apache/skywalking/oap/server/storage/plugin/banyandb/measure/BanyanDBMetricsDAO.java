@@ -20,8 +20,6 @@ package org.apache.skywalking.oap.server.storage.plugin.banyandb.measure;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.banyandb.v1.client.DataPoint;
-import org.apache.skywalking.banyandb.v1.client.MeasureQuery;
-import org.apache.skywalking.banyandb.v1.client.MeasureQueryResponse;
 import org.apache.skywalking.banyandb.v1.client.MeasureWrite;
 import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
@@ -37,7 +35,9 @@ import org.apache.skywalking.oap.server.storage.plugin.banyandb.stream.AbstractB
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 public class BanyanDBMetricsDAO extends AbstractBanyanDBDAO implements IMetricsDAO {
@@ -50,33 +50,26 @@ public class BanyanDBMetricsDAO extends AbstractBanyanDBDAO implements IMetricsD
 
     @Override
     public List<Metrics> multiGet(Model model, List<Metrics> metrics) throws IOException {
-        log.info("multiGet {} from BanyanDB", model.getName());
+        log.debug("multiGet {} from BanyanDB", model.getName());
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(model.getName());
         if (schema == null) {
             throw new IOException(model.getName() + " is not registered");
         }
-        // TODO: add time range
-        List<Metrics> metricsInStorage = new ArrayList<>(metrics.size());
+        final Map<String, Long> ids = new HashMap<>(metrics.size());
         for (final Metrics missCachedMetric : metrics) {
-            MeasureQueryResponse resp = query(model.getName(), schema.getTags(), schema.getFields(), new QueryBuilder<MeasureQuery>() {
-                @Override
-                protected void apply(MeasureQuery query) {
-                    query.andWithID(missCachedMetric.id());
-                }
-            });
-            if (resp.size() == 0) {
-                continue;
-            }
-            for (final DataPoint dataPoint : resp.getDataPoints()) {
-                metricsInStorage.add(storageBuilder.storage2Entity(new BanyanDBConverter.StorageToMeasure(model.getName(), dataPoint)));
-            }
+            ids.put(missCachedMetric.id(), missCachedMetric.getTimeBucket());
+        }
+        final List<DataPoint> dataPoints = queryByIDs(model.getName(), schema.getTags(), schema.getFields(), ids);
+        List<Metrics> metricsInStorage = new ArrayList<>(dataPoints.size());
+        for (final DataPoint dataPoint : dataPoints) {
+            metricsInStorage.add(storageBuilder.storage2Entity(new BanyanDBConverter.StorageToMeasure(schema, dataPoint)));
         }
         return metricsInStorage;
     }
 
     @Override
     public InsertRequest prepareBatchInsert(Model model, Metrics metrics) throws IOException {
-        log.info("prepare to insert {}", model.getName());
+        log.debug("prepare to insert {}", model.getName());
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(model.getName());
         if (schema == null) {
             throw new IOException(model.getName() + " is not registered");
@@ -92,7 +85,7 @@ public class BanyanDBMetricsDAO extends AbstractBanyanDBDAO implements IMetricsD
 
     @Override
     public UpdateRequest prepareBatchUpdate(Model model, Metrics metrics) throws IOException {
-        log.info("prepare to update {}", model.getName());
+        log.debug("prepare to update {}", model.getName());
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(model.getName());
         if (schema == null) {
             throw new IOException(model.getName() + " is not registered");
@@ -45,9 +45,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class BanyanDBMetricsQueryDAO extends AbstractBanyanDBDAO implements IMetricsQueryDAO {
     public BanyanDBMetricsQueryDAO(BanyanDBStorageClient client) {
@@ -99,42 +99,49 @@ public class BanyanDBMetricsQueryDAO extends AbstractBanyanDBDAO implements IMet
 
     @Override
     public MetricsValues readMetricsValues(MetricsCondition condition, String valueColumnName, Duration duration) throws IOException {
-        String modelName = condition.getName();
+        return readBatchMetricsValues(Collections.singletonList(condition), valueColumnName, duration).get(0);
+    }
+
+    /**
+     * Look up the values of all the conditions in one batch.
+     */
+    @Override
+    public List<MetricsValues> readBatchMetricsValues(List<MetricsCondition> conditions, String valueColumnName, Duration duration) throws IOException {
+        String modelName = conditions.get(0).getName();
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(modelName);
         if (schema == null) {
             throw new IOException("schema is not registered");
         }
         final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
-        final List<String> ids = pointOfTimes.stream().map(pointOfTime -> {
-            String id = pointOfTime.id(condition.getEntity().buildId());
-            return id;
-        }).collect(Collectors.toList());
+        final Map<String, Long> ids = new LinkedHashMap<>(pointOfTimes.size() * conditions.size());
+        for (final MetricsCondition condition : conditions) {
+            final String entityId = condition.getEntity().buildId();
+            pointOfTimes.forEach(pointOfTime -> ids.put(pointOfTime.id(entityId), pointOfTime.getPoint()));
+        }
 
-        MetricsValues metricsValues = new MetricsValues();
-        Map<String, DataPoint> idMap = queryIDs(modelName, valueColumnName, ids);
-        if (!idMap.isEmpty()) {
+        final Map<String, DataPoint> idMap = queryIDs(modelName, valueColumnName, ids);
+        final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(modelName);
+        final List<MetricsValues> result = new ArrayList<>(conditions.size());
+        for (final MetricsCondition condition : conditions) {
+            final String entityId = condition.getEntity().buildId();
             // Label is null, because in readMetricsValues, no label parameter.
+            MetricsValues metricsValues = new MetricsValues();
             IntValues intValues = metricsValues.getValues();
-            for (String id : ids) {
+            for (final PointOfTime pointOfTime : pointOfTimes) {
+                final String id = pointOfTime.id(entityId);
                 KVInt kvInt = new KVInt();
                 kvInt.setId(id);
-                kvInt.setValue(0);
-                if (idMap.containsKey(id)) {
-                    DataPoint dataPoint = idMap.get(id);
+                DataPoint dataPoint = idMap.get(id);
+                if (dataPoint != null) {
                     kvInt.setValue(extractFieldValue(schema, valueColumnName, dataPoint));
                 } else {
-                    kvInt.setValue(ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName()));
+                    kvInt.setValue(defaultValue);
                 }
                 intValues.addKVInt(kvInt);
             }
+            result.add(metricsValues);
         }
-
-        metricsValues.setValues(
-                Util.sortValues(
-                        metricsValues.getValues(), ids, ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName()))
-        );
-
-        return metricsValues;
+        return result;
     }
 
     private long extractFieldValue(MetadataRegistry.Schema schema, String fieldName, DataPoint dataPoint) throws IOException {
@@ -154,12 +161,14 @@ public class BanyanDBMetricsQueryDAO extends AbstractBanyanDBDAO implements IMet
         final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
         String modelName = condition.getName();
         List<String> ids = new ArrayList<>(pointOfTimes.size());
+        Map<String, Long> timeBuckets = new HashMap<>(pointOfTimes.size());
         pointOfTimes.forEach(pointOfTime -> {
             String id = pointOfTime.id(condition.getEntity().buildId());
             ids.add(id);
+            timeBuckets.put(id, pointOfTime.getPoint());
         });
 
-        Map<String, DataPoint> idMap = queryIDs(modelName, valueColumnName, ids);
+        Map<String, DataPoint> idMap = queryIDs(modelName, valueColumnName, timeBuckets);
         Map<String, DataTable> dataTableMap = new HashMap<>(idMap.size());
         for (final Map.Entry<String, DataPoint> entry : idMap.entrySet()) {
             dataTableMap.put(
@@ -176,13 +185,15 @@ public class BanyanDBMetricsQueryDAO extends AbstractBanyanDBDAO implements IMet
         final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
         String modelName = condition.getName();
         List<String> ids = new ArrayList<>(pointOfTimes.size());
+        Map<String, Long> timeBuckets = new HashMap<>(pointOfTimes.size());
         pointOfTimes.forEach(pointOfTime -> {
             String id = pointOfTime.id(condition.getEntity().buildId());
             ids.add(id);
+            timeBuckets.put(id, pointOfTime.getPoint());
         });
 
         HeatMap heatMap = new HeatMap();
-        Map<String, DataPoint> idMap = queryIDs(modelName, valueColumnName, ids);
+        Map<String, DataPoint> idMap = queryIDs(modelName, valueColumnName, timeBuckets);
 
         if (idMap.isEmpty()) {
             return heatMap;
@@ -202,18 +213,10 @@ public class BanyanDBMetricsQueryDAO extends AbstractBanyanDBDAO implements IMet
         return heatMap;
     }
 
-    private Map<String, DataPoint> queryIDs(String modelName, String valueColumnName, List<String> measureIDs) throws IOException {
+    private Map<String, DataPoint> queryIDs(String modelName, String valueColumnName, Map<String, Long> measureIDs) throws IOException {
         Map<String, DataPoint> map = new HashMap<>(measureIDs.size());
-        for (final String id : measureIDs) {
-            MeasureQueryResponse resp = query(modelName, Collections.emptySet(), ImmutableSet.of(valueColumnName), new QueryBuilder<MeasureQuery>() {
-                @Override
-                protected void apply(MeasureQuery query) {
-                    query.andWithID(id);
-                }
-            });
-            if (resp.size() > 0) {
-                map.putIfAbsent(resp.getDataPoints().get(0).getId(), resp.getDataPoints().get(0));
-            }
+        for (final DataPoint dataPoint : queryByIDs(modelName, Collections.emptySet(), ImmutableSet.of(valueColumnName), measureIDs)) {
+            map.putIfAbsent(dataPoint.getId(), dataPoint);
         }
         return map;
     }
@@ -113,13 +113,13 @@ public class BanyanDBTopologyQueryDAO extends AbstractBanyanDBDAO implements ITo
         final String modelName = detectPoint == DetectPoint.SERVER ? ServiceRelationServerSideMetrics.INDEX_NAME :
                 ServiceRelationClientSideMetrics.INDEX_NAME;
         final Map<String, Call.CallDetail> callMap = new HashMap<>();
-        for (final QueryBuilder<MeasureQuery> q : queryBuilderList) {
-            MeasureQueryResponse resp = query(modelName,
+        final List<MeasureQueryResponse> responses = query(modelName,
                     ImmutableSet.of(ServiceRelationClientSideMetrics.COMPONENT_ID,
                             ServiceRelationClientSideMetrics.SOURCE_SERVICE_ID,
                             ServiceRelationClientSideMetrics.DEST_SERVICE_ID,
                             Metrics.ENTITY_ID),
-                    Collections.emptySet(), timestampRange, q);
+                    Collections.emptySet(), timestampRange, queryBuilderList);
+        for (final MeasureQueryResponse resp : responses) {
             if (resp.size() == 0) {
                 continue;
             }
@@ -172,13 +172,13 @@ public class BanyanDBTopologyQueryDAO extends AbstractBanyanDBDAO implements ITo
         final String modelName = detectPoint == DetectPoint.SERVER ? ServiceInstanceRelationServerSideMetrics.INDEX_NAME :
             ServiceInstanceRelationClientSideMetrics.INDEX_NAME;
         final Map<String, Call.CallDetail> callMap = new HashMap<>();
-        for (final QueryBuilder<MeasureQuery> q : queryBuilderList) {
-            MeasureQueryResponse resp = query(modelName,
+        final List<MeasureQueryResponse> responses = query(modelName,
                     ImmutableSet.of(ServiceInstanceRelationServerSideMetrics.COMPONENT_ID,
                             ServiceInstanceRelationServerSideMetrics.SOURCE_SERVICE_ID,
                             ServiceInstanceRelationServerSideMetrics.DEST_SERVICE_ID,
                             Metrics.ENTITY_ID),
-                    Collections.emptySet(), timestampRange, q);
+                    Collections.emptySet(), timestampRange, queryBuilderList);
+        for (final MeasureQueryResponse resp : responses) {
             if (resp.size() == 0) {
                 continue;
             }
@@ -231,12 +231,12 @@ public class BanyanDBTopologyQueryDAO extends AbstractBanyanDBDAO implements ITo
             timestampRange = new TimestampRange(TimeBucket.getTimestamp(startTB), TimeBucket.getTimestamp(endTB));
         }
         final Map<String, Call.CallDetail> callMap = new HashMap<>();
-        for (final QueryBuilder<MeasureQuery> q : queryBuilderList) {
-            MeasureQueryResponse resp = query(EndpointRelationServerSideMetrics.INDEX_NAME,
+        final List<MeasureQueryResponse> responses = query(EndpointRelationServerSideMetrics.INDEX_NAME,
                     ImmutableSet.of(EndpointRelationServerSideMetrics.DEST_ENDPOINT,
                             EndpointRelationServerSideMetrics.SOURCE_ENDPOINT,
                             Metrics.ENTITY_ID),
-                    Collections.emptySet(), timestampRange, q);
+                    Collections.emptySet(), timestampRange, queryBuilderList);
+        for (final MeasureQueryResponse resp : responses) {
             if (resp.size() == 0) {
                 continue;
             }
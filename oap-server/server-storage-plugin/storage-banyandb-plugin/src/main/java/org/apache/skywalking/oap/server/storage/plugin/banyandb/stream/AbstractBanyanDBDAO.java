@@ -19,20 +19,25 @@
 package org.apache.skywalking.oap.server.storage.plugin.banyandb.stream;
 
 import org.apache.skywalking.banyandb.v1.client.AbstractQuery;
+import org.apache.skywalking.banyandb.v1.client.DataPoint;
 import org.apache.skywalking.banyandb.v1.client.MeasureQuery;
 import org.apache.skywalking.banyandb.v1.client.MeasureQueryResponse;
 import org.apache.skywalking.banyandb.v1.client.PairQueryCondition;
 import org.apache.skywalking.banyandb.v1.client.StreamQuery;
 import org.apache.skywalking.banyandb.v1.client.StreamQueryResponse;
 import org.apache.skywalking.banyandb.v1.client.TimestampRange;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.storage.AbstractDAO;
 import org.apache.skywalking.oap.server.storage.plugin.banyandb.BanyanDBStorageClient;
 import org.apache.skywalking.oap.server.storage.plugin.banyandb.MetadataRegistry;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractBanyanDBDAO extends AbstractDAO<BanyanDBStorageClient> {
     private static final Instant UPPER_BOUND = Instant.ofEpochSecond(0, Long.MAX_VALUE);
@@ -72,6 +77,70 @@ public abstract class AbstractBanyanDBDAO extends AbstractDAO<BanyanDBStorageCli
 
     protected MeasureQueryResponse query(String modelName, Set<String> tags, Set<String> fields,
                                          TimestampRange timestampRange, QueryBuilder<MeasureQuery> builder) throws IOException {
+        return getClient().query(buildQuery(modelName, tags, fields, timestampRange, builder));
+    }
+
+    /**
+     * Send the queries of the same measure together through {@link BanyanDBStorageClient#query(List)}.
+     *
+     * @return the responses in the same order as the builders.
+     */
+    protected List<MeasureQueryResponse> query(String modelName, Set<String> tags, Set<String> fields,
+                                               TimestampRange timestampRange, List<QueryBuilder<MeasureQuery>> builders) throws IOException {
+        final List<MeasureQuery> queries = new ArrayList<>(builders.size());
+        for (final QueryBuilder<MeasureQuery> builder : builders) {
+            queries.add(buildQuery(modelName, tags, fields, timestampRange, builder));
+        }
+        return getClient().query(queries);
+    }
+
+    /**
+     * Look up the measures by IDs, each ID is looked up in the time range of its own time bucket. The lookups are sent
+     * together through {@link BanyanDBStorageClient#query(List)}.
+     *
+     * @param ids the IDs and their time buckets
+     * @return the found data points, the missing IDs are absent.
+     */
+    protected List<DataPoint> queryByIDs(String modelName, Set<String> tags, Set<String> fields,
+                                         Map<String, Long> ids) throws IOException {
+        final List<MeasureQuery> queries = new ArrayList<>(ids.size());
+        for (final Map.Entry<String, Long> id : ids.entrySet()) {
+            queries.add(buildQuery(modelName, tags, fields, timeBucketRange(id.getValue()), new QueryBuilder<MeasureQuery>() {
+                @Override
+                protected void apply(MeasureQuery query) {
+                    query.andWithID(id.getKey());
+                }
+            }));
+        }
+        final List<DataPoint> dataPoints = new ArrayList<>(ids.size());
+        for (final MeasureQueryResponse resp : getClient().query(queries)) {
+            if (resp.size() > 0) {
+                dataPoints.add(resp.getDataPoints().get(0));
+            }
+        }
+        return dataPoints;
+    }
+
+    /**
+     * @return the time range covering the given time bucket of any downsampling.
+     */
+    protected static TimestampRange timeBucketRange(long timeBucket) {
+        final long begin = TimeBucket.getTimestamp(timeBucket);
+        final long length;
+        if (TimeBucket.isSecondBucket(timeBucket)) {
+            length = TimeUnit.SECONDS.toMillis(1);
+        } else if (TimeBucket.isMinuteBucket(timeBucket)) {
+            length = TimeUnit.MINUTES.toMillis(1);
+        } else if (TimeBucket.isHourBucket(timeBucket)) {
+            length = TimeUnit.HOURS.toMillis(1);
+        } else {
+            length = TimeUnit.DAYS.toMillis(1);
+        }
+        return new TimestampRange(begin, begin + length);
+    }
+
+    private MeasureQuery buildQuery(String modelName, Set<String> tags, Set<String> fields,
+                                    TimestampRange timestampRange, QueryBuilder<MeasureQuery> builder) {
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(modelName);
         if (schema == null) {
             throw new IllegalStateException("schema is not registered");
@@ -85,7 +154,7 @@ public abstract class AbstractBanyanDBDAO extends AbstractDAO<BanyanDBStorageCli
 
         builder.apply(query);
 
-        return getClient().query(query);
+        return query;
     }
 
     protected static QueryBuilder<MeasureQuery> emptyMeasureQuery() {
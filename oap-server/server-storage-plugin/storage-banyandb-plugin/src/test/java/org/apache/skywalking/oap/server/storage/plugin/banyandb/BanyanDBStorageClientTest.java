@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.banyandb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.banyandb.v1.client.MeasureQuery;
+import org.apache.skywalking.banyandb.v1.client.MeasureQueryResponse;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class BanyanDBStorageClientTest {
+    private final Map<MeasureQuery, MeasureQueryResponse> responses = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicInteger queried = new AtomicInteger();
+    private volatile MeasureQuery failing;
+    private BanyanDBStorageClient client;
+
+    @After
+    public void tearDown() throws IOException {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentQueriesKeepOrder() throws IOException {
+        client = new StubClient(4);
+        final List<MeasureQuery> queries = queries(20);
+
+        final List<MeasureQueryResponse> result = client.query(queries);
+
+        assertEquals(queries.size(), result.size());
+        for (int i = 0; i < queries.size(); i++) {
+            assertSame(responses.get(queries.get(i)), result.get(i));
+        }
+        assertEquals(queries.size(), queried.get());
+    }
+
+    @Test
+    public void testSequentialQueriesKeepOrder() throws IOException {
+        client = new StubClient(1);
+        final List<MeasureQuery> queries = queries(5);
+
+        final List<MeasureQueryResponse> result = client.query(queries);
+
+        for (int i = 0; i < queries.size(); i++) {
+            assertSame(responses.get(queries.get(i)), result.get(i));
+        }
+    }
+
+    @Test
+    public void testConcurrentQueryFailure() {
+        client = new StubClient(4);
+        final List<MeasureQuery> queries = queries(10);
+        failing = queries.get(7);
+
+        try {
+            client.query(queries);
+            fail("the failure of a query should fail the batch");
+        } catch (IOException e) {
+            assertEquals("fail to query measure", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSequentialQueryFailure() {
+        client = new StubClient(1);
+        final List<MeasureQuery> queries = queries(3);
+        failing = queries.get(1);
+
+        try {
+            client.query(queries);
+            fail("the failure of a query should fail the batch");
+        } catch (IOException e) {
+            assertEquals("fail to query measure", e.getMessage());
+        }
+    }
+
+    private List<MeasureQuery> queries(int size) {
+        final List<MeasureQuery> queries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final MeasureQuery query = new MeasureQuery(
+                "group", "measure", Collections.emptySet(), Collections.emptySet());
+            responses.put(query, mock(MeasureQueryResponse.class));
+            queries.add(query);
+        }
+        return queries;
+    }
+
+    /**
+     * Answers the queries from {@link #responses} with random latencies, so the concurrent queries finish out of
+     * order.
+     */
+    private class StubClient extends BanyanDBStorageClient {
+        private final Random random = new Random();
+
+        StubClient(int concurrentReadThreads) {
+            super("127.0.0.1", 17912, concurrentReadThreads);
+        }
+
+        @Override
+        public MeasureQueryResponse query(MeasureQuery q) throws IOException {
+            queried.incrementAndGet();
+            try {
+                Thread.sleep(random.nextInt(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (q == failing) {
+                throw new IOException("fail to query measure");
+            }
+            return responses.get(q);
+        }
+    }
+}
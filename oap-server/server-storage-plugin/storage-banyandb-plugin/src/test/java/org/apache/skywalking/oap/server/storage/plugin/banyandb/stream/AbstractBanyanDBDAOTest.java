@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.banyandb.stream;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.banyandb.v1.client.TimestampRange;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertEquals;
+
+public class AbstractBanyanDBDAOTest {
+    @Test
+    public void testMinuteBucketRange() {
+        assertRange(202210191407L, TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @Test
+    public void testHourBucketRange() {
+        assertRange(2022101914L, TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Test
+    public void testDayBucketRange() {
+        assertRange(20221019L, TimeUnit.DAYS.toMillis(1));
+    }
+
+    @Test
+    public void testRangeEndsAtNextBucket() {
+        final TimestampRange range = AbstractBanyanDBDAO.timeBucketRange(202210192359L);
+        assertEquals(TimeBucket.getTimestamp(202210200000L), (long) Whitebox.getInternalState(range, "end"));
+    }
+
+    private static void assertRange(long timeBucket, long length) {
+        final TimestampRange range = AbstractBanyanDBDAO.timeBucketRange(timeBucket);
+        final long begin = Whitebox.getInternalState(range, "begin");
+        final long end = Whitebox.getInternalState(range, "end");
+        assertEquals(TimeBucket.getTimestamp(timeBucket), begin);
+        assertEquals(length, end - begin);
+    }
+}
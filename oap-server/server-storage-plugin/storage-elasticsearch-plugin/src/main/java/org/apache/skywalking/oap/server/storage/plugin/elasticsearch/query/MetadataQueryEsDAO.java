@@ -219,19 +219,52 @@ public class MetadataQueryEsDAO extends EsDAO implements IMetadataQueryDAO {
 
         final SearchResponse response = getClient().search(index, search.build());
 
-        List<Endpoint> endpoints = new ArrayList<>();
-        for (SearchHit searchHit : response.getHits()) {
-            Map<String, Object> sourceAsMap = searchHit.getSource();
+        return buildEndpoints(response);
+    }
 
-            final EndpointTraffic endpointTraffic =
-                new EndpointTraffic.Builder().storage2Entity(new ElasticSearchConverter.ToEntity(EndpointTraffic.INDEX_NAME, sourceAsMap));
+    @Override
+    public List<Endpoint> listEndpoints(String serviceId, long sinceTimeBucket, int limit) throws IOException {
+        final String index = IndexController.LogicIndicesRegister.getPhysicalTableName(
+            EndpointTraffic.INDEX_NAME);
 
-            Endpoint endpoint = new Endpoint();
-            endpoint.setId(endpointTraffic.id());
-            endpoint.setName(endpointTraffic.getName());
-            endpoints.add(endpoint);
+        final BoolQueryBuilder query =
+            Query.bool()
+                 .must(Query.term(EndpointTraffic.SERVICE_ID, serviceId));
+        if (sinceTimeBucket > 0) {
+            query.must(Query.range(EndpointTraffic.TIME_BUCKET).gte(sinceTimeBucket));
+        }
+        if (IndexController.LogicIndicesRegister.isPhysicalTable(EndpointTraffic.INDEX_NAME)) {
+            query.must(Query.term(IndexController.LogicIndicesRegister.METRIC_TABLE_NAME, EndpointTraffic.INDEX_NAME));
         }
+        final int batchSize = Math.min(limit, scrollingBatchSize);
+        final SearchBuilder search = Search.builder().query(query).size(batchSize);
+        final SearchParams params = new SearchParams().scroll(SCROLL_CONTEXT_RETENTION);
+        final List<Endpoint> endpoints = new ArrayList<>();
 
+        SearchResponse results = getClient().search(index, search.build(), params);
+        Set<String> scrollIds = new HashSet<>();
+        try {
+            while (true) {
+                String scrollId = results.getScrollId();
+                scrollIds.add(scrollId);
+                if (results.getHits().getTotal() == 0) {
+                    break;
+                }
+                final List<Endpoint> batch = buildEndpoints(results);
+                endpoints.addAll(batch);
+                // The last iterate, there is no more data
+                if (batch.size() < batchSize) {
+                    break;
+                }
+                // We've got enough data
+                if (endpoints.size() >= limit) {
+                    break;
+                }
+                results = getClient().scroll(SCROLL_CONTEXT_RETENTION, scrollId);
+            }
+        } finally {
+            scrollIds.forEach(getClient()::deleteScrollContextQuietly);
+        }
         return endpoints;
     }
 
@@ -376,6 +409,22 @@ public class MetadataQueryEsDAO extends EsDAO implements IMetadataQueryDAO {
         return services;
     }
 
+    private List<Endpoint> buildEndpoints(SearchResponse response) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (SearchHit searchHit : response.getHits()) {
+            Map<String, Object> sourceAsMap = searchHit.getSource();
+
+            final EndpointTraffic endpointTraffic =
+                new EndpointTraffic.Builder().storage2Entity(new ElasticSearchConverter.ToEntity(EndpointTraffic.INDEX_NAME, sourceAsMap));
+
+            Endpoint endpoint = new Endpoint();
+            endpoint.setId(endpointTraffic.id());
+            endpoint.setName(endpointTraffic.getName());
+            endpoints.add(endpoint);
+        }
+        return endpoints;
+    }
+
     private List<ServiceInstance> buildInstances(SearchResponse response) {
         List<ServiceInstance> serviceInstances = new ArrayList<>();
         for (SearchHit searchHit : response.getHits()) {
@@ -388,6 +437,7 @@ public class MetadataQueryEsDAO extends EsDAO implements IMetadataQueryDAO {
             serviceInstance.setId(instanceTraffic.id());
             serviceInstance.setName(instanceTraffic.getName());
             serviceInstance.setInstanceUUID(serviceInstance.getId());
+            serviceInstance.setLastPingTimeBucket(instanceTraffic.getLastPingTimestamp());
 
             JsonObject properties = instanceTraffic.getProperties();
             if (properties != null) {
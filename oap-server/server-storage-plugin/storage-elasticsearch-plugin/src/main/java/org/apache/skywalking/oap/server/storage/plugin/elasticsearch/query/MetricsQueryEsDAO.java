@@ -19,11 +19,11 @@
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.query;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.apache.skywalking.library.elasticsearch.requests.search.Query;
 import org.apache.skywalking.library.elasticsearch.requests.search.RangeQueryBuilder;
 import org.apache.skywalking.library.elasticsearch.requests.search.Search;
@@ -103,49 +103,65 @@ public class MetricsQueryEsDAO extends EsDAO implements IMetricsQueryDAO {
     public MetricsValues readMetricsValues(final MetricsCondition condition,
                                            final String valueColumnName,
                                            final Duration duration) {
-        final String realValueColumn = IndexController.LogicIndicesRegister.getPhysicalColumnName(condition.getName(), valueColumnName);
+        return readBatchMetricsValues(Collections.singletonList(condition), valueColumnName, duration).get(0);
+    }
+
+    /**
+     * Read the values of all the conditions through one multi-get request.
+     */
+    @Override
+    public List<MetricsValues> readBatchMetricsValues(final List<MetricsCondition> conditions,
+                                                      final String valueColumnName,
+                                                      final Duration duration) {
+        final String metricsName = conditions.get(0).getName();
+        final String realValueColumn = IndexController.LogicIndicesRegister.getPhysicalColumnName(metricsName, valueColumnName);
         String tableName =
-            IndexController.LogicIndicesRegister.getPhysicalTableName(condition.getName());
+            IndexController.LogicIndicesRegister.getPhysicalTableName(metricsName);
+        final boolean isPhysicalTable = IndexController.LogicIndicesRegister.isPhysicalTable(metricsName);
+        final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(metricsName);
         final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
         Map<String, List<String>> indexIdsGroup = new HashMap<>();
 
-        final List<String> ids = pointOfTimes.stream().map(pointOfTime -> {
-            String id = pointOfTime.id(condition.getEntity().buildId());
-            if (IndexController.LogicIndicesRegister.isPhysicalTable(condition.getName())) {
-                id = IndexController.INSTANCE.generateDocId(condition.getName(), id);
+        final List<List<String>> idsOfConditions = new ArrayList<>(conditions.size());
+        for (final MetricsCondition condition : conditions) {
+            final String entityId = condition.getEntity().buildId();
+            final List<String> ids = new ArrayList<>(pointOfTimes.size());
+            for (final PointOfTime pointOfTime : pointOfTimes) {
+                String id = pointOfTime.id(entityId);
+                if (isPhysicalTable) {
+                    id = IndexController.INSTANCE.generateDocId(metricsName, id);
+                }
+                String indexName = TimeSeriesUtils.queryIndexName(
+                    tableName, pointOfTime.getPoint(), duration.getStep(), false, false);
+                indexIdsGroup.computeIfAbsent(indexName, v -> new ArrayList<>()).add(id);
+                ids.add(id);
             }
-            String indexName = TimeSeriesUtils.queryIndexName(
-                tableName, pointOfTime.getPoint(), duration.getStep(), false, false);
-            indexIdsGroup.computeIfAbsent(indexName, v -> new ArrayList<>()).add(id);
-            return id;
-        }).collect(Collectors.toList());
+            idsOfConditions.add(ids);
+        }
 
-        MetricsValues metricsValues = new MetricsValues();
         Optional<Documents> response = getClient().ids(indexIdsGroup);
-        if (response.isPresent()) {
-            Map<String, Map<String, Object>> idMap = toMap(response.get());
+        final Map<String, Map<String, Object>> idMap =
+            response.isPresent() ? toMap(response.get()) : Collections.emptyMap();
 
+        final List<MetricsValues> result = new ArrayList<>(conditions.size());
+        for (final List<String> ids : idsOfConditions) {
             // Label is null, because in readMetricsValues, no label parameter.
+            MetricsValues metricsValues = new MetricsValues();
             IntValues intValues = metricsValues.getValues();
             for (String id : ids) {
                 KVInt kvInt = new KVInt();
                 kvInt.setId(id);
-                kvInt.setValue(0);
-                if (idMap.containsKey(id)) {
-                    Map<String, Object> source = idMap.get(id);
+                final Map<String, Object> source = idMap.get(id);
+                if (source != null) {
                     kvInt.setValue(((Number) source.getOrDefault(realValueColumn, 0)).longValue());
                 } else {
-                    kvInt.setValue(ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName()));
+                    kvInt.setValue(defaultValue);
                 }
                 intValues.addKVInt(kvInt);
             }
+            result.add(metricsValues);
         }
-        metricsValues.setValues(
-            Util.sortValues(
-                metricsValues.getValues(), ids, ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName()))
-        );
-
-        return metricsValues;
+        return result;
     }
 
     @Override
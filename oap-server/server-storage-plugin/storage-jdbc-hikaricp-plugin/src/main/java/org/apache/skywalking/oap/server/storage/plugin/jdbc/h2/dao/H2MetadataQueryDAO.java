@@ -185,6 +185,37 @@ public class H2MetadataQueryDAO implements IMetadataQueryDAO {
         return endpoints;
     }
 
+    @Override
+    public List<Endpoint> listEndpoints(String serviceId, long sinceTimeBucket, int limit) throws IOException {
+        StringBuilder sql = new StringBuilder();
+        List<Object> condition = new ArrayList<>(2);
+        sql.append("select * from ").append(EndpointTraffic.INDEX_NAME).append(" where ");
+        sql.append(EndpointTraffic.SERVICE_ID).append("=?");
+        condition.add(serviceId);
+        if (sinceTimeBucket > 0) {
+            sql.append(" and ").append(EndpointTraffic.TIME_BUCKET).append(" >= ?");
+            condition.add(sinceTimeBucket);
+        }
+        sql.append(" limit ").append(limit);
+
+        List<Endpoint> endpoints = new ArrayList<>();
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet resultSet = h2Client.executeQuery(
+                connection, sql.toString(), condition.toArray(new Object[0]))) {
+
+                while (resultSet.next()) {
+                    Endpoint endpoint = new Endpoint();
+                    endpoint.setId(resultSet.getString(H2TableInstaller.ID_COLUMN));
+                    endpoint.setName(resultSet.getString(EndpointTraffic.NAME));
+                    endpoints.add(endpoint);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+        return endpoints;
+    }
+
     @Override
     public List<Process> listProcesses(String serviceId, ProfilingSupportStatus supportStatus, long lastPingStartTimeBucket, long lastPingEndTimeBucket) throws IOException {
         StringBuilder sql = new StringBuilder();
@@ -303,6 +334,7 @@ public class H2MetadataQueryDAO implements IMetadataQueryDAO {
             serviceInstance.setId(resultSet.getString(H2TableInstaller.ID_COLUMN));
             serviceInstance.setName(resultSet.getString(InstanceTraffic.NAME));
             serviceInstance.setInstanceUUID(serviceInstance.getId());
+            serviceInstance.setLastPingTimeBucket(resultSet.getLong(InstanceTraffic.LAST_PING_TIME_BUCKET));
 
             String propertiesString = resultSet.getString(InstanceTraffic.PROPERTIES);
             if (!Strings.isNullOrEmpty(propertiesString)) {
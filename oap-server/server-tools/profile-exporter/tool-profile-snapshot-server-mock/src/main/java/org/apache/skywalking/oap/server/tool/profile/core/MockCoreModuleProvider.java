@@ -52,6 +52,7 @@ import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.HTTPHandlerRegister;
+import org.apache.skywalking.oap.server.core.server.admission.AdmissionControlInterceptor;
 import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
 import org.apache.skywalking.oap.server.core.source.SourceReceiver;
 import org.apache.skywalking.oap.server.core.storage.StorageException;
@@ -126,6 +127,7 @@ public class MockCoreModuleProvider extends CoreModuleProvider {
 
         this.registerServiceImplementation(GRPCHandlerRegister.class, new MockGRPCHandlerRegister());
         this.registerServiceImplementation(HTTPHandlerRegister.class, new MockHTTPHandlerRegister());
+        this.registerServiceImplementation(AdmissionControlInterceptor.class, new AdmissionControlInterceptor(moduleConfig));
 
         this.registerServiceImplementation(
                 IComponentLibraryCatalogService.class, new MockComponentLibraryCatalogService());